@@ -13,6 +13,7 @@
 import org.geoserver.featurestemplating.writers.TemplateOutputWriter;
 import org.geotools.api.filter.Filter;
 import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
 import org.geotools.filter.LiteralExpressionImpl;
 import org.geotools.filter.text.cql2.CQLException;
 import org.xml.sax.helpers.NamespaceSupport;
@@ -77,6 +78,9 @@ public Expression getKey() {
 
     public String getKey(TemplateBuilderContext context) {
         if (key == null) return null;
+        // static keys are the vast majority, no need to go through the converters for them
+        if (key instanceof Literal && ((Literal) key).getValue() instanceof String)
+            return (String) ((Literal) key).getValue();
         Object currentObj = context != null ? context.getCurrentObj() : null;
         return key.evaluate(currentObj, String.class);
     }
@@ -18,6 +18,7 @@
 import java.util.logging.Logger;
 import org.geotools.api.feature.Attribute;
 import org.geotools.api.feature.ComplexAttribute;
+import org.geotools.api.feature.type.ComplexType;
 import org.geotools.api.feature.type.PropertyDescriptor;
 import org.geotools.api.filter.expression.Expression;
 import org.geotools.filter.function.JsonPointerFunction;
@@ -62,11 +63,7 @@ public static Object parseWhenJSON(Expression expression, Object contextObject,
             if (contextObject instanceof ComplexAttribute) {
                 // see if there is an indication it was a JSON field
                 if (expression instanceof JsonPointerFunction
-                        || isJSONField(
-                                Optional.ofNullable(((ComplexAttribute) contextObject).getType())
-                                        .map(ct -> expression.evaluate(ct))
-                                        .filter(d -> d instanceof PropertyDescriptor)
-                                        .map(d -> (PropertyDescriptor) d))) {
+                        || isJSONField(expression, ((ComplexAttribute) contextObject).getType())) {
                     return parseJSON(result);
                 }
             } else if (result instanceof Attribute) {
@@ -83,6 +80,18 @@ public static Object parseWhenJSON(Expression expression, Object contextObject,
         return result;
     }
 
+    /**
+     * Checks if the expression points to a property of the given type that is backed by a JSON
+     * field. The outcome only depends on the type, callers can compute it once per type.
+     */
+    public static boolean isJSONField(Expression expression, ComplexType type) {
+        return isJSONField(
+                Optional.ofNullable(type)
+                        .map(ct -> expression.evaluate(ct))
+                        .filter(d -> d instanceof PropertyDescriptor)
+                        .map(d -> (PropertyDescriptor) d));
+    }
+
     /**
      * Checks if the given PropertyDescriptor is backed by a JSON field. For the time being, the
      * code supports recognition of JSON/B columns in PostgreSQL, could be expanded later.
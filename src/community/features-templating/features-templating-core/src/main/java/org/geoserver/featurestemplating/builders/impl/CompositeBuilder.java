@@ -5,8 +5,6 @@
 package org.geoserver.featurestemplating.builders.impl;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
 import org.geoserver.featurestemplating.builders.AbstractTemplateBuilder;
 import org.geoserver.featurestemplating.builders.SourceBuilder;
 import org.geoserver.featurestemplating.builders.TemplateBuilder;
@@ -64,20 +62,14 @@ protected void evaluateChildren(TemplateOutputWriter writer, TemplateBuilderCont
      */
     @Override
     public boolean canWrite(TemplateBuilderContext context) {
-        List<TemplateBuilder> filtered =
-                children.stream()
-                        .filter(b -> b instanceof DynamicValueBuilder || b instanceof SourceBuilder)
-                        .collect(Collectors.toList());
-        if (filtered.size() == children.size()) {
-            int falseCounter = 0;
-            for (TemplateBuilder b : filtered) {
-                if (b instanceof AbstractTemplateBuilder) {
-                    if (!((AbstractTemplateBuilder) b).canWrite(context)) falseCounter++;
-                }
-            }
-            if (falseCounter == filtered.size()) return false;
+        // plain loop, this runs for every feature
+        for (TemplateBuilder b : children) {
+            if (!(b instanceof DynamicValueBuilder || b instanceof SourceBuilder)) return true;
         }
-        return true;
+        for (TemplateBuilder b : children) {
+            if (((AbstractTemplateBuilder) b).canWrite(context)) return true;
+        }
+        return false;
     }
 
     @Override
@@ -16,9 +16,11 @@
 import org.geoserver.featurestemplating.writers.TemplateOutputWriter;
 import org.geotools.api.feature.Attribute;
 import org.geotools.api.feature.ComplexAttribute;
+import org.geotools.api.feature.type.ComplexType;
 import org.geotools.api.filter.expression.Expression;
 import org.geotools.feature.ComplexAttributeImpl;
 import org.geotools.filter.AttributeExpressionImpl;
+import org.geotools.filter.function.JsonPointerFunction;
 import org.geotools.util.logging.Logging;
 import org.xml.sax.helpers.NamespaceSupport;
 
@@ -33,6 +35,9 @@ public class DynamicValueBuilder extends AbstractTemplateBuilder {
 
     private boolean encodeNull = false;
 
+    /** Whether the expression points to a JSON field, for the last feature type seen */
+    private volatile JSONBinding jsonBinding;
+
     private static final Logger LOGGER = Logging.getLogger(DynamicValueBuilder.class);
 
     public DynamicValueBuilder(String key, String expression, NamespaceSupport namespaces) {
@@ -123,7 +128,7 @@ protected Object evaluateXPath(TemplateBuilderContext context) {
         try {
             Object contextObject = getContextObject(context);
             result = xpath.evaluate(contextObject);
-            result = JSONFieldSupport.parseWhenJSON(xpath, contextObject, result);
+            result = parseWhenJSON(xpath, contextObject, result);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Unable to evaluate xpath " + xpath + ". Exception: {0}", e);
         }
@@ -147,13 +152,44 @@ protected Object evaluateExpressions(Expression expression, TemplateBuilderConte
             }
             Object contextObject = context.getCurrentObj();
             result = expression.evaluate(contextObject);
-            result = JSONFieldSupport.parseWhenJSON(cql, contextObject, result);
+            result = parseWhenJSON(cql, contextObject, result);
         } catch (Exception e) {
             LOGGER.log(Level.INFO, "Unable to evaluate expression. Exception: {0}", e.getMessage());
         }
         return result;
     }
 
+    /**
+     * Same as {@link JSONFieldSupport#parseWhenJSON(Expression, Object, Object)}, but looks up the
+     * property descriptor only when the feature type changes, instead of for every feature
+     */
+    private Object parseWhenJSON(Expression expression, Object contextObject, Object result) {
+        if (contextObject instanceof ComplexAttribute
+                && !(expression instanceof JsonPointerFunction)) {
+            ComplexType type = ((ComplexAttribute) contextObject).getType();
+            JSONBinding binding = jsonBinding;
+            if (binding == null || binding.expression != expression || binding.type != type) {
+                boolean json = JSONFieldSupport.isJSONField(expression, type);
+                binding = new JSONBinding(expression, type, json);
+                jsonBinding = binding;
+            }
+            if (!binding.json) return result;
+        }
+        return JSONFieldSupport.parseWhenJSON(expression, contextObject, result);
+    }
+
+    private static class JSONBinding {
+        final Expression expression;
+        final ComplexType type;
+        final boolean json;
+
+        JSONBinding(Expression expression, ComplexType type, boolean json) {
+            this.expression = expression;
+            this.type = type;
+            this.json = json;
+        }
+    }
+
     /**
      * Check if can write the value to the output
      *
@@ -11,6 +11,7 @@
 import org.geoserver.featurestemplating.readers.TemplateReaderConfiguration;
 import org.geoserver.platform.FileWatcher;
 import org.geoserver.platform.resource.Resource;
+import org.geotools.api.feature.type.FeatureType;
 import org.geotools.util.logging.Logging;
 
 /**
@@ -24,6 +25,9 @@ public class Template {
     private FileWatcher<RootBuilder> watcher;
     private RootBuilder builderTree;
 
+    /** The last successful validation, tied to the builder tree and feature type it checked */
+    private volatile Validation validation;
+
     private static final Logger LOGGER = Logging.getLogger(Template.class);
 
     public Template(Resource templateFile, TemplateReaderConfiguration configuration) {
@@ -84,4 +88,28 @@ public void reloadTemplate() {
     public RootBuilder getRootBuilder() {
         return builderTree;
     }
+
+    /**
+     * Checks if the current builder tree has already been validated against the given feature
+     * type. The outcome is dropped when the template gets reloaded, or the feature type changes.
+     */
+    boolean isValidated(RootBuilder root, FeatureType type) {
+        Validation last = validation;
+        return type != null && last != null && last.root == root && last.type == type;
+    }
+
+    /** Records the builder tree has been successfully validated against the feature type */
+    void setValidated(RootBuilder root, FeatureType type) {
+        this.validation = new Validation(root, type);
+    }
+
+    private static class Validation {
+        final RootBuilder root;
+        final FeatureType type;
+
+        Validation(RootBuilder root, FeatureType type) {
+            this.root = root;
+            this.type = type;
+        }
+    }
 }
@@ -102,20 +102,38 @@ private RootBuilder getTemplateByIdentifier(FeatureTypeInfo typeInfo, String tem
             templateCache.put(key, template);
         }
 
-        if (root != null) {
-            TemplateValidator validator = new TemplateValidator(typeInfo);
-            boolean isValid = validator.validateTemplate(root);
-            if (!isValid) {
-                throw new RuntimeException(
-                        "Failed to validate template for feature type "
-                                + typeInfo.getName()
-                                + ". Failing attribute is "
-                                + URI.decode(validator.getFailingAttribute()));
-            }
-        }
+        if (root != null) validateTemplate(typeInfo, template, root);
         return root;
     }
 
+    /**
+     * Validates the template against the feature type, the outcome is kept along with the template
+     * so that the validation happens once per loaded template, and not on every request
+     */
+    private void validateTemplate(FeatureTypeInfo typeInfo, Template template, RootBuilder root) {
+        FeatureType featureType = getFeatureType(typeInfo);
+        if (template.isValidated(root, featureType)) return;
+        TemplateValidator validator = new TemplateValidator(typeInfo);
+        boolean isValid = validator.validateTemplate(root);
+        if (!isValid) {
+            throw new RuntimeException(
+                    "Failed to validate template for feature type "
+                            + typeInfo.getName()
+                            + ". Failing attribute is "
+                            + URI.decode(validator.getFailingAttribute()));
+        }
+        template.setValidated(root, featureType);
+    }
+
+    private FeatureType getFeatureType(FeatureTypeInfo typeInfo) {
+        try {
+            return typeInfo.getFeatureType();
+        } catch (IOException e) {
+            // let the validator report the failure
+            return null;
+        }
+    }
+
     /**
      * Extract Namespaces from given FeatureType
      *
@@ -2,8 +2,11 @@
 
 import static org.geotools.filter.capability.FunctionNameImpl.parameter;
 
+import java.util.List;
 import org.geotools.api.filter.capability.FunctionName;
+import org.geotools.api.filter.expression.Expression;
 import org.geotools.api.filter.expression.ExpressionVisitor;
+import org.geotools.api.filter.expression.Literal;
 import org.geotools.api.filter.expression.PropertyName;
 import org.geotools.filter.AttributeExpressionImpl;
 import org.geotools.filter.FunctionExpressionImpl;
@@ -22,6 +25,9 @@ public class PropertyPathFunction extends FunctionExpressionImpl implements Prop
 
     protected NamespaceSupport namespaceSupport;
 
+    /** The attribute expression bound to a literal path, if any */
+    private volatile AttributeExpressionImpl bound;
+
     public PropertyPathFunction(String propertyPath) {
         super(NAME);
         this.propertyPath = propertyPath;
@@ -33,10 +39,29 @@ public PropertyPathFunction() {
 
     @Override
     public Object evaluate(Object object) {
-        String strPropertyPath = (String) getParameters().get(0).evaluate(object);
-        AttributeExpressionImpl attributeExpression =
-                new AttributeExpressionImpl(strPropertyPath, namespaceSupport);
-        return attributeExpression.evaluate(object);
+        return getAttributeExpression(object).evaluate(object);
+    }
+
+    /**
+     * Returns the attribute expression to evaluate. When the path is a literal, as it is in
+     * templates, the expression is built once and reused, along with the property accessor it
+     * looks up on first evaluation.
+     */
+    private AttributeExpressionImpl getAttributeExpression(Object object) {
+        Expression path = getParameters().get(0);
+        AttributeExpressionImpl result = bound;
+        if (result == null || !(path instanceof Literal)) {
+            String strPropertyPath = (String) path.evaluate(object);
+            result = new AttributeExpressionImpl(strPropertyPath, namespaceSupport);
+            if (path instanceof Literal) bound = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void setParameters(List<Expression> params) {
+        super.setParameters(params);
+        this.bound = null;
     }
 
     @Override
@@ -57,6 +82,7 @@ public NamespaceSupport getNamespaceContext() {
 
     public void setNamespaceContext(NamespaceSupport namespaceContext) {
         this.namespaceSupport = namespaceContext;
+        this.bound = null;
     }
 
     @Override
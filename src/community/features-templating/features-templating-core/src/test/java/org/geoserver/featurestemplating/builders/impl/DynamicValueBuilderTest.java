@@ -184,16 +184,44 @@ public void testJSONPointer() throws Exception {
         assertEquals(Arrays.asList(1, 2, 3), obj);
     }
 
+    @Test
+    public void testBuilderReusedAcrossTypes() throws Exception {
+        // the JSON field lookup is bound to the feature type, switching types must not reuse it
+        DynamicValueBuilder builder =
+                new DynamicValueBuilder("key", "${jf}", new NamespaceSupport());
+        JSONObject json = encodeDynamic(builder, jsonFieldSimpleFeature);
+        assertEquals(1, json.getJSONObject("key").getInt("a"));
+        assertTrue(encodeDynamic(builder, roadFeatures[0]).isEmpty());
+        JSONObject complex = encodeDynamic(builder, jsonFieldComplexFeature);
+        assertEquals(1, complex.getJSONObject("key").getInt("a"));
+        JSONObject simple = encodeDynamic(builder, jsonFieldSimpleFeature);
+        assertEquals(1, simple.getJSONObject("key").getInt("a"));
+    }
+
+    @Test
+    public void testBuilderReusedAcrossFeatures() throws Exception {
+        DynamicValueBuilder builder =
+                new DynamicValueBuilder("key", "$${xpath('name')}", new NamespaceSupport());
+        for (SimpleFeature road : roadFeatures) {
+            JSONObject json = encodeDynamic(builder, road);
+            assertEquals(road.getAttribute("name"), json.getString("key"));
+        }
+    }
+
     private JSONObject encodeDynamic(String expression, Feature feature) throws IOException {
+        DynamicValueBuilder builder =
+                new DynamicValueBuilder("key", expression, new NamespaceSupport());
+        return encodeDynamic(builder, feature);
+    }
+
+    private JSONObject encodeDynamic(DynamicValueBuilder builder, Feature feature)
+            throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         GeoJSONWriter writer =
                 new GeoJSONWriter(
                         new JsonFactory().createGenerator(baos, JsonEncoding.UTF8),
                         TemplateIdentifier.JSON);
 
-        DynamicValueBuilder builder =
-                new DynamicValueBuilder("key", expression, new NamespaceSupport());
-
         writer.writeStartObject();
         builder.evaluate(writer, new TemplateBuilderContext(feature));
         writer.writeEndObject();
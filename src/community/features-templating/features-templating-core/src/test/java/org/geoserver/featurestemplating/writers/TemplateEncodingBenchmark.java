@@ -0,0 +1,165 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.featurestemplating.writers;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.featurestemplating.builders.EncodingHints;
+import org.geoserver.featurestemplating.builders.impl.RootBuilder;
+import org.geoserver.featurestemplating.builders.impl.TemplateBuilderContext;
+import org.geoserver.featurestemplating.configuration.TemplateIdentifier;
+import org.geoserver.featurestemplating.readers.JSONTemplateReader;
+import org.geoserver.featurestemplating.readers.TemplateReaderConfiguration;
+import org.geoserver.wfs.json.GeoJSONBuilder;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.xml.sax.helpers.NamespaceSupport;
+
+/**
+ * Compares the time needed to encode a set of simple features as GeoJSON with a template, and with
+ * the plain WFS GeoJSON encoding loop. The template is read once, and reused across iterations as
+ * the template loader does across requests. Not part of the test suite, run it from the IDE or
+ * with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.featurestemplating.writers.TemplateEncodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateEncodingBenchmark {
+
+    static final String TEMPLATE =
+            "{\"type\": \"FeatureCollection\", \"features\": [{"
+                    + "\"type\": \"Feature\", \"id\": \"${@id}\", \"geometry\": \"${geom}\","
+                    + "\"properties\": {\"name\": \"${name}\", \"value\": \"${value}\","
+                    + "\"count\": \"${count}\", \"label\": \"$${strConcat(name, '!')}\","
+                    + "\"source\": \"benchmark\"}}]}";
+
+    @Param({"1000", "10000"})
+    int features;
+
+    List<SimpleFeature> collection;
+
+    RootBuilder root;
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("bench");
+        tb.add("geom", Geometry.class, DefaultGeographicCRS.WGS84);
+        tb.add("name", String.class);
+        tb.add("value", Double.class);
+        tb.add("count", Integer.class);
+        SimpleFeatureType type = tb.buildFeatureType();
+
+        GeometryFactory gf = new GeometryFactory();
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        collection = new ArrayList<>();
+        for (int i = 0; i < features; i++) {
+            fb.add(gf.createPoint(new Coordinate(i % 360 - 180, i % 180 - 90)));
+            fb.add("feature" + i);
+            fb.add(i / 3d);
+            fb.add(i);
+            collection.add(fb.buildFeature("bench." + i));
+        }
+
+        JSONTemplateReader reader =
+                new JSONTemplateReader(
+                        new ObjectMapper().readTree(TEMPLATE),
+                        new TemplateReaderConfiguration(new NamespaceSupport()),
+                        Collections.emptyList());
+        root = reader.getRootBuilder();
+    }
+
+    /** Encodes the features with the template, returns the output size */
+    @Benchmark
+    public int templated() throws Exception {
+        output.reset();
+        try (GeoJSONWriter writer =
+                new GeoJSONWriter(
+                        new JsonFactory().createGenerator(output, JsonEncoding.UTF8),
+                        TemplateIdentifier.GEOJSON)) {
+            EncodingHints hints = new EncodingHints();
+            writer.startTemplateOutput(hints);
+            for (SimpleFeature feature : collection) {
+                root.evaluate(writer, new TemplateBuilderContext(feature));
+            }
+            writer.endArray(null, null);
+            writer.endTemplateOutput(hints);
+        }
+        return output.size();
+    }
+
+    /** Encodes the same content the way the plain WFS GeoJSON output does */
+    @Benchmark
+    public int plain() throws Exception {
+        output.reset();
+        try (OutputStreamWriter osw = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+            GeoJSONBuilder json = new GeoJSONBuilder(osw);
+            json.object().key("type").value("FeatureCollection");
+            json.key("features").array();
+            for (SimpleFeature feature : collection) {
+                json.object().key("type").value("Feature");
+                json.key("id").value(feature.getID());
+                json.key("geometry");
+                json.writeGeom((Geometry) feature.getDefaultGeometry());
+                json.key("properties").object();
+                json.key("name").value(feature.getAttribute("name"));
+                json.key("value").value(feature.getAttribute("value"));
+                json.key("count").value(feature.getAttribute("count"));
+                json.key("label").value(feature.getAttribute("name") + "!");
+                json.key("source").value("benchmark");
+                json.endObject().endObject();
+            }
+            json.endArray().endObject();
+        }
+        return output.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(TemplateEncodingBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -13,10 +13,8 @@
 import static org.geoserver.catalog.Predicates.and;
 import static org.geoserver.catalog.Predicates.equal;
 import static org.geoserver.catalog.Predicates.isNull;
-import static org.geoserver.jdbcconfig.internal.DbUtils.logStatement;
 import static org.geoserver.jdbcconfig.internal.DbUtils.params;
 
-import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
@@ -43,8 +41,10 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -52,6 +52,8 @@
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -125,6 +127,7 @@
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
@@ -152,6 +155,12 @@
  * proxy around the object). To avoid deadlocks there, the {@link ConfigDatabase} also loads itself
  * from the application context, with full transactional proxying, and uses that instance for
  * deferred loading while iterating.
+ *
+ * <p>When iterating, the objects missing from the cache are loaded in batches of {@link
+ * JDBCConfigProperties#getBatchSize()} with a single query each, rather than one query per
+ * object, and the objects they reference (e.g., the resource, store, workspace and default style
+ * of a layer) are prefetched the same way. The round trips are counted in {@link
+ * #getStatistics()}.
  */
 public class ConfigDatabase implements ApplicationContextAware {
 
@@ -159,6 +168,18 @@ public class ConfigDatabase implements ApplicationContextAware {
 
     private static final int LOCK_TIMEOUT_SECONDS = 60;
 
+    /** Default number of objects loaded by a single query */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /** Upper limit of the batch size, Oracle does not allow more than 1000 values in a IN list */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    /** How many levels of references are followed when prefetching, from layers to workspaces */
+    static final int MAX_PREFETCH_DEPTH = 3;
+
+    /** Number of stripes the modification counters are split into */
+    static final int GENERATION_STRIPES = 256;
+
     private Dialect dialect;
 
     private JDBCLoaderProperties properties;
@@ -185,10 +206,29 @@ public class ConfigDatabase implements ApplicationContextAware {
 
     private InfoRowMapper<Info> configRowMapper;
 
+    /** Maps the blob in the second column of the batch queries, the id being in the first */
+    private InfoRowMapper<CatalogInfo> batchRowMapper;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private boolean prefetch = true;
+
+    private final ConfigDatabaseStatistics statistics = new ConfigDatabaseStatistics();
+
     private ConfigClearingListener configListener;
 
     private ConcurrentMap<String, Semaphore> locks;
 
+    /**
+     * Modification counters, striped by id, bumped whenever an object is modified or invalidated.
+     * Objects loaded outside of their id lock are cached only if the counter did not change since
+     * before the load.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /** Bumped whenever the whole cache is cleared, see {@link #generations} */
+    private final AtomicLong clearGeneration = new AtomicLong();
+
     // transaction management works only if the method
     // is called from a Spring proxy that processed the annotations,
     // so we cannot call getId directly, it needs to be done from
@@ -222,6 +262,12 @@ public ConfigDatabase(
 
         this.catalogRowMapper = new InfoRowMapper<CatalogInfo>(CatalogInfo.class, binding);
         this.configRowMapper = new InfoRowMapper<Info>(Info.class, binding);
+        this.batchRowMapper = new InfoRowMapper<CatalogInfo>(CatalogInfo.class, binding, 2);
+        if (properties instanceof JDBCConfigProperties) {
+            JDBCConfigProperties jdbcConfigProperties = (JDBCConfigProperties) properties;
+            setBatchSize(jdbcConfigProperties.getBatchSize());
+            setPrefetch(jdbcConfigProperties.isPrefetch());
+        }
 
         if (cacheProvider == null) {
             cacheProvider = DefaultCacheProvider.findProvider();
@@ -299,6 +345,37 @@ public GeoServer getGeoServer() {
         return geoServer;
     }
 
+    /**
+     * Sets the maximum number of objects loaded by a single query while iterating, 1 or less
+     * loads them one by one. Capped to {@value #MAX_BATCH_SIZE}.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.min(batchSize, MAX_BATCH_SIZE);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /** Sets whether the objects referenced by the ones being loaded in batches are prefetched */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /** Returns the round trip and loading statistics */
+    public ConfigDatabaseStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void logStatement(CharSequence sql, Map<String, ?> namedParameters) {
+        statistics.statement();
+        DbUtils.logStatement(sql, namedParameters);
+    }
+
     public <T extends CatalogInfo> int count(final Class<T> of, final Filter filter) {
 
         QueryBuilder<T> sqlBuilder = QueryBuilder.forCount(dialect, of, dbMappings).filter(filter);
@@ -357,6 +434,7 @@ public <T extends Info> CloseableIterator<T> query(
         checkArgument(offset == null || offset.intValue() >= 0);
         checkArgument(limit == null || limit.intValue() >= 0);
 
+        final long startStatements = statistics.getThreadStatements();
         QueryBuilder<T> sqlBuilder =
                 QueryBuilder.forIds(dialect, of, dbMappings)
                         .filter(filter)
@@ -417,21 +495,11 @@ public String mapRow(ResultSet rs, int rowNum) throws SQLException {
             }
         }
 
-        List<T> lazyTransformed =
-                Lists.transform(
-                        ids,
-                        new Function<String, T>() {
-                            @Nullable
-                            @Override
-                            public T apply(String id) {
-                                return getById(id, of);
-                            }
-                        });
-
         CloseableIterator<T> result;
         Iterator<T> iterator =
                 Iterators.filter(
-                        lazyTransformed.iterator(), com.google.common.base.Predicates.notNull());
+                        new BatchLoadingIterator<T>(ids, of, startStatements),
+                        com.google.common.base.Predicates.notNull());
 
         if (sqlBuilder.isFullySupported()) {
             result = new CloseableIteratorAdapter<T>(iterator);
@@ -1295,6 +1363,7 @@ private <T extends ServiceInfo> void resolveTransient(T real) {
             readOnly = true)
     public <T extends Info> List<T> getAll(final Class<T> clazz) {
 
+        final long startStatements = statistics.getThreadStatements();
         Map<String, ?> params = params("types", typesParam(clazz));
 
         final String sql = "SELECT id FROM object WHERE type_id IN (:types) ORDER BY id";
@@ -1307,18 +1376,10 @@ public <T extends Info> List<T> getAll(final Class<T> clazz) {
             LOGGER.fine("query returned " + ids.size() + " records in " + sw);
         }
 
-        List<T> transformed =
-                Lists.transform(
-                        ids,
-                        new Function<String, T>() {
-                            @Nullable
-                            @Override
-                            public T apply(String input) {
-                                return getById(input, clazz);
-                            }
-                        });
-        Iterable<T> filtered =
-                Iterables.filter(transformed, com.google.common.base.Predicates.notNull());
+        Iterator<T> filtered =
+                Iterators.filter(
+                        new BatchLoadingIterator<T>(ids, clazz, startStatements),
+                        com.google.common.base.Predicates.notNull());
         return ImmutableList.copyOf(filtered);
     }
 
@@ -1354,6 +1415,7 @@ public void setDefault(final String key, @Nullable final String id) {
     }
 
     public void dispose() {
+        clearGeneration.incrementAndGet();
         cache.invalidateAll();
         cache.cleanUp();
         identityCache.invalidateAll();
@@ -1393,6 +1455,7 @@ public CatalogInfo call() throws Exception {
     public CatalogInfo loadCatalog(String id) {
 
         CatalogInfo info;
+        statistics.singleLoad();
         try {
             String sql = "SELECT blob FROM object WHERE id = :id";
             Map<String, String> params = ImmutableMap.of("id", id);
@@ -1404,6 +1467,180 @@ public CatalogInfo loadCatalog(String id) {
         return info;
     }
 
+    /**
+     * Loads the given catalog objects, with one query per {@link #getBatchSize() batch}. Objects
+     * that do not exist are missing from the result.
+     */
+    @Transactional(
+            transactionManager = "jdbcConfigTransactionManager",
+            propagation = Propagation.REQUIRED,
+            readOnly = true)
+    public Map<String, CatalogInfo> loadCatalogs(Collection<String> ids) {
+        final Map<String, CatalogInfo> result = new HashMap<>();
+        final String sql = "SELECT id, blob FROM object WHERE id IN (:ids)";
+        for (List<String> batch : Iterables.partition(ids, Math.max(1, batchSize))) {
+            Map<String, ?> params = params("ids", batch);
+            logStatement(sql, params);
+            template.query(
+                    sql,
+                    params,
+                    new RowCallbackHandler() {
+                        @Override
+                        public void processRow(ResultSet rs) throws SQLException {
+                            result.put(rs.getString(1), batchRowMapper.mapRow(rs, 0));
+                        }
+                    });
+            statistics.batchLoad(batch.size());
+        }
+        return result;
+    }
+
+    /**
+     * Loads the catalog objects missing from the cache with as few queries as possible and caches
+     * them, then does the same with the objects they reference, if prefetching is enabled. Objects
+     * locked for modification are not cached, as in {@link #getById(String, Class)}. This is a
+     * best effort, on failure the objects are left to be loaded one by one.
+     */
+    void prefetch(Collection<String> ids) {
+        Set<String> pending = new LinkedHashSet<>(ids);
+        for (int depth = 0; depth <= MAX_PREFETCH_DEPTH; depth++) {
+            pending.removeIf(id -> cache.getIfPresent(id) != null);
+            if (pending.isEmpty()) {
+                return;
+            }
+            // the loads happen outside of the id locks, record the state before loading
+            Map<String, Long> expected = new HashMap<>();
+            for (String id : pending) {
+                expected.put(id, generation(id));
+            }
+            Map<String, CatalogInfo> loaded;
+            try {
+                loaded = transactionalConfigDatabase.loadCatalogs(pending);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Batch load failed, loading objects one by one", e);
+                return;
+            }
+            Set<String> referenced = new LinkedHashSet<>();
+            for (Map.Entry<String, CatalogInfo> entry : loaded.entrySet()) {
+                Long generation = expected.get(entry.getKey());
+                if (generation != null) {
+                    cacheLoaded(entry.getKey(), entry.getValue(), generation);
+                }
+                if (prefetch) {
+                    addReferences(entry.getValue(), referenced);
+                }
+            }
+            pending = referenced;
+        }
+    }
+
+    /**
+     * Caches an object loaded outside of its id lock, unless it has been modified or invalidated
+     * since the load started
+     */
+    private void cacheLoaded(String id, CatalogInfo info, long expectedGeneration) {
+        Semaphore lock = locks.computeIfAbsent(id, x -> new Semaphore(1));
+        if (lock.tryAcquire()) {
+            try {
+                if (generation(id) == expectedGeneration) {
+                    cache.asMap().putIfAbsent(id, info);
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /** Returns the modification counter for the given id */
+    private long generation(String id) {
+        // both counters only grow, their sum changes whenever either does
+        return clearGeneration.get() + generations.get(stripe(id));
+    }
+
+    private void bumpGeneration(String id) {
+        generations.incrementAndGet(stripe(id));
+    }
+
+    private static int stripe(String id) {
+        return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+    }
+
+    /** Collects the ids of the objects needed to resolve the given one */
+    private void addReferences(CatalogInfo info, Set<String> ids) {
+        if (info instanceof LayerInfo) {
+            addReference(((LayerInfo) info).getResource(), ids);
+            addReference(((LayerInfo) info).getDefaultStyle(), ids);
+        } else if (info instanceof ResourceInfo) {
+            addReference(((ResourceInfo) info).getStore(), ids);
+            addReference(((ResourceInfo) info).getNamespace(), ids);
+        } else if (info instanceof StoreInfo) {
+            addReference(((StoreInfo) info).getWorkspace(), ids);
+        } else if (info instanceof StyleInfo) {
+            addReference(((StyleInfo) info).getWorkspace(), ids);
+        } else if (info instanceof LayerGroupInfo) {
+            addReference(((LayerGroupInfo) info).getWorkspace(), ids);
+        }
+    }
+
+    private void addReference(@Nullable CatalogInfo reference, Set<String> ids) {
+        if (reference != null && reference.getId() != null) {
+            ids.add(reference.getId());
+        }
+    }
+
+    /**
+     * Resolves the ids into objects while iterating, prefetching the catalog objects a batch at a
+     * time. Returns null for the objects that cannot be found, as {@link #getById(String, Class)}
+     * does.
+     */
+    private final class BatchLoadingIterator<T extends Info> implements Iterator<T> {
+
+        private final List<String> ids;
+
+        private final Class<T> type;
+
+        private final boolean batched;
+
+        private final long startStatements;
+
+        private int next;
+
+        BatchLoadingIterator(List<String> ids, Class<T> type, long startStatements) {
+            this.ids = ids;
+            this.type = type;
+            this.startStatements = startStatements;
+            this.batched =
+                    batchSize > 1 && ids.size() > 1 && CatalogInfo.class.isAssignableFrom(type);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < ids.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (batched && next % batchSize == 0) {
+                prefetch(ids.subList(next, Math.min(ids.size(), next + batchSize)));
+            }
+            T info = getById(ids.get(next++), type);
+            if (!hasNext() && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(
+                        "Loaded "
+                                + ids.size()
+                                + " "
+                                + type.getSimpleName()
+                                + " with "
+                                + (statistics.getThreadStatements() - startStatements)
+                                + " round trips");
+            }
+            return info;
+        }
+    }
+
     private final class IdentityLoader implements Callable<String> {
 
         private final InfoIdentity identity;
@@ -1575,6 +1812,7 @@ public Info call() throws Exception {
             readOnly = true)
     public Info loadConfig(String id) {
         Info info;
+        statistics.singleLoad();
         try {
             String sql = "SELECT blob FROM object WHERE id = :id";
             Map<String, String> params = ImmutableMap.of("id", id);
@@ -1617,6 +1855,7 @@ public boolean canSort(Class<? extends CatalogInfo> type, String propertyName) {
     }
 
     public void clearCache() {
+        clearGeneration.incrementAndGet();
         cache.invalidateAll();
         serviceCache.invalidateAll();
     }
@@ -1629,10 +1868,13 @@ public void clearCache(Info info) {
             disposeServiceCache();
         }
         identityCache.invalidateAll(InfoIdentities.get().getIdentities(info));
+        bumpGeneration(info.getId());
         cache.invalidate(info.getId());
     }
 
     public void clearCacheIfPresent(String id) {
+        // a prefetch might be loading it right now
+        bumpGeneration(id);
         Info info = cache.getIfPresent(id);
         if (info != null) {
             clearCache(info);
@@ -1641,6 +1883,7 @@ public void clearCacheIfPresent(String id) {
 
     void updateCache(Info info) {
         info = ModificationProxy.unwrap(info);
+        bumpGeneration(info.getId());
         cache.put(info.getId(), info);
         List<InfoIdentity> identities = InfoIdentities.get().getIdentities(info);
         for (InfoIdentity identity : identities) {
@@ -1700,6 +1943,7 @@ public <T extends Info> String getId(Class<T> type, Filter filter)
     }
 
     private void acquireWriteLock(String id) {
+        bumpGeneration(id);
         Semaphore lock = locks.computeIfAbsent(id, x -> new Semaphore(1));
         try {
             if (!lock.tryAcquire(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
@@ -0,0 +1,88 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jdbcconfig.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the database round trips made by {@link ConfigDatabase}, and how the objects have been
+ * loaded, one by one or in batches. The round trips are also tracked for the current thread, so
+ * that the cost of a single catalog call can be measured.
+ */
+public class ConfigDatabaseStatistics {
+
+    private final LongAdder statements = new LongAdder();
+
+    private final LongAdder singleLoads = new LongAdder();
+
+    private final LongAdder batchLoads = new LongAdder();
+
+    private final LongAdder batchLoadedObjects = new LongAdder();
+
+    private final ThreadLocal<long[]> threadStatements = ThreadLocal.withInitial(() -> new long[1]);
+
+    void statement() {
+        statements.increment();
+        threadStatements.get()[0]++;
+    }
+
+    void singleLoad() {
+        singleLoads.increment();
+    }
+
+    void batchLoad(int objects) {
+        batchLoads.increment();
+        batchLoadedObjects.add(objects);
+    }
+
+    /** The total number of statements run against the database */
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    /**
+     * The number of statements run by the current thread so far, the difference between two calls
+     * gives the round trips made in between
+     */
+    public long getThreadStatements() {
+        return threadStatements.get()[0];
+    }
+
+    /** The number of objects loaded with a query of their own */
+    public long getSingleLoads() {
+        return singleLoads.sum();
+    }
+
+    /** The number of queries loading multiple objects at once */
+    public long getBatchLoads() {
+        return batchLoads.sum();
+    }
+
+    /** The number of objects loaded by the batch queries */
+    public long getBatchLoadedObjects() {
+        return batchLoadedObjects.sum();
+    }
+
+    /** Resets the global counters, the per thread ones are left untouched */
+    public void reset() {
+        statements.reset();
+        singleLoads.reset();
+        batchLoads.reset();
+        batchLoadedObjects.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigDatabaseStatistics[statements="
+                + getStatements()
+                + ", singleLoads="
+                + getSingleLoads()
+                + ", batchLoads="
+                + getBatchLoads()
+                + ", batchLoadedObjects="
+                + getBatchLoadedObjects()
+                + "]";
+    }
+}
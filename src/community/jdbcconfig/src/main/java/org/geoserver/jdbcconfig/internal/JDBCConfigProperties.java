@@ -23,4 +23,29 @@ public boolean isRepopulate() {
     public void setRepopulate(boolean initdb) {
         setProperty("repopulate", String.valueOf(initdb));
     }
+
+    /**
+     * The maximum number of objects loaded by a single query when listing catalog objects, 1
+     * loads them one by one
+     */
+    public int getBatchSize() {
+        return Integer.parseInt(
+                getProperty("batchSize", String.valueOf(ConfigDatabase.DEFAULT_BATCH_SIZE)));
+    }
+
+    public void setBatchSize(int batchSize) {
+        setProperty("batchSize", String.valueOf(batchSize));
+    }
+
+    /**
+     * Whether the objects referenced by the listed ones (e.g. the resource, store, workspace and
+     * default style of a layer) are loaded in batches along with them
+     */
+    public boolean isPrefetch() {
+        return Boolean.parseBoolean(getProperty("prefetch", "true"));
+    }
+
+    public void setPrefetch(boolean prefetch) {
+        setProperty("prefetch", String.valueOf(prefetch));
+    }
 }
@@ -0,0 +1,139 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jdbcconfig.internal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.impl.DataStoreInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.LayerInfoImpl;
+import org.geoserver.catalog.impl.NamespaceInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.jdbcconfig.JDBCConfigTestSupport;
+import org.geotools.api.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the time needed to list all the layers of a H2 backed catalog with a cold cache,
+ * loading them one by one, in batches, and in batches with the referenced objects prefetched. Not
+ * part of the test suite, populating the database takes a while, run it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.jdbcconfig.internal.ConfigDatabaseBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigDatabaseBenchmark {
+
+    @Param({"1000", "50000"})
+    int layers;
+
+    /** "single" loads one by one, "batch" without prefetching, "prefetch" with */
+    @Param({"single", "batch", "prefetch"})
+    String loading;
+
+    JDBCConfigTestSupport testSupport;
+
+    ConfigDatabase database;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        testSupport =
+                new JDBCConfigTestSupport(
+                        new JDBCConfigTestSupport.DBConfig(
+                                "h2",
+                                "org.h2.Driver",
+                                "jdbc:h2:file:${DATA_DIR}/geoserver",
+                                "sa",
+                                ""));
+        testSupport.setUp();
+        database = testSupport.getDatabase();
+        ConfigDatabase.LOGGER.setLevel(java.util.logging.Level.WARNING);
+        populate();
+
+        database.setBatchSize("single".equals(loading) ? 1 : ConfigDatabase.DEFAULT_BATCH_SIZE);
+        database.setPrefetch("prefetch".equals(loading));
+    }
+
+    private void populate() {
+        Catalog catalog = database.getCatalog();
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId("ws");
+        ws.setName("ws");
+        database.add(ws);
+        NamespaceInfoImpl ns = new NamespaceInfoImpl();
+        ns.setId("ns");
+        ns.setPrefix("ws");
+        ns.setURI("http://geoserver.org/ws");
+        database.add(ns);
+        DataStoreInfoImpl ds = new DataStoreInfoImpl(catalog);
+        ds.setId("ds");
+        ds.setName("ds");
+        ds.setWorkspace(ws);
+        database.add(ds);
+
+        for (int i = 0; i < layers; i++) {
+            FeatureTypeInfoImpl ft = new FeatureTypeInfoImpl(catalog);
+            ft.setId("ft" + i);
+            ft.setName("ft" + i);
+            ft.setNamespace(ns);
+            ft.setStore(ds);
+            database.add(ft);
+            LayerInfoImpl layer = new LayerInfoImpl();
+            layer.setId("layer" + i);
+            layer.setResource(ft);
+            database.add(layer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.out.println(database.getStatistics());
+        testSupport.tearDown();
+    }
+
+    /** Lists the layers with a cold cache, returns the number of layers found */
+    @Benchmark
+    public int listLayers() {
+        database.clearCache();
+        List<LayerInfo> result =
+                database.queryAsList(LayerInfo.class, Filter.INCLUDE, null, null, null);
+        for (LayerInfo layer : result) {
+            layer.getResource().getStore().getWorkspace();
+        }
+        return result.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(ConfigDatabaseBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
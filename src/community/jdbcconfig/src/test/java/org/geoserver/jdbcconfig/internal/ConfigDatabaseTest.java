@@ -75,6 +75,7 @@
 import org.geoserver.ows.util.OwsUtils;
 import org.geoserver.wms.WMSInfo;
 import org.geoserver.wms.WMSInfoImpl;
+import org.geotools.api.filter.Filter;
 import org.geotools.api.util.ProgressListener;
 import org.geotools.ows.wmts.WebMapTileServer;
 import org.geotools.ows.wmts.model.WMTSCapabilities;
@@ -389,6 +390,82 @@ public void reloaded() {}
         assertEquals("rs2", layer2.getResource().getName());
     }
 
+    @Test
+    public void testBatchLoading() throws Exception {
+        addLayers();
+        database.clearCache();
+        database.getStatistics().reset();
+        long start = database.getStatistics().getThreadStatements();
+
+        List<LayerInfo> layers =
+                database.queryAsList(LayerInfo.class, Filter.INCLUDE, null, null, null);
+        assertEquals(2, layers.size());
+        for (LayerInfo layer : layers) {
+            assertEquals("ws1", layer.getResource().getStore().getWorkspace().getName());
+        }
+        // layers, resources, store and namespace, workspace, each with a single query
+        ConfigDatabaseStatistics statistics = database.getStatistics();
+        assertEquals(0, statistics.getSingleLoads());
+        assertEquals(4, statistics.getBatchLoads());
+        assertEquals(7, statistics.getBatchLoadedObjects());
+        assertEquals(statistics.getStatements(), statistics.getThreadStatements() - start);
+    }
+
+    @Test
+    public void testBatchLoadingNoPrefetch() throws Exception {
+        addLayers();
+        database.clearCache();
+        database.getStatistics().reset();
+        database.setPrefetch(false);
+        try {
+            List<LayerInfo> layers = database.getAll(LayerInfo.class);
+            assertEquals(2, layers.size());
+            for (LayerInfo layer : layers) {
+                assertEquals("ws1", layer.getResource().getStore().getWorkspace().getName());
+            }
+            // the layers in one query, the rest one by one
+            ConfigDatabaseStatistics statistics = database.getStatistics();
+            assertEquals(1, statistics.getBatchLoads());
+            assertEquals(2, statistics.getBatchLoadedObjects());
+            assertTrue(statistics.getSingleLoads() > 0);
+        } finally {
+            database.setPrefetch(true);
+        }
+    }
+
+    @Test
+    public void testBatchLoadingDisabled() throws Exception {
+        addLayers();
+        database.clearCache();
+        database.getStatistics().reset();
+        database.setBatchSize(1);
+        try {
+            List<LayerInfo> layers =
+                    database.queryAsList(LayerInfo.class, Filter.INCLUDE, null, null, null);
+            assertEquals(2, layers.size());
+            assertEquals(0, database.getStatistics().getBatchLoads());
+            assertTrue(database.getStatistics().getSingleLoads() >= 2);
+        } finally {
+            database.setBatchSize(ConfigDatabase.DEFAULT_BATCH_SIZE);
+        }
+    }
+
+    /** Adds two layers sharing the same store */
+    private void addLayers() {
+        LayerInfo layer = addLayer();
+        ResourceInfo ri = new FeatureTypeInfoImpl(database.getCatalog());
+        ((FeatureTypeInfoImpl) ri).setId("resourceid2");
+        ri.setNamespace(layer.getResource().getNamespace());
+        ri.setName("ri2");
+        ri.setStore(layer.getResource().getStore());
+        ri = database.add(ri);
+
+        LayerInfo li = new LayerInfoImpl();
+        ((LayerInfoImpl) li).setId("layerid2");
+        li.setResource(ri);
+        database.add(li);
+    }
+
     @Test
     public void testCacheConfig() throws Exception {
         // Simulates the situation where multiple GeoServer instances are sharing a database.
@@ -21,6 +21,7 @@
 import org.geoserver.jdbcstore.cache.ResourceCache;
 import org.geoserver.jdbcstore.internal.JDBCDirectoryStructure;
 import org.geoserver.jdbcstore.internal.JDBCResourceStoreProperties;
+import org.geoserver.jdbcstore.internal.JDBCResourceStoreStatistics;
 import org.geoserver.platform.resource.LockProvider;
 import org.geoserver.platform.resource.NullLockProvider;
 import org.geoserver.platform.resource.Paths;
@@ -441,4 +442,9 @@ public void close() throws IOException {
     public ResourceNotificationDispatcher getResourceNotificationDispatcher() {
         return resourceNotificationDispatcher;
     }
+
+    /** Database round trips and cache hits of the underlying directory structure */
+    public JDBCResourceStoreStatistics getStatistics() {
+        return dir.getStatistics();
+    }
 }
@@ -7,20 +7,26 @@
 import static org.geoserver.jdbcstore.internal.JDBCQueryHelper.*;
 
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.sql.DataSource;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.lang3.ArrayUtils;
 import org.geoserver.platform.resource.Paths;
 import org.geoserver.platform.resource.ResourceListener;
@@ -57,12 +63,24 @@ public class JDBCDirectoryStructure {
     protected static final Field<Boolean> DIRECTORY =
             new Field<Boolean>("directory", "content IS NULL AS directory", TYPE_BOOLEAN);
 
+    /** Largest resource kept in the content cache, bigger ones are always read from the database */
+    static final int MAX_CACHED_CONTENT = 1024 * 1024;
+
     private JDBCResourceStoreProperties config;
 
     private JDBCQueryHelper helper;
 
+    private JDBCResourceStoreStatistics statistics = new JDBCResourceStoreStatistics();
+
     Cache<ArrayList<String>, EntryMetaData> entryCache;
 
+    /** Contents of the small resources by oid, validated against the entry last modified date */
+    Cache<Integer, CachedContent> contentCache;
+
+    private int maxCachedContent;
+
+    private ResourceChangeLog changeLog;
+
     private ResourceNotificationDispatcher resourceNotificationDispatcher;
 
     private static class EntryMetaData implements Serializable {
@@ -73,6 +91,53 @@ private static class EntryMetaData implements Serializable {
         public Timestamp lastModified;
     }
 
+    private static class CachedContent {
+        final Timestamp lastModified;
+        final byte[] content;
+
+        CachedContent(Timestamp lastModified, byte[] content) {
+            this.lastModified = lastModified;
+            this.content = content;
+        }
+    }
+
+    /** Keeps a copy of the bytes written through it, as long as they do not exceed the limit */
+    private static class ContentCapture extends ByteArrayOutputStream {
+        private final int limit;
+
+        private boolean overflow;
+
+        ContentCapture(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (fits(1)) {
+                super.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (fits(len)) {
+                super.write(b, off, len);
+            }
+        }
+
+        private boolean fits(int len) {
+            if (!overflow && count + len > limit) {
+                overflow = true;
+                reset();
+            }
+            return !overflow;
+        }
+
+        boolean isOverflow() {
+            return overflow;
+        }
+    }
+
     /** Resource/Directory entry in the database. */
     public class Entry {
 
@@ -85,7 +150,7 @@ protected Entry(ArrayList<String> path) {
         @SuppressWarnings("unchecked")
         protected <T> T getValue(Field<T> prop) {
             Map<String, Object> record =
-                    helper.selectQuery(TABLE_RESOURCES, new PathSelector(path), prop);
+                    helper.selectQuery(TABLE_RESOURCES, selector(path, getMetadata(path)), prop);
             return record == null ? null : (T) record.get(prop.getFieldName());
         }
 
@@ -146,11 +211,16 @@ public boolean delete() {
                 return false;
             }
 
+            if (contentCache != null) {
+                contentCache.invalidate(md.oid);
+            }
+
             md.oid = null;
             md.dir = null;
             md.lastModified = null;
 
             entryCache.put(path, md);
+            logChange(path);
 
             return true;
         }
@@ -211,42 +281,111 @@ public boolean renameTo(Entry dest) {
             md.lastModified = null;
 
             entryCache.put(path, md);
+            logChange(path);
+            logChange(dest.path);
 
             return true;
         }
 
         public InputStream getContent() {
-            InputStream is = helper.blobQuery(TABLE_RESOURCES, new PathSelector(path), CONTENT);
+            EntryMetaData md = getMetadata(path);
+            boolean cacheable = contentCache != null && md.oid != null;
+            if (cacheable) {
+                CachedContent cached = contentCache.getIfPresent(md.oid);
+                if (cached != null && Objects.equals(cached.lastModified, md.lastModified)) {
+                    statistics.contentHit();
+                    return new ByteArrayInputStream(cached.content);
+                }
+                statistics.contentMiss();
+            }
+            InputStream is = helper.blobQuery(TABLE_RESOURCES, selector(path, md), CONTENT);
             if (is == null) {
                 throw new IllegalStateException("Could not find content for entry " + toString());
             }
-            return is;
+            return cacheable ? cacheContent(md, is) : is;
+        }
+
+        /**
+         * Reads the content up to the cacheable size, caches it if it has been read in full,
+         * otherwise returns what was read followed by the rest of the stream
+         */
+        private InputStream cacheContent(EntryMetaData md, InputStream is) {
+            try {
+                // grows with the content, rather than allocating the maximum size upfront
+                ByteArrayOutputStream head = new ByteArrayOutputStream();
+                long read = IOUtils.copyLarge(is, head, 0, maxCachedContent + 1);
+                if (read > maxCachedContent) {
+                    return new SequenceInputStream(
+                            new ByteArrayInputStream(head.toByteArray()), is);
+                }
+                is.close();
+                byte[] content = head.toByteArray();
+                contentCache.put(md.oid, new CachedContent(md.lastModified, content));
+                return new ByteArrayInputStream(content);
+            } catch (IOException e) {
+                try {
+                    is.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw new IllegalStateException(
+                        "Could not read content for entry " + toString(), e);
+            }
         }
 
         public void setContent(InputStream is) {
             EntryMetaData md = getMetadata(path);
             md.lastModified = new Timestamp(System.currentTimeMillis());
+            ContentCapture capture = null;
+            if (contentCache != null && md.oid != null) {
+                // write-through, keep what the database receives for the next reads
+                capture = new ContentCapture(maxCachedContent);
+                is = new TeeInputStream(is, capture);
+            }
             if (helper.updateQuery(
                             TABLE_RESOURCES,
-                            new PathSelector(path),
+                            selector(path, md),
                             new Assignment<InputStream>(CONTENT, is),
                             new Assignment<Timestamp>(LAST_MODIFIED, md.lastModified))
                     <= 0) {
                 LOGGER.warning("Unable to write content to entry " + toString());
+                capture = null;
             }
-            List<String> parentPath = path;
-            while (!parentPath.isEmpty()) {
-                parentPath = parentPath.subList(0, parentPath.size() - 1);
-                if (helper.updateQuery(
-                                TABLE_RESOURCES,
-                                new PathSelector(parentPath),
-                                new Assignment<Timestamp>(LAST_MODIFIED, md.lastModified))
-                        <= 0) {
-                    LOGGER.warning("Unable to update last modified for directory " + toString());
+            if (capture != null) {
+                if (capture.isOverflow()) {
+                    contentCache.invalidate(md.oid);
+                } else {
+                    contentCache.put(
+                            md.oid, new CachedContent(md.lastModified, capture.toByteArray()));
                 }
             }
+            updateParentsLastModified(md.lastModified);
 
             entryCache.put(path, md);
+            logChange(path);
+        }
+
+        /** Touches all the parent directories with a single statement */
+        private void updateParentsLastModified(Timestamp lastModified) {
+            QueryBuilder builder =
+                    new QueryBuilder(
+                            "UPDATE " + TABLE_RESOURCES + " SET last_modified = ? WHERE oid IN (");
+            builder.addParameter(new Parameter<Timestamp>(TYPE_TIMESTAMP, lastModified));
+            int parents = 0;
+            for (int i = path.size() - 1; i >= 0; i--) {
+                ArrayList<String> parentPath = new ArrayList<>(path.subList(0, i));
+                EntryMetaData parent = getMetadata(parentPath);
+                if (parent.oid != null) {
+                    builder.append(parents++ > 0 ? ", ?" : "?");
+                    builder.addParameter(new Parameter<Integer>(TYPE_INT, parent.oid));
+                    parent.lastModified = lastModified;
+                    entryCache.put(parentPath, parent);
+                }
+            }
+            builder.append(");");
+            if (parents > 0 && helper.anyUpdateQuery(builder) < parents) {
+                LOGGER.warning("Unable to update last modified for directory " + toString());
+            }
         }
 
         public boolean isPermantentlyCached() {
@@ -255,6 +394,7 @@ public boolean isPermantentlyCached() {
 
         public void createDirectory() {
             int parentOid = 0;
+            boolean created = false;
             for (String name : path) {
                 Map<String, Object> record =
                         helper.selectQuery(
@@ -269,6 +409,7 @@ public void createDirectory() {
                                     TABLE_RESOURCES,
                                     new Assignment<String>(NAME, name),
                                     new Assignment<Integer>(PARENT, parentOid));
+                    created = true;
                 } else {
                     if (!(Boolean) record.get(DIRECTORY.getFieldName())) {
                         throw new IllegalStateException(
@@ -285,6 +426,9 @@ public void createDirectory() {
             md.oid = parentOid;
             md.dir = true;
             entryCache.put(path, md);
+            if (created) {
+                logChange(path);
+            }
         }
 
         public boolean createResource() {
@@ -332,6 +476,7 @@ public boolean createResource() {
             md.dir = false;
 
             entryCache.put(path, md);
+            logChange(path);
 
             return true;
         }
@@ -382,7 +527,7 @@ protected String mergePath(List<String> path) {
     }
 
     public JDBCDirectoryStructure(DataSource ds, JDBCResourceStoreProperties config) {
-        this.helper = new JDBCQueryHelper(ds);
+        this.helper = new JDBCQueryHelper(ds, statistics);
         this.config = config;
 
         if (config.isInitDb()) {
@@ -395,6 +540,28 @@ public JDBCDirectoryStructure(DataSource ds, JDBCResourceStoreProperties config)
                 LOGGER.log(Level.WARNING, "Unable to save ResourceStore configuration", e);
             }
         }
+
+        long pollInterval = config.getChangeLogPollInterval();
+        if (pollInterval >= 0) {
+            changeLog = ResourceChangeLog.create(helper, pollInterval, statistics);
+        }
+        long contentCacheSize = config.getContentCacheSize();
+        if (contentCacheSize > 0 && changeLog == null) {
+            // without the change log the cached contents would never see the changes made by
+            // other instances sharing the database
+            LOGGER.warning(
+                    "Resource change log not available, the content cache is disabled. "
+                            + "Create the "
+                            + ResourceChangeLog.TABLE_CHANGES
+                            + " table to enable it");
+        } else if (contentCacheSize > 0) {
+            maxCachedContent = (int) Math.min(MAX_CACHED_CONTENT, contentCacheSize);
+            contentCache =
+                    CacheBuilder.newBuilder()
+                            .maximumWeight(contentCacheSize)
+                            .<Integer, CachedContent>weigher((oid, c) -> c.content.length)
+                            .build();
+        }
     }
 
     private Cache<ArrayList<String>, EntryMetaData> entryCache() {
@@ -406,6 +573,16 @@ private Cache<ArrayList<String>, EntryMetaData> entryCache() {
     }
 
     private EntryMetaData getMetadata(ArrayList<String> path) {
+        if (changeLog != null) {
+            changeLog.poll(this::invalidate, this::invalidateAll);
+        }
+        EntryMetaData cached = entryCache().getIfPresent(path);
+        if (cached != null) {
+            statistics.entryHit();
+            return cached;
+        }
+        statistics.entryMiss();
+        Selector selector = childSelector(path);
         try {
             return entryCache()
                     .get(
@@ -415,12 +592,14 @@ private EntryMetaData getMetadata(ArrayList<String> path) {
                                 public EntryMetaData call() throws Exception {
                                     EntryMetaData md = new EntryMetaData();
                                     Map<String, Object> record =
-                                            helper.selectQuery(
-                                                    TABLE_RESOURCES,
-                                                    new PathSelector(path),
-                                                    OID,
-                                                    DIRECTORY,
-                                                    LAST_MODIFIED);
+                                            selector == null
+                                                    ? null
+                                                    : helper.selectQuery(
+                                                            TABLE_RESOURCES,
+                                                            selector,
+                                                            OID,
+                                                            DIRECTORY,
+                                                            LAST_MODIFIED);
                                     if (record != null) {
                                         md.oid = (Integer) record.get(OID.getFieldName());
                                         md.dir = (Boolean) record.get(DIRECTORY.getFieldName());
@@ -461,8 +640,61 @@ public JDBCResourceStoreProperties getConfig() {
         return config;
     }
 
+    /** Database and cache usage counters */
+    public JDBCResourceStoreStatistics getStatistics() {
+        return statistics;
+    }
+
     // ------------------------------ private helper methods & classes
 
+    /** Addresses the entry by its oid if known, saving the path resolution subqueries */
+    private Selector selector(List<String> path, EntryMetaData md) {
+        return md.oid != null ? new FieldSelector<Integer>(OID, md.oid) : new PathSelector(path);
+    }
+
+    /**
+     * Selects the entry as a child of its parent, whose oid comes from the entry cache. Returns
+     * <code>null</code> if the parent does not exist, so neither does the entry.
+     */
+    private Selector childSelector(List<String> path) {
+        if (path.isEmpty()) {
+            return new PathSelector(path);
+        }
+        EntryMetaData parent = getMetadata(new ArrayList<>(path.subList(0, path.size() - 1)));
+        if (parent.oid == null) {
+            return null;
+        }
+        return new ChildSelector(parent.oid, path.get(path.size() - 1));
+    }
+
+    private void logChange(List<String> path) {
+        if (changeLog != null) {
+            changeLog.logChange(mergePath(path));
+        }
+    }
+
+    /** Drops the cached entries of a path changed by another instance, its parents and children */
+    private void invalidate(String changed) {
+        statistics.invalidation();
+        List<String> names = Paths.names(changed);
+        entryCache()
+                .asMap()
+                .keySet()
+                .removeIf(path -> isPrefix(path, names) || isPrefix(names, path));
+    }
+
+    private void invalidateAll() {
+        statistics.invalidation();
+        entryCache().invalidateAll();
+        if (contentCache != null) {
+            contentCache.invalidateAll();
+        }
+    }
+
+    private static boolean isPrefix(List<String> prefix, List<String> path) {
+        return prefix.size() <= path.size() && prefix.equals(path.subList(0, prefix.size()));
+    }
+
     private boolean deleteChildren(Integer oid) {
         // get ids of children
         List<Integer> children = new ArrayList<Integer>();
@@ -298,8 +298,15 @@ public QueryBuilder addAsParameter(QueryBuilder sb) {
 
     private final DataSource ds;
 
+    private final JDBCResourceStoreStatistics statistics;
+
     public JDBCQueryHelper(DataSource ds) {
+        this(ds, new JDBCResourceStoreStatistics());
+    }
+
+    public JDBCQueryHelper(DataSource ds, JDBCResourceStoreStatistics statistics) {
         this.ds = ds;
+        this.statistics = statistics;
     }
 
     private QueryBuilder createSelect(String table, Selector sel, Field<?>... fields) {
@@ -390,6 +397,7 @@ public Integer insertQuery(String table, Assignment<?>... assignments) {
 
     public List<Map<String, Object>> anyMultiQuery(QueryBuilder query, Field<?>... fields) {
         LOGGER.log(Level.FINEST, query.toString());
+        statistics.statement();
 
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement stmt = query.toStatement(c)) {
@@ -412,6 +420,7 @@ public List<Map<String, Object>> anyMultiQuery(QueryBuilder query, Field<?>... f
 
     public Map<String, Object> anyQuery(QueryBuilder query, Field<?>... fields) {
         LOGGER.log(Level.FINEST, query.toString());
+        statistics.statement();
 
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement stmt = query.toStatement(c)) {
@@ -435,6 +444,7 @@ public Map<String, Object> anyQuery(QueryBuilder query, Field<?>... fields) {
 
     public int anyUpdateQuery(QueryBuilder query) {
         LOGGER.log(Level.FINEST, query.toString());
+        statistics.statement();
 
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement stmt = query.toStatement(c)) {
@@ -447,6 +457,7 @@ public int anyUpdateQuery(QueryBuilder query) {
 
     public List<Integer> anyInsertQuery(QueryBuilder query) {
         LOGGER.log(Level.FINEST, query.toString());
+        statistics.statement();
 
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement stmt = query.toStatement(c, Statement.RETURN_GENERATED_KEYS)) {
@@ -470,6 +481,7 @@ public List<Integer> anyInsertQuery(QueryBuilder query) {
     /** Blobs should always be queried with this method, not with the regular selects! */
     public InputStream anyBlobQuery(QueryBuilder query, Field<InputStream> field) {
         LOGGER.log(Level.FINEST, query.toString());
+        statistics.statement();
 
         Connection c;
         boolean closeConnection = false;
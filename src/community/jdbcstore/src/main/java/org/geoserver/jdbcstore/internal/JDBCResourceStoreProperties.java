@@ -47,4 +47,17 @@ public String[] getIgnoreDirs() {
     public String[] getCachedDirs() {
         return getProperty("cachedDirs", "").split(",");
     }
+
+    /**
+     * Milliseconds between two checks of the change log table, where all the instances sharing
+     * the database record the paths they modify. Negative disables the change log.
+     */
+    public long getChangeLogPollInterval() {
+        return Long.parseLong(getProperty("changeLogPollInterval", "1000"));
+    }
+
+    /** Size in bytes of the in memory cache of resource contents, zero or negative disables it */
+    public long getContentCacheSize() {
+        return Long.parseLong(getProperty("contentCacheSize", String.valueOf(16 * 1024 * 1024)));
+    }
 }
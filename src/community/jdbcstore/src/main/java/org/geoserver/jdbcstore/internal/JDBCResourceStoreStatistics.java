@@ -0,0 +1,126 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jdbcstore.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the statements run by {@link JDBCDirectoryStructure} and how often the entry and content
+ * caches spared a database round trip.
+ */
+public class JDBCResourceStoreStatistics {
+
+    private final LongAdder statements = new LongAdder();
+
+    private final LongAdder entryHits = new LongAdder();
+
+    private final LongAdder entryMisses = new LongAdder();
+
+    private final LongAdder contentHits = new LongAdder();
+
+    private final LongAdder contentMisses = new LongAdder();
+
+    private final LongAdder changeLogPolls = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    void statement() {
+        statements.increment();
+    }
+
+    void entryHit() {
+        entryHits.increment();
+    }
+
+    void entryMiss() {
+        entryMisses.increment();
+    }
+
+    void contentHit() {
+        contentHits.increment();
+    }
+
+    void contentMiss() {
+        contentMisses.increment();
+    }
+
+    void changeLogPoll() {
+        changeLogPolls.increment();
+    }
+
+    void invalidation() {
+        invalidations.increment();
+    }
+
+    /** The total number of statements run against the database */
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    /** The number of path lookups answered by the entry cache */
+    public long getEntryHits() {
+        return entryHits.sum();
+    }
+
+    /** The number of path lookups that had to query the database */
+    public long getEntryMisses() {
+        return entryMisses.sum();
+    }
+
+    /** The number of resource reads answered by the content cache */
+    public long getContentHits() {
+        return contentHits.sum();
+    }
+
+    /** The number of resource reads that had to fetch the content from the database */
+    public long getContentMisses() {
+        return contentMisses.sum();
+    }
+
+    /** The number of times the change log table has been checked */
+    public long getChangeLogPolls() {
+        return changeLogPolls.sum();
+    }
+
+    /** The number of changes made by other instances that invalidated the caches */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /** The database round trips the caches have spared */
+    public long getRoundTripsSaved() {
+        return getEntryHits() + getContentHits();
+    }
+
+    /** Resets all the counters */
+    public void reset() {
+        statements.reset();
+        entryHits.reset();
+        entryMisses.reset();
+        contentHits.reset();
+        contentMisses.reset();
+        changeLogPolls.reset();
+        invalidations.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "JDBCResourceStoreStatistics[statements="
+                + getStatements()
+                + ", entryHits="
+                + getEntryHits()
+                + ", entryMisses="
+                + getEntryMisses()
+                + ", contentHits="
+                + getContentHits()
+                + ", contentMisses="
+                + getContentMisses()
+                + ", changeLogPolls="
+                + getChangeLogPolls()
+                + ", invalidations="
+                + getInvalidations()
+                + "]";
+    }
+}
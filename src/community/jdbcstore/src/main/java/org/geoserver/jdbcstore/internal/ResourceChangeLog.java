@@ -0,0 +1,201 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.jdbcstore.internal;
+
+import static org.geoserver.jdbcstore.internal.JDBCQueryHelper.TYPE_INT;
+import static org.geoserver.jdbcstore.internal.JDBCQueryHelper.TYPE_STRING;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.jdbcstore.internal.JDBCQueryHelper.Assignment;
+import org.geoserver.jdbcstore.internal.JDBCQueryHelper.Field;
+import org.geoserver.jdbcstore.internal.JDBCQueryHelper.Parameter;
+import org.geoserver.jdbcstore.internal.JDBCQueryHelper.QueryBuilder;
+
+/**
+ * Table shared by all the instances using the same database, where every write appends the
+ * modified path with an increasing sequence number. Each instance remembers the last sequence it
+ * has seen and finds out what the others changed with a single query, rather than checking every
+ * cached entry against the resources table.
+ *
+ * <p>Old records are purged once the table grows beyond {@link #RETENTION} entries; an instance
+ * lagging further behind than that can no longer tell what changed and drops all its caches.
+ *
+ * <p>Sequence numbers are assigned when the records are inserted, but the inserts might commit out
+ * of order, so a poll can see a record while one with a lower sequence is not visible yet. The
+ * sequences skipped by a poll are remembered as gaps and looked up again by the next polls, until
+ * found or for {@link #GAP_TIMEOUT} milliseconds, as sequences of failed inserts are never used.
+ */
+class ResourceChangeLog {
+
+    private static final Logger LOGGER =
+            org.geotools.util.logging.Logging.getLogger(ResourceChangeLog.class);
+
+    static final String TABLE_CHANGES = "resource_changes";
+
+    static final Field<Integer> SEQ = new Field<Integer>("seq", "seq", TYPE_INT);
+
+    static final Field<String> PATH = new Field<String>("path", "path", TYPE_STRING);
+
+    /** Number of records kept in the table */
+    static final int RETENTION = 10000;
+
+    /** The table is purged every this many inserts */
+    static final int PURGE_INTERVAL = 100;
+
+    /** How long a skipped sequence is looked for, in milliseconds */
+    static final long GAP_TIMEOUT = 60000;
+
+    private final JDBCQueryHelper helper;
+
+    private final long pollInterval;
+
+    private final JDBCResourceStoreStatistics statistics;
+
+    /** Sequences of the changes made by this instance, no need to invalidate anything for them */
+    private final Set<Integer> ownChanges = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    /**
+     * Sequences skipped by the previous polls, with the time they were first noticed, only
+     * accessed by the polling thread
+     */
+    private final Map<Integer, Long> gaps = new ConcurrentHashMap<>();
+
+    private volatile int lastSeq;
+
+    private volatile long lastPoll;
+
+    private ResourceChangeLog(
+            JDBCQueryHelper helper,
+            long pollInterval,
+            JDBCResourceStoreStatistics statistics,
+            int lastSeq) {
+        this.helper = helper;
+        this.pollInterval = pollInterval;
+        this.statistics = statistics;
+        this.lastSeq = lastSeq;
+        this.lastPoll = System.currentTimeMillis();
+    }
+
+    /**
+     * Sets up the change log, starting after the latest change recorded in the table. Returns
+     * <code>null</code> if the table does not exist, databases initialized by older versions need
+     * it to be created by hand.
+     */
+    static ResourceChangeLog create(
+            JDBCQueryHelper helper, long pollInterval, JDBCResourceStoreStatistics statistics) {
+        Map<String, Object> record;
+        try {
+            record =
+                    helper.anyQuery(
+                            new QueryBuilder(
+                                    "SELECT COALESCE(MAX(seq), 0) AS seq FROM "
+                                            + TABLE_CHANGES
+                                            + ";"),
+                            SEQ);
+        } catch (IllegalStateException e) {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Table "
+                            + TABLE_CHANGES
+                            + " not found, changes made by other instances will not be tracked",
+                    e);
+            return null;
+        }
+        Integer seq = record == null ? null : (Integer) record.get(SEQ.getFieldName());
+        return new ResourceChangeLog(helper, pollInterval, statistics, seq == null ? 0 : seq);
+    }
+
+    /** Records a change to the given path */
+    void logChange(String path) {
+        Integer seq = helper.insertQuery(TABLE_CHANGES, new Assignment<String>(PATH, path));
+        if (seq == null) {
+            LOGGER.warning("Unable to record change of " + path);
+            return;
+        }
+        ownChanges.add(seq);
+        if (seq % PURGE_INTERVAL == 0) {
+            QueryBuilder builder = new QueryBuilder("DELETE FROM " + TABLE_CHANGES);
+            builder.append(" WHERE seq < ?;");
+            builder.addParameter(new Parameter<Integer>(TYPE_INT, seq - RETENTION));
+            helper.anyUpdateQuery(builder);
+        }
+    }
+
+    /**
+     * Checks for changes made by other instances, if the poll interval has elapsed and no other
+     * thread is already doing it.
+     *
+     * @param changed called with each changed path
+     * @param all called instead when too many changes were missed to tell which paths changed
+     */
+    void poll(Consumer<String> changed, Runnable all) {
+        if (System.currentTimeMillis() - lastPoll < pollInterval
+                || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            statistics.changeLogPoll();
+            long now = System.currentTimeMillis();
+            gaps.values().removeIf(noticed -> now - noticed > GAP_TIMEOUT);
+            int from = lastSeq;
+            // start from the oldest gap, if any, the records already seen are skipped below
+            int start = from;
+            for (Integer gap : gaps.keySet()) {
+                start = Math.min(start, gap - 1);
+            }
+            QueryBuilder builder = new QueryBuilder("SELECT seq, path FROM " + TABLE_CHANGES);
+            builder.append(" WHERE seq > ? ORDER BY seq;");
+            builder.addParameter(new Parameter<Integer>(TYPE_INT, start));
+            List<Map<String, Object>> records = helper.anyMultiQuery(builder, SEQ, PATH);
+            if (records.isEmpty()) {
+                return;
+            }
+            int to =
+                    Math.max(
+                            from,
+                            (Integer) records.get(records.size() - 1).get(SEQ.getFieldName()));
+            if (to - from > RETENTION) {
+                // some of the changes may have been purged already
+                all.run();
+                gaps.clear();
+            } else {
+                Set<Integer> found = new HashSet<>();
+                for (Map<String, Object> record : records) {
+                    Integer seq = (Integer) record.get(SEQ.getFieldName());
+                    if (seq <= from && gaps.remove(seq) == null) {
+                        // already seen by a previous poll
+                        continue;
+                    }
+                    found.add(seq);
+                    if (!ownChanges.remove(seq)) {
+                        changed.accept((String) record.get(PATH.getFieldName()));
+                    }
+                }
+                for (int seq = from + 1; seq < to; seq++) {
+                    if (!found.contains(seq)) {
+                        gaps.put(seq, now);
+                    }
+                }
+            }
+            ownChanges.removeIf(seq -> seq <= to && !gaps.containsKey(seq));
+            lastSeq = to;
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Failed to check the resource change log", e);
+        } finally {
+            lastPoll = System.currentTimeMillis();
+            polling.set(false);
+        }
+    }
+}
@@ -1 +1,2 @@
 DROP TABLE resources CASCADE;
+DROP TABLE IF EXISTS resource_changes;
@@ -20,3 +20,10 @@ INSERT INTO resources (oid, name, parent, content) VALUES (0, '', NULL, NULL);
 
 ALTER TABLE resources ALTER COLUMN oid RESTART WITH 1;
 
+
+CREATE TABLE resource_changes
+(
+  seq integer AUTO_INCREMENT NOT NULL,
+  path character varying NOT NULL,
+  CONSTRAINT resource_changes_pkey PRIMARY KEY (seq)
+);
@@ -26,12 +26,15 @@
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Timestamp;
 import org.geoserver.catalog.impl.StyleInfoImpl;
 import org.geoserver.config.GeoServerDataDirectory;
 import org.geoserver.config.GeoServerDataDirectoryTest;
 import org.geoserver.jdbcstore.cache.SimpleResourceCache;
 import org.geoserver.jdbcstore.internal.JDBCResourceStoreProperties;
+import org.geoserver.jdbcstore.internal.JDBCResourceStoreStatistics;
 import org.geoserver.platform.GeoServerResourceLoader;
 import org.geoserver.platform.resource.DataDirectoryResourceStore;
 import org.geoserver.platform.resource.FileSystemResourceStore;
@@ -77,6 +80,8 @@ JDBCResourceStoreProperties getConfig(boolean enabled, boolean init) {
         expect(config.isImport()).andStubReturn(init);
         expect(config.getIgnoreDirs()).andStubReturn(new String[] {"DirIgnore"});
         expect(config.getCachedDirs()).andStubReturn(new String[] {});
+        expect(config.getChangeLogPollInterval()).andStubReturn(0L);
+        expect(config.getContentCacheSize()).andStubReturn(1024L * 1024);
         config.setInitDb(false);
         expectLastCall();
         try {
@@ -208,6 +213,110 @@ public void testBasicResourceQuery() throws Exception {
         assertThat(r, resource());
     }
 
+    @Test
+    public void testContentCacheAndChangeLog() throws Exception {
+        standardData();
+
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false));
+        store.setLockProvider(new NullLockProvider());
+        JDBCResourceStoreStatistics statistics = store.getStatistics();
+
+        Resource r = store.get("DirC/FileD");
+        assertEquals("FileD Contents", new String(r.getContents()));
+        long statements = statistics.getStatements();
+        long polls = statistics.getChangeLogPolls();
+        assertEquals("FileD Contents", new String(r.getContents()));
+        assertEquals(1, statistics.getContentHits());
+        // only the change log polls hit the database
+        assertEquals(
+                statistics.getChangeLogPolls() - polls, statistics.getStatements() - statements);
+
+        // written contents are cached as well
+        try (OutputStream out = r.out()) {
+            out.write("FileD Updated".getBytes());
+        }
+        assertEquals("FileD Updated", new String(r.getContents()));
+        assertEquals(2, statistics.getContentHits());
+
+        // another instance sharing the database changes the file
+        try (PreparedStatement ps =
+                support.getConnection()
+                        .prepareStatement(
+                                "UPDATE resources SET content = ?, last_modified = ? "
+                                        + "WHERE name = 'FileD'")) {
+            ps.setBytes(1, "FileD Changed".getBytes());
+            ps.setTimestamp(2, new Timestamp(System.currentTimeMillis() + 1000));
+            ps.executeUpdate();
+        }
+        support.getConnection()
+                .createStatement()
+                .execute("INSERT INTO resource_changes (path) VALUES ('DirC/FileD')");
+        assertEquals("FileD Changed", new String(r.getContents()));
+        assertEquals(1, statistics.getInvalidations());
+        assertTrue(statistics.getRoundTripsSaved() > 0);
+    }
+
+    @Test
+    public void testChangeLogOutOfOrderCommits() throws Exception {
+        standardData();
+
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false));
+        store.setLockProvider(new NullLockProvider());
+        Resource r = store.get("DirC/FileD");
+        assertEquals("FileD Contents", new String(r.getContents()));
+
+        int seq;
+        try (ResultSet rs =
+                support.getConnection()
+                        .createStatement()
+                        .executeQuery("SELECT COALESCE(MAX(seq), 0) FROM resource_changes")) {
+            rs.next();
+            seq = rs.getInt(1);
+        }
+        // a later change commits first, the poll skips the sequence still in flight
+        support.getConnection()
+                .createStatement()
+                .execute(
+                        "INSERT INTO resource_changes (seq, path) VALUES ("
+                                + (seq + 2)
+                                + ", 'FileA')");
+        assertEquals("FileD Contents", new String(r.getContents()));
+
+        // the skipped change commits, and is picked up by the next poll
+        try (PreparedStatement ps =
+                support.getConnection()
+                        .prepareStatement(
+                                "UPDATE resources SET content = ?, last_modified = ? "
+                                        + "WHERE name = 'FileD'")) {
+            ps.setBytes(1, "FileD Changed".getBytes());
+            ps.setTimestamp(2, new Timestamp(System.currentTimeMillis() + 1000));
+            ps.executeUpdate();
+        }
+        support.getConnection()
+                .createStatement()
+                .execute(
+                        "INSERT INTO resource_changes (seq, path) VALUES ("
+                                + (seq + 1)
+                                + ", 'DirC/FileD')");
+        assertEquals("FileD Changed", new String(r.getContents()));
+    }
+
+    @Test
+    public void testContentCacheDisabledWithoutChangeLog() throws Exception {
+        standardData();
+        support.getConnection().createStatement().execute("DROP TABLE resource_changes");
+
+        JDBCResourceStore store =
+                new JDBCResourceStore(support.getDataSource(), getConfig(true, false));
+        store.setLockProvider(new NullLockProvider());
+        Resource r = store.get("DirC/FileD");
+        assertEquals("FileD Contents", new String(r.getContents()));
+        assertEquals("FileD Contents", new String(r.getContents()));
+        assertEquals(0, store.getStatistics().getContentHits());
+    }
+
     @Test
     public void testBasicDirectoryQuery() throws Exception {
         standardData();
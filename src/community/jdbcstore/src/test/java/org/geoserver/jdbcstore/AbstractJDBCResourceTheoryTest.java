@@ -56,6 +56,8 @@ protected JDBCResourceStoreProperties mockConfig(boolean enabled, boolean init)
         expect(config.isEnabled()).andStubReturn(enabled);
         expect(config.isImport()).andStubReturn(init);
         expect(config.getCachedDirs()).andStubReturn(new String[] {"DirCached"});
+        expect(config.getChangeLogPollInterval()).andStubReturn(0L);
+        expect(config.getContentCacheSize()).andStubReturn(1024L * 1024);
 
         support.stubConfig(config);
 
@@ -5,7 +5,11 @@
  */
 package org.geoserver.flow;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -79,6 +83,10 @@ public CallbackContext(Request request, List<FlowController> controllers, long t
 
     AtomicLong runningRequests = new AtomicLong();
 
+    /** Statistics of each controller, dropped along with the controller on configuration reload */
+    Cache<FlowController, FlowControllerStatistics> statistics =
+            CacheBuilder.newBuilder().weakKeys().build();
+
     public ControlFlowCallback() {
         // this is just to isolate tests from shared state, at runtime there is only one callback.
         REQUEST_CONTROLLERS.remove();
@@ -94,6 +102,19 @@ public long getRunningRequests() {
         return runningRequests.get();
     }
 
+    /** Returns the queue depth and wait time statistics of the active flow controllers */
+    public List<FlowControllerStatistics> getStatistics() {
+        List<FlowControllerStatistics> result = new ArrayList<>(statistics.asMap().values());
+        result.sort(Comparator.comparing(FlowControllerStatistics::getName));
+        return result;
+    }
+
+    FlowControllerStatistics getStatistics(FlowController controller) {
+        return statistics
+                .asMap()
+                .computeIfAbsent(controller, c -> new FlowControllerStatistics(c.toString()));
+    }
+
     @Override
     public Operation operationDispatched(Request request, Operation operation) {
         // if this request is nested, release the previous controllers and grab new ones
@@ -149,16 +170,24 @@ public Operation operationDispatched(Request request, Operation operation) {
                 REQUEST_CONTROLLERS.set(context);
                 long maxTime = timeout > 0 ? System.currentTimeMillis() + timeout : -1;
                 for (FlowController flowController : controllers) {
+                    long maxWait = timeout > 0 ? maxTime - System.currentTimeMillis() : -1;
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.fine(
+                                "Request ["
+                                        + requestWithOperation
+                                        + "] checking flow controller "
+                                        + flowController);
+                    }
+                    FlowControllerStatistics stats = getStatistics(flowController);
+                    long enteredAt = stats.entered();
+                    boolean passed = false;
+                    try {
+                        passed = flowController.requestIncoming(requestWithOperation, maxWait);
+                    } finally {
+                        stats.exited(enteredAt, passed);
+                    }
                     if (timeout > 0) {
-                        long maxWait = maxTime - System.currentTimeMillis();
-                        if (LOGGER.isLoggable(Level.FINE)) {
-                            LOGGER.fine(
-                                    "Request ["
-                                            + requestWithOperation
-                                            + "] checking flow controller "
-                                            + flowController);
-                        }
-                        if (!flowController.requestIncoming(requestWithOperation, maxWait)) {
+                        if (!passed) {
                             throw new HttpErrorCodeException(
                                     503,
                                     "Requested timeout out while waiting to be executed, please lower your request rate");
@@ -170,8 +199,6 @@ public Operation operationDispatched(Request request, Operation operation) {
                                             + "] passed flow controller "
                                             + flowController);
                         }
-                    } else {
-                        flowController.requestIncoming(requestWithOperation, -1);
                     }
                 }
             }
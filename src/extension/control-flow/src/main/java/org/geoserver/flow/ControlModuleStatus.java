@@ -4,12 +4,36 @@
  */
 package org.geoserver.flow;
 
+import java.util.List;
+import java.util.Optional;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ModuleStatusImpl;
 
-// TODO Auto-generated constructor stub
-
+/**
+ * Module status for the control flow extension, the message reports the running and blocked
+ * requests, along with the queue depth and wait time histograms of each flow controller
+ */
 public class ControlModuleStatus extends ModuleStatusImpl {
     public ControlModuleStatus() {
         super("gs-control-flow", "Flow of Control Extension");
     }
+
+    @Override
+    public Optional<String> getMessage() {
+        ControlFlowCallback callback = GeoServerExtensions.bean(ControlFlowCallback.class);
+        if (callback == null) {
+            return super.getMessage();
+        }
+        StringBuilder msg = new StringBuilder();
+        msg.append("running requests=")
+                .append(callback.getRunningRequests())
+                .append(", blocked requests=")
+                .append(callback.getBlockedRequests())
+                .append("\n");
+        List<FlowControllerStatistics> statistics = callback.getStatistics();
+        for (FlowControllerStatistics stats : statistics) {
+            msg.append(stats).append("\n");
+        }
+        return Optional.of(msg.toString());
+    }
 }
@@ -0,0 +1,159 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free queue depth and wait time histograms for a single {@link FlowController}. Samples are
+ * counted in power of two buckets, which is precise enough to tell apart a controller letting
+ * requests through from one queueing them for seconds.
+ */
+public class FlowControllerStatistics {
+
+    /** Number of power of two buckets, the last one collects all the larger samples */
+    static final int BUCKETS = 20;
+
+    final String name;
+
+    /** Requests currently waiting in the controller */
+    final AtomicInteger waiting = new AtomicInteger();
+
+    final Histogram depth = new Histogram();
+
+    final Histogram waitTime = new Histogram();
+
+    final AtomicLong rejected = new AtomicLong();
+
+    public FlowControllerStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Called before a request enters the controller
+     *
+     * @return the start time, to be passed to {@link #exited(long, boolean)}
+     */
+    public long entered() {
+        depth.add(waiting.getAndIncrement());
+        return System.nanoTime();
+    }
+
+    /** Called after a request exited the controller, either passing through or not */
+    public void exited(long start, boolean passed) {
+        waiting.decrementAndGet();
+        waitTime.add((System.nanoTime() - start) / 1_000_000);
+        if (!passed) {
+            rejected.incrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Number of requests currently waiting in the controller */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /** Number of requests rejected or timed out by the controller */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /** The histogram of the requests already waiting in the controller when a new one arrived */
+    public Histogram getDepth() {
+        return depth;
+    }
+
+    /** The histogram of the time spent in the controller, in milliseconds */
+    public Histogram getWaitTime() {
+        return waitTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ENGLISH,
+                "%s: requests=%d, waiting=%d, rejected=%d, queue depth [%s], wait ms [%s]",
+                name,
+                waitTime.getCount(),
+                getWaiting(),
+                getRejected(),
+                depth,
+                waitTime);
+    }
+
+    /** A histogram with power of two buckets: 0, 1, 2-3, 4-7, ... */
+    public static class Histogram {
+
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        final AtomicLong max = new AtomicLong();
+
+        final AtomicLong sum = new AtomicLong();
+
+        void add(long value) {
+            long v = Math.max(0, value);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v));
+            counts.incrementAndGet(bucket);
+            sum.addAndGet(v);
+            max.accumulateAndGet(v, Math::max);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) sum.get() / count;
+        }
+
+        /**
+         * Returns an upper bound of the given percentile, the largest value of the bucket holding
+         * it
+         */
+        public long getPercentile(double percentile) {
+            long count = getCount();
+            if (count == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return i == BUCKETS - 1 ? getMax() : Math.min(getMax(), (1L << i) - 1);
+                }
+            }
+            return getMax();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ENGLISH,
+                    "mean=%.1f, p50<=%d, p95<=%d, p99<=%d, max=%d",
+                    getMean(),
+                    getPercentile(50),
+                    getPercentile(95),
+                    getPercentile(99),
+                    getMax());
+        }
+    }
+}
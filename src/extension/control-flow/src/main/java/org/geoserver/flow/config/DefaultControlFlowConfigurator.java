@@ -29,6 +29,7 @@
 import org.geoserver.flow.controller.PriorityProvider;
 import org.geoserver.flow.controller.PriorityThreadBlocker;
 import org.geoserver.flow.controller.RateFlowController;
+import org.geoserver.flow.controller.RejectingThreadBlocker;
 import org.geoserver.flow.controller.SimpleThreadBlocker;
 import org.geoserver.flow.controller.SingleIpFlowController;
 import org.geoserver.flow.controller.ThreadBlocker;
@@ -55,6 +56,12 @@
     static final Logger LOGGER = Logging.getLogger(DefaultControlFlowConfigurator.class);
     static final String PROPERTYFILENAME = "controlflow.properties";
 
+    /**
+     * When set to a number of seconds, the concurrency controllers reject the requests above their
+     * limit with a HTTP 429 and a Retry-After header, instead of queueing them
+     */
+    static final String RETRY_AFTER_KEY = "retryAfter";
+
     /**
      * Factors out the code to build a rate flow controller
      *
@@ -112,6 +119,7 @@ public List<FlowController> buildFlowControllers() throws Exception {
         Properties p = configFile.getProperties();
         List<FlowController> newControllers = new ArrayList<>();
         PriorityProvider priorityProvider = getPriorityProvider(p);
+        int retryAfter = getRetryAfter(p);
 
         for (Object okey : p.keySet()) {
             String key = ((String) okey).trim();
@@ -150,13 +158,16 @@ public List<FlowController> buildFlowControllers() throws Exception {
                 timeout = queueSize * 1000;
                 continue;
             }
+            if (RETRY_AFTER_KEY.equalsIgnoreCase(key)) {
+                continue;
+            }
             if ("ows.global".equalsIgnoreCase(key)) {
                 controller =
                         new GlobalFlowController(
-                                queueSize, buildBlocker(queueSize, priorityProvider));
+                                queueSize, buildBlocker(queueSize, priorityProvider, retryAfter));
             } else if ("ows".equals(keys[0])) {
                 // todo: check, if possible, if the service, method and output format actually exist
-                ThreadBlocker threadBlocker = buildBlocker(queueSize, priorityProvider);
+                ThreadBlocker threadBlocker = buildBlocker(queueSize, priorityProvider, retryAfter);
                 if (keys.length >= 4) {
                     controller =
                             new BasicOWSController(
@@ -168,7 +179,10 @@ public List<FlowController> buildFlowControllers() throws Exception {
                 }
             } else if ("user".equals(keys[0])) {
                 if (keys.length == 1) {
-                    controller = new UserConcurrentFlowController(queueSize);
+                    UserConcurrentFlowController userController =
+                            new UserConcurrentFlowController(queueSize);
+                    userController.setRetryAfter(retryAfter);
+                    controller = userController;
                 } else if ("ows".equals(keys[1])) {
                     controller =
                             new RateControllerBuilder() {
@@ -182,7 +196,9 @@ protected KeyGenerator buildKeyGenerator(
                 }
             } else if ("ip".equals(keys[0])) {
                 if (keys.length == 1) {
-                    controller = new IpFlowController(queueSize);
+                    IpFlowController ipController = new IpFlowController(queueSize);
+                    ipController.setRetryAfter(retryAfter);
+                    controller = ipController;
                 } else if (keys.length > 1 && "ows".equals(keys[1])) {
                     controller =
                             new RateControllerBuilder() {
@@ -196,7 +212,9 @@ protected KeyGenerator buildKeyGenerator(
                 } else if (keys.length > 1) {
                     if (!"blacklist".equals(keys[1]) && !"whitelist".equals(keys[1])) {
                         String ip = key.substring("ip.".length());
-                        controller = new SingleIpFlowController(queueSize, ip);
+                        controller =
+                                new SingleIpFlowController(
+                                        queueSize, ip, buildBlocker(queueSize, null, retryAfter));
                     }
                 }
             }
@@ -250,16 +268,49 @@ private PriorityProvider getPriorityProvider(Properties p) {
         return null;
     }
 
+    /**
+     * Parses the number of seconds clients are asked to wait when rejected
+     *
+     * @param p the configuration properties
+     * @return the number of seconds, or 0 if requests should be queued instead of rejected
+     */
+    private int getRetryAfter(Properties p) {
+        for (Object okey : p.keySet()) {
+            String key = ((String) okey).trim();
+            if (RETRY_AFTER_KEY.equalsIgnoreCase(key)) {
+                String value = ((String) p.get(okey)).trim();
+                try {
+                    int retryAfter = Integer.parseInt(value);
+                    LOGGER.info("Excess requests will be rejected, retry after " + value + "s");
+                    return Math.max(retryAfter, 0);
+                } catch (NumberFormatException e) {
+                    LOGGER.severe(
+                            "Invalid "
+                                    + RETRY_AFTER_KEY
+                                    + " value '"
+                                    + value
+                                    + "', should be a number of seconds");
+                }
+            }
+        }
+        return 0;
+    }
+
     /**
      * Builds a {@link ThreadBlocker} based on a queue size and a prority provider
      *
      * @param queueSize The count of concurrent requests allowed to run
      * @param priorityProvider The priority provider (if not null, a {@link
      *     org.geoserver.flow.controller.PriorityThreadBlocker} will be built
+     * @param retryAfter If positive, a {@link RejectingThreadBlocker} is built instead, rejecting
+     *     the requests above the limit
      * @return a {@link ThreadBlocker}
      */
-    private ThreadBlocker buildBlocker(int queueSize, PriorityProvider priorityProvider) {
-        if (priorityProvider != null) {
+    private ThreadBlocker buildBlocker(
+            int queueSize, PriorityProvider priorityProvider, int retryAfter) {
+        if (retryAfter > 0) {
+            return new RejectingThreadBlocker(queueSize, retryAfter);
+        } else if (priorityProvider != null) {
             return new PriorityThreadBlocker(queueSize, priorityProvider);
         } else {
             return new SimpleThreadBlocker(queueSize);
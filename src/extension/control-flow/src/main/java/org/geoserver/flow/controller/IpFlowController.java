@@ -7,7 +7,6 @@
 package org.geoserver.flow.controller;
 
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.http.HttpServletRequest;
@@ -64,29 +63,14 @@ public boolean requestIncoming(Request request, long timeout) {
             }
         }
 
-        // see if we have that queue already
-        TimedBlockingQueue queue = queues.get(incomingIp);
-
-        // generate a unique queue id for this client if none was found
-        if (queue == null) {
-            // beware of multiple concurrent requests...
-            synchronized (this) {
-                queue = queues.get(incomingIp);
-                if (queue == null) {
-                    queue = new TimedBlockingQueue(queueSize, true);
-                    queues.put(incomingIp, queue);
-                }
-            }
-        }
+        // see if we have that queue already, otherwise generate it
+        TimedBlockingQueue queue =
+                queues.computeIfAbsent(incomingIp, k -> new TimedBlockingQueue(queueSize, true));
         QUEUE_ID.set(incomingIp);
 
         // queue token handling
         try {
-            if (timeout > 0) {
-                retval = queue.offer(request, timeout, TimeUnit.MILLISECONDS);
-            } else {
-                queue.put(request);
-            }
+            retval = enqueue(queue, request, timeout);
         } catch (InterruptedException e) {
             LOGGER.log(
                     Level.WARNING,
@@ -9,6 +9,7 @@
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.geoserver.flow.FlowController;
 import org.geoserver.ows.Request;
 
@@ -24,6 +25,12 @@ public abstract class QueueController implements FlowController {
     /** The per request queue collection */
     Map<String, TimedBlockingQueue> queues = new ConcurrentHashMap<>();
 
+    /**
+     * When positive, requests finding a full queue are rejected right away with a HTTP 429 and a
+     * Retry-After header with this many seconds, instead of waiting
+     */
+    int retryAfter;
+
     @Override
     public boolean requestIncoming(Request request, long timeout) {
         return false;
@@ -34,6 +41,37 @@ public int getPriority() {
         return queueSize;
     }
 
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    /** Enables the rejection of the requests finding a full queue, see {@link #retryAfter} */
+    public void setRetryAfter(int retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Adds the request to the queue, waiting for up to timeout milliseconds if the queue is full,
+     * or indefinitely if the timeout is not positive. If rejection is enabled, a full queue causes
+     * a HTTP 429 instead.
+     *
+     * @return true if the request got into the queue, false if it timed out
+     */
+    protected boolean enqueue(TimedBlockingQueue queue, Request request, long timeout)
+            throws InterruptedException {
+        if (retryAfter > 0) {
+            if (!queue.offer(request)) {
+                throw RejectingThreadBlocker.tooManyRequests(request, retryAfter);
+            }
+            return true;
+        } else if (timeout > 0) {
+            return queue.offer(request, timeout, TimeUnit.MILLISECONDS);
+        } else {
+            queue.put(request);
+            return true;
+        }
+    }
+
     @SuppressWarnings("serial")
     protected static class TimedBlockingQueue extends ArrayBlockingQueue<Request> {
         long lastModified;
@@ -48,6 +86,18 @@ public void put(Request o) throws InterruptedException {
             lastModified = System.currentTimeMillis();
         }
 
+        @Override
+        public boolean offer(Request o) {
+            lastModified = System.currentTimeMillis();
+            return super.offer(o);
+        }
+
+        @Override
+        public boolean offer(Request o, long timeout, TimeUnit unit) throws InterruptedException {
+            lastModified = System.currentTimeMillis();
+            return super.offer(o, timeout, unit);
+        }
+
         @Override
         public boolean remove(Object o) {
             lastModified = System.currentTimeMillis();
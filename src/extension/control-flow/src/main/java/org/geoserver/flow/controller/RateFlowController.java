@@ -5,9 +5,7 @@
 package org.geoserver.flow.controller;
 
 import com.google.common.base.Predicate;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.http.HttpServletResponse;
@@ -15,18 +13,21 @@
 import org.geoserver.flow.FlowController;
 import org.geoserver.ows.HttpErrorCodeException;
 import org.geoserver.ows.Request;
-import org.geotools.util.CanonicalSet;
 import org.geotools.util.logging.Logging;
 
 /**
  * Limits the rate of requests, and slows them down after the number of requests per unit of time is
- * filled, or throws a HTTP 429 if no delay if configured
+ * filled, or throws a HTTP 429 with a Retry-After header if no delay if configured.
+ *
+ * <p>Requests are counted in per user token buckets, see {@link TokenBuckets}, so a user can issue
+ * up to <code>maxRequests</code> requests in a burst, and then is allowed a new request every
+ * <code>timeInterval / maxRequests</code> milliseconds.
  *
  * @author Andrea Aime - GeoSolutions
  */
 public class RateFlowController implements FlowController {
 
-    /** The next epoc at which the counter will reset */
+    /** The next epoc at which the user allowance will be fully restored */
     public static final String X_RATE_LIMIT_RESET = "X-Rate-Limit-Reset";
 
     /** How many request remain in this time slot before the rate limiting occurs */
@@ -40,7 +41,10 @@ public class RateFlowController implements FlowController {
 
     static final Logger LOGGER = Logging.getLogger(ControlFlowCallback.class);
 
-    /** The minimum number of counters we have need to have around before a cleanup is initiated */
+    /** HTTP header telling clients how many seconds to wait before retrying */
+    public static final String RETRY_AFTER = "Retry-After";
+
+    /** The minimum number of buckets we have need to have around before a cleanup is initiated */
     static int COUNTERS_CLEANUP_THRESHOLD =
             Integer.parseInt(
                     System.getProperty("org.geoserver.flow.countersCleanupThreshold", "200"));
@@ -50,41 +54,11 @@ public class RateFlowController implements FlowController {
             Integer.parseInt(
                     System.getProperty("org.geoserver.flow.countersCleanupInterval", "10000"));
 
-    final class Counter {
-        volatile long timePeriodId;
-
-        AtomicInteger requests = new AtomicInteger(0);
-
-        public int addRequest(long currPeriodId) {
-            if (currPeriodId != timePeriodId) {
-                synchronized (this) {
-                    if (currPeriodId != timePeriodId) {
-                        timePeriodId = currPeriodId;
-                        requests.set(0);
-                    }
-                }
-            }
-
-            // increment and return if we have gone above the limit
-            return requests.incrementAndGet();
-        }
-
-        public synchronized long getTimePeriodId() {
-            return timePeriodId;
-        }
-    }
-
-    /** Thread local holding the current user id */
-    static ThreadLocal<String> USER_ID = new ThreadLocal<>();
-
     /** Generates a unique key identifying the user making the request */
     KeyGenerator keyGenerator;
 
-    /** Contains all active counters */
-    Map<String, Counter> counters = new ConcurrentHashMap<>();
-
-    /** Used to make user keys unique before using them as synchronization locks */
-    CanonicalSet<String> canonicalizer = CanonicalSet.newInstance(String.class);
+    /** The per user token buckets */
+    TokenBuckets buckets;
 
     /** Checks if we should apply this request rate limit to the request */
     Predicate<Request> matcher;
@@ -97,12 +71,19 @@ public synchronized long getTimePeriodId() {
 
     String action;
 
-    /** Last time we've performed a queue cleanup */
-    volatile long lastCleanup = System.currentTimeMillis();
+    /** Last time we've performed a bucket cleanup */
+    AtomicLong lastCleanup = new AtomicLong(System.currentTimeMillis());
 
     /**
-     * Builds a UserFlowController that will trigger stale queue expiration once 100 queues have
-     * been accumulated and
+     * Builds a new rate controller, allowing bursts of up to <code>maxRequests</code> requests, and
+     * then <code>maxRequests</code> per <code>timeInterval</code>
+     *
+     * @param matcher the requests to be limited
+     * @param maxRequests the maximum number of requests in the time interval
+     * @param timeInterval the time interval, in milliseconds
+     * @param delay the delay applied to requests above the limit, if zero or negative, they are
+     *     rejected with a HTTP 429 instead
+     * @param keyGenerator generates the user keys
      */
     public RateFlowController(
             Predicate<Request> matcher,
@@ -115,6 +96,7 @@ public RateFlowController(
         this.timeInterval = timeInterval;
         this.delay = delay;
         this.keyGenerator = keyGenerator;
+        this.buckets = new TokenBuckets(maxRequests, timeInterval);
 
         if (delay > 0) {
             this.action = "Delay excess requests " + delay + "ms";
@@ -134,44 +116,34 @@ public boolean requestIncoming(Request request, long timeout) {
             return true;
         }
 
-        boolean retval = true;
         long now = System.currentTimeMillis();
-        long currPeriodId = now / timeInterval;
         String userKey = keyGenerator.getUserKey(request);
 
-        // grab/generate the counter
-        Counter counter = counters.get(userKey);
-        if (counter == null) {
-            userKey = canonicalizer.unique(userKey);
-            synchronized (userKey) {
-                counter = counters.get(userKey);
-                if (counter == null) {
-                    counter = new Counter();
-                    counters.put(userKey, counter);
-                }
-            }
-        }
-
-        // update the counters
-        int requests = counter.addRequest(currPeriodId);
-        int residual = maxRequests - requests;
+        // take a token, lock free
+        long acquired = buckets.tryAcquire(userKey, now);
+        long residual = acquired >= 0 ? acquired : -1;
 
         // set the headers
         HttpServletResponse response = request.getHttpResponse();
         response.addHeader(X_RATE_LIMIT_CONTEXT, matcher.toString());
         response.addIntHeader(X_RATE_LIMIT_LIMIT, maxRequests);
-        response.addIntHeader(X_RATE_LIMIT_REMAINING, Math.max(residual, 0));
-        response.addDateHeader(X_RATE_LIMIT_RESET, ((currPeriodId + 1) * timeInterval));
+        response.addIntHeader(X_RATE_LIMIT_REMAINING, (int) Math.max(residual, 0));
+        response.addDateHeader(X_RATE_LIMIT_RESET, buckets.getFullTime(userKey, now));
         response.addHeader("X-Rate-Limit-Action", action);
-        // counter cleanup handling
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine(this + ", residual in current time period " + residual);
         }
+
+        // bucket cleanup handling, before a possible rejection
+        cleanupBuckets(now);
+
         if (residual < 0) {
             if (delay <= 0) {
+                long wait = -acquired;
+                response.setHeader(RETRY_AFTER, String.valueOf(Math.max(1, (wait + 999) / 1000)));
                 throw new HttpErrorCodeException(
                         429,
-                        "Too many requests requests in the current time period, check X-Rate-Limit HTTP response headers");
+                        "Too many requests requests in the current time period, check X-Rate-Limit and Retry-After HTTP response headers");
             } else if (delay > timeout) {
                 // no point in waiting
                 return false;
@@ -187,28 +159,24 @@ public boolean requestIncoming(Request request, long timeout) {
             }
         }
 
-        // cleanup stale counters if necessary
-        long elapsed = now - lastCleanup;
-        if (counters.size() > COUNTERS_CLEANUP_THRESHOLD
-                && (elapsed > (timeInterval) || (elapsed > 10000))) {
-            int cleanupCount = 0;
-            synchronized (this) {
-                for (Map.Entry<String, Counter> entry : counters.entrySet()) {
-                    Counter c = entry.getValue();
-                    long timePeriodId = c.getTimePeriodId();
-                    long age = (currPeriodId - timePeriodId) * timeInterval;
-                    if (age > COUNTERS_CLEANUP_THRESHOLD) {
-                        counters.remove(entry.getKey());
-                    }
-                }
-                lastCleanup = now;
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.fine(this + ", purged " + cleanupCount + " stale counters");
-                }
+        return true;
+    }
+
+    /**
+     * Purges the full buckets, one stripe at a time, when there are enough of them and the cleanup
+     * interval elapsed. Only one of the concurrent requests performs the cleanup.
+     */
+    private void cleanupBuckets(long now) {
+        long last = lastCleanup.get();
+        long elapsed = now - last;
+        if (elapsed > Math.min(timeInterval, COUNTERS_CLEANUP_INTERVAL)
+                && buckets.size() > COUNTERS_CLEANUP_THRESHOLD
+                && lastCleanup.compareAndSet(last, now)) {
+            int purged = buckets.purgeNextStripe(now);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(this + ", purged " + purged + " stale buckets");
             }
         }
-
-        return retval;
     }
 
     public KeyGenerator getKeyGenerator() {
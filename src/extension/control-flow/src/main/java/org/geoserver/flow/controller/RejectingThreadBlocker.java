@@ -0,0 +1,86 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletResponse;
+import org.geoserver.ows.HttpErrorCodeException;
+import org.geoserver.ows.Request;
+
+/**
+ * Non blocking alternative to {@link SimpleThreadBlocker}: when there are already <code>queueSize
+ * </code> requests running, the new ones are rejected right away with a HTTP 429 and a Retry-After
+ * header, instead of parking the container threads in a queue.
+ */
+public class RejectingThreadBlocker implements ThreadBlocker {
+
+    final int maxRunningRequests;
+
+    final int retryAfter;
+
+    final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * The requests that got a slot, flow controllers might not all be called if one fails, but all
+     * get a "requestComplete" for cleanup
+     */
+    final Set<Request> runningRequests = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param queueSize the maximum number of requests running at the same time
+     * @param retryAfter the number of seconds clients are asked to wait before retrying
+     */
+    public RejectingThreadBlocker(int queueSize, int retryAfter) {
+        this.maxRunningRequests = queueSize;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public boolean requestIncoming(Request request, long timeout) {
+        while (true) {
+            int current = running.get();
+            if (current >= maxRunningRequests) {
+                throw tooManyRequests(request, retryAfter);
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                runningRequests.add(request);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void requestComplete(Request request) {
+        if (runningRequests.remove(request)) {
+            running.decrementAndGet();
+        }
+    }
+
+    @Override
+    public int getRunningRequestsCount() {
+        return running.get();
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    /** Builds the exception rejecting the request, setting the Retry-After header */
+    static HttpErrorCodeException tooManyRequests(Request request, int retryAfter) {
+        HttpServletResponse response = request.getHttpResponse();
+        if (response != null) {
+            response.setHeader(RateFlowController.RETRY_AFTER, String.valueOf(retryAfter));
+        }
+        return new HttpErrorCodeException(
+                429, "Too many concurrent requests, please retry after " + retryAfter + " seconds");
+    }
+
+    @Override
+    public String toString() {
+        return "RejectingThreadBlocker(" + maxRunningRequests + "," + retryAfter + "s)";
+    }
+}
@@ -19,4 +19,9 @@ public SingleIpFlowController(final int queueSize, final String ip) {
         // concept here
         super(new IpRequestMatcher(ip), queueSize, new SimpleThreadBlocker(queueSize));
     }
+
+    public SingleIpFlowController(
+            final int queueSize, final String ip, final ThreadBlocker blocker) {
+        super(new IpRequestMatcher(ip), queueSize, blocker);
+    }
 }
@@ -0,0 +1,123 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A table of per key token buckets, allowing up to <code>maxRequests</code> requests in a burst,
+ * refilled at a rate of <code>maxRequests</code> per <code>timeInterval</code>.
+ *
+ * <p>Each bucket is a single atomic value, the "theoretical arrival time" of the generic cell rate
+ * algorithm, so taking a token is a compare and swap, without locks. The buckets are spread over a
+ * number of stripes by key hash, and stale buckets are purged one stripe at a time, without
+ * stopping the requests hitting the other stripes.
+ */
+class TokenBuckets {
+
+    static final int STRIPES = 16;
+
+    /** Time between two tokens being added to a bucket */
+    final double emissionInterval;
+
+    /** The time it takes to fill an empty bucket */
+    final double timeInterval;
+
+    /** Absorbs the rounding errors of the floating point times */
+    final double tolerance;
+
+    @SuppressWarnings("unchecked")
+    final ConcurrentHashMap<String, Bucket>[] stripes = new ConcurrentHashMap[STRIPES];
+
+    final AtomicInteger nextStripeCleanup = new AtomicInteger();
+
+    public TokenBuckets(int maxRequests, long timeInterval) {
+        this.timeInterval = timeInterval;
+        this.emissionInterval = (double) timeInterval / maxRequests;
+        this.tolerance = timeInterval * 1e-9;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    private ConcurrentHashMap<String, Bucket> stripe(String key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    /**
+     * Tries to take a token from the bucket of the given key
+     *
+     * @return the number of tokens left in the bucket, if the token was taken, or minus the number
+     *     of milliseconds to wait before a new token is available, otherwise
+     */
+    public long tryAcquire(String key, long now) {
+        Bucket bucket = stripe(key).computeIfAbsent(key, k -> new Bucket());
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Returns the time at which the bucket of the given key will be full again, or the current
+     * time, if there is no such bucket
+     */
+    public long getFullTime(String key, long now) {
+        Bucket bucket = stripe(key).get(key);
+        if (bucket == null) {
+            return now;
+        }
+        double tat = bucket.getTheoreticalArrivalTime();
+        return tat >= Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(now, (long) Math.ceil(tat));
+    }
+
+    /** Removes the full buckets of the next stripe, returning the number of removed buckets */
+    public int purgeNextStripe(long now) {
+        int idx = (nextStripeCleanup.getAndIncrement() & 0x7fffffff) % STRIPES;
+        // a bucket that is full again is the same as a new one, a request racing with the removal
+        // might get a fresh bucket, but never more tokens than the limit
+        int before = stripes[idx].size();
+        stripes[idx].values().removeIf(b -> b.getTheoreticalArrivalTime() <= now);
+        return before - stripes[idx].size();
+    }
+
+    /** Returns the number of buckets in the table */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    final class Bucket {
+
+        /**
+         * The theoretical arrival time of the next request, as the raw bits of a double, so that
+         * intervals as long as Long.MAX_VALUE do not overflow. The bucket is full when it's in the
+         * past, empty when it's timeInterval in the future
+         */
+        final AtomicLong tat = new AtomicLong(Double.doubleToRawLongBits(0));
+
+        double getTheoreticalArrivalTime() {
+            return Double.longBitsToDouble(tat.get());
+        }
+
+        long tryAcquire(long now) {
+            while (true) {
+                long bits = tat.get();
+                double current = Double.longBitsToDouble(bits);
+                double next = Math.max(current, now) + emissionInterval;
+                double debt = next - now;
+                if (debt > timeInterval + tolerance) {
+                    return -Math.max(1, (long) Math.ceil(debt - timeInterval));
+                }
+                if (tat.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                    long remaining = (long) ((timeInterval - debt + tolerance) / emissionInterval);
+                    return Math.max(0, remaining);
+                }
+            }
+        }
+    }
+}
@@ -6,7 +6,6 @@
 package org.geoserver.flow.controller;
 
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoserver.flow.ControlFlowCallback;
@@ -86,19 +85,12 @@ public boolean requestIncoming(Request request, long timeout) {
         QUEUE_ID.set(queueId);
 
         // see if we have that queue already, otherwise generate it
-        TimedBlockingQueue queue = queues.get(queueId);
-        if (queue == null) {
-            queue = new TimedBlockingQueue(queueSize, true);
-            queues.put(queueId, queue);
-        }
+        TimedBlockingQueue queue =
+                queues.computeIfAbsent(queueId, k -> new TimedBlockingQueue(queueSize, true));
 
         // queue token handling
         try {
-            if (timeout > 0) {
-                retval = queue.offer(request, timeout, TimeUnit.MILLISECONDS);
-            } else {
-                queue.put(request);
-            }
+            retval = enqueue(queue, request, timeout);
         } catch (InterruptedException e) {
             LOGGER.log(
                     Level.WARNING,
@@ -24,6 +24,7 @@
 import org.geoserver.flow.controller.IpRequestMatcher;
 import org.geoserver.flow.controller.PriorityThreadBlocker;
 import org.geoserver.flow.controller.RateFlowController;
+import org.geoserver.flow.controller.RejectingThreadBlocker;
 import org.geoserver.flow.controller.SingleIpFlowController;
 import org.geoserver.flow.controller.ThreadBlocker;
 import org.geoserver.flow.controller.UserConcurrentFlowController;
@@ -161,6 +162,34 @@ public void testParsingPriorityWithSpaces() throws Exception {
         checkPriorityParsing(p);
     }
 
+    @Test
+    public void testParsingRetryAfter() throws Exception {
+        Properties p = new Properties();
+        p.put("retryAfter", "5");
+        p.put("ows.global", "100");
+        p.put("ows.wms", "6");
+        p.put("ip", "12");
+
+        DefaultControlFlowConfigurator configurator =
+                new DefaultControlFlowConfigurator(new FixedWatcher(p));
+        List<FlowController> controllers = configurator.buildFlowControllers();
+        Collections.sort(controllers, new ControllerPriorityComparator());
+        assertEquals(3, controllers.size());
+
+        BasicOWSController wmsController = (BasicOWSController) controllers.get(0);
+        assertThat(
+                wmsController.getBlocker(), CoreMatchers.instanceOf(RejectingThreadBlocker.class));
+        assertEquals(5, ((RejectingThreadBlocker) wmsController.getBlocker()).getRetryAfter());
+
+        IpFlowController ipController = (IpFlowController) controllers.get(1);
+        assertEquals(5, ipController.getRetryAfter());
+
+        GlobalFlowController globalController = (GlobalFlowController) controllers.get(2);
+        assertThat(
+                globalController.getBlocker(),
+                CoreMatchers.instanceOf(RejectingThreadBlocker.class));
+    }
+
     private void checkPriorityParsing(Properties p) throws Exception {
         DefaultControlFlowConfigurator configurator =
                 new DefaultControlFlowConfigurator(new FixedWatcher(p));
@@ -7,6 +7,7 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import javax.servlet.http.Cookie;
 import org.geoserver.ows.HttpErrorCodeException;
@@ -126,4 +127,49 @@ public void testIp429() {
             assertEquals(429, e.getErrorCode());
         }
     }
+
+    @Test
+    public void testRetryAfter() {
+        RateFlowController controller =
+                new RateFlowController(new OWSRequestMatcher(), 2, 10000, 0, new IpKeyGenerator());
+
+        Request request = buildIpRequest("127.0.0.1", "");
+        assertTrue(controller.requestIncoming(request, Integer.MAX_VALUE));
+        assertTrue(controller.requestIncoming(request, Integer.MAX_VALUE));
+
+        // a token is added back every 5 seconds
+        Request rejected = buildIpRequest("127.0.0.1", "");
+        try {
+            controller.requestIncoming(rejected, Integer.MAX_VALUE);
+            fail("Should have thrown a 429");
+        } catch (HttpErrorCodeException e) {
+            assertEquals(429, e.getErrorCode());
+        }
+        MockHttpServletResponse response = (MockHttpServletResponse) rejected.getHttpResponse();
+        int retryAfter = Integer.parseInt(response.getHeader(RateFlowController.RETRY_AFTER));
+        assertTrue("Unexpected retry after " + retryAfter, retryAfter >= 1 && retryAfter <= 5);
+
+        // other users are not affected
+        assertTrue(controller.requestIncoming(buildIpRequest("127.0.0.2", ""), 0));
+    }
+
+    @Test
+    public void testTokenRefill() {
+        TokenBuckets buckets = new TokenBuckets(2, 1000);
+        long now = 1_000_000;
+        assertEquals(1, buckets.tryAcquire("user", now));
+        assertEquals(0, buckets.tryAcquire("user", now));
+        assertEquals(-500, buckets.tryAcquire("user", now));
+        // half interval later a new token is available
+        assertEquals(0, buckets.tryAcquire("user", now + 500));
+        assertEquals(-500, buckets.tryAcquire("user", now + 500));
+        // the bucket is full again after a full interval, and can be purged
+        assertEquals(now + 1500, buckets.getFullTime("user", now + 500));
+        int purged = 0;
+        for (int i = 0; i < TokenBuckets.STRIPES; i++) {
+            purged += buckets.purgeNextStripe(now + 1500);
+        }
+        assertEquals(1, purged);
+        assertEquals(0, buckets.size());
+    }
 }
@@ -0,0 +1,49 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.geoserver.ows.HttpErrorCodeException;
+import org.geoserver.ows.Request;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class RejectingThreadBlockerTest extends AbstractFlowControllerTest {
+
+    @Test
+    public void testRejectWhenFull() {
+        GlobalFlowController controller =
+                new GlobalFlowController(2, new RejectingThreadBlocker(2, 3));
+
+        Request r1 = buildIpRequest("127.0.0.1", "");
+        Request r2 = buildIpRequest("127.0.0.1", "");
+        assertTrue(controller.requestIncoming(r1, -1));
+        assertTrue(controller.requestIncoming(r2, -1));
+        assertEquals(2, controller.getRequestsInQueue());
+
+        // the third one is rejected right away, without blocking the thread
+        Request r3 = buildIpRequest("127.0.0.1", "");
+        try {
+            controller.requestIncoming(r3, -1);
+            fail("Should have thrown a 429");
+        } catch (HttpErrorCodeException e) {
+            assertEquals(429, e.getErrorCode());
+        }
+        MockHttpServletResponse response = (MockHttpServletResponse) r3.getHttpResponse();
+        assertEquals("3", response.getHeader(RateFlowController.RETRY_AFTER));
+
+        // completing a rejected request does not free a slot
+        controller.requestComplete(r3);
+        assertEquals(2, controller.getRequestsInQueue());
+
+        // completing a running one does
+        controller.requestComplete(r1);
+        assertEquals(1, controller.getRequestsInQueue());
+        assertTrue(controller.requestIncoming(r3, -1));
+    }
+}
@@ -362,7 +362,11 @@ private AccessLimits getAccessLimits(
             if (summaries != null && !summaries.isEmpty()) {
                 boolean allOpaque = allOpaque(summaries);
                 // all opaque we deny and don't perform any resolution of group limits.
-                if (allOpaque) accessInfo.setGrant(GrantType.DENY);
+                if (allOpaque) {
+                    // the access info might be cached and shared with other layers
+                    accessInfo = accessInfo.clone();
+                    accessInfo.setGrant(GrantType.DENY);
+                }
                 boolean anySingle =
                         summaries.stream()
                                 .anyMatch(gs -> gs.getMode().equals(LayerGroupInfo.Mode.SINGLE));
@@ -16,6 +16,8 @@ public class CacheConfiguration implements Serializable, Cloneable {
 
     private long expireMilliSec = 30000;
 
+    private boolean layerIndex = true;
+
     private volatile Ticker customTicker = null; // testing only
 
     public long getExpireMilliSec() {
@@ -42,6 +44,18 @@ public void setSize(long size) {
         this.size = size;
     }
 
+    /**
+     * Whether layers without rules of their own share the cached access info of their workspace,
+     * instead of each one being looked up separately
+     */
+    public boolean isLayerIndex() {
+        return layerIndex;
+    }
+
+    public void setLayerIndex(boolean layerIndex) {
+        this.layerIndex = layerIndex;
+    }
+
     public Ticker getCustomTicker() {
         return customTicker;
     }
@@ -59,6 +73,8 @@ public String toString() {
                 + refreshMilliSec
                 + ", expMsec="
                 + expireMilliSec
+                + ", layerIndex="
+                + layerIndex
                 + ']';
     }
 
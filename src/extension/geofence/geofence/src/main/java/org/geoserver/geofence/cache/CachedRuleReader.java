@@ -10,7 +10,9 @@
 import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -30,6 +32,11 @@
  * <p>Cache eviction policy is LRU.<br>
  * Cache coherence is handled by entry timeout.<br>
  *
+ * <p>When the layer index is enabled, the layer names mentioned by the rules matching a request are
+ * kept, per workspace, in a separate cache refreshed the same way as the rules one. Layers not
+ * mentioned by any rule are matched by the same wildcard rules, so they share a single access info,
+ * instead of each one needing a lookup of its own.
+ *
  * <p>
  *
  * @author ETj (etj at geo-solutions.it)
@@ -46,6 +53,9 @@ public class CachedRuleReader implements RuleReaderService {
 
     private LoadingCache<RuleFilter, AccessInfo> authCache;
 
+    /** The layers mentioned by the rules matching a filter with any layer */
+    private LoadingCache<RuleFilter, Set<String>> layerIndexCache;
+
     private final GeoFenceConfigurationManager configurationManager;
 
     /** Latest configuration used */
@@ -71,6 +81,7 @@ public final void init() {
         ruleCache = getCacheBuilder().build(new RuleLoader());
         userCache = getCacheBuilder().build(new UserLoader());
         authCache = getCacheBuilder().build(new AuthLoader());
+        layerIndexCache = getCacheBuilder().build(new LayerIndexLoader());
     }
 
     protected CacheBuilder<Object, Object> getCacheBuilder() {
@@ -155,6 +166,28 @@ public ListenableFuture<AccessInfo> reload(final RuleFilter filter, AccessInfo a
         }
     }
 
+    private class LayerIndexLoader extends CacheLoader<RuleFilter, Set<String>> {
+
+        @Override
+        public Set<String> load(RuleFilter filter) throws Exception {
+            if (LOGGER.isLoggable(Level.FINE)) LOGGER.log(Level.FINE, "Indexing {0}", filter);
+            // the service, when integrated, may modify the filter
+            RuleFilter clone = filter.clone();
+            Set<String> layers = new HashSet<>();
+            for (ShortRule rule : realRuleReaderService.getMatchingRules(clone)) {
+                if (rule.getLayer() != null) layers.add(rule.getLayer());
+            }
+            return layers;
+        }
+
+        @Override
+        public ListenableFuture<Set<String>> reload(final RuleFilter filter, Set<String> layers)
+                throws Exception {
+            // this is a sync implementation
+            return Futures.immediateFuture(load(filter));
+        }
+    }
+
     private class UserLoader extends CacheLoader<NamePw, AuthUser> {
 
         @Override
@@ -187,6 +220,7 @@ public void invalidateAll() {
         ruleCache.invalidateAll();
         userCache.invalidateAll();
         authCache.invalidateAll();
+        layerIndexCache.invalidateAll();
     }
 
     //    /**
@@ -233,13 +267,41 @@ public AccessInfo getAccessInfo(RuleFilter filter) {
 
         AccessInfo accessInfo = null;
         try {
-            accessInfo = ruleCache.get(filter);
+            accessInfo = ruleCache.get(getIndexedFilter(filter));
         } catch (ExecutionException ex) {
             // throw new RuntimeException(ex); // fixme: handle me
         }
         return accessInfo;
     }
 
+    /**
+     * Returns the filter to be used as the rule cache key. A layer not mentioned by any of the
+     * rules matching the filter is only matched by rules without a layer, and gets the same access
+     * info as any other layer in the same situation: the filter is turned into one matching only
+     * the rules without a layer, shared by all of them.
+     */
+    RuleFilter getIndexedFilter(RuleFilter filter) {
+        RuleFilter.TextFilter layer = filter.getLayer();
+        if (!cacheConfiguration.isLayerIndex()
+                || layer == null
+                || layer.getType() != RuleFilter.FilterType.NAMEVALUE) {
+            return filter;
+        }
+        RuleFilter anyLayer = filter.clone();
+        anyLayer.setLayer(RuleFilter.SpecialFilterType.ANY);
+        Set<String> layers;
+        try {
+            layers = layerIndexCache.get(anyLayer);
+        } catch (ExecutionException ex) {
+            LOGGER.log(Level.FINE, "Could not index the layers for " + anyLayer, ex);
+            return filter;
+        }
+        if (layers.contains(layer.getText())) return filter;
+        RuleFilter wildcard = anyLayer;
+        wildcard.setLayer(RuleFilter.SpecialFilterType.DEFAULT);
+        return wildcard;
+    }
+
     @Override
     public AccessInfo getAdminAuthorization(RuleFilter filter) {
         // return realRuleReaderService.getAdminAuthorization(filter);
@@ -283,9 +345,10 @@ public AccessInfo getAdminAuthorization(RuleFilter filter) {
     //                layer);
     //    }
 
+    /** <B>Matching rules are not cached.</B> */
     @Override
     public List<ShortRule> getMatchingRules(RuleFilter filter) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return realRuleReaderService.getMatchingRules(filter);
     }
 
     @Override
@@ -334,6 +397,14 @@ public long getUserCacheSize() {
         return userCache.size();
     }
 
+    public CacheStats getLayerIndexStats() {
+        return layerIndexCache.stats();
+    }
+
+    public long getLayerIndexCacheSize() {
+        return layerIndexCache.size();
+    }
+
     /** May be useful if an external peer doesn't want to use the guava dep. */
     public String getStatsString() {
         return ruleCache.stats().toString();
@@ -349,6 +420,8 @@ public String toString() {
                 + userCache.stats()
                 + " Auth:"
                 + authCache.stats()
+                + " LayerIndex:"
+                + layerIndexCache.stats()
                 + " "
                 + cacheConfiguration
                 + "]";
@@ -41,6 +41,7 @@ public class GeoFenceConfigurationManager implements InitializingBean {
     private static final String PROP_CACHE_EXPIRE = "cacheExpire";
     private static final String PROP_CACHE_REFRESH = "cacheRefresh";
     private static final String PROP_CACHE_SIZE = "cacheSize";
+    private static final String PROP_CACHE_LAYER_INDEX = "cacheLayerIndex";
 
     private static final String[] ALL_GEOFENCE_PROPS = {
         PROP_INSTANCE_NAME,
@@ -53,7 +54,7 @@ public class GeoFenceConfigurationManager implements InitializingBean {
         PROP_ORGGEOSERVERREST,
     };
     private static final String[] ALL_CACHE_PROPS = {
-        PROP_CACHE_SIZE, PROP_CACHE_REFRESH, PROP_CACHE_EXPIRE,
+        PROP_CACHE_SIZE, PROP_CACHE_REFRESH, PROP_CACHE_EXPIRE, PROP_CACHE_LAYER_INDEX,
     };
 
     public GeoFenceConfiguration getConfiguration() {
@@ -179,6 +180,7 @@ private void loadConfiguration(Properties props, CacheConfiguration cfg) {
         cfg.setSize(Long.parseLong(props.getProperty(PROP_CACHE_SIZE)));
         cfg.setRefreshMilliSec(Long.parseLong(props.getProperty(PROP_CACHE_REFRESH)));
         cfg.setExpireMilliSec(Long.parseLong(props.getProperty(PROP_CACHE_EXPIRE)));
+        cfg.setLayerIndex(BooleanUtils.toBoolean(props.getProperty(PROP_CACHE_LAYER_INDEX)));
     }
 
     public Properties configAsProperties(GeoFenceConfiguration cfg) {
@@ -196,10 +198,11 @@ public Properties configAsProperties(GeoFenceConfiguration cfg) {
     }
 
     public Properties configAsProperties(CacheConfiguration cfg) {
-        Properties props = new Properties(3);
+        Properties props = new Properties(4);
         props.setProperty(PROP_CACHE_SIZE, String.valueOf(cfg.getSize()));
         props.setProperty(PROP_CACHE_REFRESH, String.valueOf(cfg.getRefreshMilliSec()));
         props.setProperty(PROP_CACHE_EXPIRE, String.valueOf(cfg.getExpireMilliSec()));
+        props.setProperty(PROP_CACHE_LAYER_INDEX, format_prop(cfg.isLayerIndex()));
         return props;
     }
 
@@ -0,0 +1,141 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.geofence;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.geoserver.geofence.cache.CacheConfiguration;
+import org.geoserver.geofence.cache.CachedRuleReader;
+import org.geoserver.geofence.config.GeoFenceConfigurationManager;
+import org.geoserver.geofence.services.RuleReaderService;
+import org.geoserver.geofence.services.dto.AccessInfo;
+import org.geoserver.geofence.services.dto.RuleFilter;
+import org.geoserver.geofence.services.dto.ShortRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the time needed to check the access to all the layers of a capabilities document
+ * through the {@link CachedRuleReader}, with and without the layer index, against a rule service
+ * with a simulated remote latency and one layer specific rule every hundred layers. Each
+ * invocation starts with an empty cache, as happens once the entries expire. Not part of the test
+ * suite, run it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.geofence.CachedRuleReaderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachedRuleReaderBenchmark {
+
+    @Param({"1000", "10000"})
+    int layers;
+
+    @Param({"false", "true"})
+    boolean index;
+
+    /** The simulated latency of a call to the rule service */
+    @Param({"200"})
+    int latencyMicros;
+
+    CachedRuleReader reader;
+
+    List<RuleFilter> filters;
+
+    AtomicLong remoteCalls = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<ShortRule> rules = new ArrayList<>();
+        for (int i = 0; i < layers; i += 100) {
+            ShortRule rule = new ShortRule();
+            rule.setWorkspace("ws");
+            rule.setLayer("layer" + i);
+            rules.add(rule);
+        }
+        rules.add(new ShortRule());
+        RuleReaderService service =
+                (RuleReaderService)
+                        Proxy.newProxyInstance(
+                                getClass().getClassLoader(),
+                                new Class[] {RuleReaderService.class},
+                                (proxy, method, args) -> {
+                                    remoteCalls.incrementAndGet();
+                                    LockSupport.parkNanos(latencyMicros * 1000L);
+                                    if ("getMatchingRules".equals(method.getName())) return rules;
+                                    return AccessInfo.ALLOW_ALL;
+                                });
+
+        // same as the default configuration
+        CacheConfiguration configuration = new CacheConfiguration();
+        configuration.setSize(1000);
+        configuration.setRefreshMilliSec(30000);
+        configuration.setExpireMilliSec(60000);
+        configuration.setLayerIndex(index);
+        GeoFenceConfigurationManager manager = new GeoFenceConfigurationManager();
+        manager.setCacheConfiguration(configuration);
+        reader = new CachedRuleReader(manager);
+        reader.setRealRuleReaderService(service);
+
+        filters = new ArrayList<>();
+        for (int i = 0; i < layers; i++) {
+            RuleFilter filter = new RuleFilter(RuleFilter.SpecialFilterType.ANY);
+            filter.setUser("bob");
+            filter.setService("WMS");
+            filter.setRequest("GetCapabilities");
+            filter.setWorkspace("ws");
+            filter.setLayer("layer" + i);
+            filters.add(filter);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Remote calls: " + remoteCalls.get() + ", " + reader);
+    }
+
+    /** Checks all the layers, returns the number of allowed ones */
+    @Benchmark
+    public int capabilities() {
+        reader.invalidateAll();
+        int allowed = 0;
+        for (RuleFilter filter : filters) {
+            if (reader.getAccessInfo(filter) != null) allowed++;
+        }
+        return allowed;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(CachedRuleReaderBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
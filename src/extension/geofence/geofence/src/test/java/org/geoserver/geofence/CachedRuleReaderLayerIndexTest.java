@@ -0,0 +1,118 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.geofence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.geofence.cache.CacheConfiguration;
+import org.geoserver.geofence.cache.CachedRuleReader;
+import org.geoserver.geofence.config.GeoFenceConfigurationManager;
+import org.geoserver.geofence.core.model.enums.GrantType;
+import org.geoserver.geofence.services.RuleReaderService;
+import org.geoserver.geofence.services.dto.AccessInfo;
+import org.geoserver.geofence.services.dto.RuleFilter;
+import org.geoserver.geofence.services.dto.ShortRule;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachedRuleReaderLayerIndexTest {
+
+    AtomicInteger accessInfoCalls = new AtomicInteger();
+
+    AtomicInteger matchingRulesCalls = new AtomicInteger();
+
+    CacheConfiguration cacheConfiguration;
+
+    CachedRuleReader reader;
+
+    /** A rule reader with a rule for the "secret" layer only, and a wildcard one */
+    private RuleReaderService rules() {
+        ShortRule secret = new ShortRule();
+        secret.setWorkspace("ws");
+        secret.setLayer("secret");
+        ShortRule wildcard = new ShortRule();
+        return (RuleReaderService)
+                Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class[] {RuleReaderService.class},
+                        (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "getAccessInfo":
+                                    accessInfoCalls.incrementAndGet();
+                                    RuleFilter.TextFilter layer = ((RuleFilter) args[0]).getLayer();
+                                    boolean denied =
+                                            layer.getType() == RuleFilter.FilterType.NAMEVALUE
+                                                    && "secret".equals(layer.getText());
+                                    return denied ? AccessInfo.DENY_ALL : AccessInfo.ALLOW_ALL;
+                                case "getMatchingRules":
+                                    matchingRulesCalls.incrementAndGet();
+                                    return Arrays.asList(secret, wildcard);
+                                default:
+                                    throw new UnsupportedOperationException(method.getName());
+                            }
+                        });
+    }
+
+    @Before
+    public void setUp() {
+        cacheConfiguration = new CacheConfiguration();
+        cacheConfiguration.setSize(1000);
+        cacheConfiguration.setRefreshMilliSec(60000);
+        cacheConfiguration.setExpireMilliSec(60000);
+        GeoFenceConfigurationManager manager = new GeoFenceConfigurationManager();
+        manager.setCacheConfiguration(cacheConfiguration);
+        reader = new CachedRuleReader(manager);
+        reader.setRealRuleReaderService(rules());
+    }
+
+    private RuleFilter filter(String user, String layer) {
+        RuleFilter filter = new RuleFilter(RuleFilter.SpecialFilterType.ANY);
+        filter.setUser(user);
+        filter.setWorkspace("ws");
+        filter.setLayer(layer);
+        return filter;
+    }
+
+    @Test
+    public void testLayersWithoutRulesShareAccessInfo() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(
+                    GrantType.ALLOW, reader.getAccessInfo(filter("bob", "layer" + i)).getGrant());
+        }
+        assertEquals(1, accessInfoCalls.get());
+        assertEquals(1, matchingRulesCalls.get());
+
+        // the layer with a rule of its own gets its own lookup
+        assertEquals(GrantType.DENY, reader.getAccessInfo(filter("bob", "secret")).getGrant());
+        assertEquals(2, accessInfoCalls.get());
+        assertEquals(1, matchingRulesCalls.get());
+
+        // a different user has an index of its own
+        reader.getAccessInfo(filter("alice", "layer0"));
+        assertEquals(3, accessInfoCalls.get());
+        assertEquals(2, matchingRulesCalls.get());
+        assertEquals(2, reader.getLayerIndexCacheSize());
+
+        reader.invalidateAll();
+        reader.getAccessInfo(filter("bob", "layer0"));
+        assertEquals(4, accessInfoCalls.get());
+        assertEquals(3, matchingRulesCalls.get());
+    }
+
+    @Test
+    public void testLayerIndexDisabled() {
+        cacheConfiguration.setLayerIndex(false);
+        reader.init();
+        for (int i = 0; i < 100; i++) {
+            reader.getAccessInfo(filter("bob", "layer" + i));
+        }
+        assertEquals(GrantType.DENY, reader.getAccessInfo(filter("bob", "secret")).getGrant());
+        assertEquals(101, accessInfoCalls.get());
+        assertEquals(0, matchingRulesCalls.get());
+    }
+}
@@ -0,0 +1,244 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.importer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.importer.job.ProgressMonitor;
+import org.geoserver.importer.transform.VectorTransformChain;
+import org.geotools.api.data.DataStore;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.data.SimpleFeatureStore;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.DefaultTransaction;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Loads the features of an indirect import in chunks, each one written with {@link
+ * SimpleFeatureStore#addFeatures} in a transaction of its own, so that stores supporting batch
+ * inserts can use them. The conversion and inline transforms of a chunk are split among a bounded
+ * pool of threads while the next chunk is read.
+ *
+ * <p>After each commit the number of source features consumed so far is recorded in the task
+ * ({@link ImportTask#getNumberCommitted()}), and a new run of the same task skips them, resuming
+ * the import from the last committed chunk. Skipping is positional, the reader has to return the
+ * source features in the same order at each run (see {@link DataStoreFormat#getOrderedQuery}).
+ */
+class ChunkedFeatureLoader {
+
+    static final Logger LOGGER = Logging.getLogger(ChunkedFeatureLoader.class);
+
+    final ImportTask task;
+
+    final DataStore dataStore;
+
+    final String typeName;
+
+    final FeatureDataConverter featureDataConverter;
+
+    final VectorTransformChain tx;
+
+    final int commitSize;
+
+    final int threads;
+
+    /** called after each commit, to persist the progress */
+    final Runnable onCommit;
+
+    final AtomicInteger skipped = new AtomicInteger();
+
+    ChunkedFeatureLoader(
+            ImportTask task,
+            DataStore dataStore,
+            String typeName,
+            FeatureDataConverter featureDataConverter,
+            VectorTransformChain tx,
+            int commitSize,
+            int threads,
+            Runnable onCommit) {
+        this.task = task;
+        this.dataStore = dataStore;
+        this.typeName = typeName;
+        this.featureDataConverter = featureDataConverter;
+        this.tx = tx;
+        this.commitSize = commitSize;
+        this.threads = threads;
+        this.onCommit = onCommit;
+    }
+
+    /**
+     * Loads the features of the reader, skipping the ones committed by a previous run of the task
+     *
+     * @return the number of features written
+     */
+    int load(FeatureReader<SimpleFeatureType, SimpleFeature> reader) throws Exception {
+        ProgressMonitor monitor = task.progress();
+        SimpleFeatureStore store = (SimpleFeatureStore) dataStore.getFeatureSource(typeName);
+        SimpleFeatureType target = store.getSchema();
+
+        int committed = task.getNumberCommitted();
+        if (committed > 0) {
+            LOGGER.info(
+                    "Resuming import into '" + typeName + "' after " + committed + " features");
+            for (int i = 0; i < committed && reader.hasNext(); i++) {
+                reader.next();
+            }
+        }
+
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        long start = System.nanoTime();
+        int read = 0;
+        int written = 0;
+        try {
+            List<SimpleFeature> chunk = readChunk(reader, monitor);
+            while (!chunk.isEmpty() && !monitor.isCanceled()) {
+                List<Future<List<SimpleFeature>>> transformed = transform(chunk, target, executor);
+                // read ahead while the chunk gets transformed
+                List<SimpleFeature> next = readChunk(reader, monitor);
+                List<SimpleFeature> features = collect(transformed);
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                write(store, features);
+
+                committed += chunk.size();
+                read += chunk.size();
+                written += features.size();
+                task.setNumberCommitted(committed);
+                task.setNumberProcessed(committed);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                task.setThroughput(seconds > 0 ? read / seconds : 0);
+                onCommit.run();
+                LOGGER.log(
+                        Level.FINE,
+                        "Committed {0} features into {1}, {2} features/s",
+                        new Object[] {committed, typeName, (int) task.getThroughput()});
+
+                chunk = next;
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        if (skipped.get() > 0) {
+            task.addMessage(Level.WARNING, skipped.get() + " features were skipped.");
+        }
+        LOGGER.info(
+                "Loaded "
+                        + written
+                        + " features into '"
+                        + typeName
+                        + "' in chunks of "
+                        + commitSize
+                        + ", "
+                        + (int) task.getThroughput()
+                        + " features/s");
+        return written;
+    }
+
+    private List<SimpleFeature> readChunk(
+            FeatureReader<SimpleFeatureType, SimpleFeature> reader, ProgressMonitor monitor)
+            throws IOException {
+        List<SimpleFeature> chunk = new ArrayList<>();
+        while (chunk.size() < commitSize && !monitor.isCanceled() && reader.hasNext()) {
+            chunk.add(reader.next());
+        }
+        return chunk;
+    }
+
+    /** Splits the chunk among the threads, or transforms it right away without an executor */
+    private List<Future<List<SimpleFeature>>> transform(
+            List<SimpleFeature> chunk, SimpleFeatureType target, ExecutorService executor)
+            throws Exception {
+        if (executor == null) {
+            return Collections.singletonList(
+                    CompletableFuture.completedFuture(transform(chunk, target)));
+        }
+        int sliceSize = (chunk.size() + threads - 1) / threads;
+        List<Future<List<SimpleFeature>>> result = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i += sliceSize) {
+            List<SimpleFeature> slice = chunk.subList(i, Math.min(chunk.size(), i + sliceSize));
+            result.add(executor.submit(() -> transform(slice, target)));
+        }
+        return result;
+    }
+
+    /* for details, see the low-level api version in the Importer */
+    private List<SimpleFeature> transform(List<SimpleFeature> features, SimpleFeatureType target)
+            throws Exception {
+        SimpleFeatureBuilder featureBuilder = new SimpleFeatureBuilder(target);
+        List<SimpleFeature> result = new ArrayList<>(features.size());
+        for (SimpleFeature feature : features) {
+            SimpleFeature next = featureBuilder.buildFeature(null);
+            featureDataConverter.convert(feature, next);
+
+            // @hack #45678 - mask empty geometry or postgis will complain
+            Geometry geom = (Geometry) next.getDefaultGeometry();
+            if (geom != null && geom.isEmpty()) {
+                next.setDefaultGeometry(null);
+            }
+
+            next = tx.inline(task, dataStore, feature, next);
+            if (next == null) {
+                skipped.incrementAndGet();
+            } else {
+                result.add(next);
+            }
+        }
+        return result;
+    }
+
+    private List<SimpleFeature> collect(List<Future<List<SimpleFeature>>> futures)
+            throws Exception {
+        List<SimpleFeature> result = new ArrayList<>();
+        for (Future<List<SimpleFeature>> future : futures) {
+            try {
+                result.addAll(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private void write(SimpleFeatureStore store, List<SimpleFeature> features)
+            throws IOException {
+        if (features.isEmpty()) {
+            return;
+        }
+        try (Transaction transaction = new DefaultTransaction()) {
+            store.setTransaction(transaction);
+            try {
+                store.addFeatures(DataUtilities.collection(features));
+                transaction.commit();
+            } catch (IOException | RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        } finally {
+            store.setTransaction(Transaction.AUTO_COMMIT);
+        }
+    }
+}
@@ -28,12 +28,14 @@
 import org.geotools.api.data.DataStoreFactorySpi;
 import org.geotools.api.data.FeatureReader;
 import org.geotools.api.data.FeatureSource;
+import org.geotools.api.data.FileDataStore;
 import org.geotools.api.data.FileDataStoreFactorySpi;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureSource;
 import org.geotools.api.data.Transaction;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.filter.sort.SortBy;
 import org.geotools.jdbc.JDBCDataStoreFactory;
 import org.geotools.util.URLs;
 import org.geotools.util.logging.Logging;
@@ -176,11 +178,32 @@ public FeatureSource getFeatureSource(ImportData data, ImportTask task) throws I
 
     @Override
     public FeatureReader read(ImportData data, ImportTask task) throws IOException {
-        FeatureReader reader =
-                getDataStore(data, task)
-                        .getFeatureReader(
-                                new Query(task.getOriginalLayerName()), Transaction.AUTO_COMMIT);
-        return reader;
+        return read(data, task, new Query(task.getOriginalLayerName()));
+    }
+
+    /** Reads the features of the task matching the given query */
+    public FeatureReader read(ImportData data, ImportTask task, Query query) throws IOException {
+        return getDataStore(data, task).getFeatureReader(query, Transaction.AUTO_COMMIT);
+    }
+
+    /**
+     * Returns a query reading the features of the task in the same order at each run, as needed to
+     * resume an import by skipping the features committed by a previous run. Sources able to sort
+     * on their natural order (e.g. primary key or feature id) are sorted on it, files are read in
+     * their own order, other sources have no stable order and {@code null} is returned.
+     */
+    public Query getOrderedQuery(ImportData data, ImportTask task) throws IOException {
+        DataStore dataStore = getDataStore(data, task);
+        Query query = new Query(task.getOriginalLayerName());
+        SimpleFeatureSource featureSource = dataStore.getFeatureSource(query.getTypeName());
+        if (featureSource.getQueryCapabilities().supportsSorting(SortBy.NATURAL_ORDER)) {
+            query.setSortBy(SortBy.NATURAL_ORDER);
+            return query;
+        }
+        if (dataStore instanceof FileDataStore) {
+            return query;
+        }
+        return null;
     }
 
     @Override
@@ -99,6 +99,12 @@ public static enum State {
 
     int numberProcessed;
 
+    /** source features whose chunk has been committed, a chunked import resumes after them */
+    int numberCommitted;
+
+    /** features per second of the running chunked import */
+    transient double throughput;
+
     String typeName;
 
     String typeSpec;
@@ -245,6 +251,27 @@ public void setNumberProcessed(int numberProcessed) {
         this.numberProcessed = numberProcessed;
     }
 
+    /**
+     * Number of source features already written and committed by a chunked import, a run of this
+     * task skips them. Zero if the task has not been run in chunks.
+     */
+    public int getNumberCommitted() {
+        return numberCommitted;
+    }
+
+    public void setNumberCommitted(int numberCommitted) {
+        this.numberCommitted = numberCommitted;
+    }
+
+    /** Features per second loaded by the running chunked import */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(double throughput) {
+        this.throughput = throughput;
+    }
+
     public int getTotalToProcess() {
         return totalToProcess;
     }
@@ -277,8 +304,14 @@ public void reattach(Catalog catalog, boolean lookupByName) {
         }
     }
 
+    /**
+     * Whether the task can be run: ready, canceled, or failed after committing some chunks, in
+     * which case running it again resumes the import.
+     */
     public boolean readyForImport() {
-        return state == State.READY || state == State.CANCELED;
+        return state == State.READY
+                || state == State.CANCELED
+                || (state == State.ERROR && numberCommitted > 0);
     }
 
     public ProgressMonitor progress() {
@@ -365,6 +398,8 @@ public String toString() {
                 + totalToProcess
                 + ", numberProcessed="
                 + numberProcessed
+                + ", numberCommitted="
+                + numberCommitted
                 + ", typeName='"
                 + typeName
                 + '\''
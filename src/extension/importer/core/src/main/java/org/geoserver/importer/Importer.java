@@ -79,6 +79,7 @@
 import org.geotools.api.data.FeatureWriter;
 import org.geotools.api.data.FileGroupProvider;
 import org.geotools.api.data.FileServiceInfo;
+import org.geotools.api.data.Query;
 import org.geotools.api.data.ServiceInfo;
 import org.geotools.api.data.SimpleFeatureStore;
 import org.geotools.api.data.Transaction;
@@ -1460,10 +1461,34 @@ void loadIntoDataStore(
             featureType = featureDataConverter.convertType(featureType, format, data, task);
             UpdateMode updateMode = task.getUpdateMode();
 
+            // load in chunks, resuming after the ones committed by a previous run if any
+            boolean chunked = configuration.getCommitSize() > 0 && updateMode != UpdateMode.UPDATE;
+            // resuming skips the committed features by position, the source order must be stable
+            Query orderedQuery = null;
+            if (chunked && format instanceof DataStoreFormat) {
+                orderedQuery = ((DataStoreFormat) format).getOrderedQuery(data, task);
+                if (orderedQuery == null) {
+                    LOGGER.info(
+                            "Source of layer '"
+                                    + task.getLayer().getResource().getName()
+                                    + "' has no stable read order,"
+                                    + " loading it in a single transaction");
+                    chunked = false;
+                }
+            }
+            boolean resuming = chunked && task.getNumberCommitted() > 0;
+
             // created native type name in target datastore, will be dropped if import fails
             String createdNativeTypeName = null;
 
-            if (updateMode == UpdateMode.CREATE) {
+            if (resuming) {
+                LOGGER.info(
+                        "Resume loading layer '"
+                                + task.getLayer().getResource().getName()
+                                + "' into existing native schema '"
+                                + featureType.getTypeName()
+                                + "'");
+            } else if (updateMode == UpdateMode.CREATE) {
                 // find a unique native name in the target store (to avoid replacing existing
                 // content)
                 nativeName = findUniqueNativeFeatureTypeName(featureType, store);
@@ -1511,7 +1536,8 @@ void loadIntoDataStore(
             // apply the feature type transform
             featureType = tx.inline(task, dataStore, featureType);
 
-            if (updateMode == UpdateMode.CREATE) {
+            // when resuming the schema has been created or replaced by the previous run
+            if (!resuming && updateMode == UpdateMode.CREATE) {
                 LOGGER.info(
                         "Create layer '"
                                 + task.getLayer().getResource().getName()
@@ -1523,7 +1549,7 @@ void loadIntoDataStore(
                 dataStore.createSchema(featureType);
                 createdNativeTypeName = featureType.getTypeName();
 
-            } else if (updateMode == UpdateMode.REPLACE) {
+            } else if (!resuming && updateMode == UpdateMode.REPLACE) {
                 if (Arrays.asList(dataStore.getTypeNames()).contains(featureType.getTypeName())) {
                     SimpleFeatureStore fs =
                             (SimpleFeatureStore)
@@ -1570,7 +1596,24 @@ void loadIntoDataStore(
             }
 
             // Move features
-            if (format instanceof DataStoreFormat) {
+            if (chunked) {
+                // commit the schema changes, each chunk gets a transaction of its own
+                transaction.commit();
+                reader =
+                        orderedQuery != null
+                                ? ((DataStoreFormat) format).read(data, task, orderedQuery)
+                                : format.read(data, task);
+                error =
+                        copyInChunks(
+                                reader,
+                                task,
+                                format,
+                                dataStore,
+                                createdNativeTypeName,
+                                featureType.getTypeName(),
+                                featureDataConverter,
+                                tx);
+            } else if (format instanceof DataStoreFormat) {
                 error =
                         copyFromFeatureSource(
                                 data,
@@ -2056,6 +2099,81 @@ Throwable copyFromFeatureReader(
         return error;
     }
 
+    /**
+     * Copy content from a FeatureReader in chunks of {@link ImporterInfo#getCommitSize()}
+     * features, each committed on its own. On failure or cancel the committed chunks are kept, so
+     * that running the task again resumes the import, the created schema is dropped only if
+     * nothing has been committed yet.
+     *
+     * @return {@code null} if successful, or error condition throwable
+     * @see ChunkedFeatureLoader
+     */
+    @SuppressWarnings("unchecked") // vague about feature types
+    Throwable copyInChunks(
+            FeatureReader reader,
+            ImportTask task,
+            VectorFormat format,
+            DataStore dataStoreDestination,
+            String createdFeatureTypeName,
+            String nativeFeatureTypeName,
+            FeatureDataConverter featureDataConverter,
+            VectorTransformChain tx) {
+        Throwable error = null;
+        try {
+            task.clearMessages();
+            task.setTotalToProcess(format.getFeatureCount(task.getData(), task));
+            ChunkedFeatureLoader loader =
+                    new ChunkedFeatureLoader(
+                            task,
+                            dataStoreDestination,
+                            nativeFeatureTypeName,
+                            featureDataConverter,
+                            tx,
+                            configuration.getCommitSize(),
+                            configuration.getTransformThreads(),
+                            () -> saveProgress(task));
+            loader.load(reader);
+        } catch (Throwable e) {
+            error = e;
+            LOGGER.fine("Load in chunks in to target error:" + error);
+        }
+
+        if (error != null || task.progress().isCanceled()) {
+            if (task.getNumberCommitted() > 0) {
+                LOGGER.log(
+                        Level.INFO,
+                        "Import into '"
+                                + nativeFeatureTypeName
+                                + "' stopped after "
+                                + task.getNumberCommitted()
+                                + " committed features, it will resume from there when run again");
+            } else if (createdFeatureTypeName != null) {
+                try {
+                    LOGGER.log(
+                            Level.WARNING,
+                            "Unable to load data, removing created schema '"
+                                    + createdFeatureTypeName
+                                    + "'");
+                    dropSchema(dataStoreDestination, createdFeatureTypeName);
+                } catch (Exception e1) {
+                    LOGGER.log(
+                            Level.WARNING,
+                            "Error dropping schema '" + createdFeatureTypeName + "'",
+                            e1);
+                }
+            }
+        }
+        return error;
+    }
+
+    private void saveProgress(ImportTask task) {
+        try {
+            contextStore.save(task.getContext());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to save the progress of task " + task, e);
+        }
+    }
+
     StoreInfo lookupDefaultStore() {
         WorkspaceInfo ws = catalog.getDefaultWorkspace();
         if (ws == null) {
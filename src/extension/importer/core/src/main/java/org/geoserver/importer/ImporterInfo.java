@@ -36,4 +36,24 @@ public interface ImporterInfo extends Serializable {
 
     /** @see #getContextExpiration() */
     void setContextExpiration(double contextExpiration);
+
+    /**
+     * Number of features written by each transaction of an indirect vector import. Zero or
+     * negative writes all of them in a single transaction, rolled back on failure. Otherwise each
+     * chunk is committed on its own, and a failed or canceled task resumes after the last
+     * committed chunk when run again. Defaults to 0.
+     */
+    int getCommitSize();
+
+    /** @see #getCommitSize() */
+    void setCommitSize(int commitSize);
+
+    /**
+     * Number of threads transforming the features of a chunked import, one or less transforms
+     * them in the thread running the import. Defaults to 1.
+     */
+    int getTransformThreads();
+
+    /** @see #getTransformThreads() */
+    void setTransformThreads(int transformThreads);
 }
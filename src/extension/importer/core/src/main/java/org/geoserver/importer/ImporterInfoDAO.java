@@ -32,6 +32,10 @@ public class ImporterInfoDAO {
 
     public static final String CONTEXT_EXPIRATION_KEY = "importer.contextExpiration";
 
+    public static final String COMMIT_SIZE_KEY = "importer.commitSize";
+
+    public static final String TRANSFORM_THREADS_KEY = "importer.transformThreads";
+
     /**
      * Reads the importer configuration from the specified resource, or returns a default
      *
@@ -60,6 +64,8 @@ public void read(Resource resource, ImporterInfo info) throws IOException {
                 getConfig(props, MAX_SYNCH_KEY, Integer.class, () -> processors));
         info.setContextExpiration(
                 getConfig(props, CONTEXT_EXPIRATION_KEY, Double.class, () -> 1440d));
+        info.setCommitSize(getConfig(props, COMMIT_SIZE_KEY, Integer.class, () -> 0));
+        info.setTransformThreads(getConfig(props, TRANSFORM_THREADS_KEY, Integer.class, () -> 1));
     }
 
     private <T> T getConfig(
@@ -104,6 +110,9 @@ void write(ImporterInfo configuration, Resource resource) throws IOException {
                 MAX_ASYNCH_KEY, String.valueOf(configuration.getMaxAsynchronousImports()));
         props.setProperty(
                 CONTEXT_EXPIRATION_KEY, String.valueOf(configuration.getContextExpiration()));
+        props.setProperty(COMMIT_SIZE_KEY, String.valueOf(configuration.getCommitSize()));
+        props.setProperty(
+                TRANSFORM_THREADS_KEY, String.valueOf(configuration.getTransformThreads()));
         try (OutputStream os = resource.out()) {
             props.store(os, null);
         }
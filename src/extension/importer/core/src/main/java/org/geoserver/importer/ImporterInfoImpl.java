@@ -13,6 +13,8 @@ public class ImporterInfoImpl implements ImporterInfo {
     int maxSynchronousImports;
     int maxAsynchronousImports;
     double contextExpiration = 1440;
+    int commitSize;
+    int transformThreads = 1;
 
     public ImporterInfoImpl() {}
 
@@ -21,6 +23,8 @@ public ImporterInfoImpl(ImporterInfo configuration) {
         this.maxSynchronousImports = configuration.getMaxSynchronousImports();
         this.maxAsynchronousImports = configuration.getMaxAsynchronousImports();
         this.contextExpiration = configuration.getContextExpiration();
+        this.commitSize = configuration.getCommitSize();
+        this.transformThreads = configuration.getTransformThreads();
     }
 
     @Override
@@ -63,6 +67,26 @@ public void setContextExpiration(double contextExpiration) {
         this.contextExpiration = contextExpiration;
     }
 
+    @Override
+    public int getCommitSize() {
+        return commitSize;
+    }
+
+    @Override
+    public void setCommitSize(int commitSize) {
+        this.commitSize = commitSize;
+    }
+
+    @Override
+    public int getTransformThreads() {
+        return transformThreads;
+    }
+
+    @Override
+    public void setTransformThreads(int transformThreads) {
+        this.transformThreads = transformThreads;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -71,12 +95,19 @@ public boolean equals(Object o) {
         return maxSynchronousImports == that.maxSynchronousImports
                 && maxAsynchronousImports == that.maxAsynchronousImports
                 && contextExpiration == that.contextExpiration
+                && commitSize == that.commitSize
+                && transformThreads == that.transformThreads
                 && Objects.equals(uploadRoot, that.uploadRoot);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(
-                uploadRoot, maxSynchronousImports, maxAsynchronousImports, contextExpiration);
+                uploadRoot,
+                maxSynchronousImports,
+                maxAsynchronousImports,
+                contextExpiration,
+                commitSize,
+                transformThreads);
     }
 }
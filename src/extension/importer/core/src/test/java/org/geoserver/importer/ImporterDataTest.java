@@ -35,6 +35,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
@@ -60,6 +61,7 @@
 import org.geoserver.importer.transform.PostScriptTransform;
 import org.geoserver.platform.resource.Resources;
 import org.geotools.api.data.DataStore;
+import org.geotools.api.data.FeatureReader;
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureSource;
@@ -114,6 +116,33 @@ public SimpleFeature apply(
         }
     }
 
+    /** Fails once the given number of features has been transformed */
+    private static final class FailingTransform extends AbstractInlineVectorTransform {
+        /** serialVersionUID */
+        private static final long serialVersionUID = 1L;
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        volatile int limit;
+
+        FailingTransform(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public SimpleFeature apply(
+                ImportTask task,
+                DataStore dataStore,
+                SimpleFeature oldFeature,
+                SimpleFeature feature)
+                throws Exception {
+            if (calls.getAndIncrement() >= limit) {
+                throw new IOException("Failing on purpose");
+            }
+            return feature;
+        }
+    }
+
     @Test
     public void testUploadRootExternalProps() throws Exception {
         // Let's now override the external folder through the Environment variable. This takes
@@ -566,6 +595,67 @@ public void testImportIntoDatabaseUpdateModes() throws Exception {
         }
     }
 
+    @Test
+    public void testImportIntoDatabaseInChunks() throws Exception {
+        int commitSize = importer.configuration.getCommitSize();
+        int transformThreads = importer.configuration.getTransformThreads();
+        importer.configuration.setCommitSize(10);
+        importer.configuration.setTransformThreads(2);
+        try {
+            DataStoreInfo ds =
+                    createH2DataStore(getCatalog().getDefaultWorkspace().getName(), "spearfish");
+
+            File dir = tmpDir();
+            unpack("shape/bugsites_esri_prj.tar.gz", dir);
+
+            ImportContext context = importer.createContext(new Directory(dir), ds);
+            ImportTask task = context.getTasks().get(0);
+            FailingTransform failing = new FailingTransform(55);
+            task.addTransform(failing);
+
+            // the failure hits the sixth chunk, the first five stay committed
+            importer.run(context);
+            assertEquals(ImportTask.State.ERROR, task.getState());
+            assertEquals(50, task.getNumberCommitted());
+            DataStore store = (DataStore) ds.getDataStore(null);
+            String typeName = task.getLayer().getResource().getNativeName();
+            assertEquals(50, store.getFeatureSource(typeName).getCount(Query.ALL));
+
+            // running again resumes from there
+            assertTrue(task.readyForImport());
+            failing.limit = Integer.MAX_VALUE;
+            importer.run(context);
+            assertEquals(ImportTask.State.COMPLETE, task.getState());
+            assertEquals(90, task.getNumberCommitted());
+            assertEquals(90, store.getFeatureSource(typeName).getCount(Query.ALL));
+            assertNotNull(getCatalog().getLayerByName("bugsites"));
+            runChecks("bugsites");
+        } finally {
+            importer.configuration.setCommitSize(commitSize);
+            importer.configuration.setTransformThreads(transformThreads);
+        }
+    }
+
+    @Test
+    public void testOrderedQuery() throws Exception {
+        File dir = unpack("shape/bugsites_esri_prj.tar.gz");
+        ImportContext context =
+                importer.createContext(new SpatialFile(new File(dir, "bugsites.shp")));
+        ImportTask task = context.getTasks().get(0);
+        DataStoreFormat format = (DataStoreFormat) task.getData().getFormat();
+
+        // files are read in their own order, resuming in chunks can skip by position
+        Query query = format.getOrderedQuery(task.getData(), task);
+        assertNotNull(query);
+        FeatureReader reader = format.read(task.getData(), task, query);
+        try {
+            assertTrue(reader.hasNext());
+            assertEquals("bugsites.1", reader.next().getIdentifier().getID());
+        } finally {
+            format.dispose(reader, task);
+        }
+    }
+
     @Test
     public void testImportIntoDatabaseReplaceSchema() throws Exception {
         testImportIntoDatabase();
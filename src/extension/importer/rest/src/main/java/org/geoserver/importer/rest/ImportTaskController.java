@@ -104,6 +104,9 @@ public ImportWrapper progressGet(@PathVariable Long id, @PathVariable Integer ta
             if (inProgress != null) {
                 progress.put("progress", inProgress.getNumberProcessed());
                 progress.put("total", inProgress.getTotalToProcess());
+                if (inProgress.getThroughput() > 0) {
+                    progress.put("throughput", inProgress.getThroughput());
+                }
                 progress.put("state", inProgress.getState().toString());
             } else {
                 ImportTask task = task(id, taskId);
@@ -0,0 +1,149 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.monitor;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Aggregated statistics about the requests completed in a time range, as returned by {@link
+ * RequestMetricsStore}.
+ *
+ * <p>Request times are summarized in a fixed histogram, whose bin upper bounds, in milliseconds,
+ * are listed in {@link #TIME_BOUNDS}. The last bin collects all the requests slower than the last
+ * bound.
+ */
+public class RequestMetrics implements Serializable {
+
+    private static final long serialVersionUID = -4032717513452373284L;
+
+    /** Upper bounds (exclusive) of the request time histogram bins, in milliseconds */
+    public static final long[] TIME_BOUNDS = {10, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    Date from;
+    Date to;
+    long count;
+    long errorCount;
+    long totalTime;
+    long maxTime;
+    long responseLength;
+    long[] timeHistogram;
+
+    public RequestMetrics(
+            Date from,
+            Date to,
+            long count,
+            long errorCount,
+            long totalTime,
+            long maxTime,
+            long responseLength,
+            long[] timeHistogram) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+        this.errorCount = errorCount;
+        this.totalTime = totalTime;
+        this.maxTime = maxTime;
+        this.responseLength = responseLength;
+        this.timeHistogram = timeHistogram;
+    }
+
+    /** Returns the histogram bin a request time falls into */
+    static int getTimeBin(long time) {
+        int bin = 0;
+        while (bin < TIME_BOUNDS.length && time >= TIME_BOUNDS[bin]) {
+            bin++;
+        }
+        return bin;
+    }
+
+    /** Start of the time range, inclusive */
+    public Date getFrom() {
+        return from;
+    }
+
+    /** End of the time range, exclusive */
+    public Date getTo() {
+        return to;
+    }
+
+    /** Number of completed requests */
+    public long getCount() {
+        return count;
+    }
+
+    /** Number of requests that completed with a {@link RequestData.Status#FAILED} status */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /** Sum of the request times, in milliseconds */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /** Slowest request time, in milliseconds */
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    /** Average request time, in milliseconds, or 0 if there are no requests */
+    public double getAverageTime() {
+        return count == 0 ? 0 : (double) totalTime / count;
+    }
+
+    /** Sum of the response lengths, in bytes */
+    public long getResponseLength() {
+        return responseLength;
+    }
+
+    /** Request counts per time bin, see {@link #TIME_BOUNDS} */
+    public long[] getTimeHistogram() {
+        return timeHistogram.clone();
+    }
+
+    /**
+     * Estimates a request time percentile from the histogram, returning the upper bound of the bin
+     * the percentile falls into, or the maximum time for the last bin.
+     *
+     * @param percentile the percentile, between 0 and 100
+     */
+    public long getTimePercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100d);
+        long seen = 0;
+        for (int i = 0; i < TIME_BOUNDS.length; i++) {
+            seen += timeHistogram[i];
+            if (seen >= rank) {
+                return Math.min(TIME_BOUNDS[i], maxTime);
+            }
+        }
+        return maxTime;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics [from="
+                + from
+                + ", to="
+                + to
+                + ", count="
+                + count
+                + ", errorCount="
+                + errorCount
+                + ", totalTime="
+                + totalTime
+                + ", maxTime="
+                + maxTime
+                + ", responseLength="
+                + responseLength
+                + ", timeHistogram="
+                + Arrays.toString(timeHistogram)
+                + "]";
+    }
+}
@@ -0,0 +1,550 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.monitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.monitor.RequestData.Status;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Keeps pre-aggregated request statistics in per minute, per hour and per day buckets, so that
+ * the activity charts and the REST api can report on a history much longer than the one kept by
+ * the {@link MemoryMonitorDAO}, without having to visit the single requests.
+ *
+ * <p>Completed requests are folded in once post processing is done, so that layer names are
+ * already normalized and the cost is paid outside of the request thread. Statistics are kept for:
+ *
+ * <ul>
+ *   <li>all requests
+ *   <li>each service, and each service operation
+ *   <li>each layer of each service operation
+ *   <li>each layer, regardless of service
+ * </ul>
+ *
+ * <p>Each of the above has a fixed size ring buffer of lock free counters per {@link Resolution},
+ * allocated when first met: after that, recording a request does not allocate. The number of
+ * buffers is capped by the <code>metrics.maxSeries</code> configuration property, keys met once
+ * the cap is reached are only accounted for in the upper levels. The buffer sizes are configured
+ * with the <code>metrics.minutes</code>, <code>metrics.hours</code> and <code>metrics.days</code>
+ * properties, read at startup.
+ *
+ * <p>Queries visit at most one buffer, so their cost depends on the buffer size, not on the
+ * number of requests. Values read while requests are being recorded may be slightly behind.
+ */
+public class RequestMetricsStore implements RequestDataListener {
+
+    static final Logger LOGGER = Logging.getLogger(RequestMetricsStore.class);
+
+    /** The time resolutions at which the statistics are kept */
+    public enum Resolution {
+        MINUTE(60 * 1000L),
+        HOUR(60 * 60 * 1000L),
+        DAY(24 * 60 * 60 * 1000L);
+
+        final long millis;
+
+        Resolution(long millis) {
+            this.millis = millis;
+        }
+
+        /** Returns the bucket size, in milliseconds */
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    static final String PREFIX = "metrics";
+
+    static final int MINUTES_DEFAULT = 24 * 60;
+
+    static final int HOURS_DEFAULT = 7 * 24;
+
+    static final int DAYS_DEFAULT = 31;
+
+    static final int MAX_SERIES_DEFAULT = 128;
+
+    // layout of a bucket in the ring values array
+    static final int COUNT = 0;
+    static final int ERRORS = 1;
+    static final int TIME = 2;
+    static final int MAX_TIME = 3;
+    static final int BYTES = 4;
+    static final int HISTOGRAM = 5;
+    static final int FIELDS = HISTOGRAM + RequestMetrics.TIME_BOUNDS.length + 1;
+
+    /** Stamp of a bucket that never received a request */
+    static final long EMPTY = -1;
+
+    /** Stamp of a bucket being cleared for reuse */
+    static final long RESETTING = Long.MIN_VALUE;
+
+    final int[] sizes;
+
+    final int maxSeries;
+
+    volatile Tree tree;
+
+    public RequestMetricsStore(MonitorConfig config) {
+        this(
+                getSize(config, "minutes", MINUTES_DEFAULT),
+                getSize(config, "hours", HOURS_DEFAULT),
+                getSize(config, "days", DAYS_DEFAULT),
+                getSize(config, "maxSeries", MAX_SERIES_DEFAULT));
+    }
+
+    /**
+     * Builds a store with the given number of buckets per resolution, and the given maximum number
+     * of keys
+     */
+    public RequestMetricsStore(int minutes, int hours, int days, int maxSeries) {
+        this.sizes = new int[] {minutes, hours, days};
+        for (int size : sizes) {
+            if (size < 1) {
+                throw new IllegalArgumentException("The number of buckets must be positive");
+            }
+        }
+        this.maxSeries = maxSeries;
+        this.tree = new Tree(sizes);
+    }
+
+    static int getSize(MonitorConfig config, String name, int defaultValue) {
+        Integer value = config.getProperty(PREFIX, name, Integer.class);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value < 1) {
+            LOGGER.warning(PREFIX + "." + name + " is not 1 or more: " + value + "!");
+            return defaultValue;
+        }
+        return value;
+    }
+
+    @Override
+    public void requestStarted(RequestData rd) {
+        // nothing to do
+    }
+
+    @Override
+    public void requestUpdated(RequestData rd) {
+        // nothing to do
+    }
+
+    @Override
+    public void requestCompleted(RequestData rd) {
+        // wait for post processing to normalize the layer names
+    }
+
+    @Override
+    public void requestPostProcessed(RequestData rd) {
+        add(rd);
+    }
+
+    /** Folds a completed request into the statistics */
+    public void add(RequestData data) {
+        Date start = data.getStartTime();
+        long time = start != null ? start.getTime() : System.currentTimeMillis();
+        long elapsed = Math.max(0, data.getTotalTime());
+        long bytes = Math.max(0, data.getResponseLength());
+        boolean error = data.getStatus() == Status.FAILED;
+        int bin = RequestMetrics.getTimeBin(elapsed);
+
+        Tree tree = this.tree;
+        tree.root.series.add(time, elapsed, bytes, error, bin);
+
+        Node operation = null;
+        String service = data.getService();
+        if (service != null) {
+            Node node = tree.child(tree.root, service, this);
+            if (node != null) {
+                node.series.add(time, elapsed, bytes, error, bin);
+                if (data.getOperation() != null) {
+                    operation = tree.child(node, data.getOperation(), this);
+                    if (operation != null) {
+                        operation.series.add(time, elapsed, bytes, error, bin);
+                    }
+                }
+            }
+        }
+
+        List<String> resources = data.getResources();
+        if (resources != null) {
+            // indexed loop, avoids the iterator allocation
+            for (int i = 0; i < resources.size(); i++) {
+                String layer = resources.get(i);
+                if (layer == null) {
+                    continue;
+                }
+                Node node = tree.child(tree.layers, layer, this);
+                if (node != null) {
+                    node.series.add(time, elapsed, bytes, error, bin);
+                }
+                if (operation != null) {
+                    node = tree.child(operation, layer, this);
+                    if (node != null) {
+                        node.series.add(time, elapsed, bytes, error, bin);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Drops all the statistics */
+    public void clear() {
+        tree = new Tree(sizes);
+    }
+
+    /**
+     * Returns true if the statistics can stand in for a query against the given DAO on the
+     * requests started since the given time. The {@link MemoryMonitorDAO} only keeps the last few
+     * requests, the statistics are always more complete. Persistent DAOs keep the whole history
+     * instead, the statistics replace them only if they were already being recorded at the given
+     * time and still hold its buckets at the given resolution.
+     *
+     * @param dao the monitor DAO
+     * @param from the start of the range, or null for the whole history
+     * @param resolution the resolution the statistics will be read at
+     */
+    public boolean canReplace(MonitorDAO dao, Date from, Resolution resolution) {
+        if (dao instanceof MemoryMonitorDAO) {
+            return true;
+        }
+        if (from == null) {
+            return false;
+        }
+        long oldest = getOldest(resolution, System.currentTimeMillis());
+        return from.getTime() >= Math.max(tree.created, oldest);
+    }
+
+    /** Returns the start time of the oldest bucket kept at the given resolution */
+    long getOldest(Resolution resolution, long now) {
+        long current = Math.floorDiv(now, resolution.millis);
+        return (current - sizes[resolution.ordinal()] + 1) * resolution.millis;
+    }
+
+    /**
+     * Returns true if statistics are kept for the given key combination, null values meaning "any".
+     * Supported combinations are: no key, service, service and operation, service and operation
+     * and layer, layer.
+     */
+    public static boolean isSupported(String service, String operation, String layer) {
+        if (service == null) {
+            return operation == null;
+        }
+        return operation != null || layer == null;
+    }
+
+    /** Returns the services that have been recorded */
+    public Set<String> getServices() {
+        return new TreeSet<>(tree.root.children.keySet());
+    }
+
+    /** Returns the operations that have been recorded for the given service */
+    public Set<String> getOperations(String service) {
+        Node node = tree.root.children.get(service);
+        if (node == null) {
+            return Collections.emptySet();
+        }
+        return new TreeSet<>(node.children.keySet());
+    }
+
+    /** Returns the layers that have been recorded */
+    public Set<String> getLayers() {
+        return new TreeSet<>(tree.layers.children.keySet());
+    }
+
+    /**
+     * Returns the statistics for the requests matching the key and time range. The finest
+     * resolution still holding the start of the range is used, and the range is extended to its
+     * bucket boundaries. A null start means the oldest bucket kept, a null end means now.
+     *
+     * @param service the service name, or null
+     * @param operation the operation name, or null
+     * @param layer the layer name, or null
+     * @param from the start of the range, or null
+     * @param to the end of the range, or null
+     * @throws IllegalArgumentException if the key combination is not supported, see {@link
+     *     #isSupported(String, String, String)}
+     */
+    public RequestMetrics getMetrics(
+            String service, String operation, String layer, Date from, Date to) {
+        long now = System.currentTimeMillis();
+        Resolution resolution = Resolution.DAY;
+        if (from != null) {
+            for (Resolution r : Resolution.values()) {
+                if (from.getTime() >= getOldest(r, now)) {
+                    resolution = r;
+                    break;
+                }
+            }
+        }
+
+        Ring ring = getRing(service, operation, layer, resolution);
+        long[] range = getRange(resolution, from, to, now);
+        long[] values = new long[FIELDS];
+        if (ring != null) {
+            for (long index = range[0]; index <= range[1]; index++) {
+                ring.sum(index, values);
+            }
+        }
+        return toMetrics(resolution, range[0], range[1], values);
+    }
+
+    /**
+     * Returns the statistics for the requests matching the key and time range, one per bucket of
+     * the given resolution, empty buckets included. The range is limited to the buckets still kept,
+     * a null start means the oldest bucket, a null end means now.
+     *
+     * @throws IllegalArgumentException if the key combination is not supported, see {@link
+     *     #isSupported(String, String, String)}
+     */
+    public List<RequestMetrics> getSeries(
+            String service,
+            String operation,
+            String layer,
+            Date from,
+            Date to,
+            Resolution resolution) {
+        long now = System.currentTimeMillis();
+        Ring ring = getRing(service, operation, layer, resolution);
+        long[] range = getRange(resolution, from, to, now);
+        List<RequestMetrics> result = new ArrayList<>();
+        long[] values = new long[FIELDS];
+        for (long index = range[0]; index <= range[1]; index++) {
+            if (ring != null) {
+                ring.sum(index, values);
+            }
+            result.add(toMetrics(resolution, index, index, values));
+            Arrays.fill(values, 0);
+        }
+        return result;
+    }
+
+    Ring getRing(String service, String operation, String layer, Resolution resolution) {
+        if (!isSupported(service, operation, layer)) {
+            throw new IllegalArgumentException(
+                    "Statistics are not kept for service "
+                            + service
+                            + ", operation "
+                            + operation
+                            + " and layer "
+                            + layer);
+        }
+        Tree tree = this.tree;
+        Node node;
+        if (service == null) {
+            node = layer == null ? tree.root : tree.layers.children.get(layer);
+        } else {
+            node = tree.root.children.get(service);
+            if (node != null && operation != null) {
+                node = node.children.get(operation);
+            }
+            if (node != null && layer != null) {
+                node = node.children.get(layer);
+            }
+        }
+        return node == null ? null : node.series.rings[resolution.ordinal()];
+    }
+
+    /** Returns the first and last bucket index for the range, limited to the buckets kept */
+    long[] getRange(Resolution resolution, Date from, Date to, long now) {
+        long current = Math.floorDiv(now, resolution.millis);
+        long oldest = current - sizes[resolution.ordinal()] + 1;
+        long first = from == null ? oldest : Math.floorDiv(from.getTime(), resolution.millis);
+        long last = to == null ? current : Math.floorDiv(to.getTime(), resolution.millis);
+        return new long[] {Math.max(first, oldest), Math.min(last, current)};
+    }
+
+    static RequestMetrics toMetrics(Resolution resolution, long first, long last, long[] values) {
+        long[] histogram = new long[RequestMetrics.TIME_BOUNDS.length + 1];
+        System.arraycopy(values, HISTOGRAM, histogram, 0, histogram.length);
+        return new RequestMetrics(
+                new Date(first * resolution.millis),
+                new Date(Math.max(first, last + 1) * resolution.millis),
+                values[COUNT],
+                values[ERRORS],
+                values[TIME],
+                values[MAX_TIME],
+                values[BYTES],
+                histogram);
+    }
+
+    Series newSeries() {
+        return new Series(sizes);
+    }
+
+    /** The set of keys being tracked, replaced as a whole on {@link #clear()} */
+    static final class Tree {
+
+        final Node root;
+
+        final Node layers;
+
+        final AtomicInteger seriesCount = new AtomicInteger();
+
+        /** Requests started before this time have not been recorded */
+        final long created = System.currentTimeMillis();
+
+        Tree(int[] sizes) {
+            this.root = new Node(new Series(sizes));
+            // only used as a container
+            this.layers = new Node(null);
+        }
+
+        /** Returns the child for the given key, creating it if the series cap is not reached */
+        Node child(Node parent, String key, RequestMetricsStore store) {
+            Node node = parent.children.get(key);
+            if (node == null) {
+                if (seriesCount.get() >= store.maxSeries) {
+                    return null;
+                }
+                node =
+                        parent.children.computeIfAbsent(
+                                key,
+                                k -> {
+                                    if (seriesCount.incrementAndGet() == store.maxSeries
+                                            && LOGGER.isLoggable(Level.INFO)) {
+                                        LOGGER.info(
+                                                "Request metrics series limit reached, "
+                                                        + "new keys will only be accounted in "
+                                                        + "the totals");
+                                    }
+                                    return new Node(store.newSeries());
+                                });
+            }
+            return node;
+        }
+    }
+
+    static final class Node {
+
+        final Series series;
+
+        final ConcurrentHashMap<String, Node> children = new ConcurrentHashMap<>();
+
+        Node(Series series) {
+            this.series = series;
+        }
+    }
+
+    /** The statistics for a single key, one ring per resolution */
+    static final class Series {
+
+        final Ring[] rings;
+
+        Series(int[] sizes) {
+            Resolution[] resolutions = Resolution.values();
+            rings = new Ring[resolutions.length];
+            for (int i = 0; i < resolutions.length; i++) {
+                rings[i] = new Ring(resolutions[i].millis, sizes[i]);
+            }
+        }
+
+        void add(long time, long elapsed, long bytes, boolean error, int bin) {
+            for (Ring ring : rings) {
+                ring.add(time, elapsed, bytes, error, bin);
+            }
+        }
+    }
+
+    /**
+     * A fixed size ring of buckets, each one covering a period of time. Each bucket is stamped
+     * with the index of the period it holds, and cleared when the ring wraps around to a newer
+     * period.
+     */
+    static final class Ring {
+
+        final long millis;
+
+        final int size;
+
+        final AtomicLongArray stamps;
+
+        final AtomicLongArray values;
+
+        Ring(long millis, int size) {
+            this.millis = millis;
+            this.size = size;
+            this.stamps = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                stamps.set(i, EMPTY);
+            }
+            this.values = new AtomicLongArray(size * FIELDS);
+        }
+
+        void add(long time, long elapsed, long bytes, boolean error, int bin) {
+            long index = Math.floorDiv(time, millis);
+            int slot = (int) Math.floorMod(index, (long) size);
+            while (true) {
+                long stamp = stamps.get(slot);
+                if (stamp == index) {
+                    break;
+                } else if (stamp == RESETTING) {
+                    Thread.onSpinWait();
+                } else if (stamp > index) {
+                    // the bucket already moved on to a newer period, too late to record
+                    return;
+                } else if (stamps.compareAndSet(slot, stamp, RESETTING)) {
+                    int base = slot * FIELDS;
+                    for (int i = 0; i < FIELDS; i++) {
+                        values.set(base + i, 0);
+                    }
+                    stamps.set(slot, index);
+                    break;
+                }
+            }
+
+            int base = slot * FIELDS;
+            values.incrementAndGet(base + COUNT);
+            if (error) {
+                values.incrementAndGet(base + ERRORS);
+            }
+            values.addAndGet(base + TIME, elapsed);
+            values.accumulateAndGet(base + MAX_TIME, elapsed, Math::max);
+            values.addAndGet(base + BYTES, bytes);
+            values.incrementAndGet(base + HISTOGRAM + bin);
+        }
+
+        /** Adds the values of the bucket with the given index, if still present, to the target */
+        void sum(long index, long[] target) {
+            int slot = (int) Math.floorMod(index, (long) size);
+            if (stamps.get(slot) != index) {
+                return;
+            }
+            int base = slot * FIELDS;
+            long count = values.get(base + COUNT);
+            long errors = values.get(base + ERRORS);
+            long time = values.get(base + TIME);
+            long maxTime = values.get(base + MAX_TIME);
+            long bytes = values.get(base + BYTES);
+            long[] histogram = new long[FIELDS - HISTOGRAM];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = values.get(base + HISTOGRAM + i);
+            }
+            // the bucket got recycled while reading, the values are not the ones requested
+            if (stamps.get(slot) != index) {
+                return;
+            }
+            target[COUNT] += count;
+            target[ERRORS] += errors;
+            target[TIME] += time;
+            target[MAX_TIME] = Math.max(target[MAX_TIME], maxTime);
+            target[BYTES] += bytes;
+            for (int i = 0; i < histogram.length; i++) {
+                target[HISTOGRAM + i] += histogram[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.monitor.rest;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Locale;
+import javax.servlet.http.HttpServletResponse;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.geoserver.monitor.RequestMetrics;
+import org.geoserver.monitor.RequestMetricsStore;
+import org.geoserver.monitor.RequestMetricsStore.Resolution;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.rest.RestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exposes the pre-aggregated request statistics kept by the {@link RequestMetricsStore}, either as
+ * a single summary for the requested range, or as a series of buckets when a resolution is given.
+ */
+@RestController
+@RequestMapping(path = RestBaseController.ROOT_PATH + "/monitor/metrics")
+public class MonitorMetricsController extends RestBaseController {
+
+    RequestMetricsStore store;
+
+    @Autowired
+    public MonitorMetricsController(RequestMetricsStore store) {
+        this.store = store;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getMetrics(
+            @RequestParam(name = "service", required = false) String service,
+            @RequestParam(name = "operation", required = false) String operation,
+            @RequestParam(name = "layer", required = false) String layer,
+            @RequestParam(name = "from", required = false) String from,
+            @RequestParam(name = "to", required = false) String to,
+            @RequestParam(name = "resolution", required = false) String resolution,
+            HttpServletResponse response)
+            throws IOException {
+        if (!RequestMetricsStore.isSupported(service, operation, layer)) {
+            throw new RestException(
+                    "Metrics are available for: no key, service, service and operation, "
+                            + "service and operation and layer, layer",
+                    HttpStatus.BAD_REQUEST);
+        }
+        Date fromDate = from != null ? MonitorRequestController.parseDate(from) : null;
+        Date toDate = to != null ? MonitorRequestController.parseDate(to) : null;
+
+        JSONObject result = new JSONObject();
+        if (resolution == null) {
+            RequestMetrics metrics = store.getMetrics(service, operation, layer, fromDate, toDate);
+            result.put("metrics", toJSON(metrics));
+        } else {
+            Resolution res;
+            try {
+                res = Resolution.valueOf(resolution.toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                throw new RestException(
+                        "Unknown resolution " + resolution, HttpStatus.BAD_REQUEST, e);
+            }
+            JSONArray series = new JSONArray();
+            for (RequestMetrics metrics :
+                    store.getSeries(service, operation, layer, fromDate, toDate, res)) {
+                series.add(toJSON(metrics));
+            }
+            result.put("resolution", res.name());
+            result.put("series", series);
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (Writer w =
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)) {
+            result.write(w);
+            w.flush();
+        }
+    }
+
+    JSONObject toJSON(RequestMetrics metrics) {
+        JSONObject json = new JSONObject();
+        json.put("from", metrics.getFrom().getTime());
+        json.put("to", metrics.getTo().getTime());
+        json.put("count", metrics.getCount());
+        json.put("errorCount", metrics.getErrorCount());
+        json.put("totalTime", metrics.getTotalTime());
+        json.put("maxTime", metrics.getMaxTime());
+        json.put("averageTime", metrics.getAverageTime());
+        json.put("responseLength", metrics.getResponseLength());
+        json.put("timeBounds", RequestMetrics.TIME_BOUNDS);
+        json.put("timeHistogram", metrics.getTimeHistogram());
+        return json;
+    }
+}
@@ -203,7 +203,7 @@ protected MonitorQueryResults handleObjectGet(
         }
     }
 
-    Date parseDate(String s) {
+    static Date parseDate(String s) {
         try {
             return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").parse(s);
         } catch (ParseException e) {
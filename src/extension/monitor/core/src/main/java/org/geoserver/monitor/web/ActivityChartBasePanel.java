@@ -21,6 +21,10 @@
 import org.geoserver.monitor.Query;
 import org.geoserver.monitor.RequestData;
 import org.geoserver.monitor.RequestDataVisitor;
+import org.geoserver.monitor.RequestMetrics;
+import org.geoserver.monitor.RequestMetricsStore;
+import org.geoserver.monitor.RequestMetricsStore.Resolution;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.web.GeoServerApplication;
 import org.geoserver.web.wicket.DateField;
 import org.jfree.chart.JFreeChart;
@@ -80,13 +84,24 @@ protected void onSubmit(AjaxRequestTarget target, Form<?> form) {
     }
 
     BufferedDynamicImageResource queryAndRenderChart(Monitor monitor, Date[] range) {
-        Query q = new Query();
-        q.properties("startTime").between(range[0], range[1]);
+        HashMap<RegularTimePeriod, Integer> data;
+        RequestMetricsStore store = GeoServerExtensions.bean(RequestMetricsStore.class);
+        if (store != null && store.canReplace(monitor.getDAO(), range[0], getResolution())) {
+            // pre-aggregated, cheaper than visiting the requests
+            data = new HashMap<>();
+            for (RequestMetrics m :
+                    store.getSeries(null, null, null, range[0], range[1], getResolution())) {
+                data.merge(getTimePeriod(m.getFrom()), (int) m.getCount(), Integer::sum);
+            }
+        } else {
+            Query q = new Query();
+            q.properties("startTime").between(range[0], range[1]);
 
-        DataGatherer gatherer = new DataGatherer();
-        monitor.query(q, gatherer);
+            DataGatherer gatherer = new DataGatherer();
+            monitor.query(q, gatherer);
 
-        HashMap<RegularTimePeriod, Integer> data = gatherer.getData();
+            data = gatherer.getData();
+        }
 
         Class<?> timeUnitClass = getTimePeriod(range[0]).getClass();
         TimeSeries series = new TimeSeries("foo", timeUnitClass);
@@ -166,4 +181,7 @@ protected String getChartTitle(Date[] range) {
     protected abstract Date[] getDateRange();
 
     protected abstract RegularTimePeriod getTimePeriod(Date time);
+
+    /** The resolution of the pre-aggregated statistics matching {@link #getTimePeriod(Date)} */
+    protected abstract Resolution getResolution();
 }
@@ -12,6 +12,9 @@
 import org.geoserver.monitor.Query.Comparison;
 import org.geoserver.monitor.RequestData;
 import org.geoserver.monitor.RequestDataVisitor;
+import org.geoserver.monitor.RequestMetricsStore;
+import org.geoserver.monitor.RequestMetricsStore.Resolution;
+import org.geoserver.platform.GeoServerExtensions;
 
 public class OWSOverviewPanel extends OWSSummaryChartBasePanel {
 
@@ -28,6 +31,17 @@ protected String getChartTitle() {
 
     @Override
     protected Map<String, Integer> gatherData(Monitor monitor) {
+        RequestMetricsStore store = GeoServerExtensions.bean(RequestMetricsStore.class);
+        // the totals cover the whole history, kept by the DAO unless it's the in memory one
+        if (store != null && store.canReplace(monitor.getDAO(), null, Resolution.DAY)) {
+            Map<String, Integer> data = new HashMap<>();
+            for (String service : store.getServices()) {
+                long count = store.getMetrics(service, null, null, null, null).getCount();
+                data.put(service, (int) count);
+            }
+            return data;
+        }
+
         Query q = new Query();
         q.properties("service").filter("service", null, Comparison.NEQ);
 
@@ -8,6 +8,7 @@
 import java.util.Calendar;
 import java.util.Date;
 import org.geoserver.monitor.Monitor;
+import org.geoserver.monitor.RequestMetricsStore.Resolution;
 import org.jfree.data.time.Hour;
 import org.jfree.data.time.RegularTimePeriod;
 
@@ -34,4 +35,9 @@ protected Date[] getDateRange() {
     protected RegularTimePeriod getTimePeriod(Date time) {
         return new Hour(time);
     }
+
+    @Override
+    protected Resolution getResolution() {
+        return Resolution.HOUR;
+    }
 }
@@ -0,0 +1,203 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.monitor;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.geoserver.monitor.RequestData.Status;
+import org.geoserver.monitor.RequestMetricsStore.Resolution;
+import org.geoserver.monitor.RequestMetricsStore.Ring;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestMetricsStoreTest {
+
+    RequestMetricsStore store;
+
+    long now;
+
+    @Before
+    public void setUp() {
+        store = new RequestMetricsStore(60, 24, 7, 100);
+        now = System.currentTimeMillis();
+    }
+
+    RequestData request(
+            String service, String operation, long time, Status status, String... layers) {
+        RequestData data = new RequestData();
+        data.setStartTime(new Date(now));
+        data.setTotalTime(time);
+        data.setResponseLength(1000);
+        data.setStatus(status);
+        data.setService(service);
+        data.setOperation(operation);
+        if (layers.length > 0) {
+            data.setResources(Arrays.asList(layers));
+        }
+        return data;
+    }
+
+    void setupRequests() {
+        store.requestPostProcessed(request("WMS", "GetMap", 20, Status.FINISHED, "topp:states"));
+        store.requestPostProcessed(
+                request("WMS", "GetMap", 200, Status.FINISHED, "topp:states", "sf:roads"));
+        store.requestPostProcessed(request("WMS", "GetCapabilities", 5, Status.FINISHED));
+        store.requestPostProcessed(request("WFS", "GetFeature", 3000, Status.FAILED, "sf:roads"));
+        store.requestPostProcessed(request(null, null, 1, Status.FINISHED));
+    }
+
+    @Test
+    public void testTotals() {
+        setupRequests();
+        RequestMetrics metrics = store.getMetrics(null, null, null, null, null);
+        assertEquals(5, metrics.getCount());
+        assertEquals(1, metrics.getErrorCount());
+        assertEquals(3226, metrics.getTotalTime());
+        assertEquals(3000, metrics.getMaxTime());
+        assertEquals(5000, metrics.getResponseLength());
+        assertArrayEquals(new long[] {2, 1, 0, 1, 0, 0, 0, 1, 0, 0}, metrics.getTimeHistogram());
+        assertEquals(50, metrics.getTimePercentile(50));
+        assertEquals(3000, metrics.getTimePercentile(100));
+    }
+
+    @Test
+    public void testKeys() {
+        setupRequests();
+        assertEquals(new TreeSet<>(Arrays.asList("WFS", "WMS")), store.getServices());
+        assertEquals(
+                new TreeSet<>(Arrays.asList("GetCapabilities", "GetMap")),
+                store.getOperations("WMS"));
+        assertEquals(new TreeSet<>(Arrays.asList("sf:roads", "topp:states")), store.getLayers());
+
+        assertEquals(3, store.getMetrics("WMS", null, null, null, null).getCount());
+        assertEquals(2, store.getMetrics("WMS", "GetMap", null, null, null).getCount());
+        assertEquals(1, store.getMetrics("WMS", "GetMap", "sf:roads", null, null).getCount());
+        assertEquals(2, store.getMetrics(null, null, "sf:roads", null, null).getCount());
+        assertEquals(1, store.getMetrics(null, null, "sf:roads", null, null).getErrorCount());
+        assertEquals(0, store.getMetrics("WCS", null, null, null, null).getCount());
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> store.getMetrics(null, "GetMap", null, null, null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> store.getMetrics("WMS", null, "sf:roads", null, null));
+    }
+
+    @Test
+    public void testCanReplace() {
+        Date created = new Date(now);
+        Date later = new Date(now + Resolution.MINUTE.getMillis());
+        Date earlier = new Date(now - Resolution.MINUTE.getMillis());
+
+        // the in memory DAO keeps just the last requests, the statistics are always better
+        MonitorDAO memory = new MemoryMonitorDAO();
+        assertTrue(store.canReplace(memory, null, Resolution.DAY));
+        assertTrue(store.canReplace(memory, earlier, Resolution.MINUTE));
+
+        // persistent DAOs keep the history from before the statistics were started
+        MonitorDAO persistent = createMock(MonitorDAO.class);
+        replay(persistent);
+        assertFalse(store.canReplace(persistent, null, Resolution.DAY));
+        assertFalse(store.canReplace(persistent, earlier, Resolution.MINUTE));
+        assertTrue(store.canReplace(persistent, later, Resolution.MINUTE));
+        assertTrue(store.canReplace(persistent, created, Resolution.MINUTE));
+
+        // or the buckets have been dropped already
+        store = new RequestMetricsStore(1, 1, 1, 100);
+        Date past = new Date(System.currentTimeMillis() - 2 * Resolution.MINUTE.getMillis());
+        assertFalse(store.canReplace(persistent, past, Resolution.MINUTE));
+        assertTrue(store.canReplace(persistent, later, Resolution.MINUTE));
+    }
+
+    @Test
+    public void testTimeRange() {
+        setupRequests();
+        Date older = new Date(now - 10 * Resolution.MINUTE.getMillis());
+        Date past = new Date(now - 2 * Resolution.MINUTE.getMillis());
+        Date later = new Date(now + Resolution.MINUTE.getMillis());
+        assertEquals(0, store.getMetrics(null, null, null, older, past).getCount());
+        assertEquals(5, store.getMetrics(null, null, null, past, null).getCount());
+        assertEquals(0, store.getMetrics(null, null, null, later, null).getCount());
+    }
+
+    @Test
+    public void testSeries() {
+        setupRequests();
+        Date from = new Date(now - 9 * Resolution.MINUTE.getMillis());
+        List<RequestMetrics> series =
+                store.getSeries("WMS", "GetMap", null, from, null, Resolution.MINUTE);
+        assertEquals(10, series.size());
+        for (int i = 0; i < 9; i++) {
+            assertEquals(0, series.get(i).getCount());
+        }
+        RequestMetrics last = series.get(9);
+        assertEquals(2, last.getCount());
+        long span = last.getTo().getTime() - last.getFrom().getTime();
+        assertEquals(Resolution.MINUTE.getMillis(), span);
+
+        // limited to the buckets kept
+        assertEquals(7, store.getSeries(null, null, null, null, null, Resolution.DAY).size());
+    }
+
+    @Test
+    public void testSeriesLimit() {
+        store = new RequestMetricsStore(60, 24, 7, 3);
+        setupRequests();
+        // WMS, GetMap and topp:states took all the series available
+        Set<String> services = store.getServices();
+        assertEquals(new TreeSet<>(Arrays.asList("WMS")), services);
+        assertEquals(5, store.getMetrics(null, null, null, null, null).getCount());
+        assertEquals(2, store.getMetrics("WMS", "GetMap", null, null, null).getCount());
+        assertEquals(0, store.getMetrics(null, null, "sf:roads", null, null).getCount());
+    }
+
+    @Test
+    public void testClear() {
+        setupRequests();
+        store.clear();
+        assertEquals(0, store.getMetrics(null, null, null, null, null).getCount());
+        assertEquals(0, store.getServices().size());
+    }
+
+    @Test
+    public void testRingWrapAround() {
+        Ring ring = new Ring(1000, 4);
+        ring.add(500, 10, 100, false, 1);
+        ring.add(1500, 10, 100, false, 1);
+
+        long[] values = new long[RequestMetricsStore.FIELDS];
+        ring.sum(0, values);
+        assertEquals(1, values[RequestMetricsStore.COUNT]);
+
+        // same slot as the first bucket, replaces it
+        ring.add(4500, 20, 100, true, 2);
+        values = new long[RequestMetricsStore.FIELDS];
+        ring.sum(0, values);
+        assertEquals(0, values[RequestMetricsStore.COUNT]);
+        ring.sum(4, values);
+        assertEquals(1, values[RequestMetricsStore.COUNT]);
+        assertEquals(1, values[RequestMetricsStore.ERRORS]);
+        assertEquals(20, values[RequestMetricsStore.MAX_TIME]);
+
+        // too late for the first bucket, dropped
+        ring.add(600, 10, 100, false, 1);
+        values = new long[RequestMetricsStore.FIELDS];
+        ring.sum(4, values);
+        ring.sum(0, values);
+        assertEquals(1, values[RequestMetricsStore.COUNT]);
+    }
+}
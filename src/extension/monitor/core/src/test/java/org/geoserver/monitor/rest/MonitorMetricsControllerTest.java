@@ -0,0 +1,81 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.monitor.rest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Date;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.geoserver.data.test.SystemTestData;
+import org.geoserver.monitor.RequestData;
+import org.geoserver.monitor.RequestMetricsStore;
+import org.geoserver.rest.RestBaseController;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class MonitorMetricsControllerTest extends GeoServerSystemTestSupport {
+
+    static final String PATH = RestBaseController.ROOT_PATH + "/monitor/metrics";
+
+    @Override
+    protected void setUpTestData(SystemTestData testData) throws Exception {
+        // no test data
+    }
+
+    @Before
+    public void setupMetrics() {
+        RequestMetricsStore store = applicationContext.getBean(RequestMetricsStore.class);
+        store.clear();
+        store.add(request("WMS", "GetMap", 20, RequestData.Status.FINISHED, "topp:states"));
+        store.add(request("WMS", "GetMap", 300, RequestData.Status.FAILED, "sf:roads"));
+        store.add(request("WFS", "GetFeature", 40, RequestData.Status.FINISHED, "sf:roads"));
+    }
+
+    RequestData request(
+            String service, String operation, long time, RequestData.Status status, String layer) {
+        RequestData data = new RequestData();
+        data.setStartTime(new Date());
+        data.setTotalTime(time);
+        data.setStatus(status);
+        data.setService(service);
+        data.setOperation(operation);
+        data.setResources(Arrays.asList(layer));
+        return data;
+    }
+
+    @Test
+    public void testSummary() throws Exception {
+        JSONObject json = (JSONObject) getAsJSON(PATH + "?service=WMS&operation=GetMap");
+        JSONObject metrics = json.getJSONObject("metrics");
+        assertEquals(2, metrics.getInt("count"));
+        assertEquals(1, metrics.getInt("errorCount"));
+        assertEquals(300, metrics.getInt("maxTime"));
+
+        json = (JSONObject) getAsJSON(PATH + "?layer=sf:roads");
+        assertEquals(2, json.getJSONObject("metrics").getInt("count"));
+    }
+
+    @Test
+    public void testSeries() throws Exception {
+        JSONObject json = (JSONObject) getAsJSON(PATH + "?service=WFS&resolution=hour");
+        assertEquals("HOUR", json.getString("resolution"));
+        JSONArray series = json.getJSONArray("series");
+        JSONObject last = series.getJSONObject(series.size() - 1);
+        assertEquals(1, last.getInt("count"));
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        MockHttpServletResponse response = getAsServletResponse(PATH + "?operation=GetMap");
+        assertEquals(400, response.getStatus());
+
+        response = getAsServletResponse(PATH + "?resolution=week");
+        assertEquals(400, response.getStatus());
+    }
+}
@@ -144,7 +144,8 @@ public AbstractNetCDFEncoder(
             String outputFormat)
             throws IOException {
         this.granuleStack = granuleStack;
-        this.sampleGranule = granuleStack.getGranules().get(0);
+        // only the first granule, the others might still be getting read
+        this.sampleGranule = granuleStack.granules().next();
         NetCDFLayerSettingsContainer settings = getSettings(encodingParameters);
         if (settings != null) {
             initializeFromSettings(settings);
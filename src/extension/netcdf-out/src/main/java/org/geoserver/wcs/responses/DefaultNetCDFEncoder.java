@@ -6,19 +6,34 @@
 package org.geoserver.wcs.responses;
 
 import it.geosolutions.jaiext.range.NoDataContainer;
+import java.awt.Rectangle;
 import java.awt.image.RenderedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import javax.measure.UnconvertibleException;
 import javax.measure.Unit;
 import javax.measure.UnitConverter;
 import javax.media.jai.iterator.RandomIter;
 import javax.media.jai.iterator.RandomIterFactory;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
 import org.geoserver.wcs.responses.NetCDFDimensionsManager.NetCDFDimensionMapping;
 import org.geoserver.wcs2_0.response.GranuleStack;
 import org.geoserver.web.netcdf.DataPacking;
@@ -70,6 +85,25 @@ public class DefaultNetCDFEncoder extends AbstractNetCDFEncoder {
 
     private DataPacker dataPacker;
 
+    /**
+     * Set to false to fill the whole output in memory and write it at once, instead of writing it
+     * slice by slice as the granules are read
+     */
+    static final String STREAMING_WRITE = "NETCDF_STREAMING_WRITE";
+
+    /**
+     * Number of threads preparing the rows written by the streaming writer, shared by all
+     * requests. With 1 the rows are prepared by the thread writing the output.
+     */
+    static final String ENCODER_THREADS = "NETCDF_ENCODER_THREADS";
+
+    private static ExecutorService encoderPool;
+
+    /** Bytes held in row blocks waiting to be written, and their peak */
+    private long bufferedBytes;
+
+    private long peakBufferedBytes;
+
     /**
      * {@link DefaultNetCDFEncoder} constructor.
      *
@@ -344,10 +378,271 @@ protected void writeDataValues() throws IOException, InvalidRangeException {
         // the same sample model
         final int imageDataType = sampleGranule.getRenderedImage().getSampleModel().getDataType();
         final DataType netCDFDataType = var.getDataType();
+
+        if (isStreamingWrite()) {
+            writeSlices(var, dimSize, nonscalarExtraVariables, imageDataType, netCDFDataType);
+        } else {
+            writeCube(var, dimSize, nonscalarExtraVariables, imageDataType, netCDFDataType);
+        }
+        writer.flush();
+    }
+
+    /** Whether the data gets written slice by slice, rather than as a single array */
+    static boolean isStreamingWrite() {
+        String value = GeoServerExtensions.getProperty(STREAMING_WRITE);
+        return value == null || Boolean.parseBoolean(value.trim());
+    }
+
+    /** The number of threads preparing the rows to be written */
+    static int getEncoderThreads() {
+        int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        String value = GeoServerExtensions.getProperty(ENCODER_THREADS);
+        if (value != null) {
+            try {
+                threads = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + ENCODER_THREADS + ": " + value);
+            }
+        }
+        return threads;
+    }
+
+    /** The pool preparing the rows to be written, shared by all requests */
+    private static synchronized ExecutorService getEncoderPool(int threads) {
+        if (encoderPool == null) {
+            AtomicInteger counter = new AtomicInteger();
+            encoderPool =
+                    Executors.newFixedThreadPool(
+                            threads,
+                            r -> {
+                                Thread t =
+                                        new Thread(
+                                                r, "netcdf-encoder-" + counter.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            });
+        }
+        return encoderPool;
+    }
+
+    /**
+     * Writes the granules one slice at a time, as they come out of the stack. Each slice is split
+     * in blocks of rows following the image tiles, the blocks are filled on the encoder pool and
+     * written in order, keeping a bounded number of them in memory. Each granule is released as
+     * soon as its last block has been written.
+     */
+    private void writeSlices(
+            Variable var,
+            int[] dimSize,
+            List<ExtraVariableRecord> nonscalarExtraVariables,
+            int imageDataType,
+            DataType netCDFDataType)
+            throws IOException, InvalidRangeException {
+        final int numDimensions = dimSize.length;
+        final int threads = getEncoderThreads();
+        final ExecutorService executor = threads > 1 ? getEncoderPool(threads) : null;
+        final int maxPending = executor != null ? threads * 2 : 1;
+        final ThreadLocalsTransfer transfer = executor != null ? new ThreadLocalsTransfer() : null;
+        final DataType imageType = NetCDFUtilities.transcodeImageDataType(imageDataType);
+        final int typeSize = netCDFDataType.getSize();
+        final Deque<RowBlock> pending = new ArrayDeque<>();
+        try {
+            for (Iterator<GridCoverage2D> granules = granuleStack.granules();
+                    granules.hasNext(); ) {
+                final GridCoverage2D gridCoverage = granules.next();
+                final RenderedImage ri = gridCoverage.getRenderedImage();
+                final int[] indexing = new int[numDimensions];
+
+                // Update the NetCDF array indexing to set values for a specific 2D slice
+                updateIndexing(indexing, gridCoverage);
+                copyNonScalarExtraVariables(nonscalarExtraVariables, indexing, gridCoverage);
+
+                final int height = ri.getHeight();
+                final int minY = ri.getMinY();
+                final int maxY = minY + height - 1;
+                final int tileHeight = ri.getTileHeight();
+                final int tileGridYOffset = ri.getTileGridYOffset();
+                int fromRow = minY;
+                while (fromRow <= maxY) {
+                    // stop at the end of the tile row
+                    int tileY = Math.floorDiv(fromRow - tileGridYOffset, tileHeight);
+                    int toRow = Math.min(maxY, tileGridYOffset + (tileY + 1) * tileHeight - 1);
+
+                    // the rows are flipped, the last image row is the first NetCDF one
+                    int[] origin = indexing.clone();
+                    origin[numDimensions - 2] = height - toRow + minY - 1;
+                    origin[numDimensions - 1] = 0;
+
+                    while (pending.size() >= maxPending) {
+                        writeBlock(var, pending.poll());
+                    }
+                    RunnableFuture<Array> future =
+                            newFillTask(
+                                    ri,
+                                    fromRow,
+                                    toRow,
+                                    numDimensions,
+                                    imageType,
+                                    netCDFDataType,
+                                    transfer);
+                    if (executor != null) {
+                        executor.execute(future);
+                    } else {
+                        future.run();
+                    }
+                    long bytes = (long) (toRow - fromRow + 1) * ri.getWidth() * typeSize;
+                    GridCoverage2D last = toRow == maxY ? gridCoverage : null;
+                    pending.add(new RowBlock(future, origin, bytes, last));
+                    bufferedBytes += bytes;
+                    peakBufferedBytes = Math.max(peakBufferedBytes, bufferedBytes);
+                    fromRow = toRow + 1;
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeBlock(var, pending.poll());
+            }
+        } finally {
+            // in case of failure, stop filling the blocks not yet written
+            for (RowBlock block : pending) {
+                block.data.cancel(true);
+            }
+            bufferedBytes = 0;
+        }
+    }
+
+    /** Creates the task filling a block with the given image rows, as the request thread would */
+    private RunnableFuture<Array> newFillTask(
+            RenderedImage ri,
+            int fromRow,
+            int toRow,
+            int numDimensions,
+            DataType imageDataType,
+            DataType netCDFDataType,
+            ThreadLocalsTransfer transfer) {
+        final int[] shape = new int[numDimensions];
+        Arrays.fill(shape, 1);
+        shape[numDimensions - 2] = toRow - fromRow + 1;
+        shape[numDimensions - 1] = ri.getWidth();
+        Callable<Array> fill =
+                () -> fillRows(ri, fromRow, toRow, shape, imageDataType, netCDFDataType);
+        if (transfer == null) {
+            return new FutureTask<>(fill);
+        }
+        return new FutureTask<>(
+                () -> {
+                    transfer.apply();
+                    try {
+                        return fill.call();
+                    } finally {
+                        transfer.cleanup();
+                    }
+                });
+    }
+
+    /** Fills a block with the pixels of the given image rows */
+    private Array fillRows(
+            RenderedImage ri,
+            int fromRow,
+            int toRow,
+            int[] shape,
+            DataType imageDataType,
+            DataType netCDFDataType) {
+        final int numDimensions = shape.length;
+        final int minX = ri.getMinX();
+        final int maxX = minX + ri.getWidth() - 1;
+        final Array block = NetCDFUtilities.getArray(shape, netCDFDataType);
+        final Index blockIndex = block.getIndex();
+        final int[] indexing = new int[numDimensions];
+        final RandomIter data =
+                RandomIterFactory.create(
+                        ri, new Rectangle(minX, fromRow, ri.getWidth(), toRow - fromRow + 1));
+        try {
+            for (int j = fromRow; j <= toRow; j++) {
+                indexing[numDimensions - 2] = toRow - j;
+                for (int k = minX; k <= maxX; k++) {
+                    indexing[numDimensions - 1] = k - minX;
+                    blockIndex.set(indexing);
+                    setPixel(
+                            k,
+                            j,
+                            imageDataType,
+                            netCDFDataType,
+                            data,
+                            block,
+                            blockIndex,
+                            dataPacker,
+                            noDataValue,
+                            unitConverter,
+                            0);
+                }
+            }
+        } finally {
+            data.done();
+        }
+        return block;
+    }
+
+    /** Waits for a block to be filled and writes it, releasing its granule if the last one */
+    private void writeBlock(Variable var, RowBlock block)
+            throws IOException, InvalidRangeException {
+        Array data;
+        try {
+            data = block.data.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding the NetCDF output");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to encode the NetCDF output", e.getCause());
+        }
+        writer.write(var, block.origin, data);
+        bufferedBytes -= block.bytes;
+        if (block.granule != null) {
+            granuleStack.release(block.granule);
+        }
+    }
+
+    /** The peak amount of bytes held in row blocks waiting to be written, by the last write */
+    long getPeakBufferedBytes() {
+        return peakBufferedBytes;
+    }
+
+    /** A block of rows of a slice, along with its position in the output variable */
+    private static class RowBlock {
+
+        final Future<Array> data;
+
+        final int[] origin;
+
+        final long bytes;
+
+        /** The granule to be released once the block is written, if it is the last one */
+        final GridCoverage2D granule;
+
+        RowBlock(Future<Array> data, int[] origin, long bytes, GridCoverage2D granule) {
+            this.data = data;
+            this.origin = origin;
+            this.bytes = bytes;
+            this.granule = granule;
+        }
+    }
+
+    /** Fills a single array with all the granules and writes it at once */
+    private void writeCube(
+            Variable var,
+            int[] dimSize,
+            List<ExtraVariableRecord> nonscalarExtraVariables,
+            int imageDataType,
+            DataType netCDFDataType)
+            throws IOException, InvalidRangeException {
+        final int numDimensions = dimSize.length;
         final Array matrix = NetCDFUtilities.getArray(dimSize, netCDFDataType);
 
-        // Loop over all granules
-        for (GridCoverage2D gridCoverage : granuleStack.getGranules()) {
+        // Loop over all granules, releasing each one once copied
+        for (Iterator<GridCoverage2D> granules = granuleStack.granules(); granules.hasNext(); ) {
+            final GridCoverage2D gridCoverage = granules.next();
             final RenderedImage ri = gridCoverage.getRenderedImage();
 
             //
@@ -372,40 +667,7 @@ protected void writeDataValues() throws IOException, InvalidRangeException {
 
             // Update the NetCDF array indexing to set values for a specific 2D slice
             updateIndexing(indexing, gridCoverage);
-
-            // copy non-scalar extra variable data
-            if (!nonscalarExtraVariables.isEmpty()) {
-                // Before opening the source NetCDF/GRIB, see if any record requires data from it;
-                // we might be iterating over many time/elevation/custom dimensions but have
-                // granules with sources in common and want to avoid unnecessary opening of
-                // source NetCDF/GRIB. Only the first matching data value is used.
-                // This loop also ensures that the source for each granule is only opened once.
-                boolean needSource = false;
-                for (ExtraVariableRecord record : nonscalarExtraVariables) {
-                    if (!record.writtenIndices.contains(indexing[record.dimensionIndex])) {
-                        needSource = true;
-                        break;
-                    }
-                }
-                if (needSource) {
-                    try (NetcdfDataset source = getSourceNetcdfDataset(gridCoverage)) {
-                        if (source != null) {
-                            for (ExtraVariableRecord record : nonscalarExtraVariables) {
-                                if (!record.writtenIndices.contains(
-                                        indexing[record.dimensionIndex])) {
-                                    writer.write(
-                                            writer.findVariable(record.extraVariable.getOutput()),
-                                            new int[] {indexing[record.dimensionIndex]},
-                                            source.findVariable(record.extraVariable.getSource())
-                                                    .read()
-                                                    .reshape(new int[] {1}));
-                                    record.writtenIndices.add(indexing[record.dimensionIndex]);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            copyNonScalarExtraVariables(nonscalarExtraVariables, indexing, gridCoverage);
 
             // ----------------
             // Fill data matrix
@@ -448,13 +710,53 @@ protected void writeDataValues() throws IOException, InvalidRangeException {
             }
             // Finalize the iterator
             data.done();
+            granuleStack.release(gridCoverage);
         }
 
         // ------------------------------
         // Write the data to the variable
         // ------------------------------
         writer.write(var, matrix);
-        writer.flush();
+    }
+
+    /** Copies the non-scalar extra variable data of a granule */
+    private void copyNonScalarExtraVariables(
+            List<ExtraVariableRecord> nonscalarExtraVariables,
+            int[] indexing,
+            GridCoverage2D gridCoverage)
+            throws IOException, InvalidRangeException {
+        if (nonscalarExtraVariables.isEmpty()) {
+            return;
+        }
+        // Before opening the source NetCDF/GRIB, see if any record requires data from it;
+        // we might be iterating over many time/elevation/custom dimensions but have
+        // granules with sources in common and want to avoid unnecessary opening of
+        // source NetCDF/GRIB. Only the first matching data value is used.
+        // This loop also ensures that the source for each granule is only opened once.
+        boolean needSource = false;
+        for (ExtraVariableRecord record : nonscalarExtraVariables) {
+            if (!record.writtenIndices.contains(indexing[record.dimensionIndex])) {
+                needSource = true;
+                break;
+            }
+        }
+        if (needSource) {
+            try (NetcdfDataset source = getSourceNetcdfDataset(gridCoverage)) {
+                if (source != null) {
+                    for (ExtraVariableRecord record : nonscalarExtraVariables) {
+                        if (!record.writtenIndices.contains(indexing[record.dimensionIndex])) {
+                            writer.write(
+                                    writer.findVariable(record.extraVariable.getOutput()),
+                                    new int[] {indexing[record.dimensionIndex]},
+                                    source.findVariable(record.extraVariable.getSource())
+                                            .read()
+                                            .reshape(new int[] {1}));
+                            record.writtenIndices.add(indexing[record.dimensionIndex]);
+                        }
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -19,7 +19,6 @@
 import org.geoserver.wcs2_0.response.DimensionBean;
 import org.geoserver.wcs2_0.response.DimensionBean.DimensionType;
 import org.geoserver.wcs2_0.response.GranuleStack;
-import org.geotools.coverage.grid.GridCoverage2D;
 import org.geotools.coverage.io.netcdf.crs.NetCDFCoordinateReferenceSystemType.NetCDFCoordinate;
 import org.geotools.coverage.io.util.DateRangeComparator;
 import org.geotools.coverage.io.util.NumberRangeComparator;
@@ -118,15 +117,15 @@ public void collectCoverageDimensions(GranuleStack granuleStack) {
 
         // Get the dimension values from the coverage and put them on the mapping
         // Note that using tree set allows to respect the ordering when writing
-        // down the NetCDF dimensions
-        for (GridCoverage2D coverage : granuleStack.getGranules()) {
-            updateDimensionValues(coverage);
+        // down the NetCDF dimensions. The properties are used rather than the granules, so that
+        // stacks reading their granules in background do not need to have them all in memory
+        for (Map<String, Object> properties : granuleStack.getGranuleProperties()) {
+            updateDimensionValues(properties);
         }
     }
 
     /** Update the dimension values of a Dimension, by inspecting the coverage properties */
-    private void updateDimensionValues(GridCoverage2D coverage) {
-        Map properties = coverage.getProperties();
+    private void updateDimensionValues(Map<String, Object> properties) {
         for (NetCDFDimensionsManager.NetCDFDimensionMapping dimension : getDimensions()) {
             final String dimensionName = dimension.getName();
             final Object value = properties.get(dimensionName);
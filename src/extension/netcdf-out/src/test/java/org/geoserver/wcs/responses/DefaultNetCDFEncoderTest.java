@@ -0,0 +1,200 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs.responses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.media.jai.TiledImage;
+import org.geoserver.wcs2_0.response.DimensionBean;
+import org.geoserver.wcs2_0.response.DimensionBean.DimensionType;
+import org.geoserver.wcs2_0.response.StreamingGranuleStack;
+import org.geotools.coverage.CoverageFactoryFinder;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.imageio.netcdf.utilities.NetCDFUtilities;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.util.NumberRange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ucar.ma2.Array;
+import ucar.ma2.Index;
+import ucar.nc2.Variable;
+import ucar.nc2.dataset.NetcdfDataset;
+
+public class DefaultNetCDFEncoderTest {
+
+    static final int SIZE = 64;
+
+    static final int TILE_HEIGHT = 8;
+
+    static final int READ_AHEAD = 2;
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    ExecutorService executor;
+
+    GridCoverageFactory coverageFactory = CoverageFactoryFinder.getGridCoverageFactory(null);
+
+    /** Granules read and not yet released, and their peak */
+    AtomicInteger live = new AtomicInteger();
+
+    AtomicInteger maxLive = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        System.clearProperty(DefaultNetCDFEncoder.STREAMING_WRITE);
+    }
+
+    /** A tiled granule, each row holding a value depending on the slice and row numbers */
+    private GridCoverage2D granule(int slice) {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_BYTE_GRAY);
+        WritableRaster raster = image.getRaster();
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                raster.setSample(x, y, 0, value(slice, y));
+            }
+        }
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("ELEVATION", elevation(slice));
+        return coverageFactory.create(
+                "slice",
+                new TiledImage(image, SIZE, TILE_HEIGHT),
+                new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84),
+                null,
+                null,
+                properties);
+    }
+
+    private static int value(int slice, int row) {
+        return (slice + row) % 100;
+    }
+
+    private static NumberRange<Double> elevation(int slice) {
+        return NumberRange.create((double) slice, (double) slice);
+    }
+
+    /** A stack reading its granules lazily, keeping track of how many are in memory */
+    private StreamingGranuleStack stack(int slices) {
+        DimensionBean elevation =
+                new DimensionBean(
+                        "ELEVATION",
+                        "m",
+                        "EPSG:5030",
+                        "java.lang.Double",
+                        DimensionType.ELEVATION,
+                        false);
+        StreamingGranuleStack stack =
+                new StreamingGranuleStack(
+                        "slice",
+                        DefaultGeographicCRS.WGS84,
+                        Collections.singletonList(elevation),
+                        executor,
+                        READ_AHEAD) {
+                    @Override
+                    public void release(GridCoverage2D granule) {
+                        super.release(granule);
+                        live.decrementAndGet();
+                    }
+                };
+        for (int i = 0; i < slices; i++) {
+            int slice = i;
+            stack.addRead(
+                    () -> {
+                        maxLive.accumulateAndGet(live.incrementAndGet(), Math::max);
+                        return granule(slice);
+                    },
+                    Collections.singletonMap("ELEVATION", elevation(slice)));
+        }
+        stack.start();
+        return stack;
+    }
+
+    private DefaultNetCDFEncoder encode(StreamingGranuleStack stack, File file) throws Exception {
+        DefaultNetCDFEncoder encoder =
+                new DefaultNetCDFEncoder(
+                        stack, file, Collections.emptyMap(), NetCDFUtilities.NETCDF3_MIMETYPE);
+        try {
+            encoder.write();
+        } finally {
+            encoder.close();
+            stack.dispose(true);
+        }
+        return encoder;
+    }
+
+    private Array read(File file) throws Exception {
+        try (NetcdfDataset dataset = NetcdfDataset.openDataset(file.getAbsolutePath())) {
+            Variable variable = dataset.findVariable("slice");
+            return variable.read();
+        }
+    }
+
+    @Test
+    public void testSlicesWritten() throws Exception {
+        File file = folder.newFile("slices.nc");
+        encode(stack(4), file);
+
+        Array data = read(file);
+        assertArrayEquals(new int[] {4, SIZE, SIZE}, data.getShape());
+        Index index = data.getIndex();
+        for (int slice = 0; slice < 4; slice++) {
+            for (int row = 0; row < SIZE; row++) {
+                for (int col = 0; col < SIZE; col++) {
+                    // the rows are flipped, north is last
+                    index.set(slice, SIZE - 1 - row, col);
+                    assertEquals(value(slice, row), data.getInt(index));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameOutputAsCube() throws Exception {
+        File streamed = folder.newFile("streamed.nc");
+        encode(stack(6), streamed);
+        System.setProperty(DefaultNetCDFEncoder.STREAMING_WRITE, "false");
+        File cube = folder.newFile("cube.nc");
+        encode(stack(6), cube);
+
+        byte[] expected = (byte[]) read(cube).copyTo1DJavaArray();
+        assertArrayEquals(expected, (byte[]) read(streamed).copyTo1DJavaArray());
+    }
+
+    @Test
+    public void testMemoryFlat() throws Exception {
+        DefaultNetCDFEncoder few = encode(stack(4), folder.newFile("few.nc"));
+        assertEquals(0, live.get());
+        DefaultNetCDFEncoder many = encode(stack(32), folder.newFile("many.nc"));
+        assertEquals(0, live.get());
+
+        // the buffered rows do not grow with the slices, and stay within a single slice
+        assertEquals(few.getPeakBufferedBytes(), many.getPeakBufferedBytes());
+        assertTrue(many.getPeakBufferedBytes() <= SIZE * SIZE);
+        // and so do the granules in memory, the one being written, the previous one whose last
+        // rows might still be buffered, and the ones read ahead
+        assertTrue(String.valueOf(maxLive.get()), maxLive.get() <= READ_AHEAD + 2);
+    }
+}
@@ -4,6 +4,8 @@
  */
 package org.geoserver.wps.gs.download;
 
+import java.util.Collection;
+import org.geoserver.util.DimensionWarning;
 import org.geoserver.util.HTTPWarningAppender;
 
 /**
@@ -13,7 +15,12 @@
 public class AnimationMetadata extends DownloadMetadata {
 
     public void accumulateWarnings(int frameCounter) {
-        HTTPWarningAppender.getWarnings().stream()
+        accumulateWarnings(frameCounter, HTTPWarningAppender.getWarnings());
+    }
+
+    /** Adds the warnings collected while rendering a frame, possibly in another thread */
+    public void accumulateWarnings(int frameCounter, Collection<DimensionWarning> frameWarnings) {
+        frameWarnings.stream()
                 .map(w -> new FrameWarning(w, frameCounter))
                 .forEach(fw -> warnings.add(fw));
     }
@@ -9,18 +9,21 @@
 import java.math.BigDecimal;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.media.jai.PlanarImage;
@@ -29,6 +32,8 @@
 import org.geoserver.ows.Request;
 import org.geoserver.ows.kvp.TimeParser;
 import org.geoserver.platform.resource.Resource;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geoserver.util.DimensionWarning;
 import org.geoserver.util.HTTPWarningAppender;
 import org.geoserver.wms.RasterCleaner;
 import org.geoserver.wps.WPSException;
@@ -61,7 +66,6 @@
 public class DownloadAnimationProcess implements GeoServerProcess {
 
     static final Logger LOGGER = Logging.getLogger(DownloadAnimationProcess.class);
-    private static BufferedImage STOP = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_BINARY);
 
     public static final String VIDEO_MP4 = "video/mp4";
     private static final Format MAP_FORMAT;
@@ -179,77 +183,67 @@ public Map<String, Object> execute(
             TimeParser timeParser = new TimeParser(configuration.getMaxAnimationFrames());
             Collection parsedTimes = timeParser.parse(time);
             progressListener.started();
-            Map<String, WebMapServer> serverCache = new HashMap<>();
+            Map<String, WebMapServer> serverCache = new ConcurrentHashMap<>();
 
-            // Have two threads work on encoding. The current thread builds the frames, and submits
-            // them into a small queue that the encoder thread picks from
-            BlockingQueue<BufferedImage> renderingQueue = new LinkedBlockingDeque<>(1);
+            // Render several frames at once on a pool, while the current thread encodes them
+            // in time order. The frames rendered and not yet encoded are capped, in number and
+            // memory, so that a slow encoder does not let them pile up
+            int threads = getRenderingThreads(configuration);
+            int frameWidth = width;
+            int frameHeight = height;
+            int headerRows = headerHeight != null ? headerHeight : 0;
+            long frameBytes = (long) frameWidth * (frameHeight + headerRows) * 4;
+            int maxPending =
+                    getMaxPendingFrames(threads, configuration.getMaxAnimationMemory(), frameBytes);
             BasicThreadFactory threadFactory =
-                    new BasicThreadFactory.Builder().namingPattern("animation-encoder-%d").build();
-            ExecutorService executor = Executors.newSingleThreadExecutor(threadFactory);
-            // a way to get out of the encoding loop in case an exception happens during frame
-            // rendering
-            AtomicBoolean abortEncoding = new AtomicBoolean(false);
-            Future<Void> future =
-                    executor.submit(
-                            () -> {
-                                int totalTimes = parsedTimes.size();
-                                int count = 1;
-                                BufferedImage frame;
-                                while ((frame = renderingQueue.take()) != STOP) {
-                                    enc.encodeImage(frame);
-                                    RasterCleaner.disposeImage(frame);
-                                    listener.progress(90 * (((float) count) / totalTimes));
-                                    String message =
-                                            "Generated frames " + count + " out of " + totalTimes;
-                                    listener.setTask(new SimpleInternationalString(message));
-                                    count++;
-                                    // handling exit due to WPS cancellation, or to exceptions
-                                    if (listener.isCanceled() || abortEncoding.get()) return null;
-                                }
-                                return null;
-                            });
+                    new BasicThreadFactory.Builder()
+                            .namingPattern("animation-renderer-%d")
+                            .daemon(true)
+                            .build();
+            ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+            ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+            Deque<Future<Frame>> pending = new ArrayDeque<>();
             Request request = Dispatcher.REQUEST.get();
             AnimationMetadata metadata = new AnimationMetadata();
             try {
-                int frameCounter = 0;
+                int totalTimes = parsedTimes.size();
+                int encoded = 0;
                 for (Object parsedTime : parsedTimes) {
                     // turn parsed time into a specification, generates a "WMS" like request based
                     // on it
                     String mapTime = toWmsTimeSpecification(parsedTime);
-                    LOGGER.log(Level.FINE, "Building frame for time %s", mapTime);
-                    // clean up eventual previous warnings
-                    warningAppender.init(request);
-
-                    RenderedImage image =
-                            mapper.buildImage(
-                                    bbox,
-                                    decorationName,
-                                    decorationEnvironment,
-                                    mapTime,
-                                    width,
-                                    height,
-                                    headerHeight,
-                                    layers,
-                                    false,
-                                    "image/png",
-                                    new DefaultProgressListener(),
-                                    serverCache);
-                    BufferedImage frame = toBufferedImage(image);
-                    LOGGER.log(Level.FINE, "Got frame %s", frame);
-                    renderingQueue.put(frame);
-                    metadata.accumulateWarnings(frameCounter++);
+                    while (pending.size() >= maxPending) {
+                        encodeFrame(enc, pending.poll(), metadata, encoded++, totalTimes, listener);
+                    }
+                    // exit sooner in case of cancellation, pending frames are dropped in finally
+                    if (listener.isCanceled()) return null;
 
-                    // exit sooner in case of cancellation, encoding abort is handled in finally
+                    pending.add(
+                            executor.submit(
+                                    () ->
+                                            renderFrame(
+                                                    transfer,
+                                                    request,
+                                                    bbox,
+                                                    decorationName,
+                                                    decorationEnvironment,
+                                                    mapTime,
+                                                    frameWidth,
+                                                    frameHeight,
+                                                    headerHeight,
+                                                    layers,
+                                                    serverCache)));
+                }
+                while (!pending.isEmpty()) {
+                    encodeFrame(enc, pending.poll(), metadata, encoded++, totalTimes, listener);
                     if (listener.isCanceled()) return null;
                 }
-                renderingQueue.put(STOP);
-                // wait for encoder to finish
-                future.get();
             } finally {
-                // force encoding thread to stop in case we got here due to an exception
-                abortEncoding.set(true);
-                executor.shutdown();
+                // stop rendering in case we got here due to an exception or a cancellation
+                for (Future<Frame> frame : pending) {
+                    frame.cancel(true);
+                }
+                executor.shutdownNow();
                 // clean up the images collected during the execution, in case the
                 // clean ups above did not do the job
                 rasterCleaner.finished(null);
@@ -268,6 +262,112 @@ public Map<String, Object> execute(
         }
     }
 
+    /** Returns the number of threads rendering the frames */
+    static int getRenderingThreads(DownloadServiceConfiguration configuration) {
+        int threads = configuration.getAnimationThreads();
+        if (threads <= 0) {
+            threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        }
+        return threads;
+    }
+
+    /**
+     * Returns how many frames can be rendering or waiting to be encoded at the same time, twice
+     * the rendering threads, less if the memory limit does not allow for them, but at least one
+     */
+    static int getMaxPendingFrames(int threads, long maxMemory, long frameBytes) {
+        long frames = threads * 2L;
+        if (maxMemory > 0 && frameBytes > 0) {
+            frames = Math.min(frames, maxMemory / frameBytes);
+        }
+        return (int) Math.max(1, frames);
+    }
+
+    /** Renders a frame in a pool thread, collecting the warnings found along the way */
+    private Frame renderFrame(
+            ThreadLocalsTransfer transfer,
+            Request request,
+            ReferencedEnvelope bbox,
+            String decorationName,
+            String decorationEnvironment,
+            String mapTime,
+            int width,
+            int height,
+            Integer headerHeight,
+            Layer[] layers,
+            Map<String, WebMapServer> serverCache)
+            throws Exception {
+        transfer.apply();
+        try {
+            LOGGER.log(Level.FINE, "Building frame for time %s", mapTime);
+            // clean up eventual previous warnings
+            warningAppender.init(request);
+            RenderedImage image =
+                    mapper.buildImage(
+                            bbox,
+                            decorationName,
+                            decorationEnvironment,
+                            mapTime,
+                            width,
+                            height,
+                            headerHeight,
+                            layers,
+                            false,
+                            "image/png",
+                            new DefaultProgressListener(),
+                            serverCache);
+            BufferedImage frame = toBufferedImage(image);
+            LOGGER.log(Level.FINE, "Got frame %s", frame);
+            return new Frame(frame, new ArrayList<>(HTTPWarningAppender.getWarnings()));
+        } finally {
+            // the images and warnings are tracked per thread, clean up this one
+            rasterCleaner.finished(null);
+            warningAppender.finished(request);
+            transfer.cleanup();
+        }
+    }
+
+    /** Waits for the next frame in time order, encodes it, and reports progress */
+    private void encodeFrame(
+            AWTSequenceEncoder enc,
+            Future<Frame> future,
+            AnimationMetadata metadata,
+            int frameCounter,
+            int totalTimes,
+            ProgressListener listener)
+            throws Exception {
+        Frame frame;
+        try {
+            frame = future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw new WPSException("Failed to render animation frame " + frameCounter, e);
+        }
+        enc.encodeImage(frame.image);
+        RasterCleaner.disposeImage(frame.image);
+        metadata.accumulateWarnings(frameCounter, frame.warnings);
+
+        int count = frameCounter + 1;
+        listener.progress(90 * (((float) count) / totalTimes));
+        String message = "Generated frames " + count + " out of " + totalTimes;
+        listener.setTask(new SimpleInternationalString(message));
+    }
+
+    /** A rendered frame, along with the warnings collected while rendering it */
+    private static class Frame {
+
+        final BufferedImage image;
+
+        final List<DimensionWarning> warnings;
+
+        Frame(BufferedImage image, List<DimensionWarning> warnings) {
+            this.image = image;
+            this.warnings = warnings;
+        }
+    }
+
     private BufferedImage toBufferedImage(RenderedImage image) {
         BufferedImage frame;
         if (image instanceof BufferedImage) {
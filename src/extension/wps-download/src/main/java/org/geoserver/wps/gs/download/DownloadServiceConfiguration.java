@@ -27,6 +27,10 @@ public class DownloadServiceConfiguration {
 
     public static final String MAX_ANIMATION_FRAMES_NAME = "maxAnimationFrames";
 
+    public static final String ANIMATION_THREADS_NAME = "animationThreads";
+
+    public static final String MAX_ANIMATION_MEMORY_NAME = "maxAnimationMemory";
+
     public static final int DEFAULT_COMPRESSION_LEVEL = 4;
 
     public static final long DEFAULT_HARD_OUTPUT_LIMITS = NO_LIMIT;
@@ -39,6 +43,11 @@ public class DownloadServiceConfiguration {
 
     public static final int DEFAULT_MAX_ANIMATION_FRAMES = NO_LIMIT;
 
+    /** Value used to pick the number of rendering threads based on the available processors */
+    public static final int DEFAULT_ANIMATION_THREADS = 0;
+
+    public static final long DEFAULT_MAX_ANIMATION_MEMORY = NO_LIMIT;
+
     /** Max #of features */
     private long maxFeatures = DEFAULT_MAX_FEATURES;
 
@@ -56,6 +65,12 @@ public class DownloadServiceConfiguration {
 
     private int maxAnimationFrames = DEFAULT_MAX_ANIMATION_FRAMES;
 
+    /** Number of threads rendering the frames of an animation */
+    private int animationThreads = DEFAULT_ANIMATION_THREADS;
+
+    /** Max size in bytes of the animation frames rendered and waiting to be encoded */
+    private long maxAnimationMemory = DEFAULT_MAX_ANIMATION_MEMORY;
+
     /**
      * Returns the same configuration found in the sample property file
      *
@@ -68,6 +83,7 @@ public static DownloadServiceConfiguration getDemoConfiguration() {
         config.setWriteLimits(64000000l);
         config.setHardOutputLimit(52428800l);
         config.setMaxAnimationFrames(1000);
+        config.setMaxAnimationMemory(104857600l);
         config.setCompressionLevel(4);
         return config;
     }
@@ -80,12 +96,35 @@ public DownloadServiceConfiguration(
             long hardOutputLimit,
             int compressionLevel,
             int maxAnimationFrames) {
+        this(
+                maxFeatures,
+                rasterSizeLimits,
+                writeLimits,
+                hardOutputLimit,
+                compressionLevel,
+                maxAnimationFrames,
+                DEFAULT_ANIMATION_THREADS,
+                DEFAULT_MAX_ANIMATION_MEMORY);
+    }
+
+    /** Constructor: */
+    public DownloadServiceConfiguration(
+            long maxFeatures,
+            long rasterSizeLimits,
+            long writeLimits,
+            long hardOutputLimit,
+            int compressionLevel,
+            int maxAnimationFrames,
+            int animationThreads,
+            long maxAnimationMemory) {
         this.maxFeatures = maxFeatures;
         this.rasterSizeLimits = rasterSizeLimits;
         this.writeLimits = writeLimits;
         this.hardOutputLimit = hardOutputLimit;
         this.compressionLevel = compressionLevel;
         this.maxAnimationFrames = maxAnimationFrames;
+        this.animationThreads = animationThreads;
+        this.maxAnimationMemory = maxAnimationMemory;
     }
 
     /** Default constructor */
@@ -96,7 +135,9 @@ public DownloadServiceConfiguration() {
                 DEFAULT_WRITE_LIMITS,
                 DEFAULT_HARD_OUTPUT_LIMITS,
                 DEFAULT_COMPRESSION_LEVEL,
-                DEFAULT_MAX_ANIMATION_FRAMES);
+                DEFAULT_MAX_ANIMATION_FRAMES,
+                DEFAULT_ANIMATION_THREADS,
+                DEFAULT_MAX_ANIMATION_MEMORY);
     }
 
     public long getMaxFeatures() {
@@ -123,6 +164,14 @@ public int getMaxAnimationFrames() {
         return maxAnimationFrames;
     }
 
+    public int getAnimationThreads() {
+        return animationThreads;
+    }
+
+    public long getMaxAnimationMemory() {
+        return maxAnimationMemory;
+    }
+
     @Override
     public String toString() {
         return "DownloadServiceConfiguration [maxFeatures="
@@ -135,6 +184,12 @@ public String toString() {
                 + hardOutputLimit
                 + ", compressionLevel="
                 + compressionLevel
+                + ", maxAnimationFrames="
+                + maxAnimationFrames
+                + ", animationThreads="
+                + animationThreads
+                + ", maxAnimationMemory="
+                + maxAnimationMemory
                 + "]";
     }
 
@@ -161,4 +216,12 @@ public void setCompressionLevel(int compressionLevel) {
     public void setMaxAnimationFrames(int maxAnimationFrames) {
         this.maxAnimationFrames = maxAnimationFrames;
     }
+
+    public void setAnimationThreads(int animationThreads) {
+        this.animationThreads = animationThreads;
+    }
+
+    public void setMaxAnimationMemory(long maxAnimationMemory) {
+        this.maxAnimationMemory = maxAnimationMemory;
+    }
 }
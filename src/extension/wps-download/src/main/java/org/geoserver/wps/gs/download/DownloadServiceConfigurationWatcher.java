@@ -5,14 +5,18 @@
  */
 package org.geoserver.wps.gs.download;
 
+import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.ANIMATION_THREADS_NAME;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.COMPRESSION_LEVEL_NAME;
+import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.DEFAULT_ANIMATION_THREADS;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.DEFAULT_COMPRESSION_LEVEL;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.DEFAULT_MAX_ANIMATION_FRAMES;
+import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.DEFAULT_MAX_ANIMATION_MEMORY;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.DEFAULT_MAX_FEATURES;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.DEFAULT_RASTER_SIZE_LIMITS;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.DEFAULT_WRITE_LIMITS;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.HARD_OUTPUT_LIMITS_NAME;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.MAX_ANIMATION_FRAMES_NAME;
+import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.MAX_ANIMATION_MEMORY_NAME;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.MAX_FEATURES_NAME;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.RASTER_SIZE_LIMITS_NAME;
 import static org.geoserver.wps.gs.download.DownloadServiceConfiguration.WRITE_LIMITS_NAME;
@@ -218,6 +222,16 @@ private DownloadServiceConfiguration parseConfigurationValues(
                         downloadProcessProperties,
                         MAX_ANIMATION_FRAMES_NAME,
                         DEFAULT_MAX_ANIMATION_FRAMES);
+        int animationThreads =
+                getIntValue(
+                        downloadProcessProperties,
+                        ANIMATION_THREADS_NAME,
+                        DEFAULT_ANIMATION_THREADS);
+        long maxAnimationMemory =
+                getLongValue(
+                        downloadProcessProperties,
+                        MAX_ANIMATION_MEMORY_NAME,
+                        DEFAULT_MAX_ANIMATION_MEMORY);
 
         // create the configuration object
         return new DownloadServiceConfiguration(
@@ -226,7 +240,9 @@ private DownloadServiceConfiguration parseConfigurationValues(
                 writeLimits,
                 hardOutputLimit,
                 compressionLevel,
-                maxFrames);
+                maxFrames,
+                animationThreads,
+                maxAnimationMemory);
     }
 
     private long getLongValue(Properties properties, String key, long defaultValue) {
@@ -327,7 +343,8 @@ private Properties configurationToProperties(DownloadServiceConfiguration config
         setProperty(props, WRITE_LIMITS_NAME, configuration.getWriteLimits());
         setProperty(props, HARD_OUTPUT_LIMITS_NAME, configuration.getHardOutputLimit());
         setProperty(props, MAX_ANIMATION_FRAMES_NAME, configuration.getMaxAnimationFrames());
-        setProperty(props, MAX_ANIMATION_FRAMES_NAME, configuration.getMaxAnimationFrames());
+        setProperty(props, ANIMATION_THREADS_NAME, configuration.getAnimationThreads());
+        setProperty(props, MAX_ANIMATION_MEMORY_NAME, configuration.getMaxAnimationMemory());
         setProperty(props, COMPRESSION_LEVEL_NAME, configuration.getCompressionLevel());
         return props;
     }
@@ -275,6 +275,38 @@ public void testAnimateFrameLimits() throws Exception {
         }
     }
 
+    @Test
+    public void testAnimateLimitedRendering() throws Exception {
+        // two rendering threads, and memory for a single frame at a time
+        final DownloadServiceConfigurationWatcher watcher =
+                GeoServerExtensions.bean(DownloadServiceConfigurationWatcher.class);
+        watcher.getConfiguration().setAnimationThreads(2);
+        watcher.getConfiguration().setMaxAnimationMemory(1);
+
+        try {
+            String xml =
+                    IOUtils.toString(
+                            getClass().getResourceAsStream("animateBlueMarble.xml"), UTF_8);
+            MockHttpServletResponse response = postAsServletResponse("wps", xml);
+            assertAnimationMonths2345(response, this::assertDefaultFrames);
+        } finally {
+            Resource config = getDataDirectory().get("download.properties");
+            assertTrue("Failed to remove download configuration file", config.delete());
+            // force reset of default configuration
+            watcher.loadConfiguration();
+        }
+    }
+
+    @Test
+    public void testMaxPendingFrames() {
+        // twice the threads without a memory limit
+        assertEquals(8, DownloadAnimationProcess.getMaxPendingFrames(4, 0, 1000));
+        // as many as fit in memory
+        assertEquals(3, DownloadAnimationProcess.getMaxPendingFrames(4, 3500, 1000));
+        // but always at least one
+        assertEquals(1, DownloadAnimationProcess.getMaxPendingFrames(4, 10, 1000));
+    }
+
     @Test
     public void testAnimateDecoration() throws Exception {
         String xml =
@@ -65,6 +65,8 @@
 import org.geoserver.gwc.layer.GeoServerTileLayer;
 import org.geoserver.gwc.layer.GeoServerTileLayerInfo;
 import org.geoserver.gwc.layer.GeoServerTileLayerInfoImpl;
+import org.geoserver.gwc.seed.RegionTileMask;
+import org.geoserver.gwc.seed.RegionTruncateStats;
 import org.geoserver.ows.Dispatcher;
 import org.geoserver.ows.HttpErrorCodeException;
 import org.geoserver.ows.Request;
@@ -145,6 +147,7 @@
 import org.geowebcache.storage.BlobStoreAggregator;
 import org.geowebcache.storage.CompositeBlobStore;
 import org.geowebcache.storage.DefaultStorageFinder;
+import org.geowebcache.storage.DiscontinuousTileRange;
 import org.geowebcache.storage.StorageBroker;
 import org.geowebcache.storage.StorageException;
 import org.geowebcache.storage.TileRange;
@@ -465,6 +468,113 @@ public void truncate(final String layerName, final ReferencedEnvelope bounds)
         }
     }
 
+    /**
+     * Truncates the tiles of the layer intersecting any of the given regions, instead of all the
+     * tiles in their merged bounds. The affected tiles are computed once per grid set, and
+     * truncated asynchronously by a single task per grid set, format and cached parameters
+     * combination.
+     *
+     * @param layerName the tile layer name
+     * @param regions the modified regions, in any coordinate reference system
+     * @return the number of tiles in the regions, compared with the ones in the merged bounds
+     */
+    public RegionTruncateStats truncate(
+            final String layerName, final Collection<ReferencedEnvelope> regions)
+            throws GeoWebCacheException {
+        final TileLayer tileLayer = tld.getTileLayer(layerName);
+        final RegionTruncateStats stats = new RegionTruncateStats(layerName);
+
+        final List<Map<String, String>> allParameters;
+        try {
+            allParameters = new ArrayList<>(storageBroker.getCachedParameters(layerName));
+        } catch (StorageException e) {
+            throw new GeoWebCacheException(e);
+        }
+        // the default parameters
+        allParameters.add(null);
+
+        // regions transformed once per grid set CRS
+        final Map<Integer, List<ReferencedEnvelope>> regionsBySrs = new HashMap<>();
+        for (String gridSetId : tileLayer.getGridSubsets()) {
+            GridSubset layerGrid = tileLayer.getGridSubset(gridSetId);
+            List<ReferencedEnvelope> gridSetRegions =
+                    regionsBySrs.computeIfAbsent(
+                            layerGrid.getSRS().getNumber(),
+                            srs -> transformRegions(layerName, srs, regions));
+
+            final BoundingBox layerBounds = layerGrid.getOriginalExtent();
+            List<BoundingBox> boxes = new ArrayList<>(gridSetRegions.size());
+            for (ReferencedEnvelope region : gridSetRegions) {
+                BoundingBox reqBounds =
+                        new BoundingBox(
+                                region.getMinX(),
+                                region.getMinY(),
+                                region.getMaxX(),
+                                region.getMaxY());
+                if (layerBounds.intersects(reqBounds)) {
+                    boxes.add(BoundingBox.intersection(layerBounds, reqBounds));
+                }
+            }
+            if (boxes.isEmpty()) {
+                continue;
+            }
+
+            Integer minCachedZoom = layerGrid.getMinCachedZoom();
+            Integer maxCachedZoom = layerGrid.getMaxCachedZoom();
+            int zoomStart = minCachedZoom == null ? layerGrid.getZoomStart() : minCachedZoom;
+            int zoomStop = maxCachedZoom == null ? layerGrid.getZoomStop() : maxCachedZoom;
+            RegionTileMask mask = new RegionTileMask(layerGrid, boxes, zoomStart, zoomStop);
+            if (mask.isEmpty()) {
+                continue;
+            }
+            for (Map<String, String> parameters : allParameters) {
+                for (MimeType mimeType : tileLayer.getMimeTypes()) {
+                    TileRange range =
+                            new DiscontinuousTileRange(
+                                    layerName,
+                                    gridSetId,
+                                    zoomStart,
+                                    zoomStop,
+                                    mask,
+                                    mimeType,
+                                    parameters);
+                    GWCTask[] tasks = tileBreeder.createTasks(range, TRUNCATE, 1, false);
+                    tileBreeder.dispatchTasks(tasks);
+                    stats.add(mask);
+                }
+            }
+        }
+        log.fine(stats::toString);
+        return stats;
+    }
+
+    /** Transforms the regions to the given EPSG code, skipping the ones that cannot be */
+    private List<ReferencedEnvelope> transformRegions(
+            String layerName, int epsgCode, Collection<ReferencedEnvelope> regions) {
+        final CoordinateReferenceSystem gridSetCrs;
+        try {
+            gridSetCrs = CRS.decode("EPSG:" + epsgCode, true);
+        } catch (Exception e) {
+            log.warning("Can't decode SRS for layer '" + layerName + "': EPSG:" + epsgCode);
+            return Collections.emptyList();
+        }
+        List<ReferencedEnvelope> result = new ArrayList<>(regions.size());
+        for (ReferencedEnvelope region : regions) {
+            try {
+                result.add(region.transform(gridSetCrs, true));
+            } catch (Exception e) {
+                log.warning(
+                        "Can't truncate layer "
+                                + layerName
+                                + ": error transforming modified region to EPSG:"
+                                + epsgCode
+                                + ": "
+                                + e.getMessage());
+            }
+        }
+        return result;
+    }
+
     public TruncateAllRequest truncateAll() throws GeoWebCacheException, StorageException {
         // creating a mock internal request
         TruncateAllRequest truncateAll = new TruncateAllRequest();
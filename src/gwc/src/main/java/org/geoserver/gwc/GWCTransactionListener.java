@@ -8,7 +8,9 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +42,9 @@
  * Listens to transactions (so far only issued by WFS) and truncates the cache for the affected area
  * of the layers involved in the transaction.
  *
+ * <p>The affected regions of each layer are not merged, only the tiles intersecting any of them
+ * are truncated, see {@link GWC#truncate(String, java.util.Collection)}.
+ *
  * <p>A Spring bean singleton of this class needs to be declared in order for GeoServer transactions
  * to pick it up automatically and forward transaction events to it.
  *
@@ -112,48 +117,54 @@ private void afterTransactionInternal(final TransactionRequest transaction, bool
         }
         for (String tileLayerName : byLayerDirtyRegions.keySet()) {
             List<ReferencedEnvelope> dirtyList = byLayerDirtyRegions.get(tileLayerName);
-            ReferencedEnvelope dirtyRegion;
+            List<ReferencedEnvelope> dirtyRegions;
             try {
-                dirtyRegion = merge(tileLayerName, dirtyList);
+                dirtyRegions = transform(tileLayerName, dirtyList);
             } catch (Exception e) {
                 log.log(Level.WARNING, e.getMessage(), e);
                 continue;
             }
-            if (dirtyRegion == null) {
+            if (dirtyRegions.isEmpty()) {
                 continue;
             }
             try {
-                gwc.truncate(tileLayerName, dirtyRegion);
+                gwc.truncate(tileLayerName, dirtyRegions);
             } catch (GeoWebCacheException e) {
                 log.warning(
                         "Error truncating tile layer "
                                 + tileLayerName
-                                + " for transaction affected bounds "
-                                + dirtyRegion);
+                                + " for transaction affected regions "
+                                + dirtyRegions);
             }
         }
     }
 
-    private ReferencedEnvelope merge(
+    /**
+     * Transforms the dirty regions to the layer declared CRS, without merging them, so that
+     * disjoint changes do not end up truncating all the tiles in between
+     */
+    private List<ReferencedEnvelope> transform(
             final String tileLayerName, final List<ReferencedEnvelope> dirtyList)
             throws TransformException, FactoryException {
         if (dirtyList.isEmpty()) {
-            return null;
+            return Collections.emptyList();
         }
 
         final CoordinateReferenceSystem declaredCrs =
                 CRS.getHorizontalCRS(gwc.getDeclaredCrs(tileLayerName));
-        ReferencedEnvelope merged = new ReferencedEnvelope(declaredCrs);
+        Set<ReferencedEnvelope> transformed = new LinkedHashSet<>();
         for (ReferencedEnvelope env : dirtyList) {
+            if (env == null || env.isNull()) {
+                continue;
+            }
             if (env instanceof ReferencedEnvelope3D) {
                 env =
                         new ReferencedEnvelope(
                                 env, CRS.getHorizontalCRS(env.getCoordinateReferenceSystem()));
             }
-            ReferencedEnvelope transformedDirtyRegion = env.transform(declaredCrs, true, 1000);
-            merged.expandToInclude(transformedDirtyRegion);
+            transformed.add(env.transform(declaredCrs, true, 1000));
         }
-        return merged;
+        return new ArrayList<>(transformed);
     }
 
     /**
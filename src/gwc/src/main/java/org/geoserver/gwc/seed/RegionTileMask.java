@@ -0,0 +1,215 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.seed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.geowebcache.grid.BoundingBox;
+import org.geowebcache.grid.GridSubset;
+import org.geowebcache.storage.DiscontinuousTileRange;
+import org.geowebcache.storage.TileRangeMask;
+
+/**
+ * The exact set of tiles of a grid subset intersecting a set of regions, used to truncate only the
+ * tiles affected by a number of disjoint changes, rather than all the tiles in their merged
+ * bounds.
+ *
+ * <p>Each zoom level is stored as a list of tile rectangles, one per region, with duplicates and
+ * rectangles contained in others removed (at low zoom levels the regions usually collapse into a
+ * handful of tiles). The overall bounds of each level are returned as the {@link
+ * #getGridCoverages() grid coverages}, so that a {@link DiscontinuousTileRange} using this mask
+ * only walks the area actually affected.
+ */
+public class RegionTileMask implements TileRangeMask {
+
+    private final int zoomStart;
+
+    private final int zoomStop;
+
+    /** Bounds of the tiles at each level, {minx, miny, maxx, maxy, z}, null if empty */
+    private final long[][] coverages;
+
+    /** Tile rectangles at each level, {minx, miny, maxx, maxy} */
+    private final long[][][] rectangles;
+
+    /**
+     * Builds the mask for the given regions
+     *
+     * @param gridSubset the grid subset
+     * @param regions the regions, in the grid set coordinate reference system
+     * @param zoomStart the first zoom level to consider
+     * @param zoomStop the last zoom level to consider
+     */
+    public RegionTileMask(
+            GridSubset gridSubset, Collection<BoundingBox> regions, int zoomStart, int zoomStop) {
+        this.zoomStart = zoomStart;
+        this.zoomStop = zoomStop;
+        int levels = zoomStop - zoomStart + 1;
+        List<Set<List<Long>>> byLevel = new ArrayList<>(levels);
+        for (int i = 0; i < levels; i++) {
+            byLevel.add(new LinkedHashSet<>());
+        }
+        for (BoundingBox region : regions) {
+            for (long[] r : gridSubset.getCoverageIntersections(region)) {
+                int z = (int) r[4];
+                if (z < zoomStart || z > zoomStop || r[0] > r[2] || r[1] > r[3]) {
+                    continue;
+                }
+                byLevel.get(z - zoomStart).add(Arrays.asList(r[0], r[1], r[2], r[3]));
+            }
+        }
+
+        this.coverages = new long[levels][];
+        this.rectangles = new long[levels][][];
+        for (int i = 0; i < levels; i++) {
+            long[][] level = removeContained(byLevel.get(i));
+            rectangles[i] = level;
+            if (level.length > 0) {
+                long[] bounds = {
+                    Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, zoomStart + i
+                };
+                for (long[] r : level) {
+                    bounds[0] = Math.min(bounds[0], r[0]);
+                    bounds[1] = Math.min(bounds[1], r[1]);
+                    bounds[2] = Math.max(bounds[2], r[2]);
+                    bounds[3] = Math.max(bounds[3], r[3]);
+                }
+                coverages[i] = bounds;
+            }
+        }
+    }
+
+    private static long[][] removeContained(Set<List<Long>> keys) {
+        List<long[]> candidates = new ArrayList<>(keys.size());
+        for (List<Long> key : keys) {
+            candidates.add(new long[] {key.get(0), key.get(1), key.get(2), key.get(3)});
+        }
+        // larger rectangles first, so that contained ones are found among the kept ones
+        candidates.sort((a, b) -> Long.compare(area(b), area(a)));
+        List<long[]> kept = new ArrayList<>(candidates.size());
+        for (long[] r : candidates) {
+            boolean contained = false;
+            for (long[] k : kept) {
+                if (k[0] <= r[0] && k[1] <= r[1] && k[2] >= r[2] && k[3] >= r[3]) {
+                    contained = true;
+                    break;
+                }
+            }
+            if (!contained) {
+                kept.add(r);
+            }
+        }
+        return kept.toArray(new long[kept.size()][]);
+    }
+
+    private static long area(long[] r) {
+        return (r[2] - r[0] + 1) * (r[3] - r[1] + 1);
+    }
+
+    /** Returns true if no tile is affected */
+    public boolean isEmpty() {
+        for (long[][] level : rectangles) {
+            if (level.length > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long[][] getGridCoverages() {
+        return Arrays.stream(coverages).filter(c -> c != null).toArray(long[][]::new);
+    }
+
+    @Override
+    public boolean lookup(long x, long y, int z) {
+        if (z < zoomStart || z > zoomStop) {
+            return false;
+        }
+        for (long[] r : rectangles[z - zoomStart]) {
+            if (x >= r[0] && x <= r[2] && y >= r[1] && y <= r[3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Number of distinct tiles in the mask, over all zoom levels */
+    public long getTileCount() {
+        long count = 0;
+        for (long[][] level : rectangles) {
+            count += unionArea(level);
+        }
+        return count;
+    }
+
+    /**
+     * Number of tiles in the bounds of the grid coverages, that is, the tiles a truncation of the
+     * merged regions would have hit
+     */
+    public long getBoundsTileCount() {
+        long count = 0;
+        for (long[] c : coverages) {
+            if (c != null) {
+                count += area(c);
+            }
+        }
+        return count;
+    }
+
+    /** Computes the area of the union of the rectangles, sweeping over the x coordinates */
+    static long unionArea(long[][] rects) {
+        if (rects.length == 0) {
+            return 0;
+        } else if (rects.length == 1) {
+            return area(rects[0]);
+        }
+        // tile ranges are inclusive, use half open intervals on the edges
+        long[] xs = new long[rects.length * 2];
+        for (int i = 0; i < rects.length; i++) {
+            xs[2 * i] = rects[i][0];
+            xs[2 * i + 1] = rects[i][2] + 1;
+        }
+        Arrays.sort(xs);
+        long total = 0;
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < xs.length - 1; i++) {
+            long x0 = xs[i];
+            long x1 = xs[i + 1];
+            if (x0 == x1) {
+                continue;
+            }
+            intervals.clear();
+            for (long[] r : rects) {
+                if (r[0] <= x0 && r[2] + 1 >= x1) {
+                    intervals.add(new long[] {r[1], r[3] + 1});
+                }
+            }
+            if (intervals.isEmpty()) {
+                continue;
+            }
+            intervals.sort((a, b) -> Long.compare(a[0], b[0]));
+            long covered = 0;
+            long start = intervals.get(0)[0];
+            long end = intervals.get(0)[1];
+            for (long[] interval : intervals) {
+                if (interval[0] > end) {
+                    covered += end - start;
+                    start = interval[0];
+                    end = interval[1];
+                } else {
+                    end = Math.max(end, interval[1]);
+                }
+            }
+            covered += end - start;
+            total += covered * (x1 - x0);
+        }
+        return total;
+    }
+}
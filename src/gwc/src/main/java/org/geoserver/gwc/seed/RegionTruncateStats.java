@@ -0,0 +1,66 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.seed;
+
+import java.util.Locale;
+
+/**
+ * Summary of a multi region truncation, comparing the tiles in the truncated regions with the tiles
+ * a truncation of their merged bounds would have hit. Counts are in tile coordinates summed over
+ * grid sets, formats and parameter combinations, so they are an upper bound of the tiles actually
+ * removed from the blob store, which might not have cached all of them.
+ */
+public class RegionTruncateStats {
+
+    private final String layerName;
+
+    private int tasks;
+
+    private long tiles;
+
+    private long boundsTiles;
+
+    public RegionTruncateStats(String layerName) {
+        this.layerName = layerName;
+    }
+
+    /** Accounts for a truncate task dispatched for the given mask */
+    public void add(RegionTileMask mask) {
+        tasks++;
+        tiles += mask.getTileCount();
+        boundsTiles += mask.getBoundsTileCount();
+    }
+
+    public String getLayerName() {
+        return layerName;
+    }
+
+    /** Number of truncate tasks dispatched, one per grid set, format and parameter combination */
+    public int getTasks() {
+        return tasks;
+    }
+
+    /** Number of tiles in the truncated regions */
+    public long getTiles() {
+        return tiles;
+    }
+
+    /** Number of tiles a truncation of the merged bounds would have covered */
+    public long getBoundsTiles() {
+        return boundsTiles;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ENGLISH,
+                "Truncated layer %s in %d tasks, %,d tiles in the modified regions vs %,d in their"
+                        + " merged bounds",
+                layerName,
+                tasks,
+                tiles,
+                boundsTiles);
+    }
+}
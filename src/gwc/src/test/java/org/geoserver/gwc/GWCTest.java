@@ -81,6 +81,7 @@
 import org.geoserver.gwc.layer.GeoServerTileLayer;
 import org.geoserver.gwc.layer.GeoServerTileLayerInfo;
 import org.geoserver.gwc.layer.TileLayerInfoUtil;
+import org.geoserver.gwc.seed.RegionTruncateStats;
 import org.geoserver.gwc.wms.CachingWebMapService;
 import org.geoserver.ows.Dispatcher;
 import org.geoserver.ows.util.CaseInsensitiveMap;
@@ -882,6 +883,41 @@ public void testTruncateByBounds() throws Exception {
         verify(tileBreeder, times(expected)).seed(eq(layerName), any(SeedRequest.class));
     }
 
+    @Test
+    public void testTruncateByRegions() throws Exception {
+        String layerName = tileLayer.getName();
+        final Set<Map<String, String>> cachedParameters =
+                tileLayer.getInfo().cachedStyles().stream()
+                        .map(style -> Collections.singletonMap("STYLES", style))
+                        .collect(Collectors.toSet());
+        when(storageBroker.getCachedParameters(layerName)).thenReturn(cachedParameters);
+
+        // regions outside layer bounds (which are -180,0,0,90)
+        ReferencedEnvelope outside =
+                new ReferencedEnvelope(10, 20, 10, 20, DefaultGeographicCRS.WGS84);
+        RegionTruncateStats stats = mediator.truncate(layerName, Arrays.asList(outside));
+        verify(tileBreeder, never()).dispatchTasks(any(GWCTask[].class));
+        assertEquals(0, stats.getTasks());
+
+        // two small regions at opposite corners of the layer bounds
+        ReferencedEnvelope region1 =
+                new ReferencedEnvelope(-170, -169, 1, 2, DefaultGeographicCRS.WGS84);
+        ReferencedEnvelope region2 =
+                new ReferencedEnvelope(-2, -1, 80, 81, DefaultGeographicCRS.WGS84);
+        stats = mediator.truncate(layerName, Arrays.asList(region1, region2, outside));
+
+        int numGridsets = tileLayer.getGridSubsets().size();
+        int numFormats = tileLayer.getMimeTypes().size();
+        int numStyles = 1 /* default */ + tileLayer.getInfo().cachedStyles().size();
+        final int expected = numGridsets * numFormats * numStyles;
+        verify(tileBreeder, times(expected)).dispatchTasks(any(GWCTask[].class));
+        verify(tileBreeder, never()).seed(anyString(), any(SeedRequest.class));
+        assertEquals(expected, stats.getTasks());
+        // only the tiles in the regions are truncated, not the ones in between
+        assertTrue(stats.getTiles() > 0);
+        assertTrue(stats.getTiles() * 100 < stats.getBoundsTiles());
+    }
+
     @Test
     public void testTruncateByBoundsWithDimension() throws Exception {
         TileLayerInfoUtil.updateAcceptAllRegExParameterFilter(tileLayerInfo, "TIME", true);
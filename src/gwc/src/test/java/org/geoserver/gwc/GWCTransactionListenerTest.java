@@ -19,6 +19,7 @@
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -183,8 +184,9 @@ public void testAfterTransactionCompoundCRS() throws Exception {
         ReferencedEnvelope expectedBounds =
                 new ReferencedEnvelope(transactionBounds, CRS.getHorizontalCRS(compoundCrs));
 
-        verify(mediator, times(1)).truncate(eq("theLayer"), eq(expectedBounds));
-        verify(mediator, times(1)).truncate(eq("theGroup"), eq(expectedBounds));
+        List<ReferencedEnvelope> expectedRegions = Collections.singletonList(expectedBounds);
+        verify(mediator, times(1)).truncate(eq("theLayer"), eq(expectedRegions));
+        verify(mediator, times(1)).truncate(eq("theGroup"), eq(expectedRegions));
     }
 
     @Test
@@ -204,11 +206,10 @@ public void testAfterTransaction() throws Exception {
         when(mediator.getDeclaredCrs(anyString())).thenReturn(WGS84);
         listener.afterTransaction(request, result, true);
 
-        ReferencedEnvelope expectedEnv = new ReferencedEnvelope(affectedBounds1);
-        expectedEnv.expandToInclude(affectedBounds2);
-
-        verify(mediator, times(1)).truncate(eq("theLayer"), eq(expectedEnv));
-        verify(mediator, times(1)).truncate(eq("theGroup"), eq(expectedEnv));
+        // the regions are not merged
+        List<ReferencedEnvelope> expectedRegions = Arrays.asList(affectedBounds1, affectedBounds2);
+        verify(mediator, times(1)).truncate(eq("theLayer"), eq(expectedRegions));
+        verify(mediator, times(1)).truncate(eq("theGroup"), eq(expectedRegions));
     }
 
     /**
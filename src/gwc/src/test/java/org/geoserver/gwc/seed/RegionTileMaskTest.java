@@ -0,0 +1,36 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.gwc.seed;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class RegionTileMaskTest {
+
+    @Test
+    public void testUnionAreaDisjoint() {
+        long[][] rects = {{0, 0, 1, 1}, {10, 10, 12, 10}};
+        assertEquals(4 + 3, RegionTileMask.unionArea(rects));
+    }
+
+    @Test
+    public void testUnionAreaOverlapping() {
+        // 3x3 and 3x3 sharing a 2x2 corner
+        long[][] rects = {{0, 0, 2, 2}, {1, 1, 3, 3}};
+        assertEquals(9 + 9 - 4, RegionTileMask.unionArea(rects));
+    }
+
+    @Test
+    public void testUnionAreaContainedAndAdjacent() {
+        long[][] rects = {{0, 0, 9, 9}, {2, 2, 3, 3}, {10, 0, 10, 9}};
+        assertEquals(110, RegionTileMask.unionArea(rects));
+    }
+
+    @Test
+    public void testUnionAreaEmpty() {
+        assertEquals(0, RegionTileMask.unionArea(new long[0][]));
+    }
+}
@@ -4,6 +4,17 @@
  */
 package org.geoserver.catalog;
 
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ForwardingMap;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.awt.RenderingHints;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
@@ -26,6 +37,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -35,8 +47,12 @@
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.measure.Unit;
@@ -195,6 +211,25 @@ public class ResourcePool {
     /** Default number of hard references */
     static int FEATURETYPE_CACHE_SIZE_DEFAULT = 100;
 
+    /**
+     * System property/environment variable setting the maximum number of hard referenced entries in
+     * the store, coverage reader, remote server and style caches
+     */
+    public static final String CACHE_SIZE_KEY = "org.geoserver.catalog.ResourcePool.cacheSize";
+
+    /** Default maximum number of entries in the store, reader, remote server and style caches */
+    static final int CACHE_SIZE_DEFAULT = 1000;
+
+    /**
+     * System property/environment variable setting how many seconds entries evicted from the
+     * resource caches wait before being disposed, as requests in flight might still use them
+     */
+    public static final String EVICTION_GRACE_KEY =
+            "org.geoserver.catalog.ResourcePool.evictionGrace";
+
+    /** Default number of seconds evicted entries wait before being disposed */
+    static final int EVICTION_GRACE_DEFAULT = 60;
+
     static String CRS_NOT_FOUND = "CRS_NOT_FOUND";
     static Map<CoordinateReferenceSystem, String> crsIdentifierCache = new SoftValueHashMap<>();
 
@@ -234,6 +269,9 @@ public class ResourcePool {
      */
     private CanonicalSet<CoverageHintReaderKey> coverageCacheKeys;
 
+    /** Serializes writes to the same style file, without blocking access to the other styles */
+    private final Striped<Lock> styleLocks = Striped.lock(64);
+
     /** Creates a new instance of the resource pool explicitly supplying the application context. */
     public static ResourcePool create(Catalog catalog, ApplicationContext appContext) {
         // look for an implementation in spring context
@@ -384,7 +422,7 @@ public Map<String, StyledLayerDescriptor> getSldCache() {
     }
 
     protected Map<String, StyledLayerDescriptor> createSldCache() {
-        return new ConcurrentHashMap<>();
+        return new StyleCache<>();
     }
 
     /**
@@ -397,7 +435,7 @@ public Map<String, Style> getStyleCache() {
     }
 
     protected Map<String, Style> createStyleCache() {
-        return new ConcurrentHashMap<>();
+        return new StyleCache<>();
     }
 
     /**
@@ -437,6 +475,115 @@ public void setFeatureTypeCacheSize(int featureTypeCacheSize) {
         }
     }
 
+    /**
+     * Returns the hit, miss, load time and eviction statistics of the resource caches, by cache
+     * name. Caches replaced by subclasses with a different implementation are not reported.
+     */
+    public Map<String, CacheStats> getCacheStatistics() {
+        Map<String, CacheStats> result = new LinkedHashMap<>();
+        addStatistics(result, "dataStores", dataStoreCache);
+        addStatistics(result, "featureTypes", featureTypeCache);
+        addStatistics(result, "featureTypeAttributes", featureTypeAttributeCache);
+        addStatistics(result, "coverageReaders", hintCoverageReaderCache);
+        addStatistics(result, "wmsServers", wmsCache);
+        addStatistics(result, "wmtsServers", wmtsCache);
+        addStatistics(result, "styledLayerDescriptors", sldCache);
+        addStatistics(result, "styles", styleCache);
+        return result;
+    }
+
+    private void addStatistics(Map<String, CacheStats> stats, String name, Map<?, ?> cache) {
+        if (cache instanceof CatalogResourceCache) {
+            stats.put(name, ((CatalogResourceCache<?, ?>) cache).stats());
+        }
+    }
+
+    /**
+     * Returns the current number of entries in each resource cache, by cache name, see {@link
+     * #getCacheStatistics()}
+     */
+    public Map<String, Long> getCacheSizes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("dataStores", (long) dataStoreCache.size());
+        result.put("featureTypes", (long) featureTypeCache.size());
+        result.put("featureTypeAttributes", (long) featureTypeAttributeCache.size());
+        result.put("coverageReaders", (long) hintCoverageReaderCache.size());
+        result.put("wmsServers", (long) wmsCache.size());
+        result.put("wmtsServers", (long) wmtsCache.size());
+        result.put("styledLayerDescriptors", (long) sldCache.size());
+        result.put("styles", (long) styleCache.size());
+        return result;
+    }
+
+    /** Returns the configured maximum number of entries for the store and style caches */
+    static int getConfiguredCacheSize() {
+        return getPositiveProperty(CACHE_SIZE_KEY, CACHE_SIZE_DEFAULT);
+    }
+
+    static int getConfiguredEvictionGrace() {
+        return getPositiveProperty(EVICTION_GRACE_KEY, EVICTION_GRACE_DEFAULT);
+    }
+
+    private static int getPositiveProperty(String key, int defaultValue) {
+        String value = GeoServerExtensions.getProperty(key);
+        if (value != null) {
+            try {
+                int number = Integer.parseInt(value.trim());
+                if (number > 0) {
+                    return number;
+                }
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            LOGGER.warning(
+                    "Invalid value for "
+                            + key
+                            + ": "
+                            + value
+                            + ", using the default "
+                            + defaultValue);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Looks up a resource in the cache, loading it if missing. Concurrent requests for the same
+     * key wait for a single load, requests for other keys are not blocked.
+     *
+     * @param cache the resource cache
+     * @param key the cache key, expected to be canonical, as custom cache implementations are
+     *     synchronized on it
+     * @param loader creates the resource, must not return null
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V> V getOrLoad(Map<K, V> cache, K key, Callable<V> loader) throws IOException {
+        if (cache instanceof CatalogResourceCache) {
+            return ((CatalogResourceCache<K, V>) cache).get(key, loader);
+        }
+        // custom cache implementation provided by a subclass, lock on the canonical key
+        V value = cache.get(key);
+        if (value == null) {
+            synchronized (key) {
+                value = cache.get(key);
+                if (value == null) {
+                    value = call(loader);
+                    cache.put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    private static <V> V call(Callable<V> loader) throws IOException {
+        try {
+            return loader.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Sets the coverage executor used for concurrent processing of files (e.g. in image mosaic,
      * when multi-threaded loading is enabled)
@@ -639,9 +786,7 @@ public DataAccessFactory getDataStoreFactory(DataStoreInfo info) throws IOExcept
 
         DataStoreInfo expandedStore = clone(info, true);
 
-        DataAccess<? extends FeatureType, ? extends Feature> dataStore = null;
         try {
-
             String storeId = info.getId();
             // cache only if the id is not null, no need to cache the stores
             // returned from un-saved DataStoreInfo objects (it would be actually
@@ -649,27 +794,8 @@ public DataAccessFactory getDataStoreFactory(DataStoreInfo info) throws IOExcept
             if (storeId == null) return createDataAccess(info, expandedStore);
 
             String key = cacheKeys.unique(storeId);
-            dataStore = dataStoreCache.get(key);
-            if (dataStore == null) {
-                synchronized (key) {
-                    dataStore = dataStoreCache.get(key);
-                    if (dataStore == null) {
-                        dataStore = createDataAccess(info, expandedStore);
-                        dataStoreCache.put(key, dataStore);
-                    }
-                }
-            }
-
-            return dataStore;
+            return getOrLoad(dataStoreCache, key, () -> createDataAccess(info, expandedStore));
         } catch (Exception e) {
-            // if anything goes wrong we have to clean up the store anyways
-            if (dataStore != null) {
-                try {
-                    dataStore.dispose();
-                } catch (Exception ex) {
-                    // fine, we had to try
-                }
-            }
             disableStoreInfoIfNeeded(info, DataStoreInfo.class, e);
 
             if (e instanceof IOException) {
@@ -903,17 +1029,7 @@ public List<AttributeTypeInfo> getAttributes(FeatureTypeInfo info) throws IOExce
 
         // check the cache
         String key = cacheKeys.unique(info.getId());
-        List<AttributeTypeInfo> atts = featureTypeAttributeCache.get(key);
-        if (atts == null) {
-            synchronized (key) {
-                atts = featureTypeAttributeCache.get(key);
-                if (atts == null) {
-                    atts = attributeTypeInfos(info);
-                    featureTypeAttributeCache.put(key, atts);
-                }
-            }
-        }
-        return atts;
+        return getOrLoad(featureTypeAttributeCache, key, () -> attributeTypeInfos(info));
     }
 
     private List<AttributeTypeInfo> attributeTypeInfos(FeatureTypeInfo info) throws IOException {
@@ -1082,17 +1198,8 @@ FeatureType getCacheableFeatureType(FeatureTypeInfo info, boolean handleProjecti
 
         id = getFeatureTypeInfoKey(info, handleProjectionPolicy);
         String key = cacheKeys.unique(id);
-        FeatureType ft = featureTypeCache.get(key);
-        if (ft == null) {
-            synchronized (key) {
-                ft = featureTypeCache.get(key);
-                if (ft == null) {
-                    ft = acquireFeatureType(info, handleProjectionPolicy);
-                    featureTypeCache.put(key, ft);
-                }
-            }
-        }
-        return ft;
+        return getOrLoad(
+                featureTypeCache, key, () -> acquireFeatureType(info, handleProjectionPolicy));
     }
 
     private FeatureType acquireFeatureType(FeatureTypeInfo info, boolean handleProjectionPolicy)
@@ -1663,46 +1770,26 @@ private GridCoverageReader getGridCoverageReader(
         if (coverageExecutor != null) {
             hints.add(new RenderingHints(Hints.EXECUTOR_SERVICE, coverageExecutor));
         }
-        // look into the cache
+        // look into the cache, if not found create it
         CoverageHintReaderKey key = new CoverageHintReaderKey(info.getId(), hints);
         key = coverageCacheKeys.unique(key);
-        GridCoverageReader reader = hintCoverageReaderCache.get(key);
-
-        // if not found in cache, create it
-        if (reader == null) {
-            synchronized (key) {
-                if (key != null) {
-                    reader = hintCoverageReaderCache.get(key);
-                }
-                if (reader == null) {
-                    try {
-                        /////////////////////////////////////////////////////////
-                        //
-                        // Getting coverage reader using the format and the real path.
-                        //
-                        // /////////////////////////////////////////////////////////
-                        final String urlString = expandedStore.getURL();
-                        Object readObject =
-                                getObjectToRead(urlString, coverageInfo, expandedStore, hints);
-
-                        // readers might change the provided hints, pass down a defensive copy
-                        reader = gridFormat.getReader(readObject, hints);
-                        if (reader == null) {
-                            throw new IOException(
-                                    "Failed to create reader from "
-                                            + urlString
-                                            + " and hints "
-                                            + hints);
-                        }
-                        if (key != null) {
-                            hintCoverageReaderCache.put(key, reader);
-                        }
-                    } catch (Exception e) {
-                        disableStoreInfoIfNeeded(info, CoverageStoreInfo.class, e);
-                        throw e;
-                    }
-                }
-            }
+        final Hints readerHints = hints;
+        final CoverageInfo readerCoverage = coverageInfo;
+        GridCoverageReader reader;
+        try {
+            reader =
+                    getOrLoad(
+                            hintCoverageReaderCache,
+                            key,
+                            () ->
+                                    createGridCoverageReader(
+                                            gridFormat,
+                                            expandedStore,
+                                            readerCoverage,
+                                            readerHints));
+        } catch (IOException | RuntimeException e) {
+            disableStoreInfoIfNeeded(info, CoverageStoreInfo.class, e);
+            throw e;
         }
 
         if (coverageInfo == null && coverageName != null) {
@@ -1755,6 +1842,29 @@ private GridCoverageReader getGridCoverageReader(
         }
     }
 
+    private GridCoverageReader createGridCoverageReader(
+            AbstractGridFormat gridFormat,
+            CoverageStoreInfo expandedStore,
+            CoverageInfo coverageInfo,
+            Hints hints)
+            throws IOException {
+        /////////////////////////////////////////////////////////
+        //
+        // Getting coverage reader using the format and the real path.
+        //
+        // /////////////////////////////////////////////////////////
+        final String urlString = expandedStore.getURL();
+        Object readObject = getObjectToRead(urlString, coverageInfo, expandedStore, hints);
+
+        // readers might change the provided hints, pass down a defensive copy
+        GridCoverageReader reader = gridFormat.getReader(readObject, hints);
+        if (reader == null) {
+            throw new IOException(
+                    "Failed to create reader from " + urlString + " and hints " + hints);
+        }
+        return reader;
+    }
+
     /**
      * Attempted to convert the URL-ish string to a parseable input object, otherwise just returns
      * the string itself
@@ -1947,13 +2057,11 @@ public WebMapServer getWebMapServer(WMSStoreInfo info) throws IOException {
                 wms = null;
             }
             if (wms == null) {
-                synchronized (id) {
-                    wms = wmsCache.get(id);
-                    if (wms == null) {
-                        wms = createWebMapServer(expandedStore, entityResolver);
-                        wmsCache.put(id, wms);
-                    }
-                }
+                wms =
+                        getOrLoad(
+                                wmsCache,
+                                id,
+                                () -> createWebMapServer(expandedStore, entityResolver));
             }
 
             return wms;
@@ -2017,13 +2125,7 @@ public WebMapTileServer getWebMapTileServer(WMTSStoreInfo info) throws IOExcepti
                 wmts = null;
             }
             if (wmts == null) {
-                synchronized (id) {
-                    wmts = wmtsCache.get(id);
-                    if (wmts == null) {
-                        wmts = createWebMapTileServer(info, entityResolver);
-                        wmtsCache.put(id, wmts);
-                    }
-                }
+                wmts = getOrLoad(wmtsCache, id, () -> createWebMapTileServer(info, entityResolver));
             }
 
             return wmts;
@@ -2180,29 +2282,14 @@ public StyledLayerDescriptor getSld(final StyleInfo info) throws IOException {
         String id = info.getId();
         if (id == null) return dataDir().parsedSld(info);
         String key = cacheKeys.unique(id);
-        StyledLayerDescriptor sld = sldCache.get(key);
-        if (sld == null) {
-            synchronized (key) {
-                sld = sldCache.get(key);
-                if (sld == null) {
-                    sld = dataDir().parsedSld(info);
-
-                    sldCache.put(key, sld);
-
-                    final Resource styleResource = dataDir().style(info);
-                    styleResource.addListener(
-                            new ResourceListener() {
-                                @Override
-                                public void changed(ResourceNotification notify) {
-                                    sldCache.remove(key);
-                                    styleResource.removeListener(this);
-                                }
-                            });
-                }
-            }
-        }
-
-        return sld;
+        return getOrLoad(
+                sldCache,
+                key,
+                () -> {
+                    StyledLayerDescriptor sld = dataDir().parsedSld(info);
+                    clearOnChange(sldCache, key, info);
+                    return sld;
+                });
     }
 
     /**
@@ -2220,28 +2307,27 @@ public Style getStyle(final StyleInfo info) throws IOException {
         String styleId = info.getId();
         if (styleId == null) return createStyle(info);
         String key = cacheKeys.unique(styleId);
-        Style style = styleCache.get(key);
-        if (style == null) {
-            synchronized (key) {
-                style = styleCache.get(key);
-                if (style == null) {
-                    style = createStyle(info);
-                    styleCache.put(key, style);
-
-                    final Resource styleResource = dataDir().style(info);
-                    styleResource.addListener(
-                            new ResourceListener() {
-                                @Override
-                                public void changed(ResourceNotification notify) {
-                                    styleCache.remove(key);
-                                    styleResource.removeListener(this);
-                                }
-                            });
-                }
-            }
-        }
-
-        return style;
+        return getOrLoad(
+                styleCache,
+                key,
+                () -> {
+                    Style style = createStyle(info);
+                    clearOnChange(styleCache, key, info);
+                    return style;
+                });
+    }
+
+    /** Removes the cached style when its file changes */
+    private void clearOnChange(Map<String, ?> cache, String key, StyleInfo info) {
+        final Resource styleResource = dataDir().style(info);
+        styleResource.addListener(
+                new ResourceListener() {
+                    @Override
+                    public void changed(ResourceNotification notify) {
+                        cache.remove(key);
+                        styleResource.removeListener(this);
+                    }
+                });
     }
 
     private Style createStyle(StyleInfo info) throws IOException {
@@ -2301,9 +2387,7 @@ public void writeStyle(StyleInfo info, Style style) throws IOException {
      * @param format Whether to format the style
      */
     public void writeStyle(StyleInfo info, Style style, boolean format) throws IOException {
-        synchronized (styleCache) {
-            writeStyleFile(info, Styles.sld(style), format);
-        }
+        writeStyleFile(info, Styles.sld(style), format);
     }
 
     /**
@@ -2325,15 +2409,14 @@ public void writeSLD(StyleInfo info, StyledLayerDescriptor style) throws IOExcep
      */
     public void writeSLD(StyleInfo info, StyledLayerDescriptor style, boolean format)
             throws IOException {
-        synchronized (sldCache) {
-            writeStyleFile(info, style, format);
-        }
+        writeStyleFile(info, style, format);
     }
 
     private void writeStyleFile(StyleInfo info, StyledLayerDescriptor style, boolean format)
             throws IOException {
         Resource styleFile = dataDir().style(info);
-
+        Lock lock = styleLock(styleFile);
+        lock.lock();
         try (BufferedOutputStream out = new BufferedOutputStream(styleFile.out())) {
             Styles.handler(info.getFormat()).encode(style, info.getFormatVersion(), format, out);
 
@@ -2342,9 +2425,15 @@ private void writeStyleFile(StyleInfo info, StyledLayerDescriptor style, boolean
             throw new IOException("Writing style failed.", e);
         } finally {
             clear(info);
+            lock.unlock();
         }
     }
 
+    /** Returns the lock serializing writes to the given style file */
+    private Lock styleLock(Resource styleFile) {
+        return styleLocks.get(styleFile.path());
+    }
+
     /**
      * Writes a raw style to configuration.
      *
@@ -2352,10 +2441,14 @@ private void writeStyleFile(StyleInfo info, StyledLayerDescriptor style, boolean
      * @param in input stream representing the raw a style.
      */
     public void writeStyle(StyleInfo style, InputStream in) throws IOException {
-        synchronized (styleCache) {
-            Resource styleFile = dataDir().style(style);
+        Resource styleFile = dataDir().style(style);
+        Lock lock = styleLock(styleFile);
+        lock.lock();
+        try {
             writeStyle(in, styleFile);
             clear(style);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -2380,9 +2473,14 @@ public static void writeStyle(final InputStream in, final Resource styleFile)
      * @param purgeFile Whether to delete the file from disk.
      */
     public void deleteStyle(StyleInfo style, boolean purgeFile) throws IOException {
-        synchronized (styleCache) {
-            if (purgeFile) {
-                deleteStyleFile(dataDir().style(style));
+        if (purgeFile) {
+            Resource styleFile = dataDir().style(style);
+            Lock lock = styleLock(styleFile);
+            lock.lock();
+            try {
+                deleteStyleFile(styleFile);
+            } finally {
+                lock.unlock();
             }
         }
     }
@@ -2417,44 +2515,174 @@ public void dispose() {
 
     /**
      * Base class for all the resource caches, ensures type safety and provides an easier way to
-     * handle with resource disposal
+     * handle with resource disposal.
+     *
+     * <p>The cache holds a bounded number of entries, least recently used entries are evicted when
+     * the limit is reached. As requests in flight might still be using them, evicted entries wait
+     * for a grace period (see {@link ResourcePool#EVICTION_GRACE_KEY}) before being disposed, and
+     * are moved back if looked up in the meantime. At most as many entries as the cache size wait,
+     * older ones are disposed right away when the limit is reached. Entries are disposed
+     * immediately when explicitly removed or cleared, but not when replaced by a {@link
+     * #put(Object, Object)}.
+     * Lookups and loads are tracked, see {@link #stats()}.
      *
      * @author Andrea Aime
      * @param <K>
      * @param <V>
      */
-    abstract class CatalogResourceCache<K, V> extends SoftValueHashMap<K, V> {
+    abstract class CatalogResourceCache<K, V> extends ForwardingMap<K, V> {
+
+        final Cache<K, V> cache;
+
+        /** The entries evicted from {@link #cache}, waiting for their grace period to end */
+        final Cache<K, V> evicted;
+
+        final long maximumSize;
 
         public CatalogResourceCache() {
-            this(100);
+            this(getConfiguredCacheSize());
         }
 
-        public CatalogResourceCache(int hardReferences) {
-            super(hardReferences);
-            super.cleaner = (ValueCleaner<K, V>) (key, object) -> dispose(key, object);
+        public CatalogResourceCache(long maximumSize) {
+            this(maximumSize, Ticker.systemTicker());
+        }
+
+        CatalogResourceCache(long maximumSize, Ticker ticker) {
+            this.maximumSize = maximumSize;
+            this.cache =
+                    CacheBuilder.newBuilder()
+                            .maximumSize(maximumSize)
+                            .recordStats()
+                            .<K, V>removalListener(this::onRemoval)
+                            .build();
+            this.evicted =
+                    CacheBuilder.newBuilder()
+                            .maximumSize(maximumSize)
+                            .expireAfterWrite(getConfiguredEvictionGrace(), TimeUnit.SECONDS)
+                            .ticker(ticker)
+                            .<K, V>removalListener(this::onGraceEnd)
+                            .build();
+        }
+
+        @Override
+        protected Map<K, V> delegate() {
+            return cache.asMap();
         }
 
         @Override
         @SuppressWarnings("unchecked")
-        public V remove(Object key) {
-            V object = super.remove(key);
-            if (object != null) {
-                dispose((K) key, object);
+        public V get(Object key) {
+            if (key == null) {
+                return null;
+            }
+            // go through the cache so that the lookup shows up in the statistics
+            V value = cache.getIfPresent(key);
+            if (value == null && evicted.getIfPresent(key) != null) {
+                // moved back under the key lock, a concurrent remove cannot be undone
+                value =
+                        cache.asMap()
+                                .compute(
+                                        (K) key,
+                                        (k, v) -> v != null ? v : evicted.asMap().remove(k));
+            }
+            return value;
+        }
+
+        /**
+         * Returns the value for the key, loading it if missing. Only callers of the same key wait
+         * for the load.
+         */
+        V get(K key, Callable<? extends V> loader) throws IOException {
+            try {
+                return cache.get(
+                        key,
+                        () -> {
+                            V value = evicted.asMap().remove(key);
+                            return value != null ? value : loader.call();
+                        });
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                Throwable cause = e.getCause();
+                Throwables.throwIfInstanceOf(cause, IOException.class);
+                Throwables.throwIfUnchecked(cause);
+                throw new IOException(cause);
+            } catch (ExecutionError e) {
+                throw (Error) e.getCause();
             }
-            return object;
         }
 
         @Override
         @SuppressWarnings("unchecked")
-        public void clear() {
-            for (Entry entry : entrySet()) {
-                try {
-                    dispose((K) entry.getKey(), (V) entry.getValue());
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Error dispoing entry: " + entry, e);
-                }
+        public V remove(Object key) {
+            if (key == null) {
+                return null;
+            }
+            // live and waiting values, removed under the key lock used to move entries back
+            List<V> removed = new ArrayList<>(2);
+            cache.asMap()
+                    .compute(
+                            (K) key,
+                            (k, v) -> {
+                                removed.add(v);
+                                removed.add(evicted.asMap().remove(k));
+                                return null;
+                            });
+            // the live value is disposed by the removal listener, the waiting one here
+            V waiting = removed.get(1);
+            if (waiting != null) {
+                disposeQuietly((K) key, waiting);
             }
+            return removed.get(0) != null ? removed.get(0) : waiting;
+        }
+
+        @Override
+        public void clear() {
             super.clear();
+            Map<K, V> waiting = new HashMap<>(evicted.asMap());
+            evicted.invalidateAll();
+            waiting.forEach(this::disposeQuietly);
+        }
+
+        /** Disposes the evicted entries whose grace period is over */
+        void cleanUp() {
+            evicted.cleanUp();
+        }
+
+        /** The maximum number of entries in the cache */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /** Returns the hit, miss, load and eviction statistics for this cache */
+        public CacheStats stats() {
+            return cache.stats();
+        }
+
+        private void onRemoval(RemovalNotification<K, V> notification) {
+            V value = notification.getValue();
+            if (value == null || notification.getCause() == RemovalCause.REPLACED) {
+                return;
+            }
+            if (notification.getCause() == RemovalCause.EXPLICIT) {
+                disposeQuietly(notification.getKey(), value);
+            } else if (notification.wasEvicted()) {
+                // might still be in use, dispose once the grace period is over
+                evicted.put(notification.getKey(), value);
+            }
+        }
+
+        private void onGraceEnd(RemovalNotification<K, V> notification) {
+            // explicit removals are entries moved back, or disposed by the caller
+            if (notification.wasEvicted() && notification.getValue() != null) {
+                disposeQuietly(notification.getKey(), notification.getValue());
+            }
+        }
+
+        private void disposeQuietly(K key, V value) {
+            try {
+                dispose(key, value);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error disposing entry: " + key, e);
+            }
         }
 
         protected abstract void dispose(K key, V object);
@@ -2617,6 +2845,14 @@ protected void dispose(String key, List<AttributeTypeInfo> object) {
         }
     }
 
+    class StyleCache<V> extends CatalogResourceCache<String, V> {
+
+        @Override
+        protected void dispose(String key, V style) {
+            // nothing to do, styles hold no resources
+        }
+    }
+
     class WMSCache extends CatalogResourceCache<String, WebMapServer> {
 
         @Override
@@ -0,0 +1,91 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import com.google.common.cache.CacheStats;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.geoserver.platform.ModuleStatus;
+
+/**
+ * Reports the {@link ResourcePool} cache sizes and hit, miss, load time and eviction statistics,
+ * shows up in the {@code rest/about/status} endpoint and the server status page.
+ */
+public class ResourcePoolStatus implements ModuleStatus {
+
+    private final Catalog catalog;
+
+    public ResourcePoolStatus(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public String getModule() {
+        return "gs-main";
+    }
+
+    @Override
+    public Optional<String> getComponent() {
+        return Optional.of("ResourcePool");
+    }
+
+    @Override
+    public String getName() {
+        return "Resource Pool Caches";
+    }
+
+    @Override
+    public Optional<String> getVersion() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public Optional<String> getMessage() {
+        ResourcePool pool = catalog.getResourcePool();
+        Map<String, Long> sizes = pool.getCacheSizes();
+        StringBuilder msg = new StringBuilder();
+        for (Map.Entry<String, CacheStats> entry : pool.getCacheStatistics().entrySet()) {
+            String name = entry.getKey();
+            CacheStats stats = entry.getValue();
+            msg.append(name)
+                    .append(": size=")
+                    .append(sizes.get(name))
+                    .append(", hits=")
+                    .append(stats.hitCount())
+                    .append(", misses=")
+                    .append(stats.missCount())
+                    .append(", hitRate=")
+                    .append(String.format(Locale.ENGLISH, "%.3f", stats.hitRate()))
+                    .append(", loads=")
+                    .append(stats.loadSuccessCount())
+                    .append(", loadFailures=")
+                    .append(stats.loadExceptionCount())
+                    .append(", averageLoadTimeMs=")
+                    .append(
+                            String.format(
+                                    Locale.ENGLISH, "%.3f", stats.averageLoadPenalty() / 1e6))
+                    .append(", evictions=")
+                    .append(stats.evictionCount())
+                    .append("\n");
+        }
+        return Optional.of(msg.toString());
+    }
+
+    @Override
+    public Optional<String> getDocumentation() {
+        return Optional.empty();
+    }
+}
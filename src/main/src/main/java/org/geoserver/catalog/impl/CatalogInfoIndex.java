@@ -0,0 +1,284 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.CatalogInfo;
+import org.geotools.util.Converters;
+import org.geotools.util.logging.Logging;
+
+/**
+ * A secondary index for {@link CatalogInfoLookup}, maps the values of a (possibly nested) property
+ * to the catalog objects having it, allowing {@link DefaultCatalogFacade#list} and {@link
+ * DefaultCatalogFacade#count} to avoid a full scan when filtering on the property.
+ *
+ * <p>The index is maintained incrementally on add, remove and save of the indexed objects. Objects
+ * whose property cannot be extracted as a single value are kept in a separate set, and returned as
+ * candidates for every lookup. If the property depends on other catalog objects (e.g., {@code
+ * resource.store.workspace.name} for layers) the index is invalidated when one of them is saved
+ * with a change in a property the path goes through (e.g. the workspace name, or the store
+ * workspace), and rebuilt on the next lookup. Other changes, like a title, keep the index. A
+ * rebuild that overlaps with modifications is discarded and attempted again, so that objects added
+ * or removed while the snapshot was taken are not missed.
+ *
+ * <p>The index only returns candidates, the caller is still expected to evaluate the full filter on
+ * them.
+ *
+ * @param <T>
+ */
+class CatalogInfoIndex<T extends CatalogInfo> {
+
+    static final Logger LOGGER = Logging.getLogger(CatalogInfoIndex.class);
+
+    static final CatalogPropertyAccessor ACCESSOR = new CatalogPropertyAccessor();
+
+    /** Marker for values that cannot be indexed */
+    private static final Object UNINDEXABLE = new Object();
+
+    /** Number of attempts at building the index while the lookup is being modified */
+    static final int MAX_BUILD_ATTEMPTS = 3;
+
+    /** The properties computed ones are derived from, e.g. a prefix or workspace name and a name */
+    private static final Map<String, Set<String>> DERIVED =
+            Map.of("prefixedName", Set.of("name", "namespace", "prefix", "store", "workspace"));
+
+    final String property;
+
+    final Class<?> keyType;
+
+    final Class<?>[] dependencies;
+
+    /** The properties of the dependencies that can affect the indexed values */
+    final Set<String> dependencyProperties = new HashSet<>();
+
+    /** The index contents, null if the index needs to be rebuilt */
+    private volatile Entries<T> entries;
+
+    /** Incremented on every modification and invalidation, guarded by this */
+    private long generation;
+
+    /**
+     * The index contents, published as a whole so that readers never see a partially built or
+     * invalidated index
+     */
+    private static class Entries<T> {
+        /**
+         * The indexed objects, by property value and id (catalog objects hash code changes along
+         * with their state, cannot use it to locate them)
+         */
+        final NavigableMap<Object, Map<String, T>> index = new ConcurrentSkipListMap<>();
+
+        /** The objects that could not be indexed, by id, they are part of every lookup result */
+        final Map<String, T> unindexed = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Builds a new index
+     *
+     * @param property the property path, as used in catalog filters
+     * @param keyType the type of the property values
+     * @param dependencies the types of the catalog objects the property value depends on, beyond
+     *     the indexed object itself
+     */
+    CatalogInfoIndex(String property, Class<?> keyType, Class<?>... dependencies) {
+        this.property = property;
+        this.keyType = keyType;
+        this.dependencies = dependencies;
+        for (String name : property.split("\\.")) {
+            dependencyProperties.add(name);
+            dependencyProperties.addAll(DERIVED.getOrDefault(name, Set.of()));
+        }
+    }
+
+    /** Returns true if the index is usable, false if it needs to be rebuilt */
+    boolean isValid() {
+        return entries != null;
+    }
+
+    /** Marks the index as invalid, it will be rebuilt on the next lookup */
+    synchronized void invalidate() {
+        entries = null;
+        generation++;
+    }
+
+    /**
+     * Invalidates the index if the property value depends on the saved object, and the changes
+     * touch the properties it is computed from
+     *
+     * @param saved the saved object
+     * @param changed the names of the properties modified by the save
+     */
+    void invalidate(CatalogInfo saved, Collection<String> changed) {
+        for (Class<?> dependency : dependencies) {
+            if (dependency.isInstance(saved)) {
+                for (String name : changed) {
+                    if (dependencyProperties.contains(name)) {
+                        invalidate();
+                        return;
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index from scratch, if not valid already. The values are gathered outside of
+     * the lock, the result is published only if no modification happened in the meantime.
+     *
+     * @param values supplies a snapshot of the objects to index
+     * @return true if the index is valid, false if it could not be built due to concurrent
+     *     modifications
+     */
+    boolean build(Supplier<Collection<T>> values) {
+        for (int i = 0; i < MAX_BUILD_ATTEMPTS; i++) {
+            long expected;
+            synchronized (this) {
+                if (entries != null) {
+                    return true;
+                }
+                expected = generation;
+            }
+            Entries<T> built = new Entries<>();
+            for (T value : values.get()) {
+                addInternal(built, value, getKey(value));
+            }
+            synchronized (this) {
+                if (generation == expected) {
+                    entries = built;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    synchronized void add(T value) {
+        generation++;
+        Entries<T> entries = this.entries;
+        if (entries != null) {
+            addInternal(entries, value, getKey(value));
+        }
+    }
+
+    synchronized void remove(T value) {
+        generation++;
+        Entries<T> entries = this.entries;
+        if (entries != null) {
+            removeInternal(entries, value, getKey(value));
+        }
+    }
+
+    /**
+     * Moves the value to the position matching its modified state
+     *
+     * @param actualValue the object stored in the lookup, with the old state
+     * @param proxiedValue the modification proxy, returning the new state
+     */
+    synchronized void update(T actualValue, T proxiedValue) {
+        generation++;
+        Entries<T> entries = this.entries;
+        if (entries != null) {
+            Object oldKey = getKey(actualValue);
+            Object newKey = getKey(proxiedValue);
+            if (oldKey == null ? newKey != null : !oldKey.equals(newKey)) {
+                removeInternal(entries, actualValue, oldKey);
+                addInternal(entries, actualValue, newKey);
+            }
+        }
+    }
+
+    private void addInternal(Entries<T> entries, T value, Object key) {
+        if (key == UNINDEXABLE) {
+            entries.unindexed.put(value.getId(), value);
+        } else if (key != null) {
+            entries.index
+                    .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                    .put(value.getId(), value);
+        }
+        // null values never match an equality or like filter, no need to keep them
+    }
+
+    private void removeInternal(Entries<T> entries, T value, Object key) {
+        if (key != null && key != UNINDEXABLE) {
+            Map<String, T> values = entries.index.get(key);
+            if (values != null) {
+                values.remove(value.getId());
+            }
+        }
+        // just in case the object was indexed differently when added
+        entries.unindexed.remove(value.getId());
+    }
+
+    private Object getKey(T value) {
+        try {
+            Object key = ACCESSOR.getProperty(value, property);
+            if (key == null) {
+                return null;
+            }
+            if (key instanceof Collection) {
+                // multi-valued property, cannot be handled with a single key
+                return UNINDEXABLE;
+            }
+            if (!keyType.isInstance(key)) {
+                key = Converters.convert(key, keyType);
+            }
+            return key == null ? UNINDEXABLE : key;
+        } catch (Exception e) {
+            LOGGER.log(Level.FINEST, "Could not index " + value + " on " + property, e);
+            return UNINDEXABLE;
+        }
+    }
+
+    /**
+     * Returns the candidates having the specified property value, or null if the value cannot be
+     * converted to the key type
+     */
+    List<T> equalTo(Object value) {
+        Entries<T> entries = this.entries;
+        if (entries == null) {
+            return null;
+        }
+        Object key = keyType.isInstance(value) ? value : Converters.convert(value, keyType);
+        if (key == null) {
+            return null;
+        }
+        Map<String, T> matches = entries.index.get(key);
+        List<T> result = new ArrayList<>(entries.unindexed.values());
+        if (matches != null) {
+            result.addAll(matches.values());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the candidates whose property value starts with the specified prefix, or null if the
+     * index is not a string one
+     */
+    List<T> startsWith(String prefix) {
+        Entries<T> entries = this.entries;
+        if (entries == null || !String.class.equals(keyType)) {
+            return null;
+        }
+        List<T> result = new ArrayList<>(entries.unindexed.values());
+        Map<Object, Map<String, T>> matches =
+                entries.index.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+        for (Map<String, T> values : matches.values()) {
+            result.addAll(values.values());
+        }
+        return result;
+    }
+}
@@ -8,10 +8,14 @@
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Level;
@@ -20,6 +24,14 @@
 import org.geoserver.catalog.CatalogInfo;
 import org.geoserver.ows.util.OwsUtils;
 import org.geotools.api.feature.type.Name;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Or;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsLike;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
 import org.geotools.util.logging.Logging;
 
 /**
@@ -29,6 +41,13 @@
  * <p>The lookups by predicate have been tested and optimized for performance, in particular the
  * current for loops turned out to be significantly faster than building and returning streams
  *
+ * <p>Objects are also indexed by the local part of their name, allowing {@link
+ * #findFirstByName(String, Class) lookups by unqualified name} without a scan.
+ *
+ * <p>Secondary {@link CatalogInfoIndex indexes} can be registered with {@link #addIndex}, they are
+ * used by {@link #list(Class, Filter)} and {@link #count(Class, Filter)} to reduce the set of
+ * objects the filter is evaluated against.
+ *
  * @param <T>
  */
 class CatalogInfoLookup<T extends CatalogInfo> {
@@ -36,7 +55,10 @@
 
     ConcurrentHashMap<Class<T>, Map<String, T>> idMultiMap = new ConcurrentHashMap<>();
     ConcurrentHashMap<Class<T>, Map<Name, T>> nameMultiMap = new ConcurrentHashMap<>();
+    /** The values by local part of their name and id, for lookups by unqualified name */
+    ConcurrentHashMap<String, Map<String, T>> localNameMap = new ConcurrentHashMap<>();
     Function<T, Name> nameMapper;
+    List<CatalogInfoIndex<T>> indexes = new CopyOnWriteArrayList<>();
     static final Predicate<?> TRUE = x -> true;
 
     /** Returns {@link CatalogInfoLookup#TRUE} in a type-safe way */
@@ -49,6 +71,45 @@ public CatalogInfoLookup(Function<T, Name> nameMapper) {
         this.nameMapper = nameMapper;
     }
 
+    /**
+     * Registers a secondary index on the specified property
+     *
+     * @param property the property path, as used in catalog filters
+     * @param keyType the type of the property values
+     * @param dependencies the types of the catalog objects the property value depends on, beyond
+     *     the indexed object itself
+     */
+    CatalogInfoLookup<T> addIndex(String property, Class<?> keyType, Class<?>... dependencies) {
+        indexes.add(new CatalogInfoIndex<>(property, keyType, dependencies));
+        return this;
+    }
+
+    /**
+     * Returns the index for the given property, or null if not found or if it could not be built
+     * due to concurrent modifications
+     */
+    CatalogInfoIndex<T> getIndex(String property) {
+        for (CatalogInfoIndex<T> index : indexes) {
+            if (index.property.equals(property)) {
+                if (!index.isValid() && !index.build(this::values)) {
+                    return null;
+                }
+                return index;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Invalidates the indexes depending on the saved object and the modified properties, to be
+     * called after the changes have been committed
+     */
+    public void invalidateIndexes(CatalogInfo saved, Collection<String> changed) {
+        for (CatalogInfoIndex<T> index : indexes) {
+            index.invalidate(saved, changed);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     <K> Map<K, T> getMapForValue(ConcurrentHashMap<Class<T>, Map<K, T>> maps, T value) {
         Class<T> vc;
@@ -88,8 +149,13 @@ public T add(T value) {
         Map<Name, T> nameMap = getMapForValue(nameMultiMap, value);
         Name name = nameMapper.apply(value);
         nameMap.put(name, value);
+        addLocalName(name, value);
         Map<String, T> idMap = getMapForValue(idMultiMap, value);
-        return idMap.put(value.getId(), value);
+        T previous = idMap.put(value.getId(), value);
+        for (CatalogInfoIndex<T> index : indexes) {
+            index.add(value);
+        }
+        return previous;
     }
 
     public Collection<T> values() {
@@ -105,8 +171,15 @@ public T remove(T value) {
         Name name = nameMapper.apply(value);
         Map<Name, T> nameMap = getMapForValue(nameMultiMap, value);
         nameMap.remove(name);
+        removeLocalName(name, value);
         Map<String, T> idMap = getMapForValue(idMultiMap, value);
-        return idMap.remove(value.getId());
+        T removed = idMap.remove(value.getId());
+        if (removed != null) {
+            for (CatalogInfoIndex<T> index : indexes) {
+                index.remove(removed);
+            }
+        }
+        return removed;
     }
 
     /** Updates the value in the name map. The new value must be a ModificationProxy */
@@ -121,12 +194,214 @@ public void update(T proxiedValue) {
             Map<Name, T> nameMap = getMapForValue(nameMultiMap, actualValue);
             nameMap.remove(oldName);
             nameMap.put(newName, actualValue);
+            removeLocalName(oldName, actualValue);
+            addLocalName(newName, actualValue);
+        }
+        for (CatalogInfoIndex<T> index : indexes) {
+            index.update(actualValue, proxiedValue);
+        }
+    }
+
+    /** Adds the value to the unqualified name index */
+    void addLocalName(Name name, T value) {
+        String localName = name.getLocalPart();
+        if (localName != null) {
+            localNameMap
+                    .computeIfAbsent(localName, k -> new ConcurrentHashMap<>())
+                    .put(value.getId(), value);
+        }
+    }
+
+    /** Removes the value from the unqualified name index */
+    void removeLocalName(Name name, T value) {
+        String localName = name.getLocalPart();
+        if (localName != null) {
+            // compute is atomic, the entry is removed only if it's still empty
+            localNameMap.computeIfPresent(
+                    localName,
+                    (k, values) -> {
+                        values.remove(value.getId());
+                        return values.isEmpty() ? null : values;
+                    });
         }
     }
 
     public void clear() {
         idMultiMap.clear();
         nameMultiMap.clear();
+        localNameMap.clear();
+        for (CatalogInfoIndex<T> index : indexes) {
+            index.invalidate();
+        }
+    }
+
+    /**
+     * Looks up objects by class and filter, using the secondary indexes when possible. The results
+     * are returned in the same order as {@link #list(Class, Predicate)}
+     */
+    <U extends CatalogInfo> List<U> list(Class<U> clazz, Filter filter) {
+        return list(clazz, candidates(filter), toPredicate(filter));
+    }
+
+    /**
+     * Looks up objects by class and matching predicate, using the secondary index on the given
+     * property to locate the candidates having the specified value. Falls back on a full scan if
+     * the index is not available.
+     */
+    <U extends CatalogInfo> List<U> list(
+            Class<U> clazz, String property, Object value, Predicate<U> predicate) {
+        CatalogInfoIndex<T> index = getIndex(property);
+        Collection<T> candidates = index == null ? null : index.equalTo(value);
+        return list(clazz, candidates, predicate);
+    }
+
+    private <U extends CatalogInfo> List<U> list(
+            Class<U> clazz, Collection<T> candidates, Predicate<U> predicate) {
+        if (candidates == null) {
+            return list(clazz, predicate);
+        }
+
+        List<U> result = new ArrayList<>();
+        for (Class<T> key : nameMultiMap.keySet()) {
+            if (clazz.isAssignableFrom(key)) {
+                List<U> matches = new ArrayList<>();
+                for (T v : candidates) {
+                    if (v.getClass() == key) {
+                        U u = clazz.cast(v);
+                        if (predicate == TRUE || predicate.test(u)) {
+                            matches.add(u);
+                        }
+                    }
+                }
+                // same order as the name map
+                @SuppressWarnings("unchecked")
+                Function<U, Comparable<Object>> sortKey =
+                        u -> (Comparable<Object>) nameMapper.apply((T) u);
+                matches.sort((u1, u2) -> sortKey.apply(u1).compareTo(sortKey.apply(u2)));
+                result.addAll(matches);
+            }
+        }
+        return result;
+    }
+
+    /** Counts objects by class and filter, using the secondary indexes when possible */
+    <U extends CatalogInfo> int count(Class<U> clazz, Filter filter) {
+        Predicate<U> predicate = toPredicate(filter);
+        Collection<T> candidates = candidates(filter);
+        if (candidates == null) {
+            candidates = values();
+        }
+        int count = 0;
+        for (T v : candidates) {
+            if (clazz.isInstance(v) && (predicate == TRUE || predicate.test(clazz.cast(v)))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static <U> Predicate<U> toPredicate(Filter filter) {
+        if (filter != null && filter != Filter.INCLUDE) {
+            return o -> filter.evaluate(o);
+        } else {
+            return ptrue();
+        }
+    }
+
+    /**
+     * Returns a superset of the objects matching the filter, using the secondary indexes, or null
+     * if the filter cannot be resolved against them
+     */
+    Collection<T> candidates(Filter filter) {
+        if (filter instanceof PropertyIsEqualTo) {
+            PropertyIsEqualTo equal = (PropertyIsEqualTo) filter;
+            if (!equal.isMatchingCase()) {
+                return null;
+            }
+            Expression e1 = equal.getExpression1();
+            Expression e2 = equal.getExpression2();
+            if (e1 instanceof Literal && e2 instanceof PropertyName) {
+                Expression tmp = e1;
+                e1 = e2;
+                e2 = tmp;
+            }
+            if (!(e1 instanceof PropertyName) || !(e2 instanceof Literal)) {
+                return null;
+            }
+            String property = ((PropertyName) e1).getPropertyName();
+            Object value = ((Literal) e2).getValue();
+            if (value == null) {
+                return null;
+            }
+            if ("id".equals(property)) {
+                @SuppressWarnings("unchecked")
+                T match = (T) findById(value.toString(), CatalogInfo.class);
+                return match == null ? Collections.emptyList() : Collections.singletonList(match);
+            }
+            CatalogInfoIndex<T> index = getIndex(property);
+            return index == null ? null : index.equalTo(value);
+        } else if (filter instanceof PropertyIsLike) {
+            PropertyIsLike like = (PropertyIsLike) filter;
+            if (!like.isMatchingCase() || !(like.getExpression() instanceof PropertyName)) {
+                return null;
+            }
+            String prefix = getLikePrefix(like);
+            if (prefix == null) {
+                return null;
+            }
+            CatalogInfoIndex<T> index =
+                    getIndex(((PropertyName) like.getExpression()).getPropertyName());
+            return index == null ? null : index.startsWith(prefix);
+        } else if (filter instanceof And) {
+            // the most selective child wins, the full filter is evaluated on the candidates anyways
+            Collection<T> best = null;
+            for (Filter child : ((And) filter).getChildren()) {
+                Collection<T> candidates = candidates(child);
+                if (candidates != null && (best == null || candidates.size() < best.size())) {
+                    best = candidates;
+                }
+            }
+            return best;
+        } else if (filter instanceof Or) {
+            Set<T> union = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Filter child : ((Or) filter).getChildren()) {
+                Collection<T> candidates = candidates(child);
+                if (candidates == null) {
+                    return null;
+                }
+                union.addAll(candidates);
+            }
+            return union;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the literal prefix of a like pattern in the form "prefix*", or null if the pattern
+     * is not a simple prefix match
+     */
+    static String getLikePrefix(PropertyIsLike like) {
+        String pattern = like.getLiteral();
+        String wildcard = like.getWildCard();
+        if (pattern == null
+                || wildcard == null
+                || wildcard.isEmpty()
+                || !pattern.endsWith(wildcard)) {
+            return null;
+        }
+        String prefix = pattern.substring(0, pattern.length() - wildcard.length());
+        if (prefix.isEmpty()
+                || prefix.contains(wildcard)
+                || (like.getSingleChar() != null
+                        && !like.getSingleChar().isEmpty()
+                        && prefix.contains(like.getSingleChar()))
+                || (like.getEscape() != null
+                        && !like.getEscape().isEmpty()
+                        && prefix.contains(like.getEscape()))) {
+            return null;
+        }
+        return prefix;
     }
 
     /**
@@ -197,6 +472,52 @@ public <U extends CatalogInfo> U findByName(Name name, Class<U> clazz) {
         return null;
     }
 
+    /**
+     * Looks up a CatalogInfo by class and unqualified name, ignoring the workspace/namespace part.
+     * If multiple objects share the same name, the one that {@link #findFirst(Class, Predicate)}
+     * would have returned is used.
+     */
+    public <U extends CatalogInfo> U findFirstByName(String localName, Class<U> clazz) {
+        return findFirstByName(localName, clazz, ptrue());
+    }
+
+    /**
+     * Looks up a CatalogInfo by class, unqualified name and matching predicate, ignoring the
+     * workspace/namespace part of the name
+     */
+    <U extends CatalogInfo> U findFirstByName(
+            String localName, Class<U> clazz, Predicate<U> predicate) {
+        Map<String, T> values = localName == null ? null : localNameMap.get(localName);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        // same order as findFirst, the first class, then the lowest name
+        for (Class<T> key : nameMultiMap.keySet()) {
+            if (clazz.isAssignableFrom(key)) {
+                U first = null;
+                Comparable<Object> firstName = null;
+                for (T v : values.values()) {
+                    if (v.getClass() == key) {
+                        U u = clazz.cast(v);
+                        if (predicate == TRUE || predicate.test(u)) {
+                            @SuppressWarnings("unchecked")
+                            Comparable<Object> name = (Comparable<Object>) nameMapper.apply(v);
+                            if (first == null || name.compareTo(firstName) < 0) {
+                                first = u;
+                                firstName = name;
+                            }
+                        }
+                    }
+                }
+                if (first != null) {
+                    return first;
+                }
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Looks up objects by class and matching predicate.
      *
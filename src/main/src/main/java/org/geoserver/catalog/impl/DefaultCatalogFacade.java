@@ -5,6 +5,7 @@
  */
 package org.geoserver.catalog.impl;
 
+import com.google.common.collect.ContiguousSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Ordering;
 import java.lang.reflect.Method;
@@ -19,7 +20,6 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.CatalogFacade;
@@ -31,6 +31,7 @@
 import org.geoserver.catalog.MapInfo;
 import org.geoserver.catalog.NamespaceInfo;
 import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.PublishedType;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.StyleInfo;
@@ -94,10 +95,69 @@ public class DefaultCatalogFacade extends AbstractCatalogFacade implements Catal
                             s.getWorkspace() != null ? s.getWorkspace().getId() : null,
                             s.getName());
 
+    static CatalogInfoLookup<StoreInfo> newStoreLookup() {
+        return new CatalogInfoLookup<>(STORE_NAME_MAPPER)
+                .addIndex("name", String.class)
+                .addIndex("enabled", Boolean.class)
+                .addIndex("workspace.id", String.class)
+                .addIndex("workspace.name", String.class, WorkspaceInfo.class);
+    }
+
+    static CatalogInfoLookup<ResourceInfo> newResourceLookup() {
+        return new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER)
+                .addIndex("name", String.class)
+                .addIndex("prefixedName", String.class, NamespaceInfo.class)
+                .addIndex("enabled", Boolean.class)
+                .addIndex("advertised", Boolean.class)
+                .addIndex("namespace.id", String.class)
+                .addIndex("namespace.prefix", String.class, NamespaceInfo.class)
+                .addIndex("store.id", String.class)
+                .addIndex(
+                        "store.workspace.name", String.class, StoreInfo.class, WorkspaceInfo.class);
+    }
+
+    static CatalogInfoLookup<LayerGroupInfo> newLayerGroupLookup() {
+        return new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER)
+                .addIndex("name", String.class)
+                .addIndex("workspace.id", String.class)
+                .addIndex("workspace.name", String.class, WorkspaceInfo.class);
+    }
+
+    static CatalogInfoLookup<StyleInfo> newStyleLookup() {
+        return new CatalogInfoLookup<>(STYLE_NAME_MAPPER)
+                .addIndex("name", String.class)
+                .addIndex("workspace.id", String.class)
+                .addIndex("workspace.name", String.class, WorkspaceInfo.class);
+    }
+
     static final class LayerInfoLookup extends CatalogInfoLookup<LayerInfo> {
 
         public LayerInfoLookup() {
             super(LAYER_NAME_MAPPER);
+            // layer name, state and workspace are derived from the resource
+            addIndex("name", String.class, ResourceInfo.class);
+            addIndex(
+                    "prefixedName",
+                    String.class,
+                    ResourceInfo.class,
+                    StoreInfo.class,
+                    WorkspaceInfo.class);
+            addIndex("resource.id", String.class);
+            addIndex("resource.store.id", String.class, ResourceInfo.class);
+            addIndex(
+                    "resource.store.workspace.name",
+                    String.class,
+                    ResourceInfo.class,
+                    StoreInfo.class,
+                    WorkspaceInfo.class);
+            addIndex(
+                    "resource.namespace.prefix",
+                    String.class,
+                    ResourceInfo.class,
+                    NamespaceInfo.class);
+            addIndex("enabled", Boolean.class, ResourceInfo.class);
+            addIndex("advertised", Boolean.class, ResourceInfo.class);
+            addIndex("type", PublishedType.class);
         }
 
         public void update(ResourceInfo proxiedValue) {
@@ -113,6 +173,8 @@ public void update(ResourceInfo proxiedValue) {
                 // handle case of feature type without a corresponding layer
                 if (value != null) {
                     nameMap.put(newName, value);
+                    removeLocalName(oldName, value);
+                    addLocalName(newName, value);
                 }
             }
         }
@@ -125,14 +187,13 @@ public LayerInfoLookup setCatalog(Catalog catalog) {
     }
 
     /** Contains the stores keyed by implementation class */
-    protected CatalogInfoLookup<StoreInfo> stores = new CatalogInfoLookup<>(STORE_NAME_MAPPER);
+    protected CatalogInfoLookup<StoreInfo> stores = newStoreLookup();
 
     /** The default store keyed by workspace id */
     protected Map<String, DataStoreInfo> defaultStores = new ConcurrentHashMap<>();
 
     /** resources */
-    protected CatalogInfoLookup<ResourceInfo> resources =
-            new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER);
+    protected CatalogInfoLookup<ResourceInfo> resources = newResourceLookup();
 
     /** The default namespace */
     protected volatile NamespaceInfo defaultNamespace;
@@ -154,11 +215,10 @@ public LayerInfoLookup setCatalog(Catalog catalog) {
     protected List<MapInfo> maps = new CopyOnWriteArrayList<>();
 
     /** layer groups */
-    protected CatalogInfoLookup<LayerGroupInfo> layerGroups =
-            new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER);
+    protected CatalogInfoLookup<LayerGroupInfo> layerGroups = newLayerGroupLookup();
 
     /** styles */
-    protected CatalogInfoLookup<StyleInfo> styles = new CatalogInfoLookup<>(STYLE_NAME_MAPPER);
+    protected CatalogInfoLookup<StyleInfo> styles = newStyleLookup();
 
     /** the catalog */
     private CatalogImpl catalog;
@@ -208,6 +268,7 @@ public void save(StoreInfo store) {
         beforeSaved(store, propertyNames, oldValues, newValues);
         stores.update(store);
         commitProxy(store);
+        invalidateIndexes(store, propertyNames);
         afterSaved(store, propertyNames, oldValues, newValues);
     }
 
@@ -228,7 +289,7 @@ public <T extends StoreInfo> T getStoreByName(
 
         T result;
         if (workspace == ANY_WORKSPACE) {
-            result = stores.findFirst(clazz, s -> name.equals(s.getName()));
+            result = stores.findFirstByName(name, clazz);
         } else {
             Name qname = new NameImpl((workspace != null) ? workspace.getId() : null, name);
             result = stores.findByName(qname, clazz);
@@ -248,7 +309,8 @@ public <T extends StoreInfo> List<T> getStoresByWorkspace(
             ws = workspace;
         }
 
-        List<T> matches = stores.list(clazz, s -> ws.equals(s.getWorkspace()));
+        List<T> matches =
+                stores.list(clazz, "workspace.id", id(ws), s -> ws.equals(s.getWorkspace()));
         return ModificationProxy.createList(matches, clazz);
     }
 
@@ -328,6 +390,7 @@ public void save(ResourceInfo resource) {
         resources.update(resource);
         layers.update(resource);
         commitProxy(resource);
+        invalidateIndexes(resource, propertyNames);
         afterSaved(resource, propertyNames, oldValues, newValues);
     }
 
@@ -347,7 +410,7 @@ public <T extends ResourceInfo> T getResourceByName(
             NamespaceInfo namespace, String name, Class<T> clazz) {
         T result;
         if (namespace == ANY_NAMESPACE) {
-            result = resources.findFirst(clazz, r -> name.equals(r.getName()));
+            result = resources.findFirstByName(name, clazz);
         } else {
             Name qname = new NameImpl(namespace != null ? namespace.getId() : null, name);
             result = resources.findByName(qname, clazz);
@@ -373,7 +436,8 @@ public <T extends ResourceInfo> List<T> getResourcesByNamespace(
             ns = namespace;
         }
 
-        List<T> matches = resources.list(clazz, r -> ns.equals(r.getNamespace()));
+        List<T> matches =
+                resources.list(clazz, "namespace.id", id(ns), r -> ns.equals(r.getNamespace()));
         return ModificationProxy.createList(matches, clazz);
     }
 
@@ -393,13 +457,28 @@ public <T extends ResourceInfo> T getResourceByStore(
             // should not happen, but some broken test code sets up namespaces without equivalent
             // workspaces
             // or stores without workspaces
-            resource =
-                    resources.findFirst(
-                            clazz, r -> name.equals(r.getName()) && store.equals(r.getStore()));
+            resource = resources.findFirstByName(name, clazz, r -> store.equals(r.getStore()));
         }
         return wrapInModificationProxy(resource, clazz);
     }
 
+    /**
+     * Invalidates the secondary indexes whose property values depend on the saved object, see
+     * {@link CatalogInfoIndex}
+     */
+    private void invalidateIndexes(CatalogInfo saved, List<String> propertyNames) {
+        stores.invalidateIndexes(saved, propertyNames);
+        resources.invalidateIndexes(saved, propertyNames);
+        layers.invalidateIndexes(saved, propertyNames);
+        layerGroups.invalidateIndexes(saved, propertyNames);
+        styles.invalidateIndexes(saved, propertyNames);
+    }
+
+    /** Null safe id extraction, used for the secondary index lookups */
+    private static String id(CatalogInfo info) {
+        return info == null ? null : info.getId();
+    }
+
     private <T extends CatalogInfo> T wrapInModificationProxy(T ci, Class<T> clazz) {
         if (ci != null) {
             return ModificationProxy.create(ci, clazz);
@@ -410,7 +489,8 @@ private <T extends CatalogInfo> T wrapInModificationProxy(T ci, Class<T> clazz)
 
     @Override
     public <T extends ResourceInfo> List<T> getResourcesByStore(StoreInfo store, Class<T> clazz) {
-        List<T> matches = resources.list(clazz, r -> store.equals(r.getStore()));
+        List<T> matches =
+                resources.list(clazz, "store.id", id(store), r -> store.equals(r.getStore()));
         return ModificationProxy.createList(matches, clazz);
     }
 
@@ -442,6 +522,7 @@ public void save(LayerInfo layer) {
         beforeSaved(layer, propertyNames, oldValues, newValues);
         layers.update(layer);
         commitProxy(layer);
+        invalidateIndexes(layer, propertyNames);
         afterSaved(layer, propertyNames, oldValues, newValues);
     }
 
@@ -458,7 +539,7 @@ public LayerInfo getLayer(String id) {
 
     @Override
     public LayerInfo getLayerByName(String name) {
-        LayerInfo result = layers.findFirst(LayerInfo.class, li -> name.equals(li.getName()));
+        LayerInfo result = layers.findFirstByName(name, LayerInfo.class);
         return wrapInModificationProxy(result, LayerInfo.class);
     }
 
@@ -601,6 +682,7 @@ public void save(LayerGroupInfo layerGroup) {
         beforeSaved(layerGroup, propertyNames, oldValues, newValues);
         layerGroups.update(layerGroup);
         commitProxy(layerGroup);
+        invalidateIndexes(layerGroup, propertyNames);
         afterSaved(layerGroup, propertyNames, oldValues, newValues);
     }
 
@@ -625,14 +707,17 @@ public List<LayerGroupInfo> getLayerGroupsByWorkspace(WorkspaceInfo workspace) {
         } else {
             ws = workspace;
         }
-        Predicate<LayerGroupInfo> predicate;
+        List<LayerGroupInfo> matches;
         if (workspace == NO_WORKSPACE) {
-            predicate = lg -> lg.getWorkspace() == null;
+            matches = layerGroups.list(LayerGroupInfo.class, lg -> lg.getWorkspace() == null);
         } else {
-            predicate = lg -> ws.equals(lg.getWorkspace());
+            matches =
+                    layerGroups.list(
+                            LayerGroupInfo.class,
+                            "workspace.id",
+                            id(ws),
+                            lg -> ws.equals(lg.getWorkspace()));
         }
-
-        List<LayerGroupInfo> matches = layerGroups.list(LayerGroupInfo.class, predicate);
         return ModificationProxy.createList(matches, LayerGroupInfo.class);
     }
 
@@ -653,7 +738,7 @@ public LayerGroupInfo getLayerGroupByName(WorkspaceInfo workspace, String name)
         if (workspace == NO_WORKSPACE) {
             match = layerGroups.findByName(new NameImpl(null, name), LayerGroupInfo.class);
         } else if (ANY_WORKSPACE == workspace) {
-            match = layerGroups.findFirst(LayerGroupInfo.class, lg -> name.equals(lg.getName()));
+            match = layerGroups.findFirstByName(name, LayerGroupInfo.class);
         } else {
             match =
                     layerGroups.findByName(
@@ -695,6 +780,7 @@ public void save(NamespaceInfo namespace) {
         beforeSaved(namespace, propertyNames, oldValues, newValues);
         namespaces.update(namespace);
         commitProxy(namespace);
+        invalidateIndexes(namespace, propertyNames);
         afterSaved(namespace, propertyNames, oldValues, newValues);
     }
 
@@ -742,8 +828,13 @@ public NamespaceInfo getNamespaceByPrefix(String prefix) {
 
     @Override
     public NamespaceInfo getNamespaceByURI(String uri) {
-        NamespaceInfo result =
-                namespaces.findFirst(NamespaceInfo.class, ns -> uri.equals(ns.getURI()));
+        // same as the first in prefix order, but using the uri index
+        NamespaceInfo result = null;
+        for (NamespaceInfo ns : namespaces.findAllByUri(uri)) {
+            if (result == null || ns.getPrefix().compareTo(result.getPrefix()) < 0) {
+                result = ns;
+            }
+        }
         return wrapInModificationProxy(result, NamespaceInfo.class);
     }
 
@@ -799,6 +890,7 @@ public void save(WorkspaceInfo workspace) {
         beforeSaved(workspace, propertyNames, oldValues, newValues);
         workspaces.update(workspace);
         commitProxy(workspace);
+        invalidateIndexes(workspace, propertyNames);
         afterSaved(workspace, propertyNames, oldValues, newValues);
     }
 
@@ -881,6 +973,7 @@ public void save(StyleInfo style) {
         beforeSaved(style, propertyNames, oldValues, newValues);
         styles.update(style);
         commitProxy(style);
+        invalidateIndexes(style, propertyNames);
         afterSaved(style, propertyNames, oldValues, newValues);
     }
 
@@ -899,7 +992,7 @@ public StyleInfo getStyle(String id) {
     public StyleInfo getStyleByName(String name) {
         StyleInfo match = styles.findByName(new NameImpl(null, name), StyleInfo.class);
         if (match == null) {
-            match = styles.findFirst(StyleInfo.class, s -> name.equals(s.getName()));
+            match = styles.findFirstByName(name, StyleInfo.class);
         }
         return wrapInModificationProxy(match, StyleInfo.class);
     }
@@ -940,7 +1033,12 @@ public List<StyleInfo> getStylesByWorkspace(WorkspaceInfo workspace) {
                 ws = workspace;
             }
 
-            matches = styles.list(StyleInfo.class, s -> ws.equals(s.getWorkspace()));
+            matches =
+                    styles.list(
+                            StyleInfo.class,
+                            "workspace.id",
+                            id(ws),
+                            s -> ws.equals(s.getWorkspace()));
         }
 
         return ModificationProxy.createList(matches, StyleInfo.class);
@@ -982,7 +1080,7 @@ public void resolve() {
 
         // stores
         if (stores == null) {
-            stores = new CatalogInfoLookup<>(STORE_NAME_MAPPER);
+            stores = newStoreLookup();
         }
         for (Object o : stores.values()) {
             resolve((StoreInfoImpl) o);
@@ -990,7 +1088,7 @@ public void resolve() {
 
         // styles
         if (styles == null) {
-            styles = new CatalogInfoLookup<>(STYLE_NAME_MAPPER);
+            styles = newStyleLookup();
         }
         for (StyleInfo s : styles.values()) {
             resolve(s);
@@ -998,7 +1096,7 @@ public void resolve() {
 
         // resources
         if (resources == null) {
-            resources = new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER);
+            resources = newResourceLookup();
         }
         for (Object o : resources.values()) {
             resolve((ResourceInfo) o);
@@ -1014,7 +1112,7 @@ public void resolve() {
 
         // layer groups
         if (layerGroups == null) {
-            layerGroups = new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER);
+            layerGroups = newLayerGroupLookup();
         }
         for (LayerGroupInfo lg : layerGroups.values()) {
             resolve(lg);
@@ -1091,7 +1189,28 @@ public void syncTo(CatalogFacade dao) {
 
     @Override
     public <T extends CatalogInfo> int count(final Class<T> of, final Filter filter) {
-        return Iterables.size(iterable(of, filter, null));
+        if (NamespaceInfo.class.isAssignableFrom(of)) {
+            return namespaces.count(of, filter);
+        } else if (WorkspaceInfo.class.isAssignableFrom(of)) {
+            return workspaces.count(of, filter);
+        } else if (StoreInfo.class.isAssignableFrom(of)) {
+            return stores.count(of, filter);
+        } else if (ResourceInfo.class.isAssignableFrom(of)) {
+            return resources.count(of, filter);
+        } else if (LayerInfo.class.isAssignableFrom(of)) {
+            return layers.count(of, filter);
+        } else if (LayerGroupInfo.class.isAssignableFrom(of)) {
+            return layerGroups.count(of, filter);
+        } else if (PublishedInfo.class.isAssignableFrom(of)) {
+            return layers.count(LayerInfo.class, filter)
+                    + layerGroups.count(LayerGroupInfo.class, filter);
+        } else if (StyleInfo.class.isAssignableFrom(of)) {
+            return styles.count(of, filter);
+        } else if (MapInfo.class.isAssignableFrom(of)) {
+            return maps.size();
+        } else {
+            throw new IllegalArgumentException("Unknown type: " + of);
+        }
     }
 
     /**
@@ -1145,7 +1264,13 @@ public <T extends CatalogInfo> CloseableIterator<T> list(
             }
         }
 
-        Iterable<T> iterable = iterable(of, filter, sortOrder);
+        // when paging sorted results only the first offset + count items need to be sorted
+        int limit = Integer.MAX_VALUE;
+        if (count != null && count.intValue() >= 0) {
+            long max = (offset != null ? Math.max(0, offset.longValue()) : 0) + count.longValue();
+            limit = (int) Math.min(max, Integer.MAX_VALUE);
+        }
+        Iterable<T> iterable = iterable(of, filter, sortOrder, limit);
 
         if (offset != null && offset.intValue() > 0) {
             iterable = Iterables.skip(iterable, offset.intValue());
@@ -1160,55 +1285,84 @@ public <T extends CatalogInfo> CloseableIterator<T> list(
         return new CloseableIteratorAdapter<>(iterator);
     }
 
-    @SuppressWarnings("unchecked")
     public <T extends CatalogInfo> Iterable<T> iterable(
             final Class<T> of, final Filter filter, final SortBy[] sortByList) {
+        return iterable(of, filter, sortByList, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the objects matching the filter, sorted. The filter is resolved against the lookups
+     * secondary indexes when possible, and if sorting is requested, only the first {@code limit}
+     * items are sorted and returned
+     */
+    @SuppressWarnings("unchecked")
+    <T extends CatalogInfo> Iterable<T> iterable(
+            final Class<T> of, final Filter filter, final SortBy[] sortByList, int limit) {
         List<T> all;
 
         if (NamespaceInfo.class.isAssignableFrom(of)) {
-            all = namespaces.list(of, toPredicate(filter));
+            all = namespaces.list(of, filter);
         } else if (WorkspaceInfo.class.isAssignableFrom(of)) {
-            all = workspaces.list(of, toPredicate(filter));
+            all = workspaces.list(of, filter);
         } else if (StoreInfo.class.isAssignableFrom(of)) {
-            all = stores.list(of, toPredicate(filter));
+            all = stores.list(of, filter);
         } else if (ResourceInfo.class.isAssignableFrom(of)) {
-            all = resources.list(of, toPredicate(filter));
+            all = resources.list(of, filter);
         } else if (LayerInfo.class.isAssignableFrom(of)) {
-            all = layers.list(of, toPredicate(filter));
+            all = layers.list(of, filter);
         } else if (LayerGroupInfo.class.isAssignableFrom(of)) {
-            all = layerGroups.list(of, toPredicate(filter));
+            all = layerGroups.list(of, filter);
         } else if (PublishedInfo.class.isAssignableFrom(of)) {
             all = new ArrayList<>();
-            all.addAll((List<T>) layers.list(LayerInfo.class, toPredicate(filter)));
-            all.addAll((List<T>) layerGroups.list(LayerGroupInfo.class, toPredicate(filter)));
+            all.addAll((List<T>) layers.list(LayerInfo.class, filter));
+            all.addAll((List<T>) layerGroups.list(LayerGroupInfo.class, filter));
         } else if (StyleInfo.class.isAssignableFrom(of)) {
-            all = styles.list(of, toPredicate(filter));
+            all = styles.list(of, filter);
         } else if (MapInfo.class.isAssignableFrom(of)) {
             all = (List<T>) new ArrayList<>(maps);
         } else {
             throw new IllegalArgumentException("Unknown type: " + of);
         }
 
-        if (null != sortByList) {
-            for (int i = sortByList.length - 1; i >= 0; i--) {
-                SortBy sortBy = sortByList[i];
-                Ordering<Object> ordering = Ordering.from(comparator(sortBy));
+        if (null != sortByList && sortByList.length > 0) {
+            Comparator<Object> comparator = null;
+            for (SortBy sortBy : sortByList) {
+                Comparator<Object> c = comparator(sortBy);
                 if (SortOrder.DESCENDING.equals(sortBy.getSortOrder())) {
-                    ordering = ordering.reverse();
+                    c = c.reversed();
                 }
-                all = ordering.sortedCopy(all);
+                comparator = comparator == null ? c : comparator.thenComparing(c);
             }
+            all = sort(all, comparator, limit);
         }
 
         return ModificationProxy.createList(all, of);
     }
 
-    private <T> Predicate<T> toPredicate(Filter filter) {
-        if (filter != null && filter != Filter.INCLUDE) {
-            return o -> filter.evaluate(o);
-        } else {
-            return CatalogInfoLookup.ptrue();
+    /**
+     * Stable sort of the list, if the limit is lower than the list size a top-k selection is
+     * performed instead of a full sort
+     */
+    static <T> List<T> sort(List<T> list, Comparator<Object> comparator, int limit) {
+        if (limit >= list.size()) {
+            List<T> sorted = new ArrayList<>(list);
+            sorted.sort(comparator);
+            return sorted;
+        }
+        // break ties on the original position, to get the same results as a stable sort
+        Comparator<Integer> byPosition =
+                (i1, i2) -> {
+                    int result = comparator.compare(list.get(i1), list.get(i2));
+                    return result != 0 ? result : Integer.compare(i1, i2);
+                };
+        List<Integer> positions =
+                Ordering.from(byPosition)
+                        .leastOf(ContiguousSet.closedOpen(0, list.size()), limit);
+        List<T> result = new ArrayList<>(positions.size());
+        for (Integer position : positions) {
+            result.add(list.get(position));
         }
+        return result;
     }
 
     @SuppressWarnings("unchecked")
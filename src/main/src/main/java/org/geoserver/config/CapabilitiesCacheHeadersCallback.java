@@ -6,10 +6,16 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.ArrayUtils;
+import org.geoserver.config.CapabilitiesResponseCache.CachedCapabilities;
 import org.geoserver.ows.AbstractDispatcherCallback;
 import org.geoserver.ows.Request;
 import org.geoserver.ows.Response;
@@ -26,6 +32,10 @@
  * <p>The callback can be turned off by setting "CAPABILITIES_CACHE_CONTROL_ENABLED" to "false",
  * either as a system, environment or servlet context variable.
  *
+ * <p>When the {@link CapabilitiesResponseCache} is enabled, the documents are served from it,
+ * gzip compressed if the client accepts it, with an ETag header and a 304 response to matching
+ * If-None-Match requests.
+ *
  * @author Andrea Aime - GeoSolutions
  */
 public class CapabilitiesCacheHeadersCallback extends AbstractDispatcherCallback {
@@ -36,8 +46,11 @@ public class CapabilitiesCacheHeadersCallback extends AbstractDispatcherCallback
 
     GeoServer gs;
 
+    CapabilitiesResponseCache responseCache;
+
     public CapabilitiesCacheHeadersCallback(GeoServer gs) {
         this.gs = gs;
+        this.responseCache = new CapabilitiesResponseCache(gs);
 
         // initialize headers processing by grabbing the default from a property
         final String value = GeoServerExtensions.getProperty("CAPABILITIES_CACHE_CONTROL_ENABLED");
@@ -56,19 +69,25 @@ public CapabilitiesCacheHeadersCallback(GeoServer gs) {
     @Override
     public Response responseDispatched(
             Request request, Operation operation, Object result, Response response) {
-        if (handleCachingHeaders(request)) {
+        if (!"GetCapabilities".equalsIgnoreCase(request.getRequest())) {
+            return response;
+        }
+        if (responseCache.isCacheable(request)) {
+            try {
+                CachedCapabilities cached =
+                        responseCache.get(request, operation, result, response);
+                response = new CachedResponse(response, cached, request);
+            } catch (IOException e) {
+                throw new ServiceException("Failed to encode the capabilities document", e);
+            }
+        }
+        if (capabilitiesCacheHeadersEnabled) {
             return new RevalidateTagResponse(response);
         }
 
         return response;
     }
 
-    /** Returns true if the caching headers are enabled and the request is a GetCapabilities one */
-    private boolean handleCachingHeaders(Request request) {
-        return capabilitiesCacheHeadersEnabled
-                && "GetCapabilities".equalsIgnoreCase(request.getRequest());
-    }
-
     /**
      * Returns true if the callback will handle cache headers in GetCapabilities requests/responses
      */
@@ -81,6 +100,114 @@ public void setCapabilitiesCacheHeadersEnabled(boolean capabilitiesCacheHeadersE
         this.capabilitiesCacheHeadersEnabled = capabilitiesCacheHeadersEnabled;
     }
 
+    /** Returns the cache of the encoded capabilities documents */
+    public CapabilitiesResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Serves a cached capabilities document, compressed if the client accepts it. When caching
+     * headers are enabled, adds the document ETag, and returns an empty 304 response if the client
+     * already has it.
+     */
+    private class CachedResponse extends Response {
+
+        Response delegate;
+
+        CachedCapabilities cached;
+
+        boolean compressed;
+
+        boolean notModified;
+
+        public CachedResponse(Response delegate, CachedCapabilities cached, Request request) {
+            super(delegate.getBinding());
+            this.delegate = delegate;
+            this.cached = cached;
+
+            HttpServletRequest httpRequest = request.getHttpRequest();
+            String acceptEncoding = httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            this.compressed = acceptEncoding != null && acceptEncoding.contains("gzip");
+            if (capabilitiesCacheHeadersEnabled
+                    && matches(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                this.notModified = true;
+                request.getHttpResponse().setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            }
+        }
+
+        private boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                // weak comparison, as recommended for If-None-Match
+                if (tag.equals("*") || weak(tag).equals(weak(cached.getETag()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String weak(String tag) {
+            return tag.startsWith("W/") ? tag.substring(2) : tag;
+        }
+
+        @Override
+        public boolean canHandle(Operation operation) {
+            return delegate.canHandle(operation);
+        }
+
+        @Override
+        public String getMimeType(Object value, Operation operation) throws ServiceException {
+            return delegate.getMimeType(value, operation);
+        }
+
+        @Override
+        public String[][] getHeaders(Object value, Operation operation) throws ServiceException {
+            List<String[]> headers = new ArrayList<>();
+            String[][] delegateHeaders = delegate.getHeaders(value, operation);
+            if (delegateHeaders != null) {
+                headers.addAll(Arrays.asList(delegateHeaders));
+            }
+            headers.add(new String[] {HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING});
+            if (capabilitiesCacheHeadersEnabled) {
+                headers.add(new String[] {HttpHeaders.ETAG, cached.getETag()});
+            }
+            if (!notModified) {
+                long length = compressed ? cached.getCompressed().length : cached.getLength();
+                headers.add(new String[] {HttpHeaders.CONTENT_LENGTH, String.valueOf(length)});
+                if (compressed) {
+                    headers.add(new String[] {HttpHeaders.CONTENT_ENCODING, "gzip"});
+                }
+            }
+            return headers.toArray(new String[headers.size()][]);
+        }
+
+        @Override
+        public void write(Object value, OutputStream output, Operation operation)
+                throws IOException, ServiceException {
+            if (!notModified) {
+                cached.write(output, compressed);
+            }
+        }
+
+        @Override
+        public String getPreferredDisposition(Object value, Operation operation) {
+            return delegate.getPreferredDisposition(value, operation);
+        }
+
+        @Override
+        public String getAttachmentFileName(Object value, Operation operation) {
+            return delegate.getAttachmentFileName(value, operation);
+        }
+
+        @Override
+        public String getCharset(Operation operation) {
+            return delegate.getCharset(operation);
+        }
+    }
+
     /**
      * A Response wrapper adding caching headers on demand
      *
@@ -0,0 +1,306 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.ows.LocalPublished;
+import org.geoserver.ows.LocalWorkspace;
+import org.geoserver.ows.ProxifyingURLMangler;
+import org.geoserver.ows.Request;
+import org.geoserver.ows.Response;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geotools.util.logging.Logging;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Caches the encoded GetCapabilities documents, so that repeated requests (e.g., from harvesters)
+ * do not walk the whole secured catalog every time.
+ *
+ * <p>Documents are cached gzip compressed, keyed on service, version, virtual service, user and
+ * roles, request parameters and the request URL and proxy headers (which end up in the document
+ * online resources). The {@link GeoServerInfo#getUpdateSequence() update sequence}, incremented by
+ * {@link UpdateSequenceListener} on every catalog and configuration change, is part of the key too,
+ * so changes are visible right away, while the stale entries are dropped the first time a newer
+ * sequence is seen. Changes not going through the catalog, such as new time values in a layer
+ * data, are picked up once entries expire.
+ *
+ * <p>The cache is disabled by default, and can be configured with the following system,
+ * environment or servlet context variables:
+ *
+ * <ul>
+ *   <li>{@value #ENABLED_KEY}: enables the cache, defaults to false
+ *   <li>{@value #SIZE_KEY}: the maximum size of the compressed documents, in megabytes, defaults
+ *       to {@value #SIZE_DEFAULT}
+ *   <li>{@value #TTL_KEY}: the time to live of the entries, in seconds, defaults to {@value
+ *       #TTL_DEFAULT}
+ * </ul>
+ */
+public class CapabilitiesResponseCache {
+
+    static final Logger LOGGER = Logging.getLogger(CapabilitiesResponseCache.class);
+
+    public static final String ENABLED_KEY = "CAPABILITIES_RESPONSE_CACHE_ENABLED";
+
+    public static final String SIZE_KEY = "CAPABILITIES_RESPONSE_CACHE_SIZE";
+
+    public static final String TTL_KEY = "CAPABILITIES_RESPONSE_CACHE_TTL";
+
+    static final long SIZE_DEFAULT = 64;
+
+    static final long TTL_DEFAULT = 600;
+
+    GeoServer gs;
+
+    boolean enabled;
+
+    Cache<ImmutableList<Object>, CachedCapabilities> cache;
+
+    /** The last update sequence seen, used to drop the entries of older sequences */
+    volatile long updateSequence = -1;
+
+    public CapabilitiesResponseCache(GeoServer gs) {
+        this.gs = gs;
+        this.enabled = Boolean.parseBoolean(GeoServerExtensions.getProperty(ENABLED_KEY));
+        long size = getLongProperty(SIZE_KEY, SIZE_DEFAULT);
+        long ttl = getLongProperty(TTL_KEY, TTL_DEFAULT);
+        this.cache =
+                CacheBuilder.newBuilder()
+                        .maximumWeight(size * 1024 * 1024)
+                        .<ImmutableList<Object>, CachedCapabilities>weigher(
+                                (k, v) -> v.getCompressed().length)
+                        .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                        .recordStats()
+                        .build();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(
+                    "Capabilities response cache enabled: "
+                            + enabled
+                            + ", max size "
+                            + size
+                            + "MB, time to live "
+                            + ttl
+                            + "s");
+        }
+    }
+
+    private static long getLongProperty(String key, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(key);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + key + ": " + value + ", using the default");
+            }
+        }
+        return defaultValue;
+    }
+
+    /** Returns true if the cache is enabled */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Enables/disables the cache, disabling it drops all the cached documents */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            cache.invalidateAll();
+        }
+    }
+
+    /** Drops all the cached documents */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /** Returns the hit, miss and eviction statistics */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /** Returns the number of cached documents */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns true if the response to the given request can be cached, that is, the cache is
+     * enabled and the request is a plain GET one
+     */
+    public boolean isCacheable(Request request) {
+        return enabled
+                && request.isGet()
+                && !request.isSOAP()
+                && request.getRawKvp() != null
+                && request.getHttpRequest() != null;
+    }
+
+    /**
+     * Returns the cached document for the request, encoding it with the given response if missing.
+     * Concurrent requests for the same document wait for a single encoding.
+     */
+    public CachedCapabilities get(
+            Request request, Operation operation, Object result, Response response)
+            throws IOException {
+        long sequence = gs.getGlobal().getUpdateSequence();
+        if (sequence != updateSequence) {
+            // configuration changed, the cached documents can no longer be hit
+            updateSequence = sequence;
+            cache.invalidateAll();
+        }
+        ImmutableList<Object> key = getKey(request, sequence);
+        try {
+            return cache.get(key, () -> encode(operation, result, response));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new ServiceException(cause);
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    ImmutableList<Object> getKey(Request request, long sequence) {
+        ImmutableList.Builder<Object> key = ImmutableList.builder();
+        key.add(sequence);
+        key.add(String.valueOf(request.getService()));
+        key.add(String.valueOf(request.getVersion()));
+
+        WorkspaceInfo workspace = LocalWorkspace.get();
+        key.add(workspace == null ? "" : workspace.getName());
+        PublishedInfo published = LocalPublished.get();
+        key.add(published == null ? "" : published.prefixedName());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            key.add("");
+            key.add(ImmutableList.of());
+        } else {
+            // rules can be user specific, the name is part of the key along with the roles
+            key.add(String.valueOf(auth.getName()));
+            TreeSet<String> roles = new TreeSet<>();
+            for (GrantedAuthority authority : auth.getAuthorities()) {
+                roles.add(authority.getAuthority());
+            }
+            key.add(ImmutableList.copyOf(roles));
+        }
+
+        // the parameters include the language ones
+        TreeMap<String, String> parameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, Object> entry : request.getRawKvp().entrySet()) {
+            parameters.put(entry.getKey(), toString(entry.getValue()));
+        }
+        key.add(ImmutableList.copyOf(parameters.entrySet()));
+
+        // the URL and proxy headers end up in the online resources of the document
+        HttpServletRequest httpRequest = request.getHttpRequest();
+        key.add(String.valueOf(httpRequest.getRequestURL()));
+        for (ProxifyingURLMangler.Headers header : ProxifyingURLMangler.Headers.values()) {
+            String value = httpRequest.getHeader(header.asString());
+            key.add(value == null ? "" : value);
+        }
+
+        return key.build();
+    }
+
+    private static String toString(Object value) {
+        if (value instanceof Object[]) {
+            return Arrays.toString((Object[]) value);
+        }
+        return String.valueOf(value);
+    }
+
+    CachedCapabilities encode(Operation operation, Object result, Response response)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CountingOutputStream counter;
+        HashingOutputStream hashing;
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            counter = new CountingOutputStream(gzip);
+            hashing = new HashingOutputStream(Hashing.murmur3_128(), counter);
+            response.write(result, hashing, operation);
+            hashing.flush();
+        }
+        // weak, the same document is returned with and without content encoding
+        String etag = "W/\"" + hashing.hash() + "\"";
+        return new CachedCapabilities(bytes.toByteArray(), counter.getCount(), etag);
+    }
+
+    /** A cached capabilities document */
+    public static class CachedCapabilities {
+
+        private final byte[] compressed;
+
+        private final long length;
+
+        private final String etag;
+
+        CachedCapabilities(byte[] compressed, long length, String etag) {
+            this.compressed = compressed;
+            this.length = length;
+            this.etag = etag;
+        }
+
+        /** The gzip compressed document */
+        public byte[] getCompressed() {
+            return compressed;
+        }
+
+        /** The length of the uncompressed document */
+        public long getLength() {
+            return length;
+        }
+
+        /** The document entity tag, based on its contents */
+        public String getETag() {
+            return etag;
+        }
+
+        /** Writes out the document, either as is or uncompressed */
+        public void write(OutputStream output, boolean compressed) throws IOException {
+            if (compressed) {
+                output.write(this.compressed);
+            } else {
+                try (InputStream is =
+                        new GZIPInputStream(new ByteArrayInputStream(this.compressed))) {
+                    is.transferTo(output);
+                }
+            }
+        }
+    }
+}
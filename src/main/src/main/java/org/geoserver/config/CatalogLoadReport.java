@@ -0,0 +1,136 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects counts and timings while {@link GeoServerLoader} reads the catalog, broken down by
+ * object type and loading phase, and summarizes them for the startup log.
+ *
+ * <p>Meant to be used by the loading thread only, it is not thread safe.
+ */
+public class CatalogLoadReport {
+
+    /** The loading phases */
+    public enum Phase {
+        /** Reading and parsing the configuration files */
+        READ,
+        /** Adding the parsed objects to the catalog */
+        ADD,
+        /** Connecting to the stores to verify them */
+        CHECK,
+        /** Resolving the references among catalog objects */
+        RESOLVE
+    }
+
+    /** Counts and timings for a single object type */
+    public static class TypeReport {
+        long loaded;
+        long failed;
+        Map<Phase, Long> nanos = new EnumMap<>(Phase.class);
+
+        /** Number of objects successfully added to the catalog */
+        public long getLoaded() {
+            return loaded;
+        }
+
+        /** Number of objects that could not be read or added */
+        public long getFailed() {
+            return failed;
+        }
+
+        /** Time spent in the given phase, in milliseconds */
+        public long getMillis(Phase phase) {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.getOrDefault(phase, 0L));
+        }
+    }
+
+    private final Map<String, TypeReport> types = new LinkedHashMap<>();
+
+    private final long start = System.nanoTime();
+
+    private long end;
+
+    private int parallelism = 1;
+
+    /** Returns the report for the given object type, creating it if missing */
+    public TypeReport get(String type) {
+        return types.computeIfAbsent(type, t -> new TypeReport());
+    }
+
+    /** The object types that have been loaded, in loading order */
+    public Map<String, TypeReport> getTypes() {
+        return types;
+    }
+
+    /** Adds the time elapsed since {@code startNanos} to the type and phase */
+    void time(String type, Phase phase, long startNanos) {
+        get(type).nanos.merge(phase, System.nanoTime() - startNanos, Long::sum);
+    }
+
+    void loaded(String type) {
+        get(type).loaded++;
+    }
+
+    void failed(String type) {
+        get(type).failed++;
+    }
+
+    void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /** Marks the end of the loading process */
+    void complete() {
+        end = System.nanoTime();
+    }
+
+    /** Total loading time, in milliseconds */
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((end == 0 ? System.nanoTime() : end) - start);
+    }
+
+    /** Returns a human readable summary, one line per object type */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(
+                String.format(
+                        Locale.ENGLISH,
+                        "Catalog loaded in %,d ms using %d parsing threads",
+                        getTotalMillis(),
+                        parallelism));
+        for (Map.Entry<String, TypeReport> entry : types.entrySet()) {
+            TypeReport report = entry.getValue();
+            sb.append(
+                    String.format(
+                            Locale.ENGLISH,
+                            "\n  %-12s loaded: %,8d, failed: %,6d",
+                            entry.getKey(),
+                            report.loaded,
+                            report.failed));
+            for (Phase phase : Phase.values()) {
+                if (report.nanos.containsKey(phase)) {
+                    sb.append(
+                            String.format(
+                                    Locale.ENGLISH,
+                                    ", %s: %,8d ms",
+                                    phase.name().toLowerCase(Locale.ENGLISH),
+                                    report.getMillis(phase)));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
@@ -12,7 +12,9 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -29,6 +31,7 @@
 import org.geoserver.catalog.NamespaceInfo;
 import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.ResourcePool;
+import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.WMSLayerInfo;
 import org.geoserver.catalog.WMSStoreInfo;
@@ -41,6 +44,7 @@
 import org.geoserver.catalog.util.LegacyCatalogReader;
 import org.geoserver.catalog.util.LegacyFeatureTypeInfoReader;
 import org.geoserver.config.AsynchResourceIterator.ResourceMapper;
+import org.geoserver.config.CatalogLoadReport.Phase;
 import org.geoserver.config.util.LegacyConfigurationImporter;
 import org.geoserver.config.util.XStreamPersister;
 import org.geoserver.config.util.XStreamPersisterFactory;
@@ -176,73 +180,106 @@ public LayerContents apply(Resource rd) throws IOException {
     /** WMTS Layer IO resource mapper */
     static final ResourceLayerMapper WMTS_LAYER_MAPPER =
             new ResourceLayerMapper("wmtslayer.xml", "wmts layer");
-    /**
-     * Generic layer catalog loader for all types of IO resources
-     *
-     * @author Andrea Aime - GeoSolutions
-     */
-    static final class LayerLoader<T extends ResourceInfo> implements Consumer<LayerContents> {
-
-        Class<T> clazz;
-        XStreamPersister xp;
-        Catalog catalog;
-
-        public LayerLoader(Class<T> clazz, XStreamPersister xp, Catalog catalog) {
-            this.clazz = clazz;
-            this.xp = xp;
-            this.catalog = catalog;
+    /** Configuration file names and object types of a kind of store */
+    static final class StoreLayout {
+        final String fileName;
+        final String description;
+        final Class<? extends StoreInfo> storeClass;
+        final Class<? extends ResourceInfo> resourceClass;
+        final ResourceLayerMapper layerMapper;
+
+        StoreLayout(
+                String fileName,
+                String description,
+                Class<? extends StoreInfo> storeClass,
+                Class<? extends ResourceInfo> resourceClass,
+                ResourceLayerMapper layerMapper) {
+            this.fileName = fileName;
+            this.description = description;
+            this.storeClass = storeClass;
+            this.resourceClass = resourceClass;
+            this.layerMapper = layerMapper;
         }
+    }
 
-        @Override
-        public void accept(LayerContents lc) {
-            T ft = null;
-            try {
-                ft = depersist(xp, lc.contents, clazz);
-                catalog.add(ft);
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Failed to load resource", e);
-                return;
-            }
-
-            if (LOGGER.isLoggable(Level.CONFIG)) {
-                String type =
-                        ft instanceof CoverageInfo
-                                ? "coverage"
-                                : ft instanceof FeatureTypeInfo ? "feature type" : "resource";
-                LOGGER.config(
-                        "Loaded "
-                                + type
-                                + " '"
-                                + lc.resource.name()
-                                + "', "
-                                + (ft.isEnabled() ? "enabled" : "disabled"));
+    /** The known store layouts, in lookup order */
+    static final List<StoreLayout> STORE_LAYOUTS =
+            Arrays.asList(
+                    new StoreLayout(
+                            "datastore.xml",
+                            "data store",
+                            DataStoreInfo.class,
+                            FeatureTypeInfo.class,
+                            FEATURE_LAYER_MAPPER),
+                    new StoreLayout(
+                            "coveragestore.xml",
+                            "coverage store",
+                            CoverageStoreInfo.class,
+                            CoverageInfo.class,
+                            COVERAGE_LAYER_MAPPER),
+                    new StoreLayout(
+                            "wmsstore.xml",
+                            "wms store",
+                            WMSStoreInfo.class,
+                            WMSLayerInfo.class,
+                            WMS_LAYER_MAPPER),
+                    new StoreLayout(
+                            "wmtsstore.xml",
+                            "wmts store",
+                            WMTSStoreInfo.class,
+                            WMTSLayerInfo.class,
+                            WMTS_LAYER_MAPPER));
+
+    static StoreLayout getStoreLayout(String fileName) {
+        for (StoreLayout layout : STORE_LAYOUTS) {
+            if (layout.fileName.equals(fileName)) {
+                return layout;
             }
+        }
+        return null;
+    }
 
-            try {
-                LayerInfo l = depersist(xp, lc.layerContents, LayerInfo.class);
-                catalog.add(l);
+    /** A store successfully added to the catalog, whose resources still need to be loaded */
+    static final class StoreContents {
+        final Resource directory;
+        final StoreLayout layout;
 
-                LOGGER.config("Loaded layer '" + l.getName() + "'");
+        StoreContents(Resource directory, StoreLayout layout) {
+            this.directory = directory;
+            this.layout = layout;
+        }
+    }
 
-                for (StyleInfo style : l.getStyles()) {
-                    if (null == style) {
-                        LOGGER.log(
-                                Level.SEVERE,
-                                "Layer '" + l.getName() + "' references a missing style");
-                    }
-                }
+    /** The contents of a resource and its layer, along with the expected resource type */
+    static final class ResourceContents {
+        final LayerContents contents;
+        final Class<? extends ResourceInfo> resourceClass;
 
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Failed to load layer " + lc.resource.name(), e);
-            }
+        ResourceContents(LayerContents contents, Class<? extends ResourceInfo> resourceClass) {
+            this.contents = contents;
+            this.resourceClass = resourceClass;
         }
     }
 
+    /** Number of resources parsed in parallel before adding them to the catalog */
+    static final int LOAD_BATCH_SIZE = 1000;
+
+    /** Object types tracked by the {@link CatalogLoadReport} */
+    static final String STYLES = "styles";
+    static final String WORKSPACES = "workspaces";
+    static final String NAMESPACES = "namespaces";
+    static final String STORES = "stores";
+    static final String RESOURCES = "resources";
+    static final String LAYERS = "layers";
+    static final String LAYER_GROUPS = "layergroups";
+    static final String CATALOG = "catalog";
+
     static final ExtensionFilter XML_FILTER = new Resources.ExtensionFilter("XML");
 
     protected GeoServerResourceLoader resourceLoader;
     GeoServer geoserver;
     XStreamPersisterFactory xpf = new XStreamPersisterFactory();
+    CatalogLoadReport catalogLoadReport;
 
     // JD: this is a hack for the moment, it is used only to maintain tests since the test setup
     // relies
@@ -526,340 +563,435 @@ Catalog readCatalog(XStreamPersister xp) throws Exception {
             catalog.setExtendedValidation(false);
         }
 
-        // global styles
-        loadStyles(resourceLoader.get("styles"), catalog, xp);
-
-        // workspaces, stores, and resources
-        Resource workspaces = resourceLoader.get("workspaces");
-        if (Resources.exists(workspaces)) {
-            // do a first quick scan over all workspaces, setting the default
-            Resource dws = workspaces.get("default.xml");
-            WorkspaceInfo defaultWorkspace = null;
-            if (Resources.exists(dws)) {
-                try {
-                    defaultWorkspace = depersist(xp, dws, WorkspaceInfo.class);
-                    if (LOGGER.isLoggable(Level.CONFIG)) {
-                        LOGGER.config(
-                                "Loaded default workspace '" + defaultWorkspace.getName() + "'");
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Failed to load default workspace", e);
-                }
-            } else {
-                LOGGER.warning("No default workspace was found.");
-            }
+        // the new catalog is not shared yet, no need to notify listeners about each addition
+        List<CatalogListener> listeners = new ArrayList<>(catalog.getListeners());
+        listeners.forEach(catalog::removeListener);
 
-            List<Resource> workspaceList =
-                    workspaces
-                            .list()
-                            .parallelStream()
-                            .filter(r -> Resources.DirectoryFilter.INSTANCE.accept(r))
-                            .collect(Collectors.toList());
+        CatalogLoadReport report = new CatalogLoadReport();
+        try (ParallelDepersister depersister =
+                new ParallelDepersister(
+                        xpf, catalog, ParallelDepersister.getConfiguredParallelism())) {
+            report.setParallelism(depersister.getParallelism());
 
-            try (AsynchResourceIterator<WorkspaceContents> it =
-                    new AsynchResourceIterator<>(
-                            workspaces,
-                            Resources.DirectoryFilter.INSTANCE,
-                            new WorkspaceMapper())) {
-                while (it.hasNext()) {
-                    WorkspaceContents wc = it.next();
-                    WorkspaceInfo ws;
-                    final Resource workspaceResource = wc.resource;
-                    try {
-                        ws = depersist(xp, wc.contents, WorkspaceInfo.class);
-                        catalog.add(ws);
-                        LOGGER.log(
-                                Level.CONFIG,
-                                () -> String.format("Loaded workspace '%s'", ws.getName()));
-                    } catch (Exception e) {
-                        LOGGER.log(
-                                Level.WARNING,
-                                "Failed to load workspace '" + workspaceResource.name() + "'",
-                                e);
-                        continue;
-                    }
+            // global styles
+            loadStyles(resourceLoader.get("styles"), catalog, depersister, report);
 
-                    // load the namespace
-                    NamespaceInfo ns = null;
-                    try {
-                        ns = depersist(xp, wc.nsContents, NamespaceInfo.class);
-                        catalog.add(ns);
-                    } catch (Exception e) {
-                        LOGGER.log(
-                                Level.WARNING,
-                                "Failed to load namespace for '" + workspaceResource.name() + "'",
-                                e);
-                    }
-
-                    // set the default workspace, this value might be null in the case of coming
-                    // from a
-                    // 2.0.0 data directory. See https://osgeo-org.atlassian.net/browse/GEOS-3440
-                    if (defaultWorkspace != null) {
-                        if (ws.getName().equals(defaultWorkspace.getName())) {
-                            catalog.setDefaultWorkspace(ws);
-                            if (ns != null) {
-                                catalog.setDefaultNamespace(ns);
-                            }
-                        }
-                    } else {
-                        // create the default.xml file
-                        defaultWorkspace = catalog.getDefaultWorkspace();
-                        if (defaultWorkspace != null) {
-                            try {
-                                persist(xp, defaultWorkspace, dws);
-                            } catch (Exception e) {
-                                LOGGER.log(
-                                        Level.WARNING,
-                                        "Failed to persist default workspace '"
-                                                + workspaceResource.name()
-                                                + "'",
-                                        e);
-                            }
-                        }
-                    }
-
-                    // load the styles for the workspace
-                    Resource styles = workspaceResource.get("styles");
-                    if (styles != null) {
-                        loadStyles(styles, catalog, xp);
-                    }
-                }
+            // workspaces, stores, and resources, each type is fully loaded before moving
+            // to the next one, as it can reference the previous ones
+            List<Resource> workspaceList = Collections.emptyList();
+            Resource workspaces = resourceLoader.get("workspaces");
+            if (Resources.exists(workspaces)) {
+                workspaceList = loadWorkspaces(workspaces, catalog, xp, depersister, report);
+                List<StoreContents> stores =
+                        loadStores(workspaceList, catalog, xp, checkStores, report);
+                loadResources(stores, catalog, depersister, report);
+            } else {
+                LOGGER.warning("No 'workspaces' directory found, unable to load any stores.");
             }
 
-            // maps each store into a SingleResourceContents
-            ResourceMapper<SingleResourceContents> storeMapper =
-                    sd -> {
-                        Resource f = sd.get("datastore.xml");
-                        if (Resources.exists(f)) {
-                            return new SingleResourceContents(f, f.getContents());
-                        }
-                        f = sd.get("coveragestore.xml");
-                        if (Resources.exists(f)) {
-                            return new SingleResourceContents(f, f.getContents());
-                        }
-                        f = sd.get("wmsstore.xml");
-                        if (Resources.exists(f)) {
-                            return new SingleResourceContents(f, f.getContents());
-                        }
-                        f = sd.get("wmtsstore.xml");
-                        if (Resources.exists(f)) {
-                            return new SingleResourceContents(f, f.getContents());
-                        }
-                        if (!isConfigDirectory(sd)) {
-                            LOGGER.warning("Ignoring store directory '" + sd.name() + "'");
-                        }
-                        // nothing found
-                        return null;
-                    };
-
+            // layer groups last, they can contain layers and other groups from any workspace
             for (Resource wsd : workspaceList) {
-                // load the stores for this workspace
-                try (AsynchResourceIterator<SingleResourceContents> it =
-                        new AsynchResourceIterator<>(
-                                wsd, Resources.DirectoryFilter.INSTANCE, storeMapper)) {
-                    while (it.hasNext()) {
-                        SingleResourceContents SingleResourceContents = it.next();
-                        final String resourceName = SingleResourceContents.resource.name();
-                        if ("datastore.xml".equals(resourceName)) {
-                            loadDataStore(SingleResourceContents, catalog, xp, checkStores);
-                        } else if ("coveragestore.xml".equals(resourceName)) {
-                            loadCoverageStore(SingleResourceContents, catalog, xp);
-                        } else if ("wmsstore.xml".equals(resourceName)) {
-                            loadWmsStore(SingleResourceContents, catalog, xp);
-                        } else if ("wmtsstore.xml".equals(resourceName)) {
-                            loadWmtsStore(SingleResourceContents, catalog, xp);
-                        } else if (!isConfigDirectory(SingleResourceContents.resource)) {
-                            LOGGER.warning(
-                                    "Ignoring store directory '"
-                                            + SingleResourceContents.resource.name()
-                                            + "'");
-                            continue;
-                        }
-                    }
-                }
-
-                // load the layer groups for this workspace
                 Resource layergroups = wsd.get("layergroups");
                 if (layergroups != null) {
-                    loadLayerGroups(layergroups, catalog, xp);
+                    loadLayerGroups(layergroups, catalog, depersister, report);
                 }
             }
-        } else {
-            LOGGER.warning("No 'workspaces' directory found, unable to load any stores.");
-        }
-
-        // layergroups
-        Resource layergroups = resourceLoader.get("layergroups");
-        if (layergroups != null) {
-            loadLayerGroups(layergroups, catalog, xp);
+            Resource layergroups = resourceLoader.get("layergroups");
+            if (layergroups != null) {
+                loadLayerGroups(layergroups, catalog, depersister, report);
+            }
+        } finally {
+            listeners.forEach(catalog::addListener);
         }
         xp.setUnwrapNulls(true);
+        long start = System.nanoTime();
         catalog.resolve();
+        report.time(CATALOG, Phase.RESOLVE, start);
         // re-enable extended validation
         if (!checkStores) {
             catalog.setExtendedValidation(true);
         }
+        report.complete();
+        catalogLoadReport = report;
+        LOGGER.info(report.summary());
         return catalog;
     }
 
-    private void loadWmsStore(
-            SingleResourceContents SingleResourceContents,
+    /** Returns the counts and timings of the last catalog load, or null if not available */
+    public CatalogLoadReport getCatalogLoadReport() {
+        return catalogLoadReport;
+    }
+
+    /**
+     * Loads workspaces, namespaces, and the workspace specific styles
+     *
+     * @return the workspace directories
+     */
+    private List<Resource> loadWorkspaces(
+            Resource workspaces,
             CatalogImpl catalog,
-            XStreamPersister xp) {
-        final Resource storeResource = SingleResourceContents.resource;
-        WMSStoreInfo wms = null;
-        try {
-            wms = depersist(xp, SingleResourceContents.contents, WMSStoreInfo.class);
-            catalog.add(wms);
-
-            LOGGER.info(
-                    "Loaded wmsstore '"
-                            + wms.getName()
-                            + "', "
-                            + (wms.isEnabled() ? "enabled" : "disabled"));
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to load wms store '" + storeResource.name() + "'", e);
-            return;
+            XStreamPersister xp,
+            ParallelDepersister depersister,
+            CatalogLoadReport report)
+            throws Exception {
+        // do a first quick scan over all workspaces, setting the default
+        Resource dws = workspaces.get("default.xml");
+        WorkspaceInfo defaultWorkspace = null;
+        if (Resources.exists(dws)) {
+            try {
+                defaultWorkspace = depersist(xp, dws, WorkspaceInfo.class);
+                if (LOGGER.isLoggable(Level.CONFIG)) {
+                    LOGGER.config("Loaded default workspace '" + defaultWorkspace.getName() + "'");
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to load default workspace", e);
+            }
+        } else {
+            LOGGER.warning("No default workspace was found.");
         }
 
-        // load wms layers
-        LayerLoader<WMSLayerInfo> coverageLoader =
-                new LayerLoader<>(WMSLayerInfo.class, xp, catalog);
-        try (AsynchResourceIterator<LayerContents> it =
+        List<Resource> workspaceList =
+                workspaces.list().stream()
+                        .filter(r -> Resources.DirectoryFilter.INSTANCE.accept(r))
+                        .collect(Collectors.toList());
+
+        long start = System.nanoTime();
+        List<WorkspaceContents> contents = new ArrayList<>();
+        try (AsynchResourceIterator<WorkspaceContents> it =
                 new AsynchResourceIterator<>(
-                        storeResource.parent(),
-                        Resources.DirectoryFilter.INSTANCE,
-                        WMS_LAYER_MAPPER)) {
-            while (it.hasNext()) {
-                LayerContents lc = it.next();
-                coverageLoader.accept(lc);
-            }
+                        workspaces, Resources.DirectoryFilter.INSTANCE, new WorkspaceMapper())) {
+            it.forEachRemaining(contents::add);
         }
-    }
+        List<WorkspaceInfo> parsedWorkspaces =
+                depersister.parse(
+                        contents,
+                        (pxp, wc) -> depersist(pxp, wc.contents, WorkspaceInfo.class),
+                        wc -> "workspace '" + wc.resource.name() + "'");
+        List<NamespaceInfo> parsedNamespaces =
+                depersister.parse(
+                        contents,
+                        (pxp, wc) -> depersist(pxp, wc.nsContents, NamespaceInfo.class),
+                        wc -> "namespace for '" + wc.resource.name() + "'");
+        report.time(WORKSPACES, Phase.READ, start);
+
+        start = System.nanoTime();
+        List<Resource> styleDirectories = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            final Resource workspaceResource = contents.get(i).resource;
+            final WorkspaceInfo ws = parsedWorkspaces.get(i);
+            if (ws == null) {
+                report.failed(WORKSPACES);
+                continue;
+            }
+            try {
+                catalog.add(ws);
+                report.loaded(WORKSPACES);
+                LOGGER.log(
+                        Level.CONFIG, () -> String.format("Loaded workspace '%s'", ws.getName()));
+            } catch (Exception e) {
+                report.failed(WORKSPACES);
+                LOGGER.log(
+                        Level.WARNING,
+                        "Failed to load workspace '" + workspaceResource.name() + "'",
+                        e);
+                continue;
+            }
 
-    private void loadWmtsStore(
-            SingleResourceContents SingleResourceContents,
-            CatalogImpl catalog,
-            XStreamPersister xp) {
-        final Resource storeResource = SingleResourceContents.resource;
-        WMTSStoreInfo wmts = null;
-        try {
-            wmts = depersist(xp, SingleResourceContents.contents, WMTSStoreInfo.class);
-            catalog.add(wmts);
+            // load the namespace
+            NamespaceInfo ns = parsedNamespaces.get(i);
+            if (ns != null) {
+                try {
+                    catalog.add(ns);
+                    report.loaded(NAMESPACES);
+                } catch (Exception e) {
+                    ns = null;
+                    LOGGER.log(
+                            Level.WARNING,
+                            "Failed to load namespace for '" + workspaceResource.name() + "'",
+                            e);
+                }
+            }
+            if (ns == null) {
+                report.failed(NAMESPACES);
+            }
 
-            LOGGER.info("Loaded wmtsstore '" + wmts.getName() + "'");
-        } catch (Exception e) {
-            LOGGER.log(
-                    Level.WARNING, "Failed to load wmts store '" + storeResource.name() + "'", e);
-            return;
+            // set the default workspace, this value might be null in the case of coming from a
+            // 2.0.0 data directory. See https://osgeo-org.atlassian.net/browse/GEOS-3440
+            if (defaultWorkspace != null) {
+                if (ws.getName().equals(defaultWorkspace.getName())) {
+                    catalog.setDefaultWorkspace(ws);
+                    if (ns != null) {
+                        catalog.setDefaultNamespace(ns);
+                    }
+                }
+            } else {
+                // create the default.xml file
+                defaultWorkspace = catalog.getDefaultWorkspace();
+                if (defaultWorkspace != null) {
+                    try {
+                        persist(xp, defaultWorkspace, dws);
+                    } catch (Exception e) {
+                        LOGGER.log(
+                                Level.WARNING,
+                                "Failed to persist default workspace '"
+                                        + workspaceResource.name()
+                                        + "'",
+                                e);
+                    }
+                }
+            }
+
+            Resource styles = workspaceResource.get("styles");
+            if (styles != null) {
+                styleDirectories.add(styles);
+            }
         }
+        report.time(WORKSPACES, Phase.ADD, start);
 
-        // load wmts layers
-        LayerLoader<WMTSLayerInfo> coverageLoader =
-                new LayerLoader<>(WMTSLayerInfo.class, xp, catalog);
-        try (AsynchResourceIterator<LayerContents> it =
-                new AsynchResourceIterator<>(
-                        storeResource.parent(),
-                        Resources.DirectoryFilter.INSTANCE,
-                        WMTS_LAYER_MAPPER)) {
-            while (it.hasNext()) {
-                LayerContents lc = it.next();
-                coverageLoader.accept(lc);
+        // load the styles for the workspaces
+        for (Resource styles : styleDirectories) {
+            loadStyles(styles, catalog, depersister, report);
+        }
+
+        return workspaceList;
+    }
+
+    /**
+     * Loads the stores of all workspaces. Stores are parsed by the loading thread, as decrypting
+     * their passwords and connecting to them requires access to the application context.
+     *
+     * @return the stores that have been successfully added
+     */
+    private List<StoreContents> loadStores(
+            List<Resource> workspaceList,
+            CatalogImpl catalog,
+            XStreamPersister xp,
+            boolean checkStores,
+            CatalogLoadReport report) {
+        // maps each store into a SingleResourceContents
+        ResourceMapper<SingleResourceContents> storeMapper =
+                sd -> {
+                    for (StoreLayout layout : STORE_LAYOUTS) {
+                        Resource f = sd.get(layout.fileName);
+                        if (Resources.exists(f)) {
+                            return new SingleResourceContents(f, f.getContents());
+                        }
+                    }
+                    if (!isConfigDirectory(sd)) {
+                        LOGGER.warning("Ignoring store directory '" + sd.name() + "'");
+                    }
+                    // nothing found
+                    return null;
+                };
+
+        List<StoreContents> stores = new ArrayList<>();
+        for (Resource wsd : workspaceList) {
+            // load the stores for this workspace
+            try (AsynchResourceIterator<SingleResourceContents> it =
+                    new AsynchResourceIterator<>(
+                            wsd, Resources.DirectoryFilter.INSTANCE, storeMapper)) {
+                while (it.hasNext()) {
+                    SingleResourceContents contents = it.next();
+                    StoreLayout layout = getStoreLayout(contents.resource.name());
+                    if (layout == null) {
+                        if (!isConfigDirectory(contents.resource)) {
+                            LOGGER.warning(
+                                    "Ignoring store directory '" + contents.resource.name() + "'");
+                        }
+                        continue;
+                    }
+                    if (loadStore(contents, layout, catalog, xp, checkStores, report)) {
+                        stores.add(new StoreContents(contents.resource.parent(), layout));
+                    }
+                }
             }
         }
+        return stores;
     }
 
-    private void loadCoverageStore(
-            SingleResourceContents SingleResourceContents,
+    private boolean loadStore(
+            SingleResourceContents contents,
+            StoreLayout layout,
             CatalogImpl catalog,
-            XStreamPersister xp) {
-        CoverageStoreInfo cs = null;
-        final Resource storeResource = SingleResourceContents.resource;
+            XStreamPersister xp,
+            boolean checkStores,
+            CatalogLoadReport report) {
+        final Resource storeResource = contents.resource;
+        StoreInfo store;
         try {
-            cs = depersist(xp, SingleResourceContents.contents, CoverageStoreInfo.class);
-            catalog.add(cs);
+            long start = System.nanoTime();
+            store = depersist(xp, contents.contents, layout.storeClass);
+            report.time(STORES, Phase.READ, start);
+
+            start = System.nanoTime();
+            catalog.add(store);
+            report.time(STORES, Phase.ADD, start);
+            report.loaded(STORES);
 
-            if (LOGGER.isLoggable(Level.INFO)) {
+            if (LOGGER.isLoggable(Level.CONFIG)) {
                 LOGGER.config(
-                        "Loaded coverage store '"
-                                + cs.getName()
+                        "Loaded "
+                                + layout.description
+                                + " '"
+                                + store.getName()
                                 + "', "
-                                + (cs.isEnabled() ? "enabled" : "disabled"));
+                                + (store.isEnabled() ? "enabled" : "disabled"));
             }
         } catch (Exception e) {
+            report.failed(STORES);
             LOGGER.log(
                     Level.WARNING,
-                    "Failed to load coverage store '" + storeResource.name() + "'",
+                    "Failed to load "
+                            + layout.description
+                            + " '"
+                            + storeResource.parent().name()
+                            + "'",
                     e);
-            return;
+            return false;
         }
 
-        // load coverages
-        LayerLoader<CoverageInfo> coverageLoader =
-                new LayerLoader<>(CoverageInfo.class, xp, catalog);
-        try (AsynchResourceIterator<LayerContents> it =
-                new AsynchResourceIterator<>(
-                        storeResource.parent(),
-                        Resources.DirectoryFilter.INSTANCE,
-                        COVERAGE_LAYER_MAPPER)) {
-            while (it.hasNext()) {
-                LayerContents lc = it.next();
-                coverageLoader.accept(lc);
+        if (checkStores && store instanceof DataStoreInfo && store.isEnabled()) {
+            // connect to the datastore to determine if we should disable it
+            DataStoreInfo ds = (DataStoreInfo) store;
+            long start = System.nanoTime();
+            try {
+                ds.getDataStore(null);
+            } catch (Throwable t) {
+                LOGGER.warning("Error connecting to '" + ds.getName() + "'. Disabling.");
+                LOGGER.log(Level.INFO, "", t);
+
+                ds.setError(t);
+                ds.setEnabled(false);
             }
+            report.time(STORES, Phase.CHECK, start);
         }
+        return true;
     }
 
-    private void loadDataStore(
-            SingleResourceContents SingleResourceContents,
+    /**
+     * Loads the resources and layers of the given stores, in batches. Resources and layers are
+     * parsed in parallel, each batch of resources is added to the catalog before parsing the
+     * corresponding layers, which reference them.
+     */
+    private void loadResources(
+            List<StoreContents> stores,
             CatalogImpl catalog,
-            XStreamPersister xp,
-            boolean checkStores) {
-        final Resource storeResource = SingleResourceContents.resource;
-        DataStoreInfo ds;
-        try {
-            ds = depersist(xp, SingleResourceContents.contents, DataStoreInfo.class);
-            catalog.add(ds);
+            ParallelDepersister depersister,
+            CatalogLoadReport report)
+            throws Exception {
+        List<ResourceContents> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        for (StoreContents store : stores) {
+            long start = System.nanoTime();
+            try (AsynchResourceIterator<LayerContents> it =
+                    new AsynchResourceIterator<>(
+                            store.directory,
+                            Resources.DirectoryFilter.INSTANCE,
+                            store.layout.layerMapper)) {
+                while (it.hasNext()) {
+                    batch.add(new ResourceContents(it.next(), store.layout.resourceClass));
+                    if (batch.size() == LOAD_BATCH_SIZE) {
+                        report.time(RESOURCES, Phase.READ, start);
+                        loadResourceBatch(batch, catalog, depersister, report);
+                        batch.clear();
+                        start = System.nanoTime();
+                    }
+                }
+            }
+            report.time(RESOURCES, Phase.READ, start);
+        }
+        if (!batch.isEmpty()) {
+            loadResourceBatch(batch, catalog, depersister, report);
+        }
+    }
 
+    private void loadResourceBatch(
+            List<ResourceContents> batch,
+            CatalogImpl catalog,
+            ParallelDepersister depersister,
+            CatalogLoadReport report)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<ResourceInfo> resources =
+                depersister.parse(
+                        batch,
+                        (pxp, rc) -> depersist(pxp, rc.contents.contents, rc.resourceClass),
+                        rc -> "resource " + rc.contents.resource.name());
+        report.time(RESOURCES, Phase.READ, start);
+
+        start = System.nanoTime();
+        List<LayerContents> layerContents = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ResourceInfo resource = resources.get(i);
+            String name = batch.get(i).contents.resource.name();
+            if (resource == null) {
+                report.failed(RESOURCES);
+                continue;
+            }
+            if (!add(resource, catalog::add, "resource " + name, report, RESOURCES)) {
+                continue;
+            }
             if (LOGGER.isLoggable(Level.CONFIG)) {
+                String type =
+                        resource instanceof CoverageInfo
+                                ? "coverage"
+                                : resource instanceof FeatureTypeInfo ? "feature type" : "resource";
                 LOGGER.config(
-                        "Loaded data store '"
-                                + ds.getName()
+                        "Loaded "
+                                + type
+                                + " '"
+                                + name
                                 + "', "
-                                + (ds.isEnabled() ? "enabled" : "disabled"));
+                                + (resource.isEnabled() ? "enabled" : "disabled"));
             }
-
-            if (checkStores && ds.isEnabled()) {
-                // connect to the datastore to determine if we should disable it
-                try {
-                    ds.getDataStore(null);
-                } catch (Throwable t) {
-                    LOGGER.warning("Error connecting to '" + ds.getName() + "'. Disabling.");
-                    LOGGER.log(Level.INFO, "", t);
-
-                    ds.setError(t);
-                    ds.setEnabled(false);
+            layerContents.add(batch.get(i).contents);
+        }
+        report.time(RESOURCES, Phase.ADD, start);
+
+        start = System.nanoTime();
+        List<LayerInfo> layers =
+                depersister.parse(
+                        layerContents,
+                        (pxp, lc) -> depersist(pxp, lc.layerContents, LayerInfo.class),
+                        lc -> "layer " + lc.resource.name());
+        report.time(LAYERS, Phase.READ, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < layers.size(); i++) {
+            LayerInfo l = layers.get(i);
+            if (l == null) {
+                report.failed(LAYERS);
+                continue;
+            }
+            String name = layerContents.get(i).resource.name();
+            if (add(l, catalog::add, "layer " + name, report, LAYERS)) {
+                LOGGER.config("Loaded layer '" + l.getName() + "'");
+                for (StyleInfo style : l.getStyles()) {
+                    if (null == style) {
+                        LOGGER.log(
+                                Level.SEVERE,
+                                "Layer '" + l.getName() + "' references a missing style");
+                    }
                 }
             }
-        } catch (Exception e) {
-            LOGGER.log(
-                    Level.WARNING,
-                    "Failed to load data store '" + storeResource.parent().name() + "'",
-                    e);
-            return;
         }
+        report.time(LAYERS, Phase.ADD, start);
+    }
 
-        // load feature types
-        LayerLoader<FeatureTypeInfo> featureLoader =
-                new LayerLoader<>(FeatureTypeInfo.class, xp, catalog);
-        try (AsynchResourceIterator<LayerContents> it =
-                new AsynchResourceIterator<>(
-                        storeResource.parent(),
-                        Resources.DirectoryFilter.INSTANCE,
-                        FEATURE_LAYER_MAPPER)) {
-            while (it.hasNext()) {
-                LayerContents lc = it.next();
-                featureLoader.accept(lc);
-            }
+    /** Adds the object to the catalog, logging and reporting failures */
+    private static <T> boolean add(
+            T info,
+            Consumer<T> adder,
+            String description,
+            CatalogLoadReport report,
+            String type) {
+        try {
+            adder.accept(info);
+            report.loaded(type);
+            return true;
+        } catch (Exception e) {
+            report.failed(type);
+            LOGGER.log(Level.WARNING, "Failed to load " + description, e);
+            return false;
         }
     }
 
@@ -1036,47 +1168,79 @@ protected void readConfiguration(GeoServer geoServer, XStreamPersister xp) throw
         }
     }
 
-    void loadStyles(Resource styles, Catalog catalog, XStreamPersister xp) throws IOException {
+    void loadStyles(
+            Resource styles,
+            Catalog catalog,
+            ParallelDepersister depersister,
+            CatalogLoadReport report)
+            throws IOException, InterruptedException {
         Filter<Resource> styleFilter =
                 r -> XML_FILTER.accept(r) && !Resources.exists(styles.get(r.name() + ".xml"));
+        long start = System.nanoTime();
+        List<SingleResourceContents> contents = new ArrayList<>();
         try (AsynchResourceIterator<SingleResourceContents> it =
                 new AsynchResourceIterator<>(styles, styleFilter, RESOURCE_MAPPER)) {
-            while (it.hasNext()) {
-                SingleResourceContents r = it.next();
-                try {
-                    StyleInfo s = depersist(xp, r.contents, StyleInfo.class);
-                    catalog.add(s);
-
-                    if (LOGGER.isLoggable(Level.INFO)) {
-                        LOGGER.config("Loaded style '" + s.getName() + "'");
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Failed to load style" + r.resource.name(), e);
-                }
+            it.forEachRemaining(contents::add);
+        }
+        List<StyleInfo> parsed =
+                depersister.parse(
+                        contents,
+                        (pxp, r) -> depersist(pxp, r.contents, StyleInfo.class),
+                        r -> "style " + r.resource.name());
+        report.time(STYLES, Phase.READ, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < parsed.size(); i++) {
+            StyleInfo s = parsed.get(i);
+            if (s == null) {
+                report.failed(STYLES);
+                continue;
+            }
+            String description = "style " + contents.get(i).resource.name();
+            if (add(s, catalog::add, description, report, STYLES)) {
+                LOGGER.config("Loaded style '" + s.getName() + "'");
             }
         }
+        report.time(STYLES, Phase.ADD, start);
     }
 
-    void loadLayerGroups(Resource layerGroups, Catalog catalog, XStreamPersister xp) {
+    void loadLayerGroups(
+            Resource layerGroups,
+            Catalog catalog,
+            ParallelDepersister depersister,
+            CatalogLoadReport report)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<SingleResourceContents> contents = new ArrayList<>();
         try (AsynchResourceIterator<SingleResourceContents> it =
                 new AsynchResourceIterator<>(layerGroups, XML_FILTER, RESOURCE_MAPPER)) {
-            while (it.hasNext()) {
-                SingleResourceContents r = it.next();
-                try {
-                    LayerGroupInfo lg = depersist(xp, r.contents, LayerGroupInfo.class);
-                    if (lg.getLayers() == null || lg.getLayers().size() == 0) {
-                        LOGGER.warning(
-                                "Skipping empty layer group '" + lg.getName() + "', it is invalid");
-                        continue;
-                    }
-                    catalog.add(lg);
-
-                    LOGGER.config("Loaded layer group '" + lg.getName() + "'");
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Failed to load layer group " + r.resource.name(), e);
-                }
+            it.forEachRemaining(contents::add);
+        }
+        List<LayerGroupInfo> parsed =
+                depersister.parse(
+                        contents,
+                        (pxp, r) -> depersist(pxp, r.contents, LayerGroupInfo.class),
+                        r -> "layer group " + r.resource.name());
+        report.time(LAYER_GROUPS, Phase.READ, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < parsed.size(); i++) {
+            LayerGroupInfo lg = parsed.get(i);
+            if (lg == null) {
+                report.failed(LAYER_GROUPS);
+                continue;
+            }
+            if (lg.getLayers() == null || lg.getLayers().size() == 0) {
+                LOGGER.warning("Skipping empty layer group '" + lg.getName() + "', it is invalid");
+                report.failed(LAYER_GROUPS);
+                continue;
+            }
+            String description = "layer group " + contents.get(i).resource.name();
+            if (add(lg, catalog::add, description, report, LAYER_GROUPS)) {
+                LOGGER.config("Loaded layer group '" + lg.getName() + "'");
             }
         }
+        report.time(LAYER_GROUPS, Phase.ADD, start);
     }
 
     void loadServices(
@@ -0,0 +1,189 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.config.util.XStreamPersisterFactory;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Parses catalog configuration files on a bounded fork-join pool, used by {@link GeoServerLoader}
+ * to load large catalogs.
+ *
+ * <p>Each worker uses its own {@link XStreamPersister}, all of them are created upfront by the
+ * thread building this object, as the persister creation looks up extensions in the application
+ * context, something that is not safe to do from other threads while the context is starting up.
+ * For the same reason the persisters do not decrypt password fields, objects holding them (stores)
+ * should be parsed by the calling thread instead.
+ *
+ * <p>The parse results are returned in the same order as the inputs, so that the caller can add
+ * them to the catalog in a deterministic order, after each batch is complete.
+ */
+class ParallelDepersister implements AutoCloseable {
+
+    static final Logger LOGGER = Logging.getLogger(ParallelDepersister.class);
+
+    /**
+     * System property/environment variable setting the number of threads parsing the catalog
+     * configuration, use 1 to parse in the loading thread
+     */
+    static final String PARALLELISM_KEY = "org.geoserver.catalog.loadingParallelism";
+
+    /** Upper bound of the default parallelism */
+    static final int MAX_DEFAULT_PARALLELISM = 16;
+
+    private static final AtomicInteger POOL_ID = new AtomicInteger();
+
+    /** Parses a source into a catalog object */
+    @FunctionalInterface
+    interface Parser<S, T> {
+        T parse(XStreamPersister xp, S source) throws Exception;
+    }
+
+    private final ForkJoinPool pool;
+
+    private final BlockingQueue<XStreamPersister> persisters;
+
+    private final int parallelism;
+
+    /**
+     * Builds a new depersister
+     *
+     * @param xpf the factory for the per thread persisters
+     * @param catalog the catalog references are resolved against
+     * @param parallelism the number of parsing threads, 1 to parse in the calling thread
+     */
+    ParallelDepersister(XStreamPersisterFactory xpf, Catalog catalog, int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.persisters = new ArrayBlockingQueue<>(this.parallelism);
+        for (int i = 0; i < this.parallelism; i++) {
+            XStreamPersister xp = xpf.createXMLPersister();
+            xp.setCatalog(catalog);
+            xp.setUnwrapNulls(false);
+            xp.setEncryptPasswordFields(false);
+            persisters.add(xp);
+        }
+        this.pool = this.parallelism > 1 ? newPool(this.parallelism) : null;
+    }
+
+    private static ForkJoinPool newPool(int parallelism) {
+        int poolId = POOL_ID.incrementAndGet();
+        AtomicInteger threadId = new AtomicInteger();
+        return new ForkJoinPool(
+                parallelism,
+                pool -> {
+                    ForkJoinWorkerThread worker =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    worker.setName(
+                            "GeoServerLoader-" + poolId + "-worker-" + threadId.incrementAndGet());
+                    worker.setDaemon(true);
+                    return worker;
+                },
+                null,
+                false);
+    }
+
+    /** Returns the configured parallelism, by default the number of cores, up to 16 */
+    static int getConfiguredParallelism() {
+        int defaultParallelism =
+                Math.min(Runtime.getRuntime().availableProcessors(), MAX_DEFAULT_PARALLELISM);
+        String value = GeoServerExtensions.getProperty(PARALLELISM_KEY);
+        if (value != null) {
+            try {
+                int parallelism = Integer.parseInt(value.trim());
+                if (parallelism > 0) {
+                    return parallelism;
+                }
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            LOGGER.warning(
+                    "Invalid value for "
+                            + PARALLELISM_KEY
+                            + ": "
+                            + value
+                            + ", using the default "
+                            + defaultParallelism);
+        }
+        return defaultParallelism;
+    }
+
+    /** The number of parsing threads */
+    int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Parses all the sources, returning the results in the same order. Parsers are expected to
+     * handle and log their own failures returning null, exceptions are logged and result in a null
+     * entry as well.
+     *
+     * @param sources the objects to parse
+     * @param parser the parsing function
+     * @param description describes the source being parsed, for logging purposes
+     */
+    <S, T> List<T> parse(
+            List<S> sources, Parser<S, T> parser, Function<? super S, String> description)
+            throws InterruptedException {
+        List<T> result = new ArrayList<>(sources.size());
+        if (pool == null || sources.size() < 2) {
+            for (S source : sources) {
+                result.add(parseOne(source, parser, description));
+            }
+            return result;
+        }
+
+        List<Callable<T>> tasks = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            tasks.add(() -> parseOne(source, parser, description));
+        }
+        for (Future<T> future : pool.invokeAll(tasks)) {
+            try {
+                result.add(future.get());
+            } catch (ExecutionException e) {
+                // parseOne handles all exceptions, this is an error
+                LOGGER.log(Level.WARNING, "Failed to load configuration", e.getCause());
+                result.add(null);
+            }
+        }
+        return result;
+    }
+
+    private <S, T> T parseOne(
+            S source, Parser<S, T> parser, Function<? super S, String> description)
+            throws InterruptedException {
+        XStreamPersister xp = persisters.take();
+        try {
+            return parser.parse(xp, source);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load " + description.apply(source), e);
+            return null;
+        } finally {
+            persisters.add(xp);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,329 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.security.AccessMode;
+import org.geotools.api.filter.Filter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Remembers the access decisions taken by {@link DefaultResourceAccessManager}. The decisions
+ * only depend on the roles of the user, not on the user itself, so for each distinct role set,
+ * access mode and kind of request a pair of bitsets over the catalog resources records which
+ * resources have been evaluated, and which of them can be accessed. The security filters built
+ * from the rule tree are kept per role set too.
+ *
+ * <p>The index is filled lazily, as the decisions are requested. A rule reload drops everything,
+ * and so do changes to workspaces, stores and layer groups, which can affect many resources at
+ * once. A change to a resource only forgets the decisions about it, and the filters, which refer
+ * to the layers by name.
+ */
+class AccessDecisionIndex implements CatalogListener {
+
+    /** Beyond this many role sets the index is cleared, to keep its size bounded */
+    static final int MAX_ROLE_SETS = 1024;
+
+    /** Resource ids to bit positions, never reused so that a stale position cannot be misread */
+    private final Map<String, Integer> positions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextPosition = new AtomicInteger();
+
+    private final Map<DecisionKey, Decisions> decisions = new ConcurrentHashMap<>();
+
+    private final Map<FilterKey, Filter> filters = new ConcurrentHashMap<>();
+
+    /** Incremented on every invalidation, decisions computed across one are not stored */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Returns the access decision for the given resource, evaluating it with the provided supplier
+     * only if the same role set has not asked for it already
+     */
+    boolean canAccess(
+            Authentication user,
+            String resourceId,
+            AccessMode mode,
+            boolean directAccess,
+            boolean groupsCheck,
+            BooleanSupplier evaluator) {
+        // direct access only matters when the containing groups are checked
+        DecisionKey key =
+                new DecisionKey(roles(user), mode, directAccess || !groupsCheck, groupsCheck);
+        Decisions set = decisions.get(key);
+        if (set == null) {
+            if (decisions.size() >= MAX_ROLE_SETS) {
+                decisions.clear();
+            }
+            set = decisions.computeIfAbsent(key, k -> new Decisions());
+        }
+        int position = positions.computeIfAbsent(resourceId, id -> nextPosition.getAndIncrement());
+        Boolean cached = set.get(position);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long start = generation.get();
+        boolean result = evaluator.getAsBoolean();
+        if (generation.get() == start) {
+            set.set(position, result);
+            // an invalidation might have happened while storing
+            if (generation.get() != start) {
+                set.clear(position);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the security filter for the user roles and the given key, building it with the
+     * provided supplier the first time
+     */
+    Filter getSecurityFilter(
+            Authentication user,
+            Class<? extends CatalogInfo> clazz,
+            boolean adminRequest,
+            Supplier<Filter> builder) {
+        FilterKey key = new FilterKey(roles(user), clazz, adminRequest);
+        Filter filter = filters.get(key);
+        if (filter != null) {
+            hits.increment();
+            return filter;
+        }
+
+        misses.increment();
+        long start = generation.get();
+        filter = builder.get();
+        if (generation.get() == start) {
+            if (filters.size() >= MAX_ROLE_SETS) {
+                filters.clear();
+            }
+            filters.put(key, filter);
+            if (generation.get() != start) {
+                filters.remove(key);
+            }
+        }
+        return filter;
+    }
+
+    /** Forgets the decisions taken about the given resource */
+    void invalidate(String resourceId) {
+        generation.incrementAndGet();
+        Integer position = positions.get(resourceId);
+        if (position != null) {
+            for (Decisions set : decisions.values()) {
+                set.clear(position);
+            }
+        }
+    }
+
+    /** Forgets the security filters, that refer to the layers by name or id */
+    void invalidateFilters() {
+        generation.incrementAndGet();
+        filters.clear();
+    }
+
+    /** Forgets everything */
+    void invalidateAll() {
+        generation.incrementAndGet();
+        decisions.clear();
+        filters.clear();
+    }
+
+    /** The number of decisions and filters found in the index */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /** The number of decisions and filters that had to be evaluated */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    /** The number of distinct role set, mode and request kind combinations indexed */
+    int getDecisionSetCount() {
+        return decisions.size();
+    }
+
+    private static Set<String> roles(Authentication user) {
+        Collection<? extends GrantedAuthority> authorities =
+                user == null ? null : user.getAuthorities();
+        if (authorities == null || authorities.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> roles = new HashSet<>();
+        for (GrantedAuthority authority : authorities) {
+            roles.add(authority.getAuthority());
+        }
+        return roles;
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) {
+        CatalogInfo source = event.getSource();
+        if (source instanceof LayerGroupInfo) {
+            // a new group may change the access to the layers it contains
+            invalidateAll();
+        } else if (source instanceof PublishedInfo || source instanceof WorkspaceInfo) {
+            // rules referring to it are no longer dangling
+            invalidateFilters();
+        }
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) {
+        handleChange(event.getSource());
+        if (event.getSource() instanceof ResourceInfo) {
+            positions.remove(event.getSource().getId());
+        }
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) {
+        handleChange(event.getSource());
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) {
+        // again, in case a decision got evaluated against the old state in the meantime
+        handleChange(event.getSource());
+    }
+
+    private void handleChange(CatalogInfo source) {
+        if (source instanceof ResourceInfo) {
+            invalidate(source.getId());
+            invalidateFilters();
+        } else if (source instanceof LayerInfo) {
+            invalidateFilters();
+        } else if (source instanceof LayerGroupInfo
+                || source instanceof StoreInfo
+                || source instanceof WorkspaceInfo
+                || source instanceof NamespaceInfo) {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void reloaded() {
+        invalidateAll();
+    }
+
+    /** The decisions taken for a role set, access mode and request kind */
+    static class Decisions {
+
+        private final BitSet evaluated = new BitSet();
+
+        private final BitSet allowed = new BitSet();
+
+        synchronized Boolean get(int position) {
+            return evaluated.get(position) ? allowed.get(position) : null;
+        }
+
+        synchronized void set(int position, boolean access) {
+            evaluated.set(position);
+            allowed.set(position, access);
+        }
+
+        synchronized void clear(int position) {
+            evaluated.clear(position);
+        }
+    }
+
+    static class DecisionKey {
+
+        final Set<String> roles;
+
+        final AccessMode mode;
+
+        final boolean directAccess;
+
+        final boolean groupsCheck;
+
+        DecisionKey(Set<String> roles, AccessMode mode, boolean directAccess, boolean groupsCheck) {
+            this.roles = roles;
+            this.mode = mode;
+            this.directAccess = directAccess;
+            this.groupsCheck = groupsCheck;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DecisionKey that = (DecisionKey) o;
+            return directAccess == that.directAccess
+                    && groupsCheck == that.groupsCheck
+                    && mode == that.mode
+                    && roles.equals(that.roles);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(roles, mode, directAccess, groupsCheck);
+        }
+    }
+
+    static class FilterKey {
+
+        final Set<String> roles;
+
+        final Class<? extends CatalogInfo> clazz;
+
+        final boolean adminRequest;
+
+        FilterKey(Set<String> roles, Class<? extends CatalogInfo> clazz, boolean adminRequest) {
+            this.roles = roles;
+            this.clazz = clazz;
+            this.adminRequest = adminRequest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FilterKey that = (FilterKey) o;
+            return adminRequest == that.adminRequest
+                    && clazz.equals(that.clazz)
+                    && roles.equals(that.roles);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(roles, clazz, adminRequest);
+        }
+    }
+}
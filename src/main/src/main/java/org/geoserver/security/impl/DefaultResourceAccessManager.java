@@ -31,6 +31,7 @@
 import org.geoserver.catalog.WMSLayerInfo;
 import org.geoserver.catalog.WMTSLayerInfo;
 import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.ModificationProxy;
 import org.geoserver.ows.Dispatcher;
 import org.geoserver.ows.Request;
 import org.geoserver.platform.GeoServerExtensions;
@@ -39,6 +40,7 @@
 import org.geoserver.security.CatalogMode;
 import org.geoserver.security.CoverageAccessLimits;
 import org.geoserver.security.DataAccessLimits;
+import org.geoserver.security.GeoServerSecurityFilterChainProxy;
 import org.geoserver.security.InMemorySecurityFilter;
 import org.geoserver.security.LayerGroupAccessLimits;
 import org.geoserver.security.ResourceAccessManager;
@@ -91,6 +93,13 @@ public class DefaultResourceAccessManager implements ResourceAccessManager {
     static final Boolean RESOURCE_EQUALITY_FILTER_ENABLED =
             Boolean.getBoolean("geoserver.access.resourceEqualityFilterEnabled");
 
+    /**
+     * Flag to disable the index of the access decisions taken for each role set, see {@link
+     * AccessDecisionIndex}. Defaults to true.
+     */
+    static final boolean DECISION_INDEX_ENABLED =
+            Boolean.parseBoolean(System.getProperty("geoserver.access.decisionIndex", "true"));
+
     /** A {@link LayerGroupSummary} extended with the associated secure tree node */
     static class SecuredGroupSummary extends LayerGroupSummary {
 
@@ -120,6 +129,9 @@ public SecureTreeNode getNode() {
 
     LayerGroupContainmentCache groupsCache;
 
+    /** Access decisions and security filters per role set, null if disabled */
+    AccessDecisionIndex decisionIndex;
+
     /**
      * Pass a reference to the raw, unsecured catalog. The reference is used to evaluate the
      * relationship between layers and the groups containing them
@@ -128,6 +140,12 @@ public DefaultResourceAccessManager(DataAccessRuleDAO dao, Catalog rawCatalog) {
         this.dao = dao;
         this.rawCatalog = rawCatalog;
         this.root = buildAuthorizationTree(dao);
+        if (DECISION_INDEX_ENABLED) {
+            this.decisionIndex = new AccessDecisionIndex();
+            if (rawCatalog != null) {
+                rawCatalog.addListener(decisionIndex);
+            }
+        }
     }
 
     /**
@@ -211,13 +229,49 @@ public boolean canAccess(
             return true;
         }
 
+        boolean groupsCheck = layerGroupContainmentCheckRequired();
+        AccessDecisionIndex index = decisionIndex;
+        if (index != null && isIndexable(resource)) {
+            return index.canAccess(
+                    user,
+                    resource.getId(),
+                    mode,
+                    directAccess,
+                    groupsCheck,
+                    () ->
+                            evaluateAccess(
+                                    user, resource, workspace, mode, directAccess, groupsCheck));
+        }
+        return evaluateAccess(user, resource, workspace, mode, directAccess, groupsCheck);
+    }
+
+    /**
+     * Decisions can be reused only for resources that are in the catalog as they are, and if the
+     * rules are actually applied to the current request
+     */
+    private boolean isIndexable(ResourceInfo resource) {
+        if (resource.getId() == null
+                || !GeoServerSecurityFilterChainProxy.isSecurityEnabledForCurrentRequest()) {
+            return false;
+        }
+        ModificationProxy proxy = ModificationProxy.handler(resource);
+        return proxy == null || !proxy.isDirty();
+    }
+
+    private boolean evaluateAccess(
+            Authentication user,
+            ResourceInfo resource,
+            String workspace,
+            AccessMode mode,
+            boolean directAccess,
+            boolean groupsCheck) {
         // if we have a catalog rule that is at resource level, it's the most specific type,
         // it wins. Or it could be that we do not need to check layer groups at all
-        SecureTreeNode securityNode = root.getDeepestNode(new String[] {workspace, resourceName});
+        SecureTreeNode securityNode =
+                root.getDeepestNode(new String[] {workspace, resource.getName()});
         int catalogNodeDepth = securityNode.getDepth();
         boolean rulesAllowAccess = securityNode.canAccess(user, mode);
-        if (catalogNodeDepth == SecureTreeNode.RESOURCE_DEPTH
-                || !layerGroupContainmentCheckRequired()) {
+        if (catalogNodeDepth == SecureTreeNode.RESOURCE_DEPTH || !groupsCheck) {
             return rulesAllowAccess;
         }
 
@@ -340,6 +394,9 @@ private void rebuildAuthorizationTree(boolean force) {
         if (lastLoaded < daoLastModified || force) {
             root = buildAuthorizationTree(dao);
             lastLoaded = daoLastModified;
+            if (decisionIndex != null) {
+                decisionIndex.invalidateAll();
+            }
         }
     }
 
@@ -531,6 +588,30 @@ public Filter getSecurityFilter(Authentication user, Class<? extends CatalogInfo
             return InMemorySecurityFilter.buildUserAccessFilter(this, user);
         }
 
+        checkPropertyFile();
+        AccessDecisionIndex index = decisionIndex;
+        if (index != null
+                && GeoServerSecurityFilterChainProxy.isSecurityEnabledForCurrentRequest()
+                && isTreeFilter(clazz)) {
+            return index.getSecurityFilter(
+                    user,
+                    clazz,
+                    AdminRequest.get() != null,
+                    () -> buildSecurityFilter(user, clazz));
+        }
+        return buildSecurityFilter(user, clazz);
+    }
+
+    /** Returns true if the security filter for the class is built from the rules tree */
+    private boolean isTreeFilter(Class<? extends CatalogInfo> clazz) {
+        return WorkspaceInfo.class.isAssignableFrom(clazz)
+                || PublishedInfo.class.isAssignableFrom(clazz)
+                || ResourceInfo.class.isAssignableFrom(clazz)
+                || StyleInfo.class.isAssignableFrom(clazz)
+                || LayerGroupInfo.class.isAssignableFrom(clazz);
+    }
+
+    private Filter buildSecurityFilter(Authentication user, Class<? extends CatalogInfo> clazz) {
         if (WorkspaceInfo.class.isAssignableFrom(clazz)) {
             // base access
             boolean rootAccess = canAccess(user, root);
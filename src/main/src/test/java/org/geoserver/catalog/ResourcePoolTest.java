@@ -27,6 +27,8 @@
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheStats;
 import java.awt.image.RenderedImage;
 import java.io.BufferedReader;
 import java.io.File;
@@ -47,6 +49,7 @@
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import javax.media.jai.PlanarImage;
 import javax.xml.namespace.QName;
@@ -118,7 +121,6 @@
 import org.geotools.ows.ServiceException;
 import org.geotools.referencing.CRS;
 import org.geotools.styling.AbstractStyleVisitor;
-import org.geotools.util.SoftValueHashMap;
 import org.geotools.util.URLs;
 import org.geotools.util.Version;
 import org.geotools.util.factory.GeoTools;
@@ -366,10 +368,109 @@ public void testConfigureFeatureTypeCacheSize() {
         Catalog catalog = getCatalog();
         // we actually keep two versions of the feature type in the cache, so we need it
         // twice as big
-        assertEquals(
-                400,
-                ((SoftValueHashMap) catalog.getResourcePool().getFeatureTypeCache())
-                        .getHardReferencesCount());
+        ResourcePool.CatalogResourceCache<?, ?> cache =
+                (ResourcePool.CatalogResourceCache<?, ?>)
+                        catalog.getResourcePool().getFeatureTypeCache();
+        assertEquals(400, cache.getMaximumSize());
+    }
+
+    @Test
+    public void testCacheEviction() throws IOException {
+        List<String> disposed = new ArrayList<>();
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker =
+                new Ticker() {
+                    @Override
+                    public long read() {
+                        return nanos.get();
+                    }
+                };
+        ResourcePool pool = new ResourcePool();
+        ResourcePool.CatalogResourceCache<String, String> cache =
+                pool.new CatalogResourceCache<String, String>(2, ticker) {
+                    @Override
+                    protected void dispose(String key, String object) {
+                        disposed.add(key);
+                    }
+                };
+
+        assertEquals("a1", cache.get("a", () -> "a1"));
+        assertEquals("a1", cache.get("a", () -> "a2"));
+        assertEquals("b1", cache.get("b", () -> "b1"));
+        // replacing does not dispose
+        cache.put("b", "b2");
+        assertTrue(disposed.isEmpty());
+        // going beyond the maximum size evicts, the entry might be in use and is not disposed yet
+        cache.get("c", () -> "c1");
+        assertEquals(2, cache.size());
+        assertTrue(disposed.isEmpty());
+        // an evicted entry looked up during its grace period is reused, no new load happens
+        assertEquals("a1", cache.get("a", () -> "a3"));
+        assertEquals(2, cache.size());
+        assertTrue(disposed.isEmpty());
+        // once the grace period is over evicted entries are disposed
+        nanos.addAndGet(
+                TimeUnit.SECONDS.toNanos(ResourcePool.getConfiguredEvictionGrace() + 1));
+        cache.cleanUp();
+        assertEquals(List.of("b"), disposed);
+        assertNull(cache.get("b"));
+        // explicit removal disposes
+        cache.remove("c");
+        assertTrue(disposed.contains("c"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(4, stats.loadSuccessCount());
+        assertEquals(2, stats.evictionCount());
+
+        // evicted entries are moved back by plain lookups too
+        cache.get("d", () -> "d1");
+        cache.get("e", () -> "e1");
+        assertEquals("a1", cache.get("a"));
+        assertTrue(cache.containsKey("a"));
+        // removing and clearing also dispose the entries waiting for their grace period
+        cache.remove("d");
+        assertTrue(disposed.contains("d"));
+        assertNull(cache.get("d"));
+        cache.clear();
+        assertTrue(disposed.containsAll(List.of("a", "e")));
+        assertEquals(0, cache.size());
+
+        // load failures are reported as is, and not cached
+        try {
+            cache.get(
+                    "d",
+                    () -> {
+                        throw new IOException("failed");
+                    });
+            fail("Should have thrown an exception");
+        } catch (IOException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertNull(cache.get("d"));
+    }
+
+    @Test
+    public void testCacheStatistics() throws Exception {
+        Catalog catalog = getCatalog();
+        ResourcePool pool = catalog.getResourcePool();
+        StyleInfo style = catalog.getStyleByName("point");
+        pool.clear(style);
+
+        long misses = pool.getCacheStatistics().get("styles").missCount();
+        long hits = pool.getCacheStatistics().get("styles").hitCount();
+        Style s1 = pool.getStyle(style);
+        Style s2 = pool.getStyle(style);
+        assertSame(s1, s2);
+
+        CacheStats stats = pool.getCacheStatistics().get("styles");
+        assertEquals(misses + 1, stats.missCount());
+        assertEquals(hits + 1, stats.hitCount());
+        assertTrue(pool.getCacheSizes().get("styles") > 0);
+
+        String message = new ResourcePoolStatus(catalog).getMessage().get();
+        assertThat(message, containsString("styles: size="));
+        assertThat(message, containsString("dataStores: size="));
     }
 
     @Test
@@ -1405,6 +1405,26 @@ public void testGetLayerByName() {
         assertEquals(l, l2);
     }
 
+    @Test
+    public void testGetLayerByNameAfterRename() {
+        addLayer();
+
+        FeatureTypeInfo ft2 = catalog.getFeatureTypeByName(ft.getName());
+        String oldName = ft2.getName();
+        ft2.setName("renamed");
+        catalog.save(ft2);
+
+        assertNull(catalog.getLayerByName(oldName));
+        assertNull(catalog.getFeatureTypeByName(oldName));
+        LayerInfo l2 = catalog.getLayerByName("renamed");
+        assertNotNull(l2);
+        assertEquals(l.getId(), l2.getId());
+        assertEquals(ft.getId(), catalog.getFeatureTypeByName("renamed").getId());
+
+        catalog.remove(l2);
+        assertNull(catalog.getLayerByName("renamed"));
+    }
+
     @Test
     public void testGetLayerByNameWithoutColon() {
         // create two workspaces
@@ -3066,6 +3086,81 @@ public void testListPredicate() {
                 Lists.newArrayList(catalog.list(LayerInfo.class, filter, offset, limit, null)));
     }
 
+    @Test
+    public void testListIndexedPredicate() {
+        addDataStore();
+        addNamespace();
+
+        FeatureTypeInfo ft1, ft2, ft3;
+        catalog.add(ft1 = newFeatureType("roads", ds));
+        catalog.add(ft2 = newFeatureType("rivers", ds));
+        catalog.add(ft3 = newFeatureType("lakes", ds));
+        StyleInfo s1;
+        catalog.add(s1 = newStyle("s1", "s1Filename"));
+        LayerInfo l1, l2, l3;
+        catalog.add(l1 = newLayer(catalog.getFeatureType(ft1.getId()), s1));
+        catalog.add(l2 = newLayer(catalog.getFeatureType(ft2.getId()), s1));
+        catalog.add(l3 = newLayer(catalog.getFeatureType(ft3.getId()), s1));
+        l1 = catalog.getLayer(l1.getId());
+        l2 = catalog.getLayer(l2.getId());
+        l3 = catalog.getLayer(l3.getId());
+
+        // equality against indexed properties
+        assertEquals(
+                newHashSet(l2), newHashSet(catalog.list(LayerInfo.class, equal("name", "rivers"))));
+        assertEquals(
+                newHashSet(l1, l2, l3),
+                newHashSet(catalog.list(LayerInfo.class, equal("resource.store.id", ds.getId()))));
+        assertEquals(3, catalog.count(LayerInfo.class, equal("enabled", true)));
+        assertEquals(3, catalog.count(LayerInfo.class, equal("enabled", "true")));
+
+        // prefix like
+        Filter startsWithR =
+                Predicates.factory.like(
+                        Predicates.factory.property("name"), "r*", "*", "?", "\\", true);
+        assertEquals(newHashSet(l1, l2), newHashSet(catalog.list(LayerInfo.class, startsWithR)));
+
+        // and, with a non indexed part
+        Filter and = Predicates.and(startsWithR, contains("name", "oad"));
+        assertEquals(newHashSet(l1), newHashSet(catalog.list(LayerInfo.class, and)));
+        assertEquals(1, catalog.count(LayerInfo.class, and));
+
+        // the index follows saves of the indexed object
+        FeatureTypeInfo ft = catalog.getFeatureType(ft2.getId());
+        ft.setEnabled(false);
+        catalog.save(ft);
+        assertEquals(
+                newHashSet(l1, l3),
+                newHashSet(catalog.list(LayerInfo.class, equal("enabled", true))));
+        assertEquals(
+                newHashSet(ft2),
+                newHashSet(catalog.list(FeatureTypeInfo.class, equal("enabled", false))));
+
+        // and of the objects it depends onto
+        ft = catalog.getFeatureType(ft3.getId());
+        ft.setName("ponds");
+        catalog.save(ft);
+        assertEquals(
+                newHashSet(catalog.getLayer(l3.getId())),
+                newHashSet(catalog.list(LayerInfo.class, equal("name", "ponds"))));
+        assertEquals(0, catalog.count(LayerInfo.class, equal("name", "lakes")));
+
+        // and removals
+        catalog.remove(catalog.getLayer(l1.getId()));
+        assertEquals(0, catalog.count(LayerInfo.class, equal("name", "roads")));
+
+        // paged and sorted
+        List<LayerInfo> sorted =
+                Lists.newArrayList(
+                        catalog.list(LayerInfo.class, acceptAll(), 0, 1, desc("name")));
+        assertEquals(1, sorted.size());
+        assertEquals("rivers", sorted.get(0).getName());
+        sorted =
+                Lists.newArrayList(
+                        catalog.list(LayerInfo.class, acceptAll(), 1, 1, desc("name")));
+        assertEquals("ponds", sorted.get(0).getName());
+    }
+
     /**
      * This tests more advanced filters: multi-valued filters, opposite equations, field equations
      */
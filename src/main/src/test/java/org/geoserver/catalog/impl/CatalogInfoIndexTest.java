@@ -0,0 +1,117 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.junit.Test;
+
+/** Test suite for {@link CatalogInfoIndex} */
+public class CatalogInfoIndexTest {
+
+    @Test
+    public void testBuildRetriesOnConcurrentAdd() {
+        CatalogInfoIndex<StyleInfo> index = new CatalogInfoIndex<>("name", String.class);
+        StyleInfo s1 = create("s1", "line");
+        StyleInfo s2 = create("s2", "line");
+        List<StyleInfo> values = new ArrayList<>(List.of(s1));
+
+        // simulate an add landing after the snapshot, while the index is still invalid
+        AtomicInteger attempts = new AtomicInteger();
+        assertTrue(
+                index.build(
+                        () -> {
+                            Collection<StyleInfo> snapshot = new ArrayList<>(values);
+                            if (attempts.getAndIncrement() == 0) {
+                                values.add(s2);
+                                index.add(s2);
+                            }
+                            return snapshot;
+                        }));
+        assertEquals(2, attempts.get());
+        assertEquals(2, index.equalTo("line").size());
+    }
+
+    @Test
+    public void testBuildGivesUpOnContinuousModifications() {
+        CatalogInfoIndex<StyleInfo> index = new CatalogInfoIndex<>("name", String.class);
+        StyleInfo s1 = create("s1", "line");
+        assertFalse(
+                index.build(
+                        () -> {
+                            index.add(s1);
+                            return List.of(s1);
+                        }));
+        assertFalse(index.isValid());
+        assertNull(index.equalTo("line"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        CatalogInfoIndex<StyleInfo> index = new CatalogInfoIndex<>("name", String.class);
+        StyleInfo s1 = create("s1", "line");
+        assertTrue(index.build(() -> List.of(s1)));
+        assertEquals(List.of(s1), index.equalTo("line"));
+        assertEquals(List.of(s1), index.startsWith("li"));
+
+        index.invalidate();
+        assertNull(index.equalTo("line"));
+        assertNull(index.startsWith("li"));
+    }
+
+    @Test
+    public void testInvalidateOnDependencyChanges() {
+        CatalogInfoIndex<LayerInfo> index =
+                new CatalogInfoIndex<>(
+                        "resource.store.workspace.name",
+                        String.class,
+                        ResourceInfo.class,
+                        StoreInfo.class,
+                        WorkspaceInfo.class);
+        assertTrue(index.build(List::of));
+
+        // changes not touching the property path, or on unrelated objects, keep the index
+        index.invalidate(new FeatureTypeInfoImpl(null), List.of("title", "abstract"));
+        index.invalidate(new DataStoreInfoImpl(null), List.of("description", "enabled"));
+        index.invalidate(new NamespaceInfoImpl(), List.of("prefix"));
+        assertTrue(index.isValid());
+
+        // while moving a resource to another store, or renaming a workspace, do not
+        index.invalidate(new FeatureTypeInfoImpl(null), List.of("title", "store"));
+        assertFalse(index.isValid());
+        assertTrue(index.build(List::of));
+        index.invalidate(new WorkspaceInfoImpl(), List.of("name"));
+        assertFalse(index.isValid());
+
+        // derived properties depend on the ones they are computed from
+        CatalogInfoIndex<ResourceInfo> prefixed =
+                new CatalogInfoIndex<>("prefixedName", String.class, NamespaceInfo.class);
+        assertTrue(prefixed.build(List::of));
+        prefixed.invalidate(new NamespaceInfoImpl(), List.of("isolated"));
+        assertTrue(prefixed.isValid());
+        prefixed.invalidate(new NamespaceInfoImpl(), List.of("prefix"));
+        assertFalse(prefixed.isValid());
+    }
+
+    private StyleInfo create(String id, String name) {
+        StyleInfoImpl style = new StyleInfoImpl(null);
+        style.setId(id);
+        style.setName(name);
+        return style;
+    }
+}
@@ -0,0 +1,147 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.CatalogFacade;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Micro benchmark for the {@link DefaultCatalogFacade} name lookups, the cost per lookup is
+ * expected to stay flat as the number of layers grows. Not part of the test suite, run it from the
+ * IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.catalog.impl.CatalogLookupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogLookupBenchmark {
+
+    /** Number of workspaces the layers are spread into */
+    static final int WORKSPACES = 20;
+
+    @Param({"1000", "10000", "50000", "200000"})
+    int layers;
+
+    CatalogImpl catalog;
+
+    CatalogFacade facade;
+
+    String[] layerNames;
+
+    String[] prefixedNames;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        catalog = new CatalogImpl();
+        facade = catalog.getFacade();
+        layerNames = new String[layers];
+        prefixedNames = new String[layers];
+
+        WorkspaceInfoImpl[] workspaces = new WorkspaceInfoImpl[WORKSPACES];
+        NamespaceInfoImpl[] namespaces = new NamespaceInfoImpl[WORKSPACES];
+        DataStoreInfoImpl[] stores = new DataStoreInfoImpl[WORKSPACES];
+        for (int i = 0; i < WORKSPACES; i++) {
+            WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+            ws.setId("ws-" + i);
+            ws.setName("ws" + i);
+            facade.add(ws);
+            workspaces[i] = ws;
+
+            NamespaceInfoImpl ns = new NamespaceInfoImpl();
+            ns.setId("ns-" + i);
+            ns.setPrefix("ws" + i);
+            ns.setURI("http://www.geoserver.org/ws" + i);
+            facade.add(ns);
+            namespaces[i] = ns;
+
+            DataStoreInfoImpl ds = new DataStoreInfoImpl(catalog);
+            ds.setId("ds-" + i);
+            ds.setName("store" + i);
+            ds.setWorkspace(ws);
+            facade.add(ds);
+            stores[i] = ds;
+        }
+
+        for (int i = 0; i < layers; i++) {
+            int w = i % WORKSPACES;
+            FeatureTypeInfoImpl ft = new FeatureTypeInfoImpl(catalog);
+            ft.setId("ft-" + i);
+            ft.setName("layer" + i);
+            ft.setNamespace(namespaces[w]);
+            ft.setStore(stores[w]);
+            facade.add(ft);
+
+            LayerInfoImpl layer = new LayerInfoImpl();
+            layer.setId("layer-" + i);
+            layer.setResource(ft);
+            facade.add(layer);
+
+            layerNames[i] = ft.getName();
+            prefixedNames[i] = namespaces[w].getPrefix() + ":" + ft.getName();
+        }
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(layers);
+    }
+
+    @Benchmark
+    public LayerInfo layerByName() {
+        return facade.getLayerByName(layerNames[randomIndex()]);
+    }
+
+    @Benchmark
+    public LayerInfo layerByPrefixedName() {
+        return catalog.getLayerByName(prefixedNames[randomIndex()]);
+    }
+
+    @Benchmark
+    public FeatureTypeInfo resourceByNameAnyNamespace() {
+        return facade.getResourceByName(
+                CatalogFacade.ANY_NAMESPACE, layerNames[randomIndex()], FeatureTypeInfo.class);
+    }
+
+    @Benchmark
+    public StoreInfo storeByNameAnyWorkspace() {
+        int i = ThreadLocalRandom.current().nextInt(WORKSPACES);
+        return facade.getStoreByName(
+                CatalogFacade.ANY_WORKSPACE, "store" + i, DataStoreInfo.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(CatalogLookupBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -136,6 +136,27 @@ public void testLoadNestedLayerGroups() throws Exception {
         assertTrue(nestedLayerGroup.getLayers().get(1) instanceof LayerInfo);
     }
 
+    @Test
+    public void testParallelLoadReport() throws Exception {
+        System.setProperty(ParallelDepersister.PARALLELISM_KEY, "4");
+        try {
+            loader.readCatalog(catalog, xp);
+        } finally {
+            System.clearProperty(ParallelDepersister.PARALLELISM_KEY);
+        }
+
+        CatalogLoadReport report = loader.getCatalogLoadReport();
+        assertNotNull(report);
+        CatalogLoadReport.TypeReport groups = report.get(GeoServerLoader.LAYER_GROUPS);
+        assertEquals(catalog.getLayerGroups().size(), groups.getLoaded());
+        assertEquals(0, groups.getFailed());
+        assertEquals(catalog.getLayers().size(), report.get(GeoServerLoader.LAYERS).getLoaded());
+        assertEquals(
+                catalog.getWorkspaces().size(),
+                report.get(GeoServerLoader.WORKSPACES).getLoaded());
+        assertTrue(report.summary().contains("using 4 parsing threads"));
+    }
+
     @Test
     public void testLoadWithoutResaving() throws Exception {
         GeoServerImpl gs = new GeoServerImpl();
@@ -0,0 +1,180 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.security.AccessMode;
+import org.geotools.api.filter.Filter;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+public class AccessDecisionIndexTest {
+
+    AccessDecisionIndex index;
+
+    AtomicInteger evaluations;
+
+    BooleanSupplier evaluator;
+
+    @Before
+    public void setUp() {
+        index = new AccessDecisionIndex();
+        evaluations = new AtomicInteger();
+        evaluator =
+                () -> {
+                    evaluations.incrementAndGet();
+                    return true;
+                };
+    }
+
+    private Authentication user(String name, String... roles) {
+        GeoServerRole[] authorities =
+                Arrays.stream(roles).map(GeoServerRole::new).toArray(GeoServerRole[]::new);
+        return new UsernamePasswordAuthenticationToken(name, null, Arrays.asList(authorities));
+    }
+
+    @Test
+    public void testDecisionsSharedByRoleSet() {
+        Authentication bob = user("bob", "ROLE_A", "ROLE_B");
+        Authentication alice = user("alice", "ROLE_B", "ROLE_A");
+        Authentication carl = user("carl", "ROLE_A");
+
+        assertTrue(index.canAccess(bob, "r1", AccessMode.READ, true, false, evaluator));
+        assertTrue(index.canAccess(alice, "r1", AccessMode.READ, true, false, evaluator));
+        assertEquals(1, evaluations.get());
+
+        // different roles, mode, or layer group check
+        index.canAccess(carl, "r1", AccessMode.READ, true, false, evaluator);
+        index.canAccess(bob, "r1", AccessMode.WRITE, true, false, evaluator);
+        index.canAccess(bob, "r1", AccessMode.READ, true, true, evaluator);
+        index.canAccess(bob, "r1", AccessMode.READ, false, true, evaluator);
+        assertEquals(5, evaluations.get());
+
+        // direct access does not matter without the layer group check
+        index.canAccess(bob, "r1", AccessMode.READ, false, false, evaluator);
+        assertEquals(5, evaluations.get());
+        assertEquals(2, index.getHits());
+        assertEquals(5, index.getMisses());
+    }
+
+    @Test
+    public void testNegativeDecisions() {
+        Authentication bob = user("bob", "ROLE_A");
+        BooleanSupplier deny =
+                () -> {
+                    evaluations.incrementAndGet();
+                    return false;
+                };
+        assertFalse(index.canAccess(bob, "r1", AccessMode.READ, true, false, deny));
+        assertFalse(index.canAccess(bob, "r1", AccessMode.READ, true, false, evaluator));
+        assertEquals(1, evaluations.get());
+
+        // anonymous and users without roles share the same decisions
+        assertFalse(index.canAccess(null, "r1", AccessMode.READ, true, false, deny));
+        assertFalse(index.canAccess(user("nobody"), "r1", AccessMode.READ, true, false, deny));
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void testResourceChange() {
+        Authentication bob = user("bob", "ROLE_A");
+        index.canAccess(bob, "r1", AccessMode.READ, true, false, evaluator);
+        index.canAccess(bob, "r2", AccessMode.READ, true, false, evaluator);
+        index.getSecurityFilter(bob, LayerInfo.class, false, () -> Filter.EXCLUDE);
+        assertEquals(2, evaluations.get());
+
+        FeatureTypeInfo resource = mock(FeatureTypeInfo.class);
+        when(resource.getId()).thenReturn("r1");
+        CatalogModifyEvent event = mock(CatalogModifyEvent.class);
+        when(event.getSource()).thenReturn(resource);
+        index.handleModifyEvent(event);
+
+        // only the modified resource is evaluated again
+        index.canAccess(bob, "r1", AccessMode.READ, true, false, evaluator);
+        index.canAccess(bob, "r2", AccessMode.READ, true, false, evaluator);
+        assertEquals(3, evaluations.get());
+
+        // the filters refer to the layer names, they need to be rebuilt
+        assertSame(
+                Filter.INCLUDE,
+                index.getSecurityFilter(bob, LayerInfo.class, false, () -> Filter.INCLUDE));
+    }
+
+    @Test
+    public void testGroupAdded() {
+        Authentication bob = user("bob", "ROLE_A");
+        index.canAccess(bob, "r1", AccessMode.READ, true, true, evaluator);
+        index.canAccess(bob, "r2", AccessMode.READ, true, true, evaluator);
+        assertEquals(1, index.getDecisionSetCount());
+
+        CatalogAddEvent event = mock(CatalogAddEvent.class);
+        when(event.getSource()).thenReturn(mock(LayerGroupInfo.class));
+        index.handleAddEvent(event);
+        assertEquals(0, index.getDecisionSetCount());
+
+        index.canAccess(bob, "r1", AccessMode.READ, true, true, evaluator);
+        index.canAccess(bob, "r2", AccessMode.READ, true, true, evaluator);
+        assertEquals(4, evaluations.get());
+    }
+
+    @Test
+    public void testInvalidationDuringEvaluation() {
+        Authentication bob = user("bob", "ROLE_A");
+        // the rules change while the decision is being taken, it must not be stored
+        index.canAccess(
+                bob,
+                "r1",
+                AccessMode.READ,
+                true,
+                false,
+                () -> {
+                    index.invalidateAll();
+                    return evaluator.getAsBoolean();
+                });
+        index.canAccess(bob, "r1", AccessMode.READ, true, false, evaluator);
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void testFiltersPerRoleSet() {
+        Authentication bob = user("bob", "ROLE_A");
+        Authentication alice = user("alice", "ROLE_A");
+        AtomicInteger builds = new AtomicInteger();
+        Supplier<Filter> builder =
+                () -> {
+                    builds.incrementAndGet();
+                    return Filter.INCLUDE;
+                };
+        index.getSecurityFilter(bob, LayerInfo.class, false, builder);
+        index.getSecurityFilter(alice, LayerInfo.class, false, builder);
+        assertEquals(1, builds.get());
+
+        // admin requests and other classes have filters of their own
+        index.getSecurityFilter(alice, LayerInfo.class, true, builder);
+        index.getSecurityFilter(alice, LayerGroupInfo.class, false, builder);
+        assertEquals(3, builds.get());
+
+        index.invalidateAll();
+        index.getSecurityFilter(bob, LayerInfo.class, false, builder);
+        assertEquals(4, builds.get());
+    }
+}
@@ -4,16 +4,27 @@
  */
 package org.geoserver.security.impl;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Properties;
 import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.NamespaceInfo;
 import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.security.AccessMode;
 import org.geoserver.security.WorkspaceAccessLimits;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -39,4 +50,52 @@ public void getAccessLimits() {
 
         assertNotNull(workspaceAccessLimits);
     }
+
+    @Test
+    public void testDecisionIndexFollowsCatalogChanges() throws Exception {
+        CatalogImpl catalog = new CatalogImpl();
+        CatalogFactory factory = catalog.getFactory();
+        WorkspaceInfo ws = factory.createWorkspace();
+        ws.setName("topp");
+        catalog.add(ws);
+        NamespaceInfo ns = factory.createNamespace();
+        ns.setPrefix("topp");
+        ns.setURI("http://www.topp.org");
+        catalog.add(ns);
+        DataStoreInfo ds = factory.createDataStore();
+        ds.setName("ds");
+        ds.setWorkspace(ws);
+        catalog.add(ds);
+        FeatureTypeInfo ft = factory.createFeatureType();
+        ft.setName("states");
+        ft.setNativeName("states");
+        ft.setNamespace(ns);
+        ft.setStore(ds);
+        catalog.add(ft);
+
+        Properties props = new Properties();
+        props.put("topp.states.r", "ROLE_A");
+        DefaultResourceAccessManager manager =
+                new DefaultResourceAccessManager(
+                        new MemoryDataAccessRuleDAO(catalog, props), catalog);
+        assertNotNull(manager.decisionIndex);
+
+        Authentication bob =
+                new UsernamePasswordAuthenticationToken(
+                        "bob", null, Collections.singletonList(new GeoServerRole("ROLE_B")));
+        FeatureTypeInfo states = catalog.getFeatureTypeByName("topp", "states");
+        assertFalse(manager.canAccess(bob, states, AccessMode.READ, true));
+        assertFalse(manager.canAccess(bob, states, AccessMode.READ, true));
+        assertEquals(1, manager.decisionIndex.getHits());
+
+        // a pending rename is not in the catalog yet, the decision is not reused
+        states.setName("roads");
+        assertTrue(manager.canAccess(bob, states, AccessMode.READ, true));
+
+        // once saved, the decision taken for the old name is forgotten
+        catalog.save(states);
+        FeatureTypeInfo roads = catalog.getFeatureTypeByName("topp", "roads");
+        assertTrue(manager.canAccess(bob, roads, AccessMode.READ, true));
+        assertEquals(1, manager.decisionIndex.getHits());
+    }
 }
@@ -0,0 +1,164 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.security.SecureCatalogImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Measures the time needed to list the layers of a secured catalog, as a capabilities document
+ * does, with and without data security rules, and with and without the {@link
+ * AccessDecisionIndex}. Not part of the test suite, run it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.security.impl.SecureCatalogBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecureCatalogBenchmark {
+
+    @Param({"1000", "10000"})
+    int layers;
+
+    /** With rules, a workspace rule and one every ten layers, without, everything is open */
+    @Param({"false", "true"})
+    boolean rules;
+
+    @Param({"false", "true"})
+    boolean index;
+
+    SecureCatalogImpl secureCatalog;
+
+    DefaultResourceAccessManager manager;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        CatalogImpl catalog = new CatalogImpl();
+        populate(catalog);
+
+        Properties props = new Properties();
+        if (rules) {
+            props.put("topp.*.r", "ROLE_A,ROLE_B");
+            for (int i = 0; i < layers; i += 10) {
+                props.put("topp.layer" + i + ".r", "ROLE_B");
+            }
+        }
+        manager =
+                new DefaultResourceAccessManager(
+                        new MemoryDataAccessRuleDAO(catalog, props), catalog);
+        if (!index && manager.decisionIndex != null) {
+            catalog.removeListener(manager.decisionIndex);
+            manager.decisionIndex = null;
+        }
+        secureCatalog =
+                new SecureCatalogImpl(catalog, manager) {
+                    @Override
+                    protected boolean isAdmin(Authentication authentication) {
+                        return false;
+                    }
+                };
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(
+                                "bob",
+                                null,
+                                Collections.singletonList(new GeoServerRole("ROLE_A"))));
+    }
+
+    private void populate(CatalogImpl catalog) {
+        CatalogFactory factory = catalog.getFactory();
+        WorkspaceInfo ws = factory.createWorkspace();
+        ws.setName("topp");
+        catalog.add(ws);
+        NamespaceInfo ns = factory.createNamespace();
+        ns.setPrefix("topp");
+        ns.setURI("http://www.topp.org");
+        catalog.add(ns);
+        DataStoreInfo ds = factory.createDataStore();
+        ds.setName("ds");
+        ds.setWorkspace(ws);
+        catalog.add(ds);
+        StyleInfo style = factory.createStyle();
+        style.setName("point");
+        style.setFilename("point.sld");
+        catalog.add(style);
+
+        for (int i = 0; i < layers; i++) {
+            FeatureTypeInfo ft = factory.createFeatureType();
+            ft.setName("layer" + i);
+            ft.setNativeName("layer" + i);
+            ft.setNamespace(ns);
+            ft.setStore(ds);
+            catalog.add(ft);
+            LayerInfo layer = factory.createLayer();
+            layer.setResource(ft);
+            layer.setDefaultStyle(style);
+            catalog.add(layer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (manager.decisionIndex != null) {
+            System.out.println(
+                    "Index hits: "
+                            + manager.decisionIndex.getHits()
+                            + ", misses: "
+                            + manager.decisionIndex.getMisses());
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    /** Lists the layers the user can see, returns their number */
+    @Benchmark
+    public int listLayers() {
+        return secureCatalog.getLayers().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(SecureCatalogBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -7,6 +7,11 @@
 
 import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
@@ -21,6 +26,7 @@
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -30,7 +36,10 @@
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.http.HttpServletRequest;
@@ -65,6 +74,8 @@
 import org.geotools.xsd.EMFUtils;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.AbstractController;
@@ -117,7 +128,8 @@
  *
  * @author Justin Deoliveira, The Open Planning Project, jdeolive@openplans.org
  */
-public class Dispatcher extends AbstractController {
+public class Dispatcher extends AbstractController
+        implements ApplicationListener<ContextRefreshedEvent> {
     /** Logging instance */
     static Logger logger = Logging.getLogger("org.geoserver.ows");
 
@@ -143,6 +155,29 @@ public class Dispatcher extends AbstractController {
     /** SOAP mime type */
     static final String SOAP_MIME = "application/soap+xml";
 
+    /** Upper bound for the lookup caches keyed on request provided strings */
+    static final int LOOKUP_CACHE_SIZE = 1024;
+
+    /**
+     * The responses whose binding is compatible with a given result class, in extension order.
+     * {@link Response#canHandle(Operation)} and the output formats are still checked on each
+     * request, as they can depend on the operation and on the configuration
+     */
+    final Cache<Class<?>, List<Response>> responseCandidates =
+            CacheBuilder.newBuilder().weakKeys().build();
+
+    /** Service lookups, keyed on service id, version and namespace */
+    final Cache<List<String>, Optional<Service>> serviceLookups =
+            CacheBuilder.newBuilder().maximumSize(LOOKUP_CACHE_SIZE).build();
+
+    /** KVP reader lookups, keyed on request bean class */
+    final Cache<Class<?>, Optional<KvpRequestReader>> kvpReaderLookups =
+            CacheBuilder.newBuilder().weakKeys().build();
+
+    /** XML reader lookups, keyed on namespace, element, service and version */
+    final Cache<List<String>, Optional<XmlRequestReader>> xmlReaderLookups =
+            CacheBuilder.newBuilder().maximumSize(LOOKUP_CACHE_SIZE).build();
+
     private Method getEntityResolver = null;
 
     {
@@ -205,6 +240,30 @@ protected void initApplicationContext(ApplicationContext context) {
         }
     }
 
+    /** Drops the memoized lookups, the set of extensions may have changed */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        clearLookupCaches();
+    }
+
+    /** Drops the memoized service, reader and response lookups */
+    public void clearLookupCaches() {
+        responseCandidates.invalidateAll();
+        serviceLookups.invalidateAll();
+        kvpReaderLookups.invalidateAll();
+        xmlReaderLookups.invalidateAll();
+    }
+
+    /** Looks up a value in one of the lookup caches, computing it if missing */
+    static <K, V> V lookup(Cache<K, V> cache, K key, Callable<V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     protected void preprocessRequest(HttpServletRequest request) throws Exception {
         // set the charset
 
@@ -925,18 +984,15 @@ Object fireOperationExecutedCallback(Request req, Operation op, Object result) {
     void response(Object result, Request req, Operation opDescriptor) throws Throwable {
         // step 6: write response
         if (result != null) {
-            // look up respones
-            List<Response> responses = GeoServerExtensions.extensions(Response.class);
+            // look up responses, already filtered by binding
+            List<Response> responses = new ArrayList<>(findResponseCandidates(result.getClass()));
 
-            // first filter by binding, and canHandle
+            // then filter by canHandle
             O:
             for (Iterator itr = responses.iterator(); itr.hasNext(); ) {
                 Response response = (Response) itr.next();
 
-                Class<?> binding = response.getBinding();
-
-                if (!binding.isAssignableFrom(result.getClass())
-                        || !response.canHandle(opDescriptor)) {
+                if (!response.canHandle(opDescriptor)) {
                     itr.remove();
 
                     continue;
@@ -1160,6 +1216,22 @@ Response fireResponseDispatchedCallback(
         return response;
     }
 
+    /** Returns the responses whose binding is compatible with the given result class */
+    List<Response> findResponseCandidates(Class<?> resultClass) {
+        return lookup(
+                responseCandidates,
+                resultClass,
+                () -> {
+                    List<Response> matches = new ArrayList<>();
+                    for (Response response : GeoServerExtensions.extensions(Response.class)) {
+                        if (response.getBinding().isAssignableFrom(resultClass)) {
+                            matches.add(response);
+                        }
+                    }
+                    return ImmutableList.copyOf(matches);
+                });
+    }
+
     Collection<Service> loadServices() {
         Collection<Service> services = GeoServerExtensions.extensions(Service.class);
 
@@ -1172,6 +1244,14 @@ Collection<Service> loadServices() {
     }
 
     Service findService(String id, String ver, String namespace) throws ServiceException {
+        return lookup(
+                        serviceLookups,
+                        Arrays.asList(id, ver, namespace),
+                        () -> Optional.ofNullable(lookupService(id, ver, namespace)))
+                .orElse(null);
+    }
+
+    Service lookupService(String id, String ver, String namespace) throws ServiceException {
         Version version = (ver != null) ? new Version(ver) : null;
         Collection<Service> services = loadServices();
 
@@ -1538,7 +1618,12 @@ Map<String, Object> parseKVP(Request req, Map<String, Object> kvp) {
     }
 
     Object parseRequestKVP(Class<?> type, Request request) throws Exception {
-        KvpRequestReader kvpReader = findKvpRequestReader(type);
+        KvpRequestReader kvpReader =
+                lookup(
+                                kvpReaderLookups,
+                                type,
+                                () -> Optional.ofNullable(findKvpRequestReader(type)))
+                        .orElse(null);
 
         if (kvpReader != null) {
             Object requestBean = kvpReader.createRequest();
@@ -1575,7 +1660,14 @@ Object parseRequestXML(Object requestBean, BufferedReader input, Request request
         String version = request.getVersion();
         String service = request.getService();
 
-        XmlRequestReader xmlReader = findXmlReader(namespace, element, service, version);
+        XmlRequestReader xmlReader =
+                lookup(
+                                xmlReaderLookups,
+                                Arrays.asList(namespace, element, service, version),
+                                () ->
+                                        Optional.ofNullable(
+                                                findXmlReader(namespace, element, service, version)))
+                        .orElse(null);
         if (xmlReader == null) {
             // no xml reader, just return object passed in
             return requestBean;
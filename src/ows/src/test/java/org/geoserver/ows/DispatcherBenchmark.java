@@ -0,0 +1,138 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.platform.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Measures the {@link Dispatcher} overhead of a trivial KVP request when many {@link Response}
+ * beans are registered, as in a GeoServer with a number of extensions installed, with and without
+ * the memoized service, reader and response lookups. Not part of the test suite, run it from the
+ * IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.ows.DispatcherBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatcherBenchmark {
+
+    /** Bindings of the additional responses, none of them matching the dispatched result */
+    static final Class<?>[] BINDINGS = {
+        String.class, Integer.class, Double.class, Date.class, Map.class, Object[].class
+    };
+
+    @Param({"50", "250"})
+    int responses;
+
+    @Param({"true", "false"})
+    boolean memoized;
+
+    GenericApplicationContext context;
+
+    Dispatcher dispatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new GenericApplicationContext();
+        new XmlBeanDefinitionReader(context)
+                .loadBeanDefinitions(
+                        DispatcherBenchmark.class.getResource("applicationContext.xml").toString());
+        for (int i = 0; i < responses; i++) {
+            Class<?> binding = BINDINGS[i % BINDINGS.length];
+            String format = "format-" + i;
+            context.registerBean(
+                    "response" + i, FormatResponse.class, () -> new FormatResponse(binding, format));
+        }
+        context.refresh();
+        dispatcher = context.getBean(Dispatcher.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse dispatch() throws Exception {
+        if (!memoized) {
+            dispatcher.clearLookupCaches();
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme("http");
+        request.setServerName("localhost");
+        request.setContextPath("/geoserver");
+        request.setRequestURI("/geoserver/ows");
+        request.setMethod("GET");
+        request.addParameter("service", "hello");
+        request.addParameter("request", "Hello");
+        request.addParameter("version", "1.0.0");
+        request.addParameter("message", "Hello world!");
+        request.setQueryString("service=hello&request=Hello&version=1.0.0&message=Hello world!");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        dispatcher.handleRequest(request, response);
+        return response;
+    }
+
+    /** A response for some other kind of result, with its own output format */
+    public static class FormatResponse extends Response {
+
+        public FormatResponse(Class<?> binding, String format) {
+            super(binding, Collections.singleton(format));
+        }
+
+        @Override
+        public String getMimeType(Object value, Operation operation) {
+            return "text/plain";
+        }
+
+        @Override
+        public void write(Object value, OutputStream output, Operation operation)
+                throws IOException {
+            output.write(String.valueOf(value).getBytes());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(DispatcherBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -27,6 +27,7 @@
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.mail.internet.InternetHeaders;
@@ -42,6 +43,7 @@
 import org.geotools.util.Version;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.support.FileSystemXmlApplicationContext;
 import org.springframework.mock.web.DelegatingServletInputStream;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -1259,4 +1261,33 @@ public void testErrorThrowingResponse() throws Exception {
             Assert.assertEquals("ows:ExceptionReport", dom.getDocumentElement().getNodeName());
         }
     }
+
+    @Test
+    public void testLookupsMemoized() throws Exception {
+        URL url = getClass().getResource("applicationContext.xml");
+
+        try (FileSystemXmlApplicationContext context =
+                new FileSystemXmlApplicationContext(url.toString())) {
+            Dispatcher dispatcher = (Dispatcher) context.getBean("dispatcher");
+
+            List<Response> responses = dispatcher.findResponseCandidates(Message.class);
+            assertEquals(1, responses.size());
+            assertTrue(responses.get(0) instanceof MessageResponse);
+            assertSame(responses, dispatcher.findResponseCandidates(Message.class));
+            assertTrue(dispatcher.findResponseCandidates(String.class).isEmpty());
+
+            Service service = dispatcher.findService("hello", "1.0.0", null);
+            assertEquals("hello", service.getId());
+            assertSame(service, dispatcher.findService("hello", "1.0.0", null));
+            Assert.assertNull(dispatcher.findService("foo", null, null));
+            // misses are memoized as well
+            Assert.assertNull(dispatcher.findService("foo", null, null));
+            assertEquals(2, dispatcher.serviceLookups.size());
+
+            // a context refresh drops the memoized lookups
+            dispatcher.onApplicationEvent(new ContextRefreshedEvent(context));
+            assertEquals(0, dispatcher.serviceLookups.size());
+            assertEquals(0, dispatcher.responseCandidates.size());
+        }
+    }
 }
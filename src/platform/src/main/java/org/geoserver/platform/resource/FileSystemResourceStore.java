@@ -550,15 +550,16 @@ public void setContents(byte[] byteArray) throws IOException {
     public ResourceNotificationDispatcher getResourceNotificationDispatcher() {
         FileSystemWatcher instance = this.watcher.get();
         if (instance == null) {
-            // lazily initialize the FileSystemWatcher in a thread contention free way,
-            // creating a single instance
-            instance =
-                    watcher.updateAndGet(
-                            v ->
-                                    v == null
-                                            ? new FileSystemWatcher(
-                                                    path -> new File(baseDirectory, path))
-                                            : v);
+            // lazily initialize the FileSystemWatcher creating a single instance, the native one
+            // holds a WatchService that would leak if created and then discarded
+            synchronized (watcher) {
+                instance = watcher.get();
+                if (instance == null) {
+                    instance =
+                            NativeFileSystemWatcher.create(path -> new File(baseDirectory, path));
+                    watcher.set(instance);
+                }
+            }
         }
         return instance;
     }
@@ -38,9 +38,10 @@
 /**
  * Active object (using a ScheduledExecutorService) used to watch file system for changes.
  *
- * <p>This implementation currently polls the file system and should be updated with Java 7
- * WatchService when available. The internal design is similar to WatchService, WatchKey and
- * WatchEvent in order to facilitate this transition.
+ * <p>This implementation polls the file system, {@link NativeFileSystemWatcher} uses the Java 7
+ * WatchService instead, and falls back on this implementation only for file systems that do not
+ * deliver native notifications. The internal design is similar to WatchService, WatchKey and
+ * WatchEvent.
  *
  * <p>This implementation makes a few concessions to being associated with ResourceStore, reporting
  * changes with resource paths rather than files.
@@ -312,7 +313,7 @@ public boolean isMatch(File file, String path) {
 
     private ScheduledExecutorService pool;
 
-    private final Function<String, File> fileExtractor;
+    final Function<String, File> fileExtractor;
 
     protected long lastmodified;
 
@@ -295,7 +295,8 @@ public boolean isInternal() {
      *
      * <p>Each file is monitored for change.
      */
-    static final FileSystemWatcher watcher = new FileSystemWatcher();
+    static final FileSystemWatcher watcher =
+            NativeFileSystemWatcher.create(path -> new File(path.replace('/', File.separatorChar)));
 
     private Files() {
         // utility class do not subclass
@@ -0,0 +1,527 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.platform.resource;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.platform.resource.ResourceNotification.Kind;
+import org.geotools.util.logging.Logging;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * {@link FileSystemWatcher} relying on the native file system notifications provided by {@link
+ * WatchService}, instead of polling the watched files.
+ *
+ * <p>Being a directory level service, the parent directory of each watched resource is registered,
+ * to catch its creation, modification and removal. Watched directories are registered along with
+ * their direct sub-directories, so that changes to the contents of a child directory show up as a
+ * modification of the child, the same as the polling watcher reports them. Missing parents are
+ * registered as soon as they are created, recursively, so that resources not existing yet can be
+ * watched as well.
+ *
+ * <p>Events are coalesced, the notifications are sent once no new events have been received for a
+ * short delay (or at most once a second during continuous changes), with a single notification per
+ * watched resource summarizing all the changes.
+ *
+ * <p>Resources on file systems that are known not to deliver native notifications (network file
+ * systems, or platforms whose {@link WatchService} is itself polling based) are handed over to the
+ * polling implementation, the same happens if the native registration fails (e.g., because the
+ * inotify watch limit has been reached).
+ */
+public class NativeFileSystemWatcher extends FileSystemWatcher {
+
+    private static final Logger LOGGER = Logging.getLogger(NativeFileSystemWatcher.class);
+
+    /**
+     * System property/environment variable choosing the file system watcher, either {@code native}
+     * (the default, falling back on polling where needed) or {@code polling}
+     */
+    public static final String WATCHER_KEY = "org.geoserver.platform.resource.watcher";
+
+    /** File store types not delivering notifications for changes made by other hosts */
+    static final Set<String> POLLING_FILE_STORE_TYPES =
+            new HashSet<>(
+                    Arrays.asList(
+                            "nfs", "nfs4", "cifs", "smb", "smb2", "smbfs", "fuse.sshfs", "9p",
+                            "vboxsf", "prl_fs", "ceph", "glusterfs", "fuse.glusterfs", "lustre"));
+
+    /** Maximum time events are coalesced during continuous changes */
+    static final long MAX_COALESCING_MILLIS = 1000;
+
+    private static CustomizableThreadFactory tFactory;
+
+    static {
+        tFactory = new CustomizableThreadFactory("NativeFileSystemWatcher-");
+        tFactory.setDaemon(true);
+    }
+
+    /** Record of the listeners of a watched path, and of the last notified state */
+    private static class Watch {
+        final File file;
+
+        final Path target;
+
+        final String path;
+
+        final List<ResourceListener> listeners = new CopyOnWriteArrayList<>();
+
+        /** Existence of the resource as last notified */
+        boolean exists;
+
+        /** Names of the directory contents as last notified, null if not a directory */
+        Set<String> children;
+
+        Watch(File file, String path) {
+            this.file = file;
+            this.target = file.toPath().toAbsolutePath().normalize();
+            this.path = path;
+            this.exists = file.exists();
+            if (file.isDirectory()) {
+                this.children = new HashSet<>();
+                String[] names = file.list();
+                if (names != null) {
+                    Collections.addAll(children, names);
+                }
+            }
+        }
+
+        boolean isMatch(File file, String path) {
+            return this.file.equals(file) && this.path.equals(path);
+        }
+
+        /**
+         * Computes the notification for the changed paths, updating the state, or returns null if
+         * nothing changed for this resource.
+         */
+        ResourceNotification changed(Set<Path> changes, boolean overflow) {
+            boolean self = overflow;
+            Set<String> touched = new LinkedHashSet<>();
+            for (Path p : changes) {
+                if (p.equals(target)) {
+                    self = true;
+                } else if (p.startsWith(target)) {
+                    touched.add(target.relativize(p).getName(0).toString());
+                }
+            }
+
+            if (!file.exists()) {
+                if (!exists) {
+                    return null;
+                }
+                exists = false;
+                List<String> removed =
+                        children == null ? Collections.emptyList() : new ArrayList<>(children);
+                children = null;
+                return new ResourceNotification(
+                        path,
+                        Kind.ENTRY_DELETE,
+                        System.currentTimeMillis(),
+                        ResourceNotification.delta(file, null, removed, null));
+            }
+
+            if (file.isDirectory()) {
+                if (children == null) {
+                    children = new HashSet<>();
+                }
+                if (overflow) {
+                    String[] names = file.list();
+                    if (names != null) {
+                        touched.addAll(Arrays.asList(names));
+                    }
+                    touched.addAll(children);
+                }
+                List<String> created = new ArrayList<>();
+                List<String> removed = new ArrayList<>();
+                List<String> modified = new ArrayList<>();
+                for (String name : touched) {
+                    boolean known = children.contains(name);
+                    boolean present = new File(file, name).exists();
+                    if (known && present) {
+                        // on overflow only report the contents that actually changed
+                        if (!overflow || changes.contains(target.resolve(name))) {
+                            modified.add(name);
+                        }
+                    } else if (present) {
+                        created.add(name);
+                        children.add(name);
+                    } else if (known) {
+                        removed.add(name);
+                        children.remove(name);
+                    }
+                }
+                if (created.isEmpty() && removed.isEmpty() && modified.isEmpty()) {
+                    // same as the polling watcher, no notification for the creation of an empty
+                    // directory or changes to the directory itself
+                    return null;
+                }
+                Kind kind = exists ? Kind.ENTRY_MODIFY : Kind.ENTRY_CREATE;
+                exists = true;
+                return new ResourceNotification(
+                        path,
+                        kind,
+                        file.lastModified(),
+                        ResourceNotification.delta(file, created, removed, modified));
+            }
+
+            // a plain file
+            if (!self && exists) {
+                return null;
+            }
+            Kind kind = exists ? Kind.ENTRY_MODIFY : Kind.ENTRY_CREATE;
+            exists = true;
+            children = null;
+            return new ResourceNotification(path, kind, file.lastModified());
+        }
+
+        @Override
+        public String toString() {
+            return "Watch [path="
+                    + path
+                    + ", file="
+                    + file
+                    + ", listeners="
+                    + listeners.size()
+                    + "]";
+        }
+    }
+
+    private final WatchService service;
+
+    private final Map<Path, WatchKey> keys = new ConcurrentHashMap<>();
+
+    private final List<Watch> watches = new CopyOnWriteArrayList<>();
+
+    /** Files handed over to the polling watcher */
+    private final Set<File> polled = ConcurrentHashMap.newKeySet();
+
+    private Thread dispatcher;
+
+    private volatile long coalescingDelay = 100;
+
+    /**
+     * Creates the file system watcher configured by {@link #WATCHER_KEY}, a native one unless
+     * polling is requested or the platform does not provide native notifications.
+     */
+    public static FileSystemWatcher create(Function<String, File> fileExtractor) {
+        String type = System.getProperty(WATCHER_KEY, System.getenv(WATCHER_KEY));
+        if (type != null && "polling".equalsIgnoreCase(type.trim())) {
+            return new FileSystemWatcher(fileExtractor);
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            // e.g., the JDK WatchService on macOS
+            if (service.getClass().getSimpleName().startsWith("Polling")) {
+                service.close();
+                LOGGER.config("No native file system notifications, polling for changes");
+                return new FileSystemWatcher(fileExtractor);
+            }
+            return new NativeFileSystemWatcher(fileExtractor, service);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.log(Level.WARNING, "Unable to create a WatchService, polling for changes", e);
+            return new FileSystemWatcher(fileExtractor);
+        }
+    }
+
+    NativeFileSystemWatcher(Function<String, File> fileExtractor, WatchService service) {
+        super(fileExtractor);
+        this.service = Objects.requireNonNull(service);
+    }
+
+    /**
+     * Sets the delay without new events after which the coalesced notifications are sent, to
+     * allow test cases to set a shorter delay.
+     */
+    public void setCoalescingDelay(long delay, TimeUnit unit) {
+        this.coalescingDelay = Math.max(1, unit.toMillis(delay));
+    }
+
+    private Watch watch(File file, String path) {
+        for (Watch watch : watches) {
+            if (watch.isMatch(file, path)) {
+                return watch;
+            }
+        }
+        return null; // not found
+    }
+
+    @Override
+    public synchronized void addListener(String path, ResourceListener listener) {
+        Objects.requireNonNull(path, "Path for notification is required");
+        File file = fileExtractor.apply(path);
+        Objects.requireNonNull(file, "File to watch is required");
+        Watch watch = watch(file, path);
+        if (watch == null) {
+            if (polled.contains(file) || !supportsNativeNotifications(file)) {
+                polled.add(file);
+                super.addListener(path, listener);
+                return;
+            }
+            watch = new Watch(file, path);
+            try {
+                register(watch);
+            } catch (IOException e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Unable to register " + file + " for notifications, polling for changes",
+                        e);
+                polled.add(file);
+                super.addListener(path, listener);
+                return;
+            }
+            watches.add(watch);
+            if (dispatcher == null) {
+                dispatcher = tFactory.newThread(this::dispatch);
+                dispatcher.start();
+            }
+        }
+        watch.listeners.add(listener);
+    }
+
+    @Override
+    public synchronized boolean removeListener(String path, ResourceListener listener) {
+        Objects.requireNonNull(path, "Path for notification is required");
+        File file = fileExtractor.apply(path);
+        Objects.requireNonNull(file, "File to watch is required");
+
+        Watch watch = watch(file, path);
+        if (watch == null) {
+            return super.removeListener(path, listener);
+        }
+        watch.listeners.remove(listener);
+        boolean removed = false;
+        if (watch.listeners.isEmpty()) {
+            removed = watches.remove(watch);
+            unregisterUnused();
+        }
+        return removed;
+    }
+
+    /** Checks the file store type of the file, or of its closest existing ancestor */
+    static boolean supportsNativeNotifications(File file) {
+        Path path = file.toPath().toAbsolutePath();
+        while (path != null && !Files.exists(path)) {
+            path = path.getParent();
+        }
+        if (path == null) {
+            return true;
+        }
+        try {
+            String type = Files.getFileStore(path).type();
+            return type == null
+                    || !POLLING_FILE_STORE_TYPES.contains(type.toLowerCase(Locale.ENGLISH));
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Unable to determine the file store of " + path, e);
+            return true;
+        }
+    }
+
+    /** Registers the directories needed to follow the changes of the watched resource */
+    private void register(Watch watch) throws IOException {
+        Path target = watch.target;
+        if (Files.isDirectory(target)) {
+            register(target);
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(target)) {
+                for (Path child : children) {
+                    if (Files.isDirectory(child)) {
+                        register(child);
+                    }
+                }
+            }
+        }
+        // the parent reports the creation and removal of the resource, if missing the closest
+        // existing ancestor reports the creation of the missing directories
+        Path parent = target.getParent();
+        while (parent != null && !Files.isDirectory(parent)) {
+            parent = parent.getParent();
+        }
+        if (parent != null) {
+            register(parent);
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        synchronized (keys) {
+            if (!keys.containsKey(directory)) {
+                keys.put(
+                        directory,
+                        directory.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+            }
+        }
+    }
+
+    /**
+     * Whether the directory needs to be registered, being a watched directory, a direct child of
+     * one, or an ancestor of a watched resource
+     */
+    private boolean isNeeded(Path directory) {
+        for (Watch watch : watches) {
+            if (watch.target.startsWith(directory) || watch.target.equals(directory.getParent())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void unregisterUnused() {
+        synchronized (keys) {
+            keys.entrySet()
+                    .removeIf(
+                            e -> {
+                                if (isNeeded(e.getKey())) {
+                                    return false;
+                                }
+                                e.getValue().cancel();
+                                return true;
+                            });
+        }
+    }
+
+    /** Dispatcher thread loop, collects and coalesces the events and notifies the listeners */
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WatchKey key = service.take();
+                Set<Path> changes = new LinkedHashSet<>();
+                boolean overflow = collect(key, changes);
+                long deadline =
+                        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_COALESCING_MILLIS);
+                while (System.nanoTime() < deadline
+                        && (key = service.poll(coalescingDelay, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(key, changes);
+                }
+                for (Watch watch : watches) {
+                    ResourceNotification notification = watch.changed(changes, overflow);
+                    if (notification != null) {
+                        notify(watch, notification);
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error processing file system notifications", e);
+            }
+        }
+    }
+
+    /**
+     * Collects the paths changed in the key directory
+     *
+     * @return true if events have been lost
+     */
+    private boolean collect(WatchKey key, Set<Path> changes) {
+        boolean overflow = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                LOGGER.fine("File system notifications lost for " + directory);
+                overflow = true;
+            } else {
+                Path changed = directory.resolve((Path) event.context());
+                if (event.kind() == ENTRY_CREATE) {
+                    created(changed, changes);
+                } else {
+                    changes.add(changed);
+                }
+            }
+        }
+        if (!key.reset()) {
+            // directory removed, or no longer accessible
+            keys.remove(directory, key);
+        }
+        return overflow;
+    }
+
+    /**
+     * Registers the created directory if needed, along with the contents that may have been
+     * created before the registration took place
+     */
+    private void created(Path path, Set<Path> changes) {
+        changes.add(path);
+        if (!Files.isDirectory(path) || keys.containsKey(path) || !isNeeded(path)) {
+            return;
+        }
+        try {
+            register(path);
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    created(child, changes);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to register " + path + " for notifications", e);
+        }
+    }
+
+    private void notify(Watch watch, ResourceNotification notification) {
+        if (LOGGER.isLoggable(Level.CONFIG)) {
+            LOGGER.config(
+                    String.format(
+                            "Notifying %s change on %s. Events: %,d",
+                            notification.getKind(), watch.file, notification.events().size()));
+        }
+        // do not call listeners on the dispatcher thread, they may take a
+        // considerable amount of time to process the events
+        CompletableFuture.runAsync(
+                () -> {
+                    for (ResourceListener listener : watch.listeners) {
+                        try {
+                            listener.changed(notification);
+                        } catch (Throwable t) {
+                            Logger logger =
+                                    Logger.getLogger(listener.getClass().getPackage().getName());
+                            logger.log(
+                                    Level.FINE,
+                                    "Unable to notify " + watch + ":" + t.getMessage(),
+                                    t);
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        try {
+            service.close();
+            synchronized (this) {
+                if (dispatcher != null) {
+                    dispatcher.interrupt();
+                    dispatcher = null;
+                }
+            }
+        } finally {
+            super.destroy();
+        }
+    }
+}
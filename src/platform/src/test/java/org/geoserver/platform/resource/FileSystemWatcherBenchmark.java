@@ -0,0 +1,172 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.platform.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the native and polling {@link FileSystemWatcher} implementations. Each directory of a
+ * generated tree is watched, the benchmark measures the latency between the modification of a
+ * random file and the notification of its directory listener, while the CPU time used by the
+ * watcher threads while idle and during the run is printed at the end of each trial. Not part of
+ * the test suite, run it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.platform.resource.FileSystemWatcherBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class FileSystemWatcherBenchmark {
+
+    /** Files in each watched directory */
+    static final int FILES_PER_DIRECTORY = 20;
+
+    /** Polling delay, shorter than the 5 seconds default to keep the benchmark run time low */
+    static final long POLLING_DELAY_MS = 1000;
+
+    /** Time spent idle to measure the background CPU usage */
+    static final long IDLE_MS = 10_000;
+
+    @Param({"native", "polling"})
+    String watcherType;
+
+    @Param({"100", "1000"})
+    int directories;
+
+    File root;
+
+    FileSystemWatcher watcher;
+
+    BlockingQueue<String> notified = new LinkedBlockingQueue<>();
+
+    long cpuStart;
+
+    long wallStart;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        root = java.nio.file.Files.createTempDirectory("watcher-benchmark").toFile();
+        for (int d = 0; d < directories; d++) {
+            File dir = new File(root, "dir" + d);
+            dir.mkdir();
+            for (int f = 0; f < FILES_PER_DIRECTORY; f++) {
+                new File(dir, "file" + f).createNewFile();
+            }
+        }
+
+        System.setProperty(NativeFileSystemWatcher.WATCHER_KEY, watcherType);
+        try {
+            watcher = NativeFileSystemWatcher.create(path -> new File(root, path));
+        } finally {
+            System.clearProperty(NativeFileSystemWatcher.WATCHER_KEY);
+        }
+        watcher.schedule(POLLING_DELAY_MS, TimeUnit.MILLISECONDS);
+        for (int d = 0; d < directories; d++) {
+            String path = "dir" + d;
+            watcher.addListener(path, n -> notified.add(path));
+        }
+
+        long idleStart = watcherCpuNanos();
+        Thread.sleep(IDLE_MS);
+        System.out.printf(
+                Locale.ENGLISH,
+                "%n%s watcher, %,d directories, idle CPU: %.2f ms per second%n",
+                watcher.getClass().getSimpleName(),
+                directories,
+                (watcherCpuNanos() - idleStart) / 1e6 / (IDLE_MS / 1000d));
+
+        cpuStart = watcherCpuNanos();
+        wallStart = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        double seconds = (System.nanoTime() - wallStart) / 1e9;
+        System.out.printf(
+                Locale.ENGLISH,
+                "%n%s watcher, %,d directories, CPU under load: %.2f ms per second%n",
+                watcher.getClass().getSimpleName(),
+                directories,
+                (watcherCpuNanos() - cpuStart) / 1e6 / seconds);
+        watcher.destroy();
+        try (Stream<Path> paths = java.nio.file.Files.walk(root.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /** CPU time used so far by the watcher threads */
+    static long watcherCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null
+                    && (info.getThreadName().startsWith("FileSystemWatcher-")
+                            || info.getThreadName().startsWith("NativeFileSystemWatcher-"))) {
+                long cpu = threads.getThreadCpuTime(info.getThreadId());
+                if (cpu > 0) {
+                    total += cpu;
+                }
+            }
+        }
+        return total;
+    }
+
+    /** Modifies a random file and waits for the notification of its directory */
+    @Benchmark
+    public String notificationLatency() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String path = "dir" + random.nextInt(directories);
+        File file = new File(new File(root, path), "file" + random.nextInt(FILES_PER_DIRECTORY));
+        notified.clear();
+        java.nio.file.Files.write(file.toPath(), new byte[] {(byte) random.nextInt()});
+        String received;
+        do {
+            received = notified.poll(30, TimeUnit.SECONDS);
+        } while (received != null && !received.equals(path));
+        return received;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(FileSystemWatcherBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -0,0 +1,154 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.platform.resource;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.geoserver.platform.resource.ResourceNotification.Event;
+import org.geoserver.platform.resource.ResourceNotification.Kind;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NativeFileSystemWatcherTest {
+
+    private static final int MAX_WAIT_SEC = 20;
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    FileSystemWatcher watcher;
+
+    List<ResourceNotification> notifications = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        watcher = NativeFileSystemWatcher.create(path -> new File(folder.getRoot(), path));
+        assumeTrue(
+                "Native file system notifications not available",
+                watcher instanceof NativeFileSystemWatcher
+                        && NativeFileSystemWatcher.supportsNativeNotifications(folder.getRoot()));
+        ((NativeFileSystemWatcher) watcher).setCoalescingDelay(50, MILLISECONDS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.destroy();
+        }
+    }
+
+    @Test
+    public void testPollingConfiguration() throws Exception {
+        System.setProperty(NativeFileSystemWatcher.WATCHER_KEY, "polling");
+        try {
+            FileSystemWatcher polling =
+                    NativeFileSystemWatcher.create(path -> new File(folder.getRoot(), path));
+            try {
+                assertSame(FileSystemWatcher.class, polling.getClass());
+            } finally {
+                polling.destroy();
+            }
+        } finally {
+            System.clearProperty(NativeFileSystemWatcher.WATCHER_KEY);
+        }
+    }
+
+    @Test
+    public void testEventStormIsCoalesced() throws Exception {
+        File dir = folder.newFolder("storm");
+        watcher.addListener("storm", notifications::add);
+
+        int fileCount = 200;
+        for (int i = 0; i < fileCount; i++) {
+            assertTrue(new File(dir, "File" + i).createNewFile());
+        }
+
+        await().atMost(MAX_WAIT_SEC, SECONDS)
+                .pollDelay(20, MILLISECONDS)
+                .until(() -> countEvents() == fileCount);
+        // the events have been grouped, and each file has been reported once
+        assertTrue(notifications.size() < fileCount);
+        assertTrue(
+                notifications.stream()
+                        .flatMap(n -> n.events().stream())
+                        .allMatch(e -> e.getKind() == Kind.ENTRY_CREATE));
+        assertEquals(
+                fileCount,
+                notifications.stream()
+                        .flatMap(n -> n.events().stream())
+                        .map(Event::getPath)
+                        .distinct()
+                        .count());
+    }
+
+    @Test
+    public void testNestedChangeIsChildModification() throws Exception {
+        File child = folder.newFolder("parent", "child");
+        watcher.addListener("parent", notifications::add);
+
+        assertTrue(new File(child, "nested").createNewFile());
+
+        await().atMost(MAX_WAIT_SEC, SECONDS).until(() -> !notifications.isEmpty());
+        ResourceNotification n = notifications.get(0);
+        assertEquals("parent", n.getPath());
+        assertEquals(Kind.ENTRY_MODIFY, n.getKind());
+        assertEquals(1, n.events().size());
+        assertEquals(new Event("child", Kind.ENTRY_MODIFY), n.events().get(0));
+    }
+
+    @Test
+    public void testMissingAncestors() throws Exception {
+        String path = "a/b/c/file.txt";
+        File file = new File(folder.getRoot(), path);
+        watcher.addListener(path, notifications::add);
+        assertFalse(file.getParentFile().exists());
+
+        assertTrue(file.getParentFile().mkdirs());
+        touch(file);
+
+        await().atMost(MAX_WAIT_SEC, SECONDS).until(() -> !notifications.isEmpty());
+        ResourceNotification n = notifications.get(0);
+        assertEquals(path, n.getPath());
+        assertEquals(Kind.ENTRY_CREATE, n.getKind());
+        assertTrue(n.events().isEmpty());
+
+        // changes now come from the newly registered parent directory
+        notifications.clear();
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+        await().atMost(MAX_WAIT_SEC, SECONDS).until(() -> !notifications.isEmpty());
+        assertEquals(Kind.ENTRY_MODIFY, notifications.get(0).getKind());
+    }
+
+    @Test
+    public void testRemoveListener() throws Exception {
+        folder.newFile("removed.txt");
+        ResourceListener listener = notifications::add;
+        watcher.addListener("removed.txt", listener);
+        assertTrue(watcher.removeListener("removed.txt", listener));
+        assertFalse(watcher.removeListener("removed.txt", listener));
+    }
+
+    private int countEvents() {
+        return (int) notifications.stream().mapToLong(n -> n.events().size()).sum();
+    }
+
+    private void touch(File file) throws IOException {
+        Files.write(file.toPath(), new byte[0]);
+    }
+}
@@ -21,6 +21,10 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -52,6 +56,7 @@
 import org.geoserver.data.util.CoverageUtils;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
 import org.geoserver.wcs.CoverageCleanerCallback;
 import org.geoserver.wcs.WCSInfo;
 import org.geoserver.wcs.responses.CoverageResponseDelegate;
@@ -61,6 +66,7 @@
 import org.geoserver.wcs2_0.response.GranuleStackImpl;
 import org.geoserver.wcs2_0.response.MIMETypeMapper;
 import org.geoserver.wcs2_0.response.MultidimensionalCoverageResponse;
+import org.geoserver.wcs2_0.response.StreamingGranuleStack;
 import org.geoserver.wcs2_0.response.WCSDimensionsHelper;
 import org.geoserver.wcs2_0.response.WCSDimensionsSubsetHelper;
 import org.geoserver.wcs2_0.util.EnvelopeAxesLabelsMapper;
@@ -172,6 +178,17 @@ public class GetCoverage {
 
     private static final double EPS = 1e-6;
 
+    /**
+     * Number of threads reading the granules of multidimensional outputs, shared by all requests.
+     * With 1 the granules are read serially, before encoding.
+     */
+    static final String GRANULE_READ_THREADS = "WCS_GRANULE_READ_THREADS";
+
+    /** Number of granules read in advance of the one being encoded, twice the threads by default */
+    static final String GRANULE_READ_AHEAD = "WCS_GRANULE_READ_AHEAD";
+
+    private static ExecutorService granuleReaders;
+
     public GetCoverage(
             WCSInfo serviceInfo,
             Catalog catalog,
@@ -185,6 +202,47 @@ public GetCoverage(
                 CoverageFactoryFinder.getGridCoverageFactory(GeoTools.getDefaultHints());
     }
 
+    /** The number of threads reading the granules of a multidimensional output */
+    static int getGranuleReadThreads() {
+        return getIntProperty(
+                GRANULE_READ_THREADS, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /** The number of granules read in advance of the one being encoded */
+    static int getGranuleReadAhead(int threads) {
+        return getIntProperty(GRANULE_READ_AHEAD, threads * 2);
+    }
+
+    private static int getIntProperty(String key, int defaultValue) {
+        String value = GeoServerExtensions.getProperty(key);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + key + ": " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /** The pool reading the granules, shared by all requests */
+    private static synchronized ExecutorService getGranuleReaders(int threads) {
+        if (granuleReaders == null) {
+            AtomicInteger counter = new AtomicInteger();
+            granuleReaders =
+                    Executors.newFixedThreadPool(
+                            threads,
+                            r -> {
+                                Thread t =
+                                        new Thread(
+                                                r, "wcs-granule-reader-" + counter.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            });
+        }
+        return granuleReaders;
+    }
+
     /**
      * Return true in case the specified format supports Multidimensional Output TODO: Consider
      * adding a method to CoverageResponseDelegate returning this information
@@ -285,8 +343,16 @@ && formatSupportMDOutput(request.getFormat())) {
                 final String nativeName = cinfo.getNativeCoverageName();
                 final String coverageName =
                         nativeName != null ? nativeName : reader.getGridCoverageNames()[0];
+                final int threads = getGranuleReadThreads();
                 final GranuleStackImpl stack =
-                        new GranuleStackImpl(coverageName, cinfo.getCRS(), dimensions);
+                        threads > 1 && requests.size() > 1
+                                ? new StreamingGranuleStack(
+                                        coverageName,
+                                        cinfo.getCRS(),
+                                        dimensions,
+                                        getGranuleReaders(threads),
+                                        getGranuleReadAhead(threads))
+                                : new GranuleStackImpl(coverageName, cinfo.getCRS(), dimensions);
                 // Geoserver max memory limit definition
                 long outputLimit = wcs.getMaxOutputMemory() * 1024;
                 long inputLimit = wcs.getMaxInputMemory() * 1024;
@@ -333,19 +399,40 @@ && formatSupportMDOutput(request.getFormat())) {
                 // Get a coverage for each subrequest
                 while (requestsIterator.hasNext()) {
                     GridCoverageRequest subRequest = requestsIterator.next();
-                    GridCoverage2D singleCoverage =
-                            setupCoverage(
-                                    helper,
-                                    subRequest,
-                                    request,
-                                    reader,
-                                    hints,
-                                    extensions,
-                                    dimensions,
-                                    incrementalOutputSize,
-                                    incrementalInputSize,
-                                    coverageFactory);
-                    stack.addCoverage(singleCoverage);
+                    Callable<GridCoverage2D> read =
+                            () ->
+                                    setupCoverage(
+                                            helper,
+                                            subRequest,
+                                            request,
+                                            reader,
+                                            hints,
+                                            extensions,
+                                            dimensions,
+                                            incrementalOutputSize,
+                                            incrementalInputSize,
+                                            coverageFactory);
+                    if (stack instanceof StreamingGranuleStack) {
+                        // read in the background, as the stack gets encoded
+                        ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+                        ((StreamingGranuleStack) stack)
+                                .addRead(
+                                        () -> {
+                                            transfer.apply();
+                                            try {
+                                                return read.call();
+                                            } finally {
+                                                transfer.cleanup();
+                                            }
+                                        },
+                                        getDimensionProperties(
+                                                helper, subRequest, reader, dimensions));
+                    } else {
+                        stack.addCoverage(read.call());
+                    }
+                }
+                if (stack instanceof StreamingGranuleStack) {
+                    ((StreamingGranuleStack) stack).start();
                 }
                 coverage = stack;
             } else {
@@ -377,6 +464,25 @@ && formatSupportMDOutput(request.getFormat())) {
         return coverage;
     }
 
+    /**
+     * Returns the dimension values the coverage read for the given sub request will carry in its
+     * properties, or null if they are only known once the coverage is read
+     */
+    private Map<String, Object> getDimensionProperties(
+            WCSDimensionsSubsetHelper helper,
+            GridCoverageRequest subRequest,
+            GridCoverage2DReader reader,
+            List<DimensionBean> dimensions) {
+        if (!(reader instanceof StructuredGridCoverage2DReader) || dimensions == null) {
+            return null;
+        }
+        Map<String, Object> properties = new HashMap<>();
+        for (DimensionBean dimension : dimensions) {
+            helper.setCoverageDimensionProperty(properties, subRequest, dimension);
+        }
+        return properties;
+    }
+
     /**
      * Setup a coverage on top of the specified gridCoverageRequest
      *
@@ -2013,7 +2119,7 @@ private GridCoverage2D handleScaling(
      * @author Nicola Lagomarsini
      */
     static class ImageSizeRecorder {
-        /** Incremental value for the size */
+        /** Incremental value for the size, granules can be read in parallel */
         private long incrementalSize = 0;
 
         private final long limit;
@@ -2026,7 +2132,7 @@ static class ImageSizeRecorder {
         }
 
         /** Increment the total size value if not disabled */
-        public void addSize(GridCoverage2D coverage) {
+        public synchronized void addSize(GridCoverage2D coverage) {
             incrementalSize +=
                     getCoverageSize(
                             coverage.getGridGeometry().getGridRange2D(),
@@ -2035,7 +2141,7 @@ public void addSize(GridCoverage2D coverage) {
         }
 
         /** Return the total size accumulated */
-        public long finalSize() {
+        public synchronized long finalSize() {
             return incrementalSize;
         }
 
@@ -2054,7 +2160,7 @@ private void isSizeExceeded() {
         }
 
         /** Reset the total size stored to 0 */
-        public void reset() {
+        public synchronized void reset() {
             incrementalSize = 0;
         }
 
@@ -5,7 +5,10 @@
  */
 package org.geoserver.wcs2_0.response;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import org.geotools.api.coverage.grid.GridCoverage;
 import org.geotools.coverage.grid.GridCoverage2D;
 
@@ -22,4 +25,36 @@ public interface GranuleStack extends GridCoverage {
 
     // the list of granules composing this stack
     public List<GridCoverage2D> getGranules();
+
+    /**
+     * Returns the granules composing this stack, in dimension order. Stacks reading the granules
+     * in the background hand out each one as soon as it is available, without waiting for the
+     * following ones.
+     */
+    default Iterator<GridCoverage2D> granules() {
+        return getGranules().iterator();
+    }
+
+    /**
+     * Returns the properties of the granules composing this stack, in dimension order, including
+     * their dimension values. Stacks reading the granules in the background can tell them before
+     * the granules are read, allowing encoders to set up the output upfront.
+     */
+    @SuppressWarnings("unchecked")
+    default List<Map<String, Object>> getGranuleProperties() {
+        List<Map<String, Object>> properties = new ArrayList<>();
+        for (GridCoverage2D granule : getGranules()) {
+            properties.add(granule.getProperties());
+        }
+        return properties;
+    }
+
+    /**
+     * Notifies the stack that a granule has been encoded and is no longer needed, so that it can
+     * be disposed right away rather than with the whole stack. A released granule cannot be
+     * accessed anymore.
+     */
+    default void release(GridCoverage2D granule) {
+        // by default the granules are disposed along with the stack
+    }
 }
@@ -140,11 +140,17 @@ public void addCoverage(GridCoverage2D coverage) {
     public boolean dispose(boolean force) {
         boolean disposed = true;
         for (GridCoverage2D coverage : coverages) {
-            RenderedImage ri = coverage.getRenderedImage();
-            disposed &= coverage.dispose(force);
-            if (ri instanceof PlanarImage) {
-                ImageUtilities.disposePlanarImageChain((PlanarImage) ri);
-            }
+            disposed &= disposeGranule(coverage, force);
+        }
+        return disposed;
+    }
+
+    /** Disposes a granule along with the chain of images it is built on */
+    protected static boolean disposeGranule(GridCoverage2D coverage, boolean force) {
+        RenderedImage ri = coverage.getRenderedImage();
+        boolean disposed = coverage.dispose(force);
+        if (ri instanceof PlanarImage) {
+            ImageUtilities.disposePlanarImageChain((PlanarImage) ri);
         }
         return disposed;
     }
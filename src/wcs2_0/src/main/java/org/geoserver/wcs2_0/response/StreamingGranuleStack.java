@@ -0,0 +1,270 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.vfny.geoserver.wcs.WcsException;
+
+/**
+ * A {@link GranuleStack} whose granules are read in the background, on a shared pool, while the
+ * stack is being encoded. At most {@link #getReadAhead()} granules past the last one requested are
+ * read in advance, and the granules handed out by {@link #granules()} can be released one by one
+ * as they get written, so an encoder consuming the stack in order only keeps a few of them in
+ * memory.
+ *
+ * <p>Encoders calling {@link #getGranules()} instead get the full list, once all the granules have
+ * been read.
+ */
+public class StreamingGranuleStack extends GranuleStackImpl {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ExecutorService executor;
+
+    private final int readAhead;
+
+    /** The reads still to be submitted, null once submitted */
+    private final transient List<Callable<GridCoverage2D>> reads = new ArrayList<>();
+
+    /** The granules being read, null if not yet submitted or released */
+    private final transient List<Future<GridCoverage2D>> futures = new ArrayList<>();
+
+    /** The properties of the granules, null if only known once the granule is read */
+    private final transient List<Map<String, Object>> properties = new ArrayList<>();
+
+    /** The granules read and not yet released, with their position */
+    private final transient Map<GridCoverage2D, Integer> loaded = new IdentityHashMap<>();
+
+    private boolean released;
+
+    private boolean disposed;
+
+    /**
+     * Builds a new stack
+     *
+     * @param executor the pool running the reads
+     * @param readAhead the number of granules read in advance of the last one requested
+     */
+    public StreamingGranuleStack(
+            CharSequence name,
+            CoordinateReferenceSystem crs,
+            List<DimensionBean> dimensions,
+            ExecutorService executor,
+            int readAhead) {
+        super(name, crs, dimensions);
+        this.executor = executor;
+        this.readAhead = Math.max(1, readAhead);
+    }
+
+    /** The number of granules read in advance of the last one requested */
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    /** Adds a granule that has already been read */
+    @Override
+    public synchronized void addCoverage(GridCoverage2D coverage) {
+        loaded.put(coverage, futures.size());
+        reads.add(null);
+        futures.add(CompletableFuture.completedFuture(coverage));
+        properties.add(getProperties(coverage));
+    }
+
+    /** Adds a granule to be read in the background, the reads follow the order of the calls */
+    public void addRead(Callable<GridCoverage2D> read) {
+        addRead(read, null);
+    }
+
+    /**
+     * Adds a granule to be read in the background, along with the dimension properties it will
+     * have once read, so that {@link #getGranuleProperties()} does not need to wait for the read
+     */
+    public synchronized void addRead(
+            Callable<GridCoverage2D> read, Map<String, Object> granuleProperties) {
+        reads.add(read);
+        futures.add(null);
+        properties.add(granuleProperties);
+    }
+
+    /** Starts reading the first granules, before any is requested */
+    public synchronized void start() {
+        submit(readAhead - 1);
+    }
+
+    /** Submits the pending reads up to the given index */
+    private void submit(int last) {
+        for (int i = 0; i <= last && i < reads.size(); i++) {
+            Callable<GridCoverage2D> read = reads.get(i);
+            if (read != null) {
+                int index = i;
+                reads.set(i, null);
+                futures.set(i, executor.submit(() -> read(read, index)));
+            }
+        }
+    }
+
+    private GridCoverage2D read(Callable<GridCoverage2D> read, int index) throws Exception {
+        GridCoverage2D coverage = read.call();
+        if (coverage == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (!disposed) {
+                loaded.put(coverage, index);
+                return coverage;
+            }
+        }
+        // nobody is going to take it anymore
+        disposeGranule(coverage, true);
+        return null;
+    }
+
+    /** Returns the number of granules in the stack */
+    public synchronized int size() {
+        return futures.size();
+    }
+
+    /** Returns the granule at the given position, waiting for it to be read */
+    GridCoverage2D getGranule(int index) {
+        Future<GridCoverage2D> future;
+        synchronized (this) {
+            submit(index + readAhead);
+            future = futures.get(index);
+        }
+        if (future == null) {
+            throw new IllegalStateException("Granule " + index + " has already been released");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WcsException("Interrupted while reading granule " + index, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new WcsException("Failed to read granule " + index, e.getCause());
+        }
+    }
+
+    @Override
+    public List<GridCoverage2D> getGranules() {
+        List<GridCoverage2D> granules = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            granules.add(getGranule(i));
+        }
+        return Collections.unmodifiableList(granules);
+    }
+
+    @Override
+    public List<Map<String, Object>> getGranuleProperties() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            Map<String, Object> granuleProperties;
+            synchronized (this) {
+                granuleProperties = properties.get(i);
+            }
+            if (granuleProperties == null) {
+                granuleProperties = getProperties(getGranule(i));
+                synchronized (this) {
+                    properties.set(i, granuleProperties);
+                }
+            }
+            result.add(granuleProperties);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getProperties(GridCoverage2D coverage) {
+        return coverage.getProperties();
+    }
+
+    @Override
+    public Iterator<GridCoverage2D> granules() {
+        return new Iterator<GridCoverage2D>() {
+
+            int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public GridCoverage2D next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getGranule(next++);
+            }
+        };
+    }
+
+    @Override
+    public void release(GridCoverage2D granule) {
+        synchronized (this) {
+            Integer index = loaded.remove(granule);
+            if (index == null) {
+                return;
+            }
+            futures.set(index, null);
+            released = true;
+        }
+        disposeGranule(granule, true);
+    }
+
+    /** Returns true if some of the granules have already been released */
+    public synchronized boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public boolean dispose(boolean force) {
+        List<GridCoverage2D> granules;
+        synchronized (this) {
+            disposed = true;
+            Collections.fill(reads, null);
+            // reads in progress dispose their granule on completion
+            for (Future<GridCoverage2D> future : futures) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+            Collections.fill(futures, null);
+            granules = new ArrayList<>(loaded.keySet());
+            loaded.clear();
+        }
+        boolean result = true;
+        for (GridCoverage2D granule : granules) {
+            result &= disposeGranule(granule, force);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingGranuleStack [dimensions="
+                + getDimensions()
+                + ", granules="
+                + size()
+                + ", readAhead="
+                + readAhead
+                + "]";
+    }
+}
@@ -0,0 +1,170 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wcs2_0.org.geoserver.wcs2_0.response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.wcs2_0.response.StreamingGranuleStack;
+import org.geotools.coverage.CoverageFactoryFinder;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.vfny.geoserver.wcs.WcsException;
+
+public class StreamingGranuleStackTest {
+
+    ExecutorService executor;
+
+    GridCoverageFactory coverageFactory = CoverageFactoryFinder.getGridCoverageFactory(null);
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private GridCoverage2D granule(int i) {
+        return coverageFactory.create(
+                "g" + i,
+                new BufferedImage(2, 2, BufferedImage.TYPE_BYTE_GRAY),
+                new ReferencedEnvelope(0, 1, 0, 1, DefaultGeographicCRS.WGS84));
+    }
+
+    private StreamingGranuleStack stack(int readAhead) {
+        return new StreamingGranuleStack(
+                "stack", DefaultGeographicCRS.WGS84, null, executor, readAhead);
+    }
+
+    @Test
+    public void testOrderPreserved() throws Exception {
+        StreamingGranuleStack stack = stack(8);
+        stack.addCoverage(granule(0));
+        for (int i = 1; i < 20; i++) {
+            int index = i;
+            stack.addRead(
+                    () -> {
+                        // complete out of order
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(10));
+                        return granule(index);
+                    });
+        }
+        stack.start();
+
+        List<GridCoverage2D> granules = stack.getGranules();
+        assertEquals(20, granules.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("g" + i, granules.get(i).getName().toString());
+        }
+        assertTrue(stack.dispose(true));
+    }
+
+    @Test
+    public void testReadAheadAndRelease() throws Exception {
+        StreamingGranuleStack stack = stack(2);
+        AtomicInteger started = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            stack.addRead(
+                    () -> {
+                        started.incrementAndGet();
+                        return granule(index);
+                    });
+        }
+        stack.start();
+
+        Iterator<GridCoverage2D> granules = stack.granules();
+        GridCoverage2D first = granules.next();
+        assertEquals("g0", first.getName().toString());
+        // the first one, plus the two following ones at most
+        assertTrue(started.get() <= 3);
+
+        stack.release(first);
+        assertTrue(stack.isReleased());
+        int count = 1;
+        while (granules.hasNext()) {
+            GridCoverage2D granule = granules.next();
+            assertEquals("g" + count++, granule.getName().toString());
+            stack.release(granule);
+        }
+        assertEquals(10, count);
+        assertEquals(10, started.get());
+
+        // the granules are gone
+        assertThrows(IllegalStateException.class, stack::getGranules);
+        assertTrue(stack.dispose(true));
+    }
+
+    @Test
+    public void testReadFailure() throws Exception {
+        StreamingGranuleStack stack = stack(2);
+        stack.addCoverage(granule(0));
+        stack.addRead(
+                () -> {
+                    throw new IOException("Cannot read this one");
+                });
+        WcsException runtime = new WcsException("Too much data");
+        stack.addRead(
+                () -> {
+                    throw runtime;
+                });
+        stack.start();
+
+        Iterator<GridCoverage2D> granules = stack.granules();
+        assertEquals("g0", granules.next().getName().toString());
+        WcsException e = assertThrows(WcsException.class, granules::next);
+        assertTrue(e.getCause() instanceof IOException);
+        assertSame(runtime, assertThrows(WcsException.class, granules::next));
+        assertFalse(granules.hasNext());
+        stack.dispose(true);
+    }
+
+    @Test
+    public void testDisposeStopsReads() throws Exception {
+        StreamingGranuleStack stack = stack(1);
+        List<Integer> read = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            stack.addRead(
+                    () -> {
+                        synchronized (read) {
+                            read.add(index);
+                        }
+                        return granule(index);
+                    });
+        }
+        stack.start();
+        stack.granules().next();
+        stack.dispose(true);
+
+        // nothing beyond the read ahead got read
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        synchronized (read) {
+            assertTrue(read.toString(), read.size() <= 2);
+        }
+    }
+}
@@ -26,11 +26,19 @@ class CountExecutor {
 
     int providedCount = COUNT_UNSET;
 
+    /** The key used to cache the count, or null if the count should not be cached */
+    FeatureCountService.CountKey key;
+
     public CountExecutor(FeatureSource source, Query query) {
         this.source = source;
         this.query = query;
     }
 
+    public CountExecutor(FeatureSource source, Query query, FeatureCountService.CountKey key) {
+        this(source, query);
+        this.key = key;
+    }
+
     public CountExecutor(int providedCount) {
         this.providedCount = providedCount;
     }
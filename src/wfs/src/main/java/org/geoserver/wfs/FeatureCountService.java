@@ -0,0 +1,546 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.namespace.QName;
+import org.geoserver.ows.AbstractDispatcherCallback;
+import org.geoserver.ows.Request;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geoserver.wfs.request.TransactionRequest;
+import org.geoserver.wfs.request.TransactionResponse;
+import org.geotools.api.data.Query;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.util.factory.Hints;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Runs the feature counts needed to compute the WFS 2.0 numberMatched attribute.
+ *
+ * <p>Counts can be started in the background, on a bounded pool, as soon as {@link GetFeature} has
+ * set up the queries, so that they run concurrently with the encoding of the features, and the
+ * counts of multiple queries run in parallel. Formats writing numberMatched after the features
+ * (e.g., GeoJSON) get the count without waiting for it in most cases, formats writing it before
+ * the features (e.g., GML) still wait for it. When the pool is saturated counts run on demand, in
+ * the request thread, as before. Counts are started in the background only for the output formats
+ * encoding numberMatched, the other formats compute it lazily, if at all. Background counts still
+ * running when the request finishes are cancelled.
+ *
+ * <p>Counts can also be cached for a short time, so that clients paging through the same query do
+ * not run the same count over and over. The cache is keyed on layer, filter, CRS, view parameters
+ * and user, and the entries of a layer are dropped when a WFS transaction modifies it. Changes
+ * made outside of GeoServer are picked up when the entries expire, for this reason the cache is
+ * disabled by default.
+ *
+ * <p>The following system, environment or servlet context variables can be used to configure the
+ * service:
+ *
+ * <ul>
+ *   <li>{@value #THREADS_KEY}: the number of threads running counts in the background, zero or
+ *       negative disables the background counts, defaults to half the available processors (at
+ *       least 2)
+ *   <li>{@value #CACHE_TTL_KEY}: the time to live of the cached counts, in seconds, zero or
+ *       negative disables the cache, defaults to {@value #CACHE_TTL_DEFAULT}
+ *   <li>{@value #CACHE_SIZE_KEY}: the maximum number of cached counts, defaults to {@value
+ *       #CACHE_SIZE_DEFAULT}
+ *   <li>{@value #FORMATS_KEY}: comma separated list of the output formats the counts are started
+ *       in the background for, defaults to the GML 3.2 and GeoJSON ones
+ * </ul>
+ */
+public class FeatureCountService extends AbstractDispatcherCallback
+        implements TransactionCallback, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(FeatureCountService.class);
+
+    public static final String THREADS_KEY = "WFS_COUNT_THREADS";
+
+    public static final String CACHE_TTL_KEY = "WFS_COUNT_CACHE_TTL";
+
+    public static final String CACHE_SIZE_KEY = "WFS_COUNT_CACHE_SIZE";
+
+    public static final String FORMATS_KEY = "WFS_COUNT_BACKGROUND_FORMATS";
+
+    /** The output formats encoding numberMatched, GML 3.2 and GeoJSON */
+    static final String FORMATS_DEFAULT =
+            "gml32,application/gml+xml; version=3.2,text/xml; subtype=gml/3.2,"
+                    + "application/json,json,text/javascript";
+
+    static final long CACHE_TTL_DEFAULT = 0;
+
+    static final long CACHE_SIZE_DEFAULT = 1000;
+
+    /** Counts waiting for a thread, beyond this they are run on demand by the request thread */
+    static final int QUEUE_SIZE = 100;
+
+    final ThreadPoolExecutor executor;
+
+    final Cache<CountKey, Integer> cache;
+
+    /**
+     * Incremented on every invalidation, counts started before it are not cached as they may have
+     * been computed against the old data
+     */
+    final AtomicLong generation = new AtomicLong();
+
+    /** The layers modified by the transaction running in the current thread */
+    final ThreadLocal<Set<QName>> modifiedLayers = ThreadLocal.withInitial(HashSet::new);
+
+    /** The background counts started by the request running in the current thread */
+    final ThreadLocal<List<CompletableFuture<Integer>>> pending =
+            ThreadLocal.withInitial(ArrayList::new);
+
+    /** The output formats counts are started in the background for, normalized */
+    final Set<String> backgroundFormats = new HashSet<>();
+
+    public FeatureCountService() {
+        this(
+                (int)
+                        getLongProperty(
+                                THREADS_KEY,
+                                Math.max(2, Runtime.getRuntime().availableProcessors() / 2)),
+                getLongProperty(CACHE_TTL_KEY, CACHE_TTL_DEFAULT),
+                getLongProperty(CACHE_SIZE_KEY, CACHE_SIZE_DEFAULT),
+                getFormats());
+    }
+
+    /**
+     * @param threads the number of background threads, zero or negative to disable background
+     *     counts
+     * @param ttl the cache entries time to live in seconds, zero or negative to disable the cache
+     * @param size the maximum number of cache entries
+     */
+    public FeatureCountService(int threads, long ttl, long size) {
+        this(threads, ttl, size, FORMATS_DEFAULT);
+    }
+
+    /**
+     * @param threads the number of background threads, zero or negative to disable background
+     *     counts
+     * @param ttl the cache entries time to live in seconds, zero or negative to disable the cache
+     * @param size the maximum number of cache entries
+     * @param formats comma separated list of the output formats counts are started in the
+     *     background for
+     */
+    public FeatureCountService(int threads, long ttl, long size, String formats) {
+        for (String format : formats.split(",")) {
+            if (!format.trim().isEmpty()) {
+                backgroundFormats.add(normalizeFormat(format));
+            }
+        }
+        if (threads > 0) {
+            this.executor =
+                    new ThreadPoolExecutor(
+                            threads,
+                            threads,
+                            60L,
+                            TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(QUEUE_SIZE),
+                            new CountThreadFactory());
+            this.executor.allowCoreThreadTimeOut(true);
+        } else {
+            this.executor = null;
+        }
+        if (ttl > 0) {
+            this.cache =
+                    CacheBuilder.newBuilder()
+                            .maximumSize(size)
+                            .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                            .recordStats()
+                            .build();
+        } else {
+            this.cache = null;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(
+                    "Feature count threads: "
+                            + threads
+                            + ", cache time to live "
+                            + ttl
+                            + "s, cache size "
+                            + size);
+        }
+    }
+
+    private static long getLongProperty(String key, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(key);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + key + ": " + value + ", using the default");
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String getFormats() {
+        String value = GeoServerExtensions.getProperty(FORMATS_KEY);
+        return value != null ? value : FORMATS_DEFAULT;
+    }
+
+    private static String normalizeFormat(String format) {
+        return format.replaceAll("\\s", "").toLowerCase(Locale.ENGLISH);
+    }
+
+    /** Returns true if counts can be run in the background */
+    public boolean isAsynchronous() {
+        return executor != null;
+    }
+
+    /**
+     * Returns true if the counts of a WFS 2.0 request using the given output format should be
+     * started in the background, that is, if the format encodes numberMatched
+     *
+     * @param outputFormat the output format, or null for the default GML 3.2 one
+     */
+    public boolean isBackgroundFormat(String outputFormat) {
+        return executor != null
+                && (outputFormat == null
+                        || backgroundFormats.contains(normalizeFormat(outputFormat)));
+    }
+
+    /** Returns true if the counts are cached */
+    public boolean isCaching() {
+        return cache != null;
+    }
+
+    /**
+     * Builds the cache key of a count query, or returns null if the query cannot be cached (e.g.,
+     * it's a join)
+     *
+     * @param layer the queried layer
+     * @param query the count query
+     */
+    public CountKey getKey(QName layer, Query query) {
+        if (cache == null || (query.getJoins() != null && !query.getJoins().isEmpty())) {
+            return null;
+        }
+        Object viewParams =
+                query.getHints() != null
+                        ? query.getHints().get(Hints.VIRTUAL_TABLE_PARAMETERS)
+                        : null;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return new CountKey(
+                layer,
+                query.getTypeName(),
+                query.getFilter(),
+                query.getCoordinateSystem(),
+                query.getCoordinateSystemReproject(),
+                viewParams,
+                auth != null ? auth.getName() : null,
+                roles(auth));
+    }
+
+    /** The roles of the user, sorted, as counts depend on the data security filters applied */
+    private static Set<String> roles(Authentication auth) {
+        Set<String> roles = new TreeSet<>();
+        if (auth != null && auth.getAuthorities() != null) {
+            for (GrantedAuthority authority : auth.getAuthorities()) {
+                roles.add(authority.getAuthority());
+            }
+        }
+        return roles;
+    }
+
+    /** Returns the count, from the cache if possible */
+    public int getCount(CountExecutor counter) throws IOException {
+        if (counter.isCountSet() || cache == null || counter.key == null) {
+            return counter.getCount();
+        }
+        Integer cached = cache.getIfPresent(counter.key);
+        if (cached != null) {
+            return cached;
+        }
+        long start = generation.get();
+        int count = counter.getCount();
+        // do not cache unknown counts, or counts that might predate a transaction
+        if (count >= 0 && generation.get() == start) {
+            cache.put(counter.key, count);
+        }
+        return count;
+    }
+
+    /**
+     * Starts the counts in the background, returning their futures, in the same order. Counts
+     * already available are returned as completed futures, the ones not accepted by the saturated
+     * pool get a null future, and are run on demand by {@link #getTotalCount(List, List)}.
+     */
+    public List<CompletableFuture<Integer>> submit(List<CountExecutor> counters) {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(counters.size());
+        for (CountExecutor counter : counters) {
+            futures.add(submit(counter));
+        }
+        return futures;
+    }
+
+    /**
+     * Sums the counts, waiting for the ones running in the background
+     *
+     * @param counters the counts
+     * @param futures the futures returned by {@link #submit(List)}, or null if the counts were not
+     *     submitted
+     * @return the total count, or -1 if any of the counts is unknown
+     */
+    public long getTotalCount(
+            List<CountExecutor> counters, List<CompletableFuture<Integer>> futures)
+            throws IOException {
+        long total = 0;
+        for (int i = 0; i < counters.size(); i++) {
+            CompletableFuture<Integer> future = futures != null ? futures.get(i) : null;
+            int result = future != null ? join(future) : getCount(counters.get(i));
+            // if the count is unknown for one, we don't know the total, period
+            if (result == -1) {
+                return -1;
+            }
+            total += result;
+        }
+        return total;
+    }
+
+    private static int join(CompletableFuture<Integer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the feature count", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            Throwables.throwIfUnchecked(cause);
+            throw new IOException(cause);
+        }
+    }
+
+    private CompletableFuture<Integer> submit(CountExecutor counter) {
+        if (counter.isCountSet()) {
+            return CompletableFuture.completedFuture(counter.providedCount);
+        }
+        if (cache != null && counter.key != null) {
+            Integer cached = cache.getIfPresent(counter.key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        if (executor != null) {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+            FutureTask<Void> task =
+                    new FutureTask<>(
+                            () -> {
+                                // skip counts cancelled while waiting in the queue
+                                if (future.isDone()) {
+                                    return;
+                                }
+                                try {
+                                    transfer.apply();
+                                    future.complete(getCount(counter));
+                                } catch (Throwable t) {
+                                    future.completeExceptionally(t);
+                                } finally {
+                                    transfer.cleanup();
+                                }
+                            },
+                            null);
+            try {
+                executor.execute(task);
+                // interrupt the count if cancelled while running
+                future.whenComplete(
+                        (r, t) -> {
+                            if (future.isCancelled()) {
+                                task.cancel(true);
+                            }
+                        });
+                List<CompletableFuture<Integer>> requestCounts = pending.get();
+                requestCounts.removeIf(CompletableFuture::isDone);
+                requestCounts.add(future);
+                return future;
+            } catch (RejectedExecutionException e) {
+                LOGGER.fine("Count pool saturated, the count will run on demand");
+            }
+        }
+        return null;
+    }
+
+    /** Cancels the background counts started by the request that are still pending */
+    @Override
+    public void finished(Request request) {
+        List<CompletableFuture<Integer>> requestCounts = pending.get();
+        pending.remove();
+        for (CompletableFuture<Integer> future : requestCounts) {
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /** Drops the cached counts of the given layer */
+    public void invalidate(QName layer) {
+        generation.incrementAndGet();
+        if (cache != null) {
+            cache.asMap().keySet().removeIf(k -> Objects.equals(k.layer, layer));
+        }
+    }
+
+    /** Drops all the cached counts */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /** Returns the cache hit, miss and eviction statistics, or null if the cache is disabled */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : null;
+    }
+
+    @Override
+    public void dataStoreChange(TransactionEvent event) throws WFSException {
+        QName layer = event.getLayerName();
+        if (layer != null) {
+            invalidate(layer);
+            modifiedLayers.get().add(layer);
+        } else {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public TransactionRequest beforeTransaction(TransactionRequest request) throws WFSException {
+        modifiedLayers.remove();
+        return request;
+    }
+
+    @Override
+    public void beforeCommit(TransactionRequest request) throws WFSException {
+        // nothing to do
+    }
+
+    @Override
+    public void afterTransaction(
+            TransactionRequest request, TransactionResponse result, boolean committed) {
+        // counts run between the change events and the commit may have seen the old data
+        Set<QName> layers = modifiedLayers.get();
+        modifiedLayers.remove();
+        for (QName layer : layers) {
+            invalidate(layer);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /** The cache key of a count */
+    public static final class CountKey {
+
+        final QName layer;
+
+        final String typeName;
+
+        final Filter filter;
+
+        final CoordinateReferenceSystem crs;
+
+        final CoordinateReferenceSystem reprojection;
+
+        final Object viewParams;
+
+        final String user;
+
+        final Set<String> roles;
+
+        CountKey(
+                QName layer,
+                String typeName,
+                Filter filter,
+                CoordinateReferenceSystem crs,
+                CoordinateReferenceSystem reprojection,
+                Object viewParams,
+                String user,
+                Set<String> roles) {
+            this.layer = layer;
+            this.typeName = typeName;
+            this.filter = filter;
+            this.crs = crs;
+            this.reprojection = reprojection;
+            this.viewParams = viewParams;
+            this.user = user;
+            this.roles = roles;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CountKey that = (CountKey) o;
+            return Objects.equals(layer, that.layer)
+                    && Objects.equals(typeName, that.typeName)
+                    && Objects.equals(filter, that.filter)
+                    && Objects.equals(crs, that.crs)
+                    && Objects.equals(reprojection, that.reprojection)
+                    && Objects.equals(viewParams, that.viewParams)
+                    && Objects.equals(user, that.user)
+                    && Objects.equals(roles, that.roles);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    layer, typeName, filter, crs, reprojection, viewParams, user, roles);
+        }
+
+        @Override
+        public String toString() {
+            return "CountKey[" + layer + ", " + filter + ", " + user + ", " + roles + "]";
+        }
+    }
+
+    static final class CountThreadFactory implements ThreadFactory {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "WFSCount-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -201,10 +202,14 @@ public class GetFeature {
     /** stored query provider */
     StoredQueryProvider storedQueryProvider;
 
+    /** runs and caches the numberMatched counts, may be null */
+    FeatureCountService countService;
+
     /** Creates the WFS 1.0/1.1 GetFeature operation. */
     public GetFeature(WFSInfo wfs, Catalog catalog) {
         this.wfs = wfs;
         this.catalog = catalog;
+        this.countService = GeoServerExtensions.bean(FeatureCountService.class);
     }
 
     /** @return The reference to the GeoServer catalog. */
@@ -232,6 +237,11 @@ public void setStoredQueryProvider(StoredQueryProvider storedQueryProvider) {
         this.storedQueryProvider = storedQueryProvider;
     }
 
+    /** Sets the service running and caching the numberMatched counts, null to disable it */
+    public void setCountService(FeatureCountService countService) {
+        this.countService = countService;
+    }
+
     public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSException {
         List<Query> queries = request.getQueries();
 
@@ -568,7 +578,11 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                                             joins,
                                             primaryTypeName,
                                             primaryAlias);
-                            totalCountExecutors.add(new CountExecutor(source, qTotal));
+                            FeatureCountService.CountKey key =
+                                    countService != null
+                                            ? countService.getKey(primaryTypeName, qTotal)
+                                            : null;
+                            totalCountExecutors.add(new CountExecutor(source, qTotal, key));
                         }
                     }
 
@@ -639,7 +653,11 @@ public FeatureCollectionResponse run(GetFeatureRequest request) throws WFSExcept
                             count,
                             totalOffset,
                             calculateSize,
-                            totalCountExecutors);
+                            totalCountExecutors,
+                            request.getVersion().startsWith("2")
+                                    && countService != null
+                                    && countService.isBackgroundFormat(
+                                            request.getOutputFormat()));
         } catch (IOException | SchemaException e) {
             throw new WFSException(
                     request, "Error occurred getting features", e, request.getHandle());
@@ -691,6 +709,8 @@ private void validateQueryAliases(GetFeatureRequest request, Query query) {
      * @param totalOffset
      * @param calculateSize
      * @param totalCountExecutors
+     * @param async whether the counts should be started right away in the background, as the
+     *     output format is going to encode numberMatched, otherwise they are run lazily
      * @return Lazy calculation of total count, or {@code null} if isNumberMatchedSkipped
      * @throws IOException
      */
@@ -700,7 +720,8 @@ private Supplier<BigInteger> updateTotalCount(
             int count,
             int totalOffset,
             boolean calculateSize,
-            List<CountExecutor> totalCountExecutors)
+            List<CountExecutor> totalCountExecutors,
+            boolean async)
             throws IOException {
         if (isNumberMatchedSkipped) {
             return () -> BigInteger.valueOf(-1);
@@ -712,11 +733,14 @@ private Supplier<BigInteger> updateTotalCount(
             long total = getTotalCount(totalCountExecutors);
             return () -> BigInteger.valueOf(total);
         } else {
+            // run the counts concurrently with the encoding of the features
+            List<CompletableFuture<Integer>> futures =
+                    async ? countService.submit(totalCountExecutors) : null;
             AtomicLong cache = new AtomicLong(Long.MIN_VALUE);
             return () -> {
                 try {
                     if (cache.get() == Long.MIN_VALUE) {
-                        cache.set(getTotalCount(totalCountExecutors));
+                        cache.set(getTotalCount(totalCountExecutors, futures));
                     }
                     return BigInteger.valueOf(cache.get());
                 } catch (IOException ioException) {
@@ -907,6 +931,15 @@ private boolean isPreComputed(List<CountExecutor> totalCountExecutors) {
     }
 
     private long getTotalCount(List<CountExecutor> totalCountExecutors) throws IOException {
+        return getTotalCount(totalCountExecutors, null);
+    }
+
+    private long getTotalCount(
+            List<CountExecutor> totalCountExecutors, List<CompletableFuture<Integer>> futures)
+            throws IOException {
+        if (countService != null) {
+            return countService.getTotalCount(totalCountExecutors, futures);
+        }
         long totalCount = 0;
         for (CountExecutor q : totalCountExecutors) {
             int result = q.getCount();
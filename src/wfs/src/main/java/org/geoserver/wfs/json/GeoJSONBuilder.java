@@ -5,11 +5,13 @@
  */
 package org.geoserver.wfs.json;
 
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
 import net.sf.json.JSONException;
+import net.sf.json.util.JSONUtils;
 import net.sf.json.util.JSONBuilder;
 import org.geotools.referencing.CRS;
 import org.geotools.util.Converters;
@@ -28,6 +30,11 @@
  * This class extends the JSONBuilder to be able to write out geometric types. It is coded against
  * the draft 5 version of the spec on http://geojson.org
  *
+ * <p>By default coordinates and bounding boxes are written straight to the underlying {@link
+ * Writer}, formatting the rounded ordinates with {@link RoundingUtil#format(double, int, char[])},
+ * rather than one value at a time through the {@link JSONBuilder} conversions. The output is the
+ * same, see {@link #setDirectEncoding(boolean)}.
+ *
  * @author Chris Holmes, The Open Planning Project
  * @version $Id$
  */
@@ -39,8 +46,16 @@ public class GeoJSONBuilder extends JSONBuilder {
 
     private boolean encodeMeasures = false;
 
+    private boolean directEncoding = true;
+
+    /** The writer the builder is writing to, for the direct encoding of coordinates */
+    private final Writer output;
+
+    private final char[] numberBuffer = new char[RoundingUtil.FORMAT_BUFFER_SIZE];
+
     public GeoJSONBuilder(Writer w) {
         super(w);
+        this.output = w;
     }
 
     /**
@@ -134,7 +149,19 @@ private JSONBuilder writeCoordinate(Point point) throws JSONException {
         CoordinateSequence coordinates = point.getCoordinateSequence();
         // let's see if we need to encode measures, NaN values will not be encoded
         double m = encodeMeasures ? coordinates.getM(0) : Double.NaN;
-        return writeCoordinate(coordinates.getX(0), coordinates.getY(0), coordinates.getZ(0), m);
+        double x = coordinates.getX(0);
+        double y = coordinates.getY(0);
+        double z = coordinates.getZ(0);
+        if (directEncoding) {
+            this.array();
+            try {
+                writeOrdinates(x, y, z, m);
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            return this.endArray();
+        }
+        return writeCoordinate(x, y, z, m);
     }
 
     /**
@@ -148,6 +175,21 @@ private JSONBuilder writeCoordinate(Point point) throws JSONException {
     private JSONBuilder writeCoordinates(CoordinateSequence coordinates) throws JSONException {
         // start encoding the JSON array of coordinates
         this.array();
+        if (directEncoding) {
+            // write the coordinates straight to the output, the builder state is unaffected
+            try {
+                for (int i = 0, size = coordinates.size(); i < size; i++) {
+                    double m = encodeMeasures ? coordinates.getM(i) : Double.NaN;
+                    output.write(i == 0 ? "[" : ",[");
+                    writeOrdinates(
+                            coordinates.getX(i), coordinates.getY(i), coordinates.getZ(i), m);
+                    output.write(']');
+                }
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            return this.endArray();
+        }
         // each coordinate will be encoded has an array of ordinates
         for (int i = 0; i < coordinates.size(); i++) {
             // let's see if we need to encode measures, NaN values will not be encoded
@@ -227,6 +269,55 @@ private void roundedValue(double value) {
         super.value(RoundingUtil.round(value, numDecimals));
     }
 
+    /**
+     * Direct encoding counterpart of {@link #writeCoordinate(double, double, double, double)},
+     * writes the comma separated ordinates without the enclosing brackets.
+     */
+    private void writeOrdinates(double x, double y, double z, double m) throws IOException {
+        boolean comma;
+        if (axisOrder == CRS.AxisOrder.NORTH_EAST) {
+            comma = writeOrdinate(y, false);
+            comma = writeOrdinate(x, comma);
+        } else {
+            comma = writeOrdinate(x, false);
+            comma = writeOrdinate(y, comma);
+        }
+        z = Double.isNaN(z) && !Double.isNaN(m) ? 0 : z;
+        comma = writeOrdinate(z, comma);
+        writeOrdinate(m, comma);
+    }
+
+    /**
+     * Direct encoding counterpart of {@link #encodeOrdinate(double)}
+     *
+     * @return true if a value has been written, or was written before (a separator is needed)
+     */
+    private boolean writeOrdinate(double value, boolean comma) throws IOException {
+        if (Double.isNaN(value)) {
+            return comma;
+        }
+        if (comma) {
+            output.write(',');
+        }
+        if (Double.isInfinite(value)) {
+            output.write(value > 0 ? "\"Infinity\"" : "\"-Infinity\"");
+        } else {
+            writeRoundedValue(value);
+        }
+        return true;
+    }
+
+    /** Direct encoding counterpart of {@link #roundedValue(double)}, for finite values */
+    private void writeRoundedValue(double value) throws IOException {
+        int length = RoundingUtil.format(value, numDecimals, numberBuffer);
+        if (length >= 0) {
+            output.write(numberBuffer, 0, length);
+        } else {
+            // out of the range handled without strings, use the same conversion as the builder
+            output.write(JSONUtils.numberToString(RoundingUtil.round(value, numDecimals)));
+        }
+    }
+
     /**
      * Turns an envelope into an array [minX,minY,maxX,maxY]
      *
@@ -236,7 +327,17 @@ private void roundedValue(double value) {
     protected JSONBuilder writeBoundingBox(Envelope env) {
         this.key("bbox");
         this.array();
-        if (axisOrder == CRS.AxisOrder.NORTH_EAST) {
+        if (directEncoding && isFinite(env)) {
+            try {
+                if (axisOrder == CRS.AxisOrder.NORTH_EAST) {
+                    writeBounds(env.getMinY(), env.getMinX(), env.getMaxY(), env.getMaxX());
+                } else {
+                    writeBounds(env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY());
+                }
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+        } else if (axisOrder == CRS.AxisOrder.NORTH_EAST) {
             roundedValue(env.getMinY());
             roundedValue(env.getMinX());
             roundedValue(env.getMaxY());
@@ -250,6 +351,25 @@ protected JSONBuilder writeBoundingBox(Envelope env) {
         return this.endArray();
     }
 
+    /** Non finite bounds are left to the builder, which rejects them */
+    private static boolean isFinite(Envelope env) {
+        return Double.isFinite(env.getMinX())
+                && Double.isFinite(env.getMinY())
+                && Double.isFinite(env.getMaxX())
+                && Double.isFinite(env.getMaxY());
+    }
+
+    private void writeBounds(double minA, double minB, double maxA, double maxB)
+            throws IOException {
+        writeRoundedValue(minA);
+        output.write(',');
+        writeRoundedValue(minB);
+        output.write(',');
+        writeRoundedValue(maxA);
+        output.write(',');
+        writeRoundedValue(maxB);
+    }
+
     /**
      * Writes a polygon
      *
@@ -413,6 +533,15 @@ public void setNumberOfDecimals(int numberOfDecimals) {
         this.numDecimals = numberOfDecimals;
     }
 
+    /**
+     * Sets whether coordinates and bounding boxes are written straight to the underlying writer
+     * (the default), or one value at a time through the {@link JSONBuilder} conversions. Both
+     * produce the same output, the latter is kept as a reference and fallback.
+     */
+    public void setDirectEncoding(boolean directEncoding) {
+        this.directEncoding = directEncoding;
+    }
+
     /**
      * Sets if coordinates measures (M) should be encoded.
      *
@@ -11,6 +11,8 @@
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -59,6 +61,13 @@ public class GeoJSONGetFeatureResponse extends WFSGetFeatureOutputFormat
         implements ComplexFeatureAwareFormat {
     private final Logger LOGGER = org.geotools.util.logging.Logging.getLogger(this.getClass());
 
+    /**
+     * When set to true, features are encoded through a {@link OutputStreamWriter} and the {@link
+     * net.sf.json.util.JSONBuilder} value conversions only, as GeoServer used to. The default
+     * encoding produces the same output faster.
+     */
+    public static final String LEGACY_ENCODING_KEY = "GEOSERVER_GEOJSON_LEGACY_ENCODING";
+
     // store the response type
     protected final boolean jsonp;
 
@@ -124,9 +133,7 @@ protected void write(
                         : totalNumberOfFeatures;
 
         try {
-            OutputStreamWriter osw =
-                    new OutputStreamWriter(output, gs.getGlobal().getSettings().getCharset());
-            Writer outWriter = new BufferedWriter(osw);
+            Writer outWriter = getWriter(output);
 
             if (jsonp) {
                 outWriter.write(getCallbackFunction() + "(");
@@ -177,10 +184,29 @@ protected void write(
         }
     }
 
+    /**
+     * Returns a buffered writer for the output, encoding UTF-8 straight into bytes unless the
+     * legacy encoding is enabled, or a different charset is configured
+     */
+    @SuppressWarnings("PMD.CloseResource") // the output stream is managed outside
+    protected Writer getWriter(OutputStream output) {
+        Charset charset = Charset.forName(gs.getGlobal().getSettings().getCharset());
+        if (!isLegacyEncoding() && StandardCharsets.UTF_8.equals(charset)) {
+            return new UTF8StreamWriter(output);
+        }
+        return new BufferedWriter(new OutputStreamWriter(output, charset));
+    }
+
+    /** Whether the legacy encoding has been requested, see {@link #LEGACY_ENCODING_KEY} */
+    protected static boolean isLegacyEncoding() {
+        return "true".equals(GeoServerExtensions.getProperty(LEGACY_ENCODING_KEY));
+    }
+
     /** Builds, configures and returns {@link GeoJSONBuilder} */
     protected GeoJSONBuilder getGeoJSONBuilder(
             FeatureCollectionResponse featureCollection, Writer outWriter) {
         final GeoJSONBuilder jsonWriter = new GeoJSONBuilder(outWriter);
+        jsonWriter.setDirectEncoding(!isLegacyEncoding());
         int numDecimals = getNumDecimals(featureCollection.getFeature(), gs, gs.getCatalog());
         jsonWriter.setNumberOfDecimals(numDecimals);
         jsonWriter.setEncodeMeasures(
@@ -15,6 +15,15 @@ public class RoundingUtil {
         1d, 10d, 100d, 1000d, 10000d, 100000d, 1000000d, 10000000d, 100000000d
     };
 
+    /**
+     * Largest unscaled value handled by {@link #format(double, int, char[])}, below it distinct
+     * decimals map to distinct doubles, so the shortest representation is the decimal itself
+     */
+    private static final double MAX_UNSCALED = 1e15;
+
+    /** Size of the buffer needed by {@link #format(double, int, char[])} */
+    public static final int FORMAT_BUFFER_SIZE = 32;
+
     /**
      * Round a value to the specified number of decimal places using the "Round Half Up" strategy.
      *
@@ -44,4 +53,83 @@ public static double round(double value, int numDecimals) {
 
         return Math.floor(value * scale + 0.5) / scale;
     }
+
+    /**
+     * Writes the value rounded to the specified number of decimal places into the buffer, without
+     * going through a {@link String}. The output is the same as {@link Double#toString()} applied
+     * to the result of {@link #round(double, int)}, with trailing zeros and decimal point removed,
+     * as JSON encoders do.
+     *
+     * <p>Only values rounding to zero, or whose rounded absolute value is between 10<sup>-3</sup>
+     * and 10<sup>7</sup> (the range {@link Double#toString()} uses no exponent for) with at most 15
+     * significant digits, are handled. For anything else, including NaN and infinities, nothing is
+     * written and -1 is returned, the caller is expected to use the {@link String} based path.
+     *
+     * @param value The value to round and format
+     * @param numDecimals The number of decimal places to round to
+     * @param buffer The target buffer, at least {@link #FORMAT_BUFFER_SIZE} chars long
+     * @return The number of characters written from the start of the buffer, or -1 if the value
+     *     is not handled
+     */
+    public static int format(double value, int numDecimals, char[] buffer) {
+        if (numDecimals < 0
+                || numDecimals > 15
+                || Double.isNaN(value)
+                || Double.isInfinite(value)) {
+            return -1;
+        }
+        // same rounding as round(value, numDecimals), but keeping the unscaled digits around
+        double scale = (numDecimals < 8) ? SCALE[numDecimals] : Math.pow(10, numDecimals);
+        if (Math.ulp(value) * scale > 1d) return -1;
+        double unscaled = Math.floor(value * scale + 0.5);
+        if (unscaled == 0) {
+            buffer[0] = '0';
+            return 1;
+        }
+        double rounded = Math.abs(unscaled / scale);
+        if (Math.abs(unscaled) >= MAX_UNSCALED || rounded < 1e-3 || rounded >= 1e7) return -1;
+
+        long digits = (long) unscaled;
+        int start = 0;
+        if (digits < 0) {
+            buffer[start++] = '-';
+            digits = -digits;
+        }
+        // drop the trailing zeros
+        int decimals = numDecimals;
+        while (decimals > 0 && digits % 10 == 0) {
+            digits /= 10;
+            decimals--;
+        }
+        int length = 1;
+        for (long power = 10; power <= digits; power *= 10) {
+            length++;
+        }
+        int integers = length - decimals;
+        int end;
+        if (integers > 0) {
+            end = start + length + (decimals > 0 ? 1 : 0);
+        } else {
+            // leading "0." plus the zeros between the decimal point and the digits
+            end = start + 2 + decimals;
+        }
+        // fill from the right
+        int i = end;
+        for (int d = 0; d < decimals; d++) {
+            buffer[--i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        if (decimals > 0) {
+            buffer[--i] = '.';
+        }
+        if (integers > 0) {
+            for (int d = 0; d < integers; d++) {
+                buffer[--i] = (char) ('0' + digits % 10);
+                digits /= 10;
+            }
+        } else {
+            buffer[--i] = '0';
+        }
+        return end;
+    }
 }
@@ -0,0 +1,168 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A buffered {@link Writer} encoding characters as UTF-8 straight into a byte buffer, avoiding the
+ * char buffer and {@link java.nio.charset.CharsetEncoder} round trip of a {@link
+ * java.io.BufferedWriter} wrapping an {@link java.io.OutputStreamWriter}. The output is the same
+ * as the latter, including the replacement of unpaired surrogates with <code>?</code>.
+ *
+ * <p>Not thread safe, the wrapped stream is flushed by {@link #flush()} and closed by {@link
+ * #close()}.
+ */
+public class UTF8StreamWriter extends Writer {
+
+    static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    /** What unpaired surrogates are replaced with, same as the JDK UTF-8 encoder */
+    static final byte REPLACEMENT = '?';
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int count;
+
+    /** A high surrogate waiting for the low surrogate in the next write, or zero */
+    private char pendingSurrogate;
+
+    public UTF8StreamWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public UTF8StreamWriter(OutputStream out, int bufferSize) {
+        if (bufferSize < 4) {
+            throw new IllegalArgumentException("Buffer size must be at least 4: " + bufferSize);
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (count + 4 > buffer.length) {
+            flushBuffer();
+        }
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) throws IOException {
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (count + 4 > buffer.length) {
+                flushBuffer();
+            }
+            // ASCII fast path, as much as fits in the buffer
+            if (pendingSurrogate == 0) {
+                int limit = Math.min(end, i + buffer.length - count);
+                while (i < limit) {
+                    char c = chars[i];
+                    if (c >= 0x80) break;
+                    buffer[count++] = (byte) c;
+                    i++;
+                }
+            }
+            if (i < end && count + 4 <= buffer.length) {
+                encode(chars[i++]);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (count + 4 > buffer.length) {
+                flushBuffer();
+            }
+            if (pendingSurrogate == 0) {
+                int limit = Math.min(end, i + buffer.length - count);
+                while (i < limit) {
+                    char c = str.charAt(i);
+                    if (c >= 0x80) break;
+                    buffer[count++] = (byte) c;
+                    i++;
+                }
+            }
+            if (i < end && count + 4 <= buffer.length) {
+                encode(str.charAt(i++));
+            }
+        }
+    }
+
+    /** Encodes a single char, the caller makes sure there are at least four free bytes */
+    private void encode(char c) {
+        if (pendingSurrogate != 0) {
+            char high = pendingSurrogate;
+            pendingSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                buffer[count++] = (byte) (0xF0 | (cp >> 18));
+                buffer[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            // unpaired, replace it and encode the current char on its own
+            buffer[count++] = REPLACEMENT;
+        }
+        if (c < 0x80) {
+            buffer[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[count++] = REPLACEMENT;
+        } else {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Writes out the buffered bytes and flushes the stream. A trailing high surrogate is kept, as
+     * it may be completed by the next write.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pendingSurrogate != 0) {
+            if (count + 1 > buffer.length) {
+                flushBuffer();
+            }
+            pendingSurrogate = 0;
+            buffer[count++] = REPLACEMENT;
+        }
+        try {
+            flushBuffer();
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+}
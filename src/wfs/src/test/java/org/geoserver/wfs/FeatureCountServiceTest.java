@@ -0,0 +1,262 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.namespace.QName;
+import org.geotools.api.data.FeatureSource;
+import org.geotools.api.data.Query;
+import org.geotools.api.filter.Filter;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.FeatureCollection;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class FeatureCountServiceTest {
+
+    static final QName LAYER = new QName("http://www.geoserver.org", "layer");
+
+    static final QName OTHER_LAYER = new QName("http://www.geoserver.org", "other");
+
+    FeatureCountService service;
+
+    AtomicInteger counts = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    private FeatureSource source(int size) throws Exception {
+        FeatureSource source = mock(FeatureSource.class);
+        FeatureCollection features = mock(FeatureCollection.class);
+        when(source.getFeatures(any(Query.class))).thenReturn(features);
+        when(features.size())
+                .thenAnswer(
+                        invocation -> {
+                            counts.incrementAndGet();
+                            return size;
+                        });
+        return source;
+    }
+
+    private CountExecutor counter(QName layer, Filter filter, FeatureSource source) {
+        Query query = new Query(layer.getLocalPart(), filter);
+        return new CountExecutor(source, query, service.getKey(layer, query));
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        service = new FeatureCountService(0, 0, 10);
+        assertFalse(service.isAsynchronous());
+        assertFalse(service.isCaching());
+        CountExecutor counter = counter(LAYER, Filter.INCLUDE, source(10));
+        assertNull(counter.key);
+        assertEquals(10, service.getCount(counter));
+        assertEquals(10, service.getCount(counter));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    public void testCacheHitAndInvalidation() throws Exception {
+        service = new FeatureCountService(0, 60, 10);
+        FeatureSource source = source(10);
+        Filter filter =
+                CommonFactoryFinder.getFilterFactory()
+                        .equals(
+                                CommonFactoryFinder.getFilterFactory().property("name"),
+                                CommonFactoryFinder.getFilterFactory().literal("abc"));
+        assertEquals(10, service.getCount(counter(LAYER, filter, source)));
+        // same query, cached
+        assertEquals(10, service.getCount(counter(LAYER, filter, source)));
+        assertEquals(1, counts.get());
+        // different filter, not cached
+        assertEquals(10, service.getCount(counter(LAYER, Filter.EXCLUDE, source)));
+        assertEquals(2, counts.get());
+        assertEquals(1, service.stats().hitCount());
+
+        // a transaction on another layer does not drop the entries
+        service.dataStoreChange(
+                new TransactionEvent(TransactionEventType.POST_UPDATE, null, OTHER_LAYER, null));
+        assertEquals(10, service.getCount(counter(LAYER, filter, source)));
+        assertEquals(2, counts.get());
+
+        // a transaction on the layer does
+        service.dataStoreChange(
+                new TransactionEvent(TransactionEventType.POST_UPDATE, null, LAYER, null));
+        assertEquals(10, service.getCount(counter(LAYER, filter, source)));
+        assertEquals(3, counts.get());
+    }
+
+    @Test
+    public void testKeyDependsOnRoles() throws Exception {
+        service = new FeatureCountService(0, 60, 10);
+        FeatureSource source = source(10);
+        try {
+            SecurityContextHolder.getContext()
+                    .setAuthentication(
+                            new TestingAuthenticationToken("user", null, "ROLE_A", "ROLE_B"));
+            CountExecutor counter = counter(LAYER, Filter.INCLUDE, source);
+            assertEquals(10, service.getCount(counter));
+            // same roles in a different order, cache hit
+            SecurityContextHolder.getContext()
+                    .setAuthentication(
+                            new TestingAuthenticationToken("user", null, "ROLE_B", "ROLE_A"));
+            assertEquals(counter.key, counter(LAYER, Filter.INCLUDE, source).key);
+            assertEquals(10, service.getCount(counter(LAYER, Filter.INCLUDE, source)));
+            assertEquals(1, counts.get());
+
+            // the user lost a role, the data security filters might differ
+            SecurityContextHolder.getContext()
+                    .setAuthentication(new TestingAuthenticationToken("user", null, "ROLE_A"));
+            assertEquals(10, service.getCount(counter(LAYER, Filter.INCLUDE, source)));
+            assertEquals(2, counts.get());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    public void testInvalidatedAfterTransaction() throws Exception {
+        service = new FeatureCountService(0, 60, 10);
+        FeatureSource source = source(10);
+        service.beforeTransaction(null);
+        service.dataStoreChange(
+                new TransactionEvent(TransactionEventType.POST_INSERT, null, LAYER, null));
+        // a count run before the commit gets cached
+        assertEquals(10, service.getCount(counter(LAYER, Filter.INCLUDE, source)));
+        assertEquals(1, service.cache.size());
+        // and dropped once the transaction is done
+        service.afterTransaction(null, null, true);
+        assertEquals(0, service.cache.size());
+    }
+
+    @Test
+    public void testUnknownCountNotCached() throws Exception {
+        service = new FeatureCountService(0, 60, 10);
+        FeatureSource source = source(-1);
+        assertEquals(-1, service.getCount(counter(LAYER, Filter.INCLUDE, source)));
+        assertEquals(0, service.cache.size());
+    }
+
+    @Test
+    public void testParallelCounts() throws Exception {
+        service = new FeatureCountService(2, 0, 10);
+        assertTrue(service.isAsynchronous());
+        // two counts blocking until both are running, would deadlock if run sequentially
+        CountDownLatch latch = new CountDownLatch(2);
+        FeatureSource source = mock(FeatureSource.class);
+        FeatureCollection features = mock(FeatureCollection.class);
+        when(source.getFeatures(any(Query.class))).thenReturn(features);
+        when(features.size())
+                .thenAnswer(
+                        invocation -> {
+                            latch.countDown();
+                            assertTrue(latch.await(10, TimeUnit.SECONDS));
+                            return 5;
+                        });
+        List<CountExecutor> counters =
+                Arrays.asList(
+                        counter(LAYER, Filter.INCLUDE, source),
+                        new CountExecutor(3),
+                        counter(OTHER_LAYER, Filter.INCLUDE, source));
+        List<CompletableFuture<Integer>> futures = service.submit(counters);
+        assertEquals(3, futures.size());
+        for (CompletableFuture<Integer> future : futures) {
+            assertNotNull(future);
+        }
+        assertTrue(futures.get(1).isDone());
+        assertEquals(13, service.getTotalCount(counters, futures));
+    }
+
+    @Test
+    public void testUnknownTotal() throws Exception {
+        service = new FeatureCountService(2, 0, 10);
+        List<CountExecutor> counters =
+                Arrays.asList(counter(LAYER, Filter.INCLUDE, source(-1)), new CountExecutor(3));
+        assertEquals(-1, service.getTotalCount(counters, service.submit(counters)));
+        assertEquals(-1, service.getTotalCount(counters, null));
+    }
+
+    @Test
+    public void testBackgroundFormats() throws Exception {
+        service = new FeatureCountService(2, 0, 10);
+        // default GML 3.2 output format
+        assertTrue(service.isBackgroundFormat(null));
+        assertTrue(service.isBackgroundFormat("application/gml+xml; version=3.2"));
+        assertTrue(service.isBackgroundFormat("text/xml;subtype=gml/3.2"));
+        assertTrue(service.isBackgroundFormat("application/json"));
+        // formats not encoding numberMatched
+        assertFalse(service.isBackgroundFormat("SHAPE-ZIP"));
+        assertFalse(service.isBackgroundFormat("csv"));
+
+        FeatureCountService configured = new FeatureCountService(2, 0, 10, "csv");
+        try {
+            assertTrue(configured.isBackgroundFormat("CSV"));
+            assertFalse(configured.isBackgroundFormat("application/json"));
+        } finally {
+            configured.destroy();
+        }
+
+        // no background counts without threads
+        FeatureCountService synchronous = new FeatureCountService(0, 0, 10);
+        assertFalse(synchronous.isBackgroundFormat("application/json"));
+    }
+
+    @Test
+    public void testCancelOnRequestFinished() throws Exception {
+        service = new FeatureCountService(1, 0, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        FeatureSource source = mock(FeatureSource.class);
+        FeatureCollection features = mock(FeatureCollection.class);
+        when(source.getFeatures(any(Query.class))).thenReturn(features);
+        when(features.size())
+                .thenAnswer(
+                        invocation -> {
+                            started.countDown();
+                            try {
+                                Thread.sleep(10000);
+                            } catch (InterruptedException e) {
+                                interrupted.countDown();
+                            }
+                            return 5;
+                        });
+        // the second count waits in the queue behind the first one
+        List<CountExecutor> counters =
+                Arrays.asList(
+                        counter(LAYER, Filter.INCLUDE, source),
+                        counter(OTHER_LAYER, Filter.INCLUDE, source(10)));
+        List<CompletableFuture<Integer>> futures = service.submit(counters);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        service.finished(null);
+        assertTrue(futures.get(0).isCancelled());
+        assertTrue(futures.get(1).isCancelled());
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        // the queued count is skipped
+        service.executor.shutdown();
+        assertTrue(service.executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, counts.get());
+    }
+}
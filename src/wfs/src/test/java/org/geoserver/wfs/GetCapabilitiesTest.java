@@ -9,14 +9,19 @@
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathNotExists;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
 import org.custommonkey.xmlunit.XMLAssert;
 import org.custommonkey.xmlunit.XMLUnit;
 import org.custommonkey.xmlunit.XpathEngine;
@@ -24,6 +29,7 @@
 import org.geoserver.catalog.FeatureTypeInfo;
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.config.CapabilitiesCacheHeadersCallback;
+import org.geoserver.config.CapabilitiesResponseCache;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.ResourceErrorHandling;
 import org.geoserver.data.test.CiteTestData;
@@ -369,6 +375,62 @@ public void testCachingHeadersDisabled() throws Exception {
         }
     }
 
+    @Test
+    public void testResponseCache() throws Exception {
+        CapabilitiesCacheHeadersCallback callback =
+                GeoServerExtensions.bean(CapabilitiesCacheHeadersCallback.class);
+        CapabilitiesResponseCache cache = callback.getResponseCache();
+        FeatureTypeInfo ft = getCatalog().getFeatureTypeByName(getLayerId(CiteTestData.BUILDINGS));
+        String title = ft.getTitle();
+        cache.setEnabled(true);
+        try {
+            String path = "wfs?service=WFS&version=1.0.0&request=getCapabilities";
+            MockHttpServletResponse first = dispatch(createGetRequestWithHeaders(path));
+            assertEquals(HttpStatus.OK.value(), first.getStatus());
+            String etag = first.getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag);
+            assertEquals(1, cache.stats().missCount());
+
+            // second request is a hit, returning the same document
+            MockHttpServletResponse second = dispatch(createGetRequestWithHeaders(path));
+            assertEquals(1, cache.stats().hitCount());
+            assertEquals(etag, second.getHeader(HttpHeaders.ETAG));
+            assertEquals(first.getContentAsString(), second.getContentAsString());
+
+            // compressed if the client accepts it
+            MockHttpServletResponse gzipped =
+                    dispatch(createGetRequestWithHeaders(path, "Accept-Encoding", "gzip"));
+            assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+            try (InputStream is =
+                    new GZIPInputStream(
+                            new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+                assertEquals(
+                        first.getContentAsString(),
+                        new String(is.readAllBytes(), first.getCharacterEncoding()));
+            }
+
+            // not modified
+            MockHttpServletResponse notModified =
+                    dispatch(createGetRequestWithHeaders(path, "If-None-Match", etag));
+            assertEquals(HttpStatus.NOT_MODIFIED.value(), notModified.getStatus());
+            assertEquals(0, notModified.getContentAsByteArray().length);
+
+            // a catalog change bumps the update sequence, the document is encoded again
+            ft.setTitle("A brand new title");
+            getCatalog().save(ft);
+            MockHttpServletResponse modified =
+                    dispatch(createGetRequestWithHeaders(path, "If-None-Match", etag));
+            assertEquals(HttpStatus.OK.value(), modified.getStatus());
+            assertNotEquals(etag, modified.getHeader(HttpHeaders.ETAG));
+            assertTrue(modified.getContentAsString().contains("A brand new title"));
+        } finally {
+            cache.setEnabled(false);
+            ft = getCatalog().getFeatureTypeByName(getLayerId(CiteTestData.BUILDINGS));
+            ft.setTitle(title);
+            getCatalog().save(ft);
+        }
+    }
+
     MockHttpServletRequest createGetRequestWithHeaders(String path, String... headers) {
         MockHttpServletRequest request = createRequest(path);
         request.setMethod("GET");
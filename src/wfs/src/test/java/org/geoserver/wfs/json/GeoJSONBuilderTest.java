@@ -13,17 +13,25 @@
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.TimeZone;
 import java.util.UUID;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 import org.junit.Before;
+import org.geotools.referencing.CRS;
 import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.locationtech.jts.io.WKTReader;
 
 public class GeoJSONBuilderTest {
@@ -538,4 +546,102 @@ private void addLevels(final GeoJSONBuilder builder, int level, final int max) {
         addLevels(builder, level, max);
         builder.endObject();
     }
+
+    @Test
+    public void testDirectEncodingSameAsLegacy() throws Exception {
+        Random random = new Random();
+        GeometryFactory gf = new GeometryFactory();
+        for (int i = 0; i < 500; i++) {
+            int dimension = 2 + random.nextInt(3);
+            int measures = dimension == 4 ? 1 : random.nextInt(2) * (dimension - 2);
+            LinearRing shell = gf.createLinearRing(randomRing(random, dimension, measures, 10));
+            LinearRing hole = gf.createLinearRing(randomRing(random, dimension, measures, 5));
+            Point point = gf.createPoint(randomSequence(random, dimension, measures, 1));
+            LineString line = gf.createLineString(randomSequence(random, dimension, measures, 20));
+            Polygon polygon = gf.createPolygon(shell, new LinearRing[] {hole});
+            Geometry[] geometries = {
+                point,
+                line,
+                polygon,
+                gf.createMultiPoint(new Point[] {point, point}),
+                gf.createMultiLineString(new LineString[] {line, line}),
+                gf.createMultiPolygon(new Polygon[] {polygon, polygon}),
+                gf.createGeometryCollection(new Geometry[] {point, line, polygon})
+            };
+            int numDecimals = random.nextInt(16);
+            CRS.AxisOrder axisOrder =
+                    random.nextBoolean() ? CRS.AxisOrder.EAST_NORTH : CRS.AxisOrder.NORTH_EAST;
+            boolean encodeMeasures = random.nextBoolean();
+            for (Geometry geometry : geometries) {
+                String direct = encode(geometry, true, numDecimals, axisOrder, encodeMeasures);
+                String legacy = encode(geometry, false, numDecimals, axisOrder, encodeMeasures);
+                assertEquals(geometry + " with " + numDecimals + " decimals", legacy, direct);
+            }
+        }
+    }
+
+    private String encode(
+            Geometry geometry,
+            boolean direct,
+            int numDecimals,
+            CRS.AxisOrder axisOrder,
+            boolean encodeMeasures) {
+        StringWriter writer = new StringWriter();
+        GeoJSONBuilder builder = new GeoJSONBuilder(writer);
+        builder.setDirectEncoding(direct);
+        builder.setNumberOfDecimals(numDecimals);
+        builder.setAxisOrder(axisOrder);
+        builder.setEncodeMeasures(encodeMeasures);
+        builder.object();
+        builder.key("geometry");
+        builder.writeGeom(geometry);
+        builder.key("other").value(geometry);
+        Envelope envelope = geometry.getEnvelopeInternal();
+        if (!envelope.isNull() && Double.isFinite(envelope.getArea())) {
+            builder.writeBoundingBox(envelope);
+        }
+        builder.endObject();
+        return writer.toString();
+    }
+
+    private CoordinateSequence randomSequence(
+            Random random, int dimension, int measures, int size) {
+        PackedCoordinateSequence.Double cs =
+                new PackedCoordinateSequence.Double(size, dimension, measures);
+        for (int i = 0; i < size; i++) {
+            for (int d = 0; d < dimension; d++) {
+                cs.setOrdinate(i, d, randomOrdinate(random));
+            }
+        }
+        return cs;
+    }
+
+    private double randomOrdinate(Random random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                // special values
+                double[] special = {
+                    Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0, 1e-7, 1e7
+                };
+                return special[random.nextInt(special.length)];
+            case 1:
+                // large and tiny values, outside of the fast formatting range
+                return (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+            case 2:
+                return random.nextInt(1000);
+            default:
+                return random.nextDouble() * 360 - 180;
+        }
+    }
+
+    /** A closed sequence, the first point has finite X and Y so that closure can be checked */
+    private CoordinateSequence randomRing(Random random, int dimension, int measures, int size) {
+        CoordinateSequence cs = randomSequence(random, dimension, measures, size);
+        cs.setOrdinate(0, 0, random.nextDouble());
+        cs.setOrdinate(0, 1, random.nextDouble());
+        for (int d = 0; d < dimension; d++) {
+            cs.setOrdinate(size - 1, d, cs.getOrdinate(0, d));
+        }
+        return cs;
+    }
 }
@@ -0,0 +1,142 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.output.NullOutputStream;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the {@link GeoJSONBuilder} throughput writing a collection of simple features, as
+ * {@link GeoJSONGetFeatureResponse} does, with the direct encoding to a {@link UTF8StreamWriter}
+ * and with the legacy {@link net.sf.json.util.JSONBuilder} path. Not part of the test suite, run
+ * it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.wfs.json.GeoJSONEncodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoJSONEncodingBenchmark {
+
+    static final int FEATURES = 1000;
+
+    @Param({"point", "line", "polygon"})
+    String geometry;
+
+    @Param({"true", "false"})
+    boolean direct;
+
+    Geometry[] geometries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        GeometryFactory gf = new GeometryFactory();
+        geometries = new Geometry[FEATURES];
+        for (int i = 0; i < FEATURES; i++) {
+            switch (geometry) {
+                case "point":
+                    geometries[i] = gf.createPoint(randomCoordinate(random));
+                    break;
+                case "line":
+                    geometries[i] = gf.createLineString(randomCoordinates(random, 100, false));
+                    break;
+                default:
+                    LinearRing shell = gf.createLinearRing(randomCoordinates(random, 500, true));
+                    geometries[i] = gf.createPolygon(shell);
+            }
+        }
+    }
+
+    private Coordinate[] randomCoordinates(Random random, int size, boolean closed) {
+        Coordinate[] coordinates = new Coordinate[size];
+        for (int i = 0; i < size; i++) {
+            coordinates[i] = randomCoordinate(random);
+        }
+        if (closed) {
+            coordinates[size - 1] = coordinates[0].copy();
+        }
+        return coordinates;
+    }
+
+    private Coordinate randomCoordinate(Random random) {
+        return new Coordinate(random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90);
+    }
+
+    /** Returns the number of features written, the output is discarded */
+    @Benchmark
+    public int encode() throws IOException {
+        Writer writer;
+        if (direct) {
+            writer = new UTF8StreamWriter(NullOutputStream.INSTANCE);
+        } else {
+            writer =
+                    new BufferedWriter(
+                            new OutputStreamWriter(
+                                    NullOutputStream.INSTANCE, StandardCharsets.UTF_8));
+        }
+        GeoJSONBuilder builder = new GeoJSONBuilder(writer);
+        builder.setDirectEncoding(direct);
+        builder.object().key("type").value("FeatureCollection");
+        builder.key("features").array();
+        for (int i = 0; i < geometries.length; i++) {
+            Geometry g = geometries[i];
+            builder.object();
+            builder.key("type").value("Feature");
+            builder.key("id").value("feature." + i);
+            builder.key("geometry").writeGeom(g);
+            builder.key("geometry_name").value("the_geom");
+            builder.key("properties").object();
+            builder.key("name").value("name " + i);
+            builder.key("value").value(i);
+            builder.endObject();
+            builder.writeBoundingBox(g.getEnvelopeInternal());
+            builder.endObject();
+        }
+        builder.endArray();
+        builder.endObject();
+        writer.flush();
+        return geometries.length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(GeoJSONEncodingBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
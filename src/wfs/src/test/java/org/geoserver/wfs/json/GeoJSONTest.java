@@ -156,6 +156,27 @@ public void testFeatureBoundingDisabledCollection() throws Exception {
         }
     }
 
+    @Test
+    public void testLegacyEncodingSameOutput() throws Exception {
+        String[] layers = {
+            "sf:PrimitiveGeoFeature", "sf:AggregateGeoFeature", "cite:Line3D", "cite:Lakes"
+        };
+        for (String layer : layers) {
+            String request = "wfs?request=GetFeature&version=1.0.0&typename=" + layer;
+            String direct = getAsString(request + "&outputformat=" + JSONType.json);
+            String legacy;
+            System.setProperty(GeoJSONGetFeatureResponse.LEGACY_ENCODING_KEY, "true");
+            try {
+                legacy = getAsString(request + "&outputformat=" + JSONType.json);
+            } finally {
+                System.clearProperty(GeoJSONGetFeatureResponse.LEGACY_ENCODING_KEY);
+            }
+            // the time stamps are going to be different
+            String timeStamp = "\"timeStamp\":\"[^\"]*\"";
+            assertEquals(layer, legacy.replaceAll(timeStamp, ""), direct.replaceAll(timeStamp, ""));
+        }
+    }
+
     @Test
     public void testGet() throws Exception {
         MockHttpServletResponse response =
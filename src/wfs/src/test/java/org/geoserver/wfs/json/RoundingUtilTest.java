@@ -11,6 +11,7 @@
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Random;
+import net.sf.json.util.JSONUtils;
 import org.junit.Test;
 
 /**
@@ -94,4 +95,62 @@ public void testRandomRoundingVsBigDecimal() {
             }
         }
     }
+
+    @Test
+    public void testFormatSpecificCases() {
+        assertFormat("0", 0d, 6);
+        assertFormat("0", -0.0000001, 6);
+        assertFormat("1", 1d, 6);
+        assertFormat("-1", -1d, 6);
+        assertFormat("0.001", 0.001, 6);
+        assertFormat("0.1", 0.1, 6);
+        assertFormat("0.5", 0.45, 1);
+        assertFormat("-179.123457", -179.1234567, 6);
+        assertFormat("9999999.99", 9999999.99, 2);
+        assertFormat("1234567.1234567", 1234567.1234567, 7);
+        // outside of the range handled without strings
+        assertThat(RoundingUtil.format(0.0001, 6, new char[32]), is(-1));
+        assertThat(RoundingUtil.format(1e7, 6, new char[32]), is(-1));
+        assertThat(RoundingUtil.format(Double.NaN, 6, new char[32]), is(-1));
+        assertThat(RoundingUtil.format(Double.POSITIVE_INFINITY, 6, new char[32]), is(-1));
+        assertThat(RoundingUtil.format(1.01234567890123456E12, 4, new char[32]), is(-1));
+    }
+
+    private void assertFormat(String expected, double value, int numDecimals) {
+        char[] buffer = new char[RoundingUtil.FORMAT_BUFFER_SIZE];
+        int length = RoundingUtil.format(value, numDecimals, buffer);
+        assertThat(new String(buffer, 0, length), is(equalTo(expected)));
+        assertThat(expected, is(equalTo(toJSON(RoundingUtil.round(value, numDecimals)))));
+    }
+
+    @Test
+    public void testRandomFormatVsRound() {
+        Random r = new Random();
+        char[] buffer = new char[RoundingUtil.FORMAT_BUFFER_SIZE];
+        for (int i = 0; i < 100000; i++) {
+            double value;
+            if (i % 3 == 0) {
+                value = r.nextDouble() * 360 - 180;
+            } else if (i % 3 == 1) {
+                value = (r.nextDouble() - 0.5) * Math.pow(10, r.nextInt(14) - 4);
+            } else {
+                value = Double.longBitsToDouble(r.nextLong());
+            }
+            for (int numDecimals = 0; numDecimals <= 15; numDecimals++) {
+                int length = RoundingUtil.format(value, numDecimals, buffer);
+                if (length >= 0) {
+                    String expected = toJSON(RoundingUtil.round(value, numDecimals));
+                    assertThat(
+                            value + " with " + numDecimals + " decimals",
+                            new String(buffer, 0, length),
+                            is(equalTo(expected)));
+                }
+            }
+        }
+    }
+
+    /** The JSON encoding of a double, as done by the builder */
+    private static String toJSON(double value) {
+        return JSONUtils.numberToString(value);
+    }
 }
@@ -0,0 +1,84 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wfs.json;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+public class UTF8StreamWriterTest {
+
+    @Test
+    public void testSpecificCases() throws Exception {
+        assertSameAsJDK("", 4);
+        assertSameAsJDK("plain ascii", 4);
+        assertSameAsJDK("caf\u00e9 \u4e2d\u6587 \ud83d\ude00", 4);
+        // unpaired surrogates
+        assertSameAsJDK("a\ud83db", 4);
+        assertSameAsJDK("a\ude00b", 4);
+        assertSameAsJDK("\ud83d\ud83d\ude00", 4);
+        assertSameAsJDK("trailing \ud83d", 4);
+    }
+
+    @Test
+    public void testRandomStrings() throws Exception {
+        Random random = new Random();
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(500); j > 0; j--) {
+                switch (random.nextInt(5)) {
+                    case 0:
+                        sb.append((char) (Character.MIN_SURROGATE + random.nextInt(0x800)));
+                        break;
+                    case 1:
+                        sb.appendCodePoint(Character.MIN_SUPPLEMENTARY_CODE_POINT + j);
+                        break;
+                    case 2:
+                        sb.append((char) random.nextInt(0x10000));
+                        break;
+                    default:
+                        sb.append((char) random.nextInt(0x80));
+                }
+            }
+            assertSameAsJDK(sb.toString(), 4 + random.nextInt(32));
+        }
+    }
+
+    /** Writes the string in pieces, with the various write methods, and compares with the JDK */
+    private void assertSameAsJDK(String value, int bufferSize) throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        Writer jdk = new BufferedWriter(new OutputStreamWriter(expected, StandardCharsets.UTF_8));
+        Writer writer = new UTF8StreamWriter(actual, bufferSize);
+        int start = 0;
+        for (int i = 0; start < value.length(); i++) {
+            int end = Math.min(value.length(), start + i % 11);
+            for (Writer w : new Writer[] {jdk, writer}) {
+                switch (i % 3) {
+                    case 0:
+                        w.write(value, start, end - start);
+                        break;
+                    case 1:
+                        w.write(value.toCharArray(), start, end - start);
+                        break;
+                    default:
+                        for (int c = start; c < end; c++) {
+                            w.write(value.charAt(c));
+                        }
+                }
+            }
+            start = end;
+        }
+        jdk.close();
+        writer.close();
+        assertArrayEquals(value, expected.toByteArray(), actual.toByteArray());
+    }
+}
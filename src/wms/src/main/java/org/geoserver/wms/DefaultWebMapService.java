@@ -107,6 +107,17 @@
     /** Use a global rendering pool, or use a new pool each time */
     private static Boolean USE_GLOBAL_RENDERING_POOL = null;
 
+    /**
+     * Max number of threads in the global rendering pool, a non positive value restores the
+     * unbounded pool
+     */
+    private static Integer RENDERING_POOL_MAX_THREADS = null;
+
+    /** Max number of threads in the global rendering pool working for the same request */
+    private static Integer RENDERING_POOL_MAX_REQUEST_THREADS = null;
+
+    private static final int DEFAULT_RENDERING_POOL_MAX_REQUEST_THREADS = 4;
+
     private GetCapabilities getCapabilities;
 
     private DescribeLayer describeLayer;
@@ -187,6 +198,24 @@ public void setApplicationContext(ApplicationContext context) throws BeansExcept
             if (usePool == null) USE_GLOBAL_RENDERING_POOL = true;
             else USE_GLOBAL_RENDERING_POOL = Boolean.valueOf(usePool);
         }
+
+        // limits of the global rendering thread pool
+        if (RENDERING_POOL_MAX_THREADS == null) {
+            String threads = GeoServerExtensions.getProperty("RENDERING_POOL_MAX_THREADS", context);
+            if (threads == null) RENDERING_POOL_MAX_THREADS = getDefaultRenderingPoolThreads();
+            else RENDERING_POOL_MAX_THREADS = Integer.valueOf(threads);
+        }
+        if (RENDERING_POOL_MAX_REQUEST_THREADS == null) {
+            String threads =
+                    GeoServerExtensions.getProperty("RENDERING_POOL_MAX_REQUEST_THREADS", context);
+            if (threads == null)
+                RENDERING_POOL_MAX_REQUEST_THREADS = DEFAULT_RENDERING_POOL_MAX_REQUEST_THREADS;
+            else RENDERING_POOL_MAX_REQUEST_THREADS = Integer.valueOf(threads);
+        }
+    }
+
+    private static int getDefaultRenderingPoolThreads() {
+        return Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
     }
 
     /**
@@ -334,12 +363,31 @@ public static void autoSetBoundsAndSize(GetMapRequest getMap) {
         new GetMapDefaults().autoSetBoundsAndSize(getMap);
     }
 
-    /** Returns a app wide cached rendering pool that can be used for parallelized rendering */
+    /**
+     * Returns a app wide cached rendering pool that can be used for parallelized rendering. The
+     * pool is a {@link FairRenderingExecutor} limited to RENDERING_POOL_MAX_THREADS threads,
+     * RENDERING_POOL_MAX_REQUEST_THREADS of them working for the same request, unless
+     * RENDERING_POOL_MAX_THREADS is not positive, in which case it's unbounded.
+     */
     public static ExecutorService getRenderingPool() {
         if (USE_GLOBAL_RENDERING_POOL && RENDERING_POOL == null) {
             synchronized (DefaultWebMapService.class) {
                 if (RENDERING_POOL == null) {
-                    RENDERING_POOL = new ThreadLocalTransferExecutor();
+                    int maxThreads =
+                            RENDERING_POOL_MAX_THREADS != null
+                                    ? RENDERING_POOL_MAX_THREADS
+                                    : getDefaultRenderingPoolThreads();
+                    int maxRequestThreads =
+                            RENDERING_POOL_MAX_REQUEST_THREADS != null
+                                    ? RENDERING_POOL_MAX_REQUEST_THREADS
+                                    : DEFAULT_RENDERING_POOL_MAX_REQUEST_THREADS;
+                    if (maxThreads > 0) {
+                        RENDERING_POOL =
+                                new FairRenderingExecutor(
+                                        maxThreads, Math.max(1, maxRequestThreads));
+                    } else {
+                        RENDERING_POOL = new ThreadLocalTransferExecutor();
+                    }
                 }
             }
         }
@@ -0,0 +1,344 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+
+/**
+ * The rendering pool used by the {@link org.geotools.renderer.lite.StreamingRenderer} painter
+ * threads. Unlike a cached thread pool it runs at most <code>maxThreads</code> tasks at the same
+ * time, and at most <code>maxRequestThreads</code> tasks for the same OWS {@link Request}, queueing
+ * the others.
+ *
+ * <p>Queued tasks are grouped by request, and the requests take turns in round robin order as
+ * threads become available, so that a request submitting many tasks (e.g., an animation, or a
+ * large number of renderers) cannot starve the others. Like {@link ThreadLocalTransferExecutor},
+ * the thread locals of the submitting thread are transferred to the task using the Spring
+ * registered {@link org.geoserver.threadlocals.ThreadLocalTransfer}.
+ *
+ * <p>Tasks submitted outside of a request are grouped by submitting thread.
+ */
+public class FairRenderingExecutor extends AbstractExecutorService {
+
+    final int maxThreads;
+
+    final int maxRequestThreads;
+
+    final ThreadPoolExecutor workers;
+
+    /** The requests with queued or running tasks, guarded by this */
+    final Map<Object, RequestTasks> requests = new IdentityHashMap<>();
+
+    /** The requests with queued tasks and below their parallelism limit, in turn order */
+    final ArrayDeque<RequestTasks> ready = new ArrayDeque<>();
+
+    int running;
+
+    int queued;
+
+    boolean shutdown;
+
+    // statistics, guarded by this
+
+    long dispatched;
+
+    long completed;
+
+    long waitNanos;
+
+    int peakQueued;
+
+    /** Count of dispatched tasks by the number of tasks of the same request running with them */
+    final long[] requestParallelism;
+
+    /**
+     * @param maxThreads the maximum number of tasks running at the same time
+     * @param maxRequestThreads the maximum number of tasks of the same request running at the same
+     *     time
+     */
+    public FairRenderingExecutor(int maxThreads, int maxRequestThreads) {
+        if (maxThreads <= 0 || maxRequestThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "Thread limits must be positive: " + maxThreads + ", " + maxRequestThreads);
+        }
+        this.maxThreads = maxThreads;
+        this.maxRequestThreads = Math.min(maxThreads, maxRequestThreads);
+        this.requestParallelism = new long[this.maxRequestThreads];
+        this.workers =
+                new ThreadPoolExecutor(
+                        maxThreads,
+                        maxThreads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        new RenderingThreadFactory());
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        Task task = new Task(command, new ThreadLocalsTransfer());
+        Object key = getRequestKey();
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException("The rendering pool has been shut down");
+            }
+            RequestTasks tasks = requests.computeIfAbsent(key, RequestTasks::new);
+            tasks.pending.add(task);
+            queued++;
+            peakQueued = Math.max(peakQueued, queued);
+            tasks.makeReady();
+            dispatch();
+        }
+    }
+
+    private static Object getRequestKey() {
+        Request request = Dispatcher.REQUEST.get();
+        return request != null ? request : Thread.currentThread();
+    }
+
+    /** Hands over queued tasks to the workers, as long as there are free slots. */
+    private void dispatch() {
+        while (running < maxThreads && !ready.isEmpty()) {
+            RequestTasks tasks = ready.poll();
+            tasks.ready = false;
+            Task task = tasks.pending.poll();
+            queued--;
+            tasks.running++;
+            running++;
+
+            dispatched++;
+            waitNanos += System.nanoTime() - task.queued;
+            requestParallelism[tasks.running - 1]++;
+
+            // back at the end of the line, if it has more to run
+            tasks.makeReady();
+            workers.execute(() -> run(tasks, task));
+        }
+    }
+
+    private void run(RequestTasks tasks, Task task) {
+        try {
+            task.transfer.apply();
+            try {
+                task.delegate.run();
+            } finally {
+                task.transfer.cleanup();
+            }
+        } finally {
+            completed(tasks);
+        }
+    }
+
+    private synchronized void completed(RequestTasks tasks) {
+        tasks.running--;
+        running--;
+        completed++;
+        if (tasks.pending.isEmpty()) {
+            if (tasks.running == 0) {
+                requests.remove(tasks.key);
+            }
+        } else {
+            tasks.makeReady();
+        }
+        dispatch();
+        if (shutdown && running == 0 && queued == 0) {
+            workers.shutdown();
+            notifyAll();
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (running == 0 && queued == 0) {
+            workers.shutdown();
+        }
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> result = new ArrayList<>();
+        for (RequestTasks tasks : requests.values()) {
+            for (Task task : tasks.pending) {
+                result.add(task.delegate);
+            }
+            tasks.pending.clear();
+        }
+        ready.clear();
+        queued = 0;
+        workers.shutdownNow();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return shutdown && queued == 0 && workers.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (queued > 0 || running > 0) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+        }
+        return workers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /** The maximum number of tasks running at the same time */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /** The maximum number of tasks of the same request running at the same time */
+    public int getMaxRequestThreads() {
+        return maxRequestThreads;
+    }
+
+    /** The number of tasks waiting for a thread */
+    public synchronized int getQueueDepth() {
+        return queued;
+    }
+
+    /** The highest number of tasks waiting for a thread seen so far */
+    public synchronized int getPeakQueueDepth() {
+        return peakQueued;
+    }
+
+    /** The number of tasks currently running */
+    public synchronized int getRunningTasks() {
+        return running;
+    }
+
+    /** The number of requests with queued or running tasks */
+    public synchronized int getActiveRequests() {
+        return requests.size();
+    }
+
+    /** The number of tasks that completed */
+    public synchronized long getCompletedTasks() {
+        return completed;
+    }
+
+    /** The average time tasks spent in the queue, in milliseconds */
+    public synchronized double getAverageWaitMillis() {
+        return dispatched == 0 ? 0 : waitNanos / 1e6 / dispatched;
+    }
+
+    /**
+     * The number of tasks started while <code>i</code> other tasks of the same request were
+     * running, for <code>i</code> between 0 and {@link #getMaxRequestThreads()} - 1
+     */
+    public synchronized long[] getRequestParallelism() {
+        return requestParallelism.clone();
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder parallelism = new StringBuilder();
+        for (int i = 0; i < requestParallelism.length; i++) {
+            if (requestParallelism[i] > 0) {
+                if (parallelism.length() > 0) {
+                    parallelism.append(", ");
+                }
+                parallelism.append(i + 1).append(": ").append(requestParallelism[i]);
+            }
+        }
+        return String.format(
+                Locale.ENGLISH,
+                "maxThreads=%d, maxRequestThreads=%d, running=%d, queued=%d, peakQueued=%d, "
+                        + "activeRequests=%d, completed=%d, averageWaitMs=%.3f, "
+                        + "requestParallelism=[%s]",
+                maxThreads,
+                maxRequestThreads,
+                running,
+                queued,
+                peakQueued,
+                requests.size(),
+                completed,
+                getAverageWaitMillis(),
+                parallelism);
+    }
+
+    /** The queued tasks of a request, guarded by the executor lock */
+    final class RequestTasks {
+
+        final Object key;
+
+        final ArrayDeque<Task> pending = new ArrayDeque<>();
+
+        int running;
+
+        /** Whether it's in the ready queue already */
+        boolean ready;
+
+        RequestTasks(Object key) {
+            this.key = key;
+        }
+
+        void makeReady() {
+            if (!ready && !pending.isEmpty() && running < maxRequestThreads) {
+                ready = true;
+                FairRenderingExecutor.this.ready.add(this);
+            }
+        }
+    }
+
+    static final class Task {
+
+        final Runnable delegate;
+
+        final ThreadLocalsTransfer transfer;
+
+        final long queued = System.nanoTime();
+
+        Task(Runnable delegate, ThreadLocalsTransfer transfer) {
+            this.delegate = delegate;
+            this.transfer = transfer;
+        }
+    }
+
+    static final class RenderingThreadFactory implements ThreadFactory {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "RenderingPool-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
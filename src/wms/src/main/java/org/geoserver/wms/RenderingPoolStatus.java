@@ -0,0 +1,62 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import org.geoserver.platform.ModuleStatus;
+
+/**
+ * Reports the queue depth and per request parallelism of the global WMS rendering pool, shows up
+ * in the {@code rest/about/status} endpoint and the server status page.
+ */
+public class RenderingPoolStatus implements ModuleStatus {
+
+    @Override
+    public String getModule() {
+        return "gs-wms";
+    }
+
+    @Override
+    public Optional<String> getComponent() {
+        return Optional.of("RenderingPool");
+    }
+
+    @Override
+    public String getName() {
+        return "WMS Rendering Pool";
+    }
+
+    @Override
+    public Optional<String> getVersion() {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return DefaultWebMapService.RENDERING_POOL != null;
+    }
+
+    @Override
+    public Optional<String> getMessage() {
+        ExecutorService pool = DefaultWebMapService.RENDERING_POOL;
+        if (pool instanceof FairRenderingExecutor) {
+            return Optional.of(pool.toString());
+        } else if (pool != null) {
+            return Optional.of("Unbounded rendering pool");
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<String> getDocumentation() {
+        return Optional.empty();
+    }
+}
@@ -17,6 +17,10 @@
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.imageio.ImageIO;
@@ -64,6 +68,26 @@ public final class MetatileMapOutputFormat implements GetMapOutputFormat {
 
     private static String DEBUG_DIR;
 
+    static final String SINGLE_FLIGHT_TIMEOUT_KEY =
+            "org.geoserver.wms.map.MetatileMapOutputFormat.singleFlightTimeout";
+
+    static final long DEFAULT_SINGLE_FLIGHT_TIMEOUT = 10000;
+
+    /**
+     * When enabled, requests for a meta-tile being rendered by another request wait on the shared
+     * result for a limited time, instead of synchronizing on the meta-tile key
+     */
+    static boolean SINGLE_FLIGHT =
+            Boolean.valueOf(
+                    GeoServerExtensions.getProperty(
+                            "org.geoserver.wms.map.MetatileMapOutputFormat.singleFlight"));
+
+    /**
+     * Maximum time, in milliseconds, a request waits for a meta-tile rendered by another request in
+     * single flight mode, before rendering it on its own
+     */
+    static long SINGLE_FLIGHT_TIMEOUT = getSingleFlightTimeout();
+
     static {
         if (DEBUG) {
             final File tempDir =
@@ -80,6 +104,26 @@ public final class MetatileMapOutputFormat implements GetMapOutputFormat {
         }
     }
 
+    static long getSingleFlightTimeout() {
+        String timeout = GeoServerExtensions.getProperty(SINGLE_FLIGHT_TIMEOUT_KEY);
+        if (timeout != null) {
+            try {
+                return Long.parseLong(timeout.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Invalid value for "
+                                + SINGLE_FLIGHT_TIMEOUT_KEY
+                                + ": "
+                                + timeout
+                                + ", using the default of "
+                                + DEFAULT_SINGLE_FLIGHT_TIMEOUT
+                                + "ms instead");
+            }
+        }
+        return DEFAULT_SINGLE_FLIGHT_TIMEOUT;
+    }
+
     /**
      * Write the provided {@link RenderedImage} in the debug directory with the provided file name.
      *
@@ -107,10 +151,15 @@ static void writeRenderedImage(final RenderedImage raster, final String fileName
     private RenderedImageMapOutputFormat delegate;
 
     public MetatileMapOutputFormat(GetMapRequest request, RenderedImageMapOutputFormat delegate) {
-        if (tileCache == null) {
-            // the meta tile cache is a singleton, so no need to keep it as a static member
-            tileCache = (QuickTileCache) GeoServerExtensions.bean("metaTileCache");
-        }
+        // the meta tile cache is a singleton, so no need to keep it as a static member
+        this(request, delegate, (QuickTileCache) GeoServerExtensions.bean("metaTileCache"));
+    }
+
+    MetatileMapOutputFormat(
+            GetMapRequest request,
+            RenderedImageMapOutputFormat delegate,
+            QuickTileCache tileCache) {
+        this.tileCache = tileCache;
         this.request = request;
         this.delegate = delegate;
     }
@@ -126,61 +175,156 @@ public WebMap produceMap(WMSMapContent mapContent) throws ServiceException, IOEx
         // to be used)
         QuickTileCache.MetaTileKey key = tileCache.getMetaTileKey(request);
 
+        if (SINGLE_FLIGHT) {
+            return produceMapSingleFlight(key, mapContent);
+        }
+
         synchronized (key) {
             RenderedImage tile = tileCache.getTile(key, request);
+            logCacheLookup(key, tile);
+
             List<GridCoverage2D> renderedCoverages = null;
+            if (tile == null) {
+                RenderedImageMap metaTileMap = renderMetaTile(key, mapContent);
+                RenderedImage[] tiles = split(key, metaTileMap.getImage());
+                tileCache.storeTiles(key, tiles);
+                tile = tileCache.getTile(key, request, tiles);
+                renderedCoverages = metaTileMap.getRenderedCoverages();
+            }
+            RenderedImageMap tileMap = new RenderedImageMap(mapContent, tile, getMimeType());
+            tileMap.setRenderedCoverages(renderedCoverages);
+            return tileMap;
+        }
+    }
+
+    /**
+     * Single flight version of the meta-tile production, the first request renders the meta-tile,
+     * the others wait for the shared result up to {@link #SINGLE_FLIGHT_TIMEOUT} milliseconds, and
+     * then fall back on rendering the meta-tile on their own
+     */
+    WebMap produceMapSingleFlight(MetaTileKey key, WMSMapContent mapContent) throws IOException {
+        RenderedImage tile = tileCache.getTile(key, request);
+        logCacheLookup(key, tile);
+        if (tile != null) {
+            return new RenderedImageMap(mapContent, tile, getMimeType());
+        }
 
-            if (LOGGER.isLoggable(Level.FINER)) {
-                LOGGER.finer(
-                        "Looked for meta tile "
+        CompletableFuture<RenderedImage[]> flight = new CompletableFuture<>();
+        CompletableFuture<RenderedImage[]> existing = tileCache.startFlight(key, flight);
+        if (existing != null) {
+            RenderedImage[] tiles = awaitFlight(key, existing);
+            if (tiles != null) {
+                tile = tileCache.getTile(key, request, tiles);
+                return new RenderedImageMap(mapContent, tile, getMimeType());
+            }
+            // the other request failed or is taking too long, render on our own
+            // without sharing the results
+            flight = null;
+        } else {
+            // the meta-tile might have been stored between the cache lookup and the flight start
+            RenderedImage[] tiles = tileCache.getTiles(key);
+            if (tiles != null) {
+                flight.complete(tiles);
+                tileCache.endFlight(key, flight);
+                tile = tileCache.getTile(key, request, tiles);
+                return new RenderedImageMap(mapContent, tile, getMimeType());
+            }
+        }
+
+        try {
+            RenderedImageMap metaTileMap = renderMetaTile(key, mapContent);
+            RenderedImage[] tiles = split(key, metaTileMap.getImage());
+            tileCache.storeTiles(key, tiles);
+            if (flight != null) {
+                flight.complete(tiles);
+            }
+            tile = tileCache.getTile(key, request, tiles);
+            RenderedImageMap tileMap = new RenderedImageMap(mapContent, tile, getMimeType());
+            tileMap.setRenderedCoverages(metaTileMap.getRenderedCoverages());
+            return tileMap;
+        } catch (Throwable t) {
+            // release the waiters on any failure, including errors
+            if (flight != null) {
+                flight.completeExceptionally(t);
+            }
+            throw t;
+        } finally {
+            if (flight != null) {
+                tileCache.endFlight(key, flight);
+            }
+        }
+    }
+
+    /** Waits for the meta-tile rendered by another request, returns null if it did not arrive */
+    private RenderedImage[] awaitFlight(
+            MetaTileKey key, CompletableFuture<RenderedImage[]> flight) {
+        try {
+            return flight.get(SINGLE_FLIGHT_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for meta tile " + key, e);
+        } catch (TimeoutException e) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(
+                        "Timed out waiting for meta tile "
                                 + key.metaTileCoords.x
                                 + ", "
                                 + key.metaTileCoords.y
-                                + "in cache: "
-                                + ((tile != null) ? "hit!" : "miss"));
+                                + ", rendering it again");
             }
+        } catch (ExecutionException e) {
+            LOGGER.log(
+                    Level.FINE,
+                    "Another request failed to build the meta tile, rendering it again",
+                    e.getCause());
+        }
+        return null;
+    }
 
-            if (tile == null) {
-                // compute the meta-tile
-                if (LOGGER.isLoggable(Level.FINER)) {
-                    LOGGER.finer(
-                            "Building meta tile "
-                                    + key.metaTileCoords.x
-                                    + ", "
-                                    + key.metaTileCoords.y
-                                    + " of size w="
-                                    + key.getTileSize() * key.getMetaFactor()
-                                    + ", h="
-                                    + key.getTileSize() * key.getMetaFactor()
-                                    + " with metatilign factor "
-                                    + key.getMetaFactor());
-                }
+    private void logCacheLookup(MetaTileKey key, RenderedImage tile) {
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.finer(
+                    "Looked for meta tile "
+                            + key.metaTileCoords.x
+                            + ", "
+                            + key.metaTileCoords.y
+                            + "in cache: "
+                            + ((tile != null) ? "hit!" : "miss"));
+        }
+    }
 
-                // alter the map definition so that we build a meta-tile instead
-                // of just the tile
-                mapContent.getViewport().setBounds(key.getMetaTileEnvelope());
-                mapContent.setMapWidth(key.getTileSize() * key.getMetaFactor());
-                mapContent.setMapHeight(key.getTileSize() * key.getMetaFactor());
-                mapContent.setTileSize(key.getTileSize());
+    /** Renders the whole meta-tile the key refers to */
+    private RenderedImageMap renderMetaTile(MetaTileKey key, WMSMapContent mapContent)
+            throws IOException {
+        // compute the meta-tile
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.finer(
+                    "Building meta tile "
+                            + key.metaTileCoords.x
+                            + ", "
+                            + key.metaTileCoords.y
+                            + " of size w="
+                            + key.getTileSize() * key.getMetaFactor()
+                            + ", h="
+                            + key.getTileSize() * key.getMetaFactor()
+                            + " with metatilign factor "
+                            + key.getMetaFactor());
+        }
 
-                // adjust the bbox/width/height env vars that GetMap setup, since we
-                // are changing them under its feet
-                EnvFunction.setLocalValue("wms_bbox", mapContent.getViewport().getBounds());
-                EnvFunction.setLocalValue("wms_width", mapContent.getMapWidth());
-                EnvFunction.setLocalValue("wms_height", mapContent.getMapHeight());
+        // alter the map definition so that we build a meta-tile instead
+        // of just the tile
+        mapContent.getViewport().setBounds(key.getMetaTileEnvelope());
+        mapContent.setMapWidth(key.getTileSize() * key.getMetaFactor());
+        mapContent.setMapHeight(key.getTileSize() * key.getMetaFactor());
+        mapContent.setTileSize(key.getTileSize());
 
-                RenderedImageMap metaTileMap = delegate.produceMap(mapContent);
+        // adjust the bbox/width/height env vars that GetMap setup, since we
+        // are changing them under its feet
+        EnvFunction.setLocalValue("wms_bbox", mapContent.getViewport().getBounds());
+        EnvFunction.setLocalValue("wms_width", mapContent.getMapWidth());
+        EnvFunction.setLocalValue("wms_height", mapContent.getMapHeight());
 
-                RenderedImage metaTile = metaTileMap.getImage();
-                RenderedImage[] tiles = split(key, metaTile);
-                tileCache.storeTiles(key, tiles);
-                tile = tileCache.getTile(key, request, tiles);
-                renderedCoverages = metaTileMap.getRenderedCoverages();
-            }
-            RenderedImageMap tileMap = new RenderedImageMap(mapContent, tile, getMimeType());
-            tileMap.setRenderedCoverages(renderedCoverages);
-            return tileMap;
-        }
+        return delegate.produceMap(mapContent);
     }
 
     /** @see org.geoserver.wms.GetMapOutputFormat#getOutputFormatNames() */
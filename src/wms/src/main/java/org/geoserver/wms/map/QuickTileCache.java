@@ -5,38 +5,79 @@
  */
 package org.geoserver.wms.map;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import java.awt.Point;
 import java.awt.geom.Point2D;
 import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.namespace.QName;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.ResourcePool;
 import org.geoserver.config.ConfigurationListenerAdapter;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.ServiceInfo;
 import org.geoserver.config.impl.GeoServerLifecycleHandler;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wfs.TransactionEvent;
 import org.geoserver.wfs.TransactionListener;
 import org.geoserver.wfs.WFSException;
 import org.geoserver.wms.GetMapRequest;
+import org.geoserver.wms.MapLayerInfo;
+import org.geoserver.wms.WMSInfo;
+import org.geotools.api.feature.type.Name;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.geometry.jts.ReferencedEnvelope3D;
 import org.geotools.gml2.SrsSyntax;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.CRS.AxisOrder;
 import org.geotools.util.CanonicalSet;
+import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.Envelope;
 
+/**
+ * Keeps the tiles of recently rendered meta-tiles around, so that the neighbouring tile requests
+ * issued by tiled clients can be served without rendering the same meta-tile again.
+ *
+ * <p>The cache is bounded by an approximate memory budget, expressed in bytes of raw pixel data,
+ * and evicts the least recently used meta-tiles once the budget is exceeded. The budget can be
+ * configured with the {@link #QUICK_TILE_CACHE_SIZE} system/environment variable. WFS transactions
+ * only invalidate the meta-tiles of the modified layers that intersect the modified area.
+ */
 public class QuickTileCache implements TransactionListener, GeoServerLifecycleHandler {
+
+    static final Logger LOGGER = Logging.getLogger(QuickTileCache.class);
+
+    /** Name of the variable used to set the memory budget of the cache, in bytes */
+    public static final String QUICK_TILE_CACHE_SIZE = "org.geoserver.wms.map.QuickTileCache.size";
+
+    /** Default memory budget, 64MB, enough for 28 meta-tiles in 32 bit color */
+    static final long DEFAULT_CACHE_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Minimum distance, in pixels, at which a modified feature can still draw into a meta-tile
+     * (symbolizer extent, labels), used when the request does not specify a larger buffer
+     */
+    static final int MIN_INVALIDATION_BUFFER = 256;
+
     /**
      * Set of parameters that we can ignore, since they do not define a map, are either unrelated,
      * or define the tiling instead
@@ -58,9 +99,14 @@ public class QuickTileCache implements TransactionListener, GeoServerLifecycleHa
     /** Canonicalizer used to return the same object when two threads ask for the same meta-tile */
     private CanonicalSet<MetaTileKey> metaTileKeys = CanonicalSet.newInstance(MetaTileKey.class);
 
-    private WeakHashMap<MetaTileKey, CacheElement> tileCache = new WeakHashMap<>();
+    private final Cache<MetaTileKey, CacheElement> tileCache;
+
+    /** Meta-tiles being rendered in single flight mode, see {@link MetatileMapOutputFormat} */
+    private final ConcurrentHashMap<MetaTileKey, CompletableFuture<RenderedImage[]>> flights =
+            new ConcurrentHashMap<>();
 
     public QuickTileCache(GeoServer geoServer) {
+        this(getConfiguredCacheSize());
         geoServer.addListener(
                 new ConfigurationListenerAdapter() {
                     @Override
@@ -69,7 +115,7 @@ public void handleGlobalChange(
                             List<String> propertyNames,
                             List<Object> oldValues,
                             List<Object> newValues) {
-                        tileCache.clear();
+                        clear();
                     }
 
                     @Override
@@ -78,18 +124,60 @@ public void handleServiceChange(
                             List<String> propertyNames,
                             List<Object> oldValues,
                             List<Object> newValues) {
-                        tileCache.clear();
+                        // other services configuration does not affect the maps
+                        if (service instanceof WMSInfo) {
+                            clear();
+                        }
                     }
 
                     @Override
                     public void reloaded() {
-                        tileCache.clear();
+                        clear();
                     }
                 });
     }
 
     /** For testing only */
-    QuickTileCache() {}
+    QuickTileCache() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Builds a cache holding at most the specified amount of bytes of pixel data. The cache uses a
+     * single segment, as Guava splits the maximum weight among segments, and a meta-tile heavier
+     * than the segment share would be evicted as soon as it's inserted.
+     *
+     * @param maxBytes the memory budget, in bytes
+     */
+    QuickTileCache(long maxBytes) {
+        this.tileCache =
+                CacheBuilder.newBuilder()
+                        .concurrencyLevel(1)
+                        .maximumWeight(maxBytes)
+                        .weigher((MetaTileKey k, CacheElement e) -> e.weight)
+                        .recordStats()
+                        .build();
+    }
+
+    static long getConfiguredCacheSize() {
+        String size = GeoServerExtensions.getProperty(QUICK_TILE_CACHE_SIZE);
+        if (size != null) {
+            try {
+                return Long.parseLong(size.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Invalid value for "
+                                + QUICK_TILE_CACHE_SIZE
+                                + ": "
+                                + size
+                                + ", using the default of "
+                                + DEFAULT_CACHE_SIZE
+                                + " bytes instead");
+            }
+        }
+        return DEFAULT_CACHE_SIZE;
+    }
 
     /**
      * Given a tiled request, builds a key that can be used to access the cache looking for a
@@ -121,7 +209,13 @@ public MetaTileKey getMetaTileKey(GetMapRequest request) {
         Point tileCoords = getTileCoordinates(bbox, origin);
         Point metaTileCoords = getMetaTileCoordinates(tileCoords);
         ReferencedEnvelope metaTileEnvelope = getMetaTileEnvelope(bbox, tileCoords, metaTileCoords);
-        MetaTileKey key = new MetaTileKey(mapKey, metaTileCoords, metaTileEnvelope);
+        MetaTileKey key =
+                new MetaTileKey(
+                        mapKey,
+                        metaTileCoords,
+                        metaTileEnvelope,
+                        getLayerNames(request),
+                        request.getBuffer());
 
         // since this will be used for thread synchronization, we have to make
         // sure two thread asking for the same meta tile will get the same key
@@ -129,6 +223,28 @@ public MetaTileKey getMetaTileKey(GetMapRequest request) {
         return metaTileKeys.unique(key);
     }
 
+    /**
+     * Returns the qualified names of the resources painted by the request, used to invalidate the
+     * cache on transactions, or null if some of the layers cannot be identified
+     */
+    private Set<QName> getLayerNames(GetMapRequest request) {
+        List<MapLayerInfo> layers = request.getLayers();
+        if (layers == null) {
+            return null;
+        }
+        Set<QName> names = new HashSet<>();
+        for (MapLayerInfo layer : layers) {
+            ResourceInfo resource = layer.getResource();
+            if (resource == null) {
+                // remote layer, or a layer built on the fly, cannot tell when it changes
+                return null;
+            }
+            Name name = resource.getQualifiedName();
+            names.add(new QName(name.getNamespaceURI(), name.getLocalPart()));
+        }
+        return names;
+    }
+
     private ReferencedEnvelope getMetaTileEnvelope(
             ReferencedEnvelope bbox, Point tileCoords, Point metaTileCoords) {
         double minx = bbox.getMinX() + (metaTileCoords.x - tileCoords.x) * bbox.getWidth();
@@ -279,12 +395,60 @@ static class MetaTileKey {
 
         ReferencedEnvelope metaTileEnvelope;
 
+        /** The resources painted in the meta-tile, or null if unknown. Not part of the identity */
+        Set<QName> layerNames;
+
+        /** The rendering buffer requested, in pixels. Not part of the identity */
+        int buffer;
+
         public MetaTileKey(
                 MapKey mapKey, Point metaTileCoords, ReferencedEnvelope metaTileEnvelope) {
+            this(mapKey, metaTileCoords, metaTileEnvelope, null);
+        }
+
+        public MetaTileKey(
+                MapKey mapKey,
+                Point metaTileCoords,
+                ReferencedEnvelope metaTileEnvelope,
+                Set<QName> layerNames) {
+            this(mapKey, metaTileCoords, metaTileEnvelope, layerNames, 0);
+        }
+
+        public MetaTileKey(
+                MapKey mapKey,
+                Point metaTileCoords,
+                ReferencedEnvelope metaTileEnvelope,
+                Set<QName> layerNames,
+                int buffer) {
             super();
             this.mapKey = mapKey;
             this.metaTileCoords = metaTileCoords;
             this.metaTileEnvelope = metaTileEnvelope;
+            this.layerNames = layerNames;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Returns true if the meta-tile might contain the specified layer (will always return true
+         * if the layers of the meta-tile are unknown)
+         */
+        boolean dependsOn(QName layerName) {
+            if (layerNames == null || layerName == null) {
+                return true;
+            }
+            if (layerNames.contains(layerName)) {
+                return true;
+            }
+            // the transaction might not have a namespace, compare the local part only then
+            String namespace = layerName.getNamespaceURI();
+            if (namespace == null || namespace.isEmpty()) {
+                for (QName name : layerNames) {
+                    if (name.getLocalPart().equals(layerName.getLocalPart())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
         }
 
         public ReferencedEnvelope getMetaTileEnvelope() {
@@ -299,6 +463,17 @@ public ReferencedEnvelope getMetaTileEnvelope() {
             return metaTileEnvelope;
         }
 
+        /**
+         * Returns the area where modified features can affect the meta-tile rendering, that is,
+         * the meta-tile envelope expanded by the rendering buffer in world units, and at least by
+         * {@link QuickTileCache#MIN_INVALIDATION_BUFFER} pixels
+         */
+        ReferencedEnvelope getInvalidationEnvelope() {
+            ReferencedEnvelope envelope = new ReferencedEnvelope(metaTileEnvelope);
+            envelope.expandBy(Math.max(buffer, MIN_INVALIDATION_BUFFER) * mapKey.resolution);
+            return envelope;
+        }
+
         @Override
         public int hashCode() {
             return new HashCodeBuilder().append(mapKey).append(metaTileCoords).toHashCode();
@@ -333,8 +508,8 @@ public String toString() {
     }
 
     /** Gathers a tile from the cache, if available */
-    public synchronized RenderedImage getTile(MetaTileKey key, GetMapRequest request) {
-        CacheElement ce = tileCache.get(key);
+    public RenderedImage getTile(MetaTileKey key, GetMapRequest request) {
+        CacheElement ce = tileCache.getIfPresent(key);
 
         if (ce == null) {
             return null;
@@ -355,39 +530,159 @@ public RenderedImage getTile(MetaTileKey key, GetMapRequest request, RenderedIma
         return tiles[tileCoord.x + (tileCoord.y * key.getMetaFactor())];
     }
 
+    /**
+     * Returns the tiles of the meta-tile, if available, without affecting the statistics. Used to
+     * check again the cache after having registered a flight for the meta-tile.
+     */
+    RenderedImage[] getTiles(MetaTileKey key) {
+        CacheElement ce = tileCache.asMap().get(key);
+        return ce != null ? ce.tiles : null;
+    }
+
     /**
      * Puts the specified tile array in the cache, and returns the tile the request was looking for
      */
-    public synchronized void storeTiles(MetaTileKey key, RenderedImage[] tiles) {
+    public void storeTiles(MetaTileKey key, RenderedImage[] tiles) {
         tileCache.put(key, new CacheElement(tiles));
     }
 
-    class CacheElement {
+    /**
+     * Registers the rendering of a meta-tile. Returns null if the caller is the first to render it,
+     * otherwise returns the pending rendering the caller can wait on
+     */
+    CompletableFuture<RenderedImage[]> startFlight(
+            MetaTileKey key, CompletableFuture<RenderedImage[]> flight) {
+        return flights.putIfAbsent(key, flight);
+    }
+
+    /** Unregisters the rendering of a meta-tile, to be called once it completed or failed */
+    void endFlight(MetaTileKey key, CompletableFuture<RenderedImage[]> flight) {
+        flights.remove(key, flight);
+    }
+
+    /** Returns the hit, miss and eviction statistics of the cache */
+    public CacheStats getStatistics() {
+        return tileCache.stats();
+    }
+
+    /** Returns the number of meta-tiles currently held in the cache */
+    public long size() {
+        return tileCache.size();
+    }
+
+    /** Checks if the meta-tile is in the cache, without affecting the statistics */
+    boolean contains(MetaTileKey key) {
+        return tileCache.asMap().containsKey(key);
+    }
+
+    /** Removes all the meta-tiles from the cache */
+    public void clear() {
+        tileCache.invalidateAll();
+    }
+
+    static class CacheElement {
         RenderedImage[] tiles;
 
+        /** Approximate size of the tiles pixel data, in bytes */
+        int weight;
+
         public CacheElement(RenderedImage[] tiles) {
             this.tiles = tiles;
+            this.weight = getWeight(tiles);
+        }
+
+        static int getWeight(RenderedImage[] tiles) {
+            long bytes = 0;
+            for (RenderedImage tile : tiles) {
+                if (tile != null) {
+                    SampleModel sm = tile.getSampleModel();
+                    long bitsPerPixel = 0;
+                    for (int size : sm.getSampleSize()) {
+                        bitsPerPixel += size;
+                    }
+                    bytes += (long) tile.getWidth() * tile.getHeight() * bitsPerPixel / 8;
+                }
+            }
+            return (int) Math.min(bytes, Integer.MAX_VALUE);
         }
     }
 
+    /**
+     * Invalidates the meta-tiles containing the modified layer and close enough to the modified
+     * area to be affected by it, see {@link MetaTileKey#getInvalidationEnvelope()}. If the modified
+     * area cannot be computed, all the meta-tiles containing the layer are removed.
+     */
     @Override
     public void dataStoreChange(TransactionEvent event) throws WFSException {
-        // if anything changes we just wipe out the cache. the mapkey
-        // contains a string with part of the map request where the layer
-        // name is included, but we would have to parse it and consider
-        // also that the namespace may be missing in the getmap request
-        tileCache.clear();
+        QName layerName = event.getLayerName();
+        ReferencedEnvelope bounds = getAffectedBounds(event);
+        // transformed bounds, shared among meta-tiles in the same CRS
+        Map<CoordinateReferenceSystem, ReferencedEnvelope> transformed = new HashMap<>();
+        for (MetaTileKey key : tileCache.asMap().keySet()) {
+            if (!key.dependsOn(layerName)) {
+                continue;
+            }
+            ReferencedEnvelope metaTileEnvelope = key.getMetaTileEnvelope();
+            CoordinateReferenceSystem crs = metaTileEnvelope.getCoordinateReferenceSystem();
+            ReferencedEnvelope keyBounds =
+                    transformed.computeIfAbsent(crs, c -> transform(bounds, c));
+            if (keyBounds == null
+                    || keyBounds.intersects((Envelope) key.getInvalidationEnvelope())) {
+                tileCache.invalidate(key);
+            }
+        }
+    }
+
+    /** Returns the bounds of the features affected by the transaction, or null if not available */
+    private ReferencedEnvelope getAffectedBounds(TransactionEvent event) {
+        try {
+            SimpleFeatureCollection features = event.getAffectedFeatures();
+            if (features == null) {
+                return null;
+            }
+            ReferencedEnvelope bounds = features.getBounds();
+            if (bounds == null || bounds.getCoordinateReferenceSystem() == null) {
+                return null;
+            }
+            if (bounds instanceof ReferencedEnvelope3D) {
+                CoordinateReferenceSystem crs = bounds.getCoordinateReferenceSystem();
+                bounds = new ReferencedEnvelope(bounds, CRS.getHorizontalCRS(crs));
+            }
+            return bounds;
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Failed to compute the transaction affected bounds", e);
+            return null;
+        }
+    }
+
+    /**
+     * Transforms the modified area in the meta-tile CRS, returns null if not possible, which will
+     * cause a conservative invalidation
+     */
+    private ReferencedEnvelope transform(ReferencedEnvelope bounds, CoordinateReferenceSystem crs) {
+        if (bounds == null || crs == null) {
+            return null;
+        }
+        if (bounds.isEmpty()) {
+            return bounds;
+        }
+        try {
+            return bounds.transform(crs, true, 10);
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Failed to transform the transaction affected bounds", e);
+            return null;
+        }
     }
 
     @Override
     public void onReset() {
         // data might have changed in the meantime
-        tileCache.clear();
+        clear();
     }
 
     @Override
     public void onDispose() {
-        tileCache.clear();
+        clear();
     }
 
     @Override
@@ -397,6 +692,6 @@ public void beforeReload() {
 
     @Override
     public void onReload() {
-        tileCache.clear();
+        clear();
     }
 }
@@ -9,6 +9,7 @@
 import it.geosolutions.imageio.plugins.png.PNGWriter;
 import java.awt.image.RenderedImage;
 import java.io.OutputStream;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wms.WMSMapContent;
 import org.geotools.api.style.ColorMap;
@@ -24,10 +25,46 @@
  */
 public class PNGJWriter {
 
+    /**
+     * Images with at least this many pixels are encoded in parallel bands, when supported, a non
+     * positive value disables parallel encoding
+     */
+    static final String PARALLEL_THRESHOLD_KEY = "PNG_PARALLEL_ENCODING_THRESHOLD";
+
+    static final long PARALLEL_THRESHOLD_DEFAULT = 1024 * 1024;
+
+    static final long PARALLEL_THRESHOLD = getParallelThreshold();
+
+    private static long getParallelThreshold() {
+        String value = GeoServerExtensions.getProperty(PARALLEL_THRESHOLD_KEY);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                // fall back on the default
+            }
+        }
+        return PARALLEL_THRESHOLD_DEFAULT;
+    }
+
     public RenderedImage writePNG(
             RenderedImage image, OutputStream outStream, float quality, WMSMapContent mapContent) {
         // what kind of scaline filtering are we going to use?
         FilterType filterType = getFilterType(mapContent);
+
+        // large images are filtered and deflated in parallel bands
+        if (PARALLEL_THRESHOLD > 0
+                && (long) image.getWidth() * image.getHeight() >= PARALLEL_THRESHOLD
+                && ParallelPNGEncoder.isSupported(image, filterType)) {
+            try {
+                new ParallelPNGEncoder()
+                        .encode(image, outStream, getCompressionLevel(quality), filterType);
+            } catch (Exception e) {
+                throw new ServiceException("Failed to encode the PNG", e);
+            }
+            return image;
+        }
+
         // Creation of a new PNGWriter object
         PNGWriter writer = new PNGWriter();
         // Check if a Scanline is supported by the writer
@@ -52,6 +89,11 @@ public RenderedImage writePNG(
         return output;
     }
 
+    /** The deflate level for the given quality, from 9 for a quality of 0 to 0 for 1 */
+    static int getCompressionLevel(float quality) {
+        return Math.max(0, Math.min(9, Math.round(9 * (1 - quality))));
+    }
+
     /**
      * SUB filtering is useful for raster images with "high" variation, otherwise we go for NONE,
      * empirically it provides better compression at lower effort
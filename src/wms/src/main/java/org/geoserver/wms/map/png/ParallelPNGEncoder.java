@@ -0,0 +1,439 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import ar.com.hjg.pngj.FilterType;
+import java.awt.Rectangle;
+import java.awt.color.ColorSpace;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A PNG encoder splitting the image in bands of rows that are filtered and deflated in parallel.
+ *
+ * <p>Each band is compressed by its own {@link Deflater}, the non final ones ending with a {@link
+ * Deflater#SYNC_FLUSH sync flush} so that their outputs can be concatenated in a single zlib
+ * stream, with the checksum combined from the band ones. Bands do not share the deflate dictionary,
+ * which costs little compression as long as they are a few hundred kilobytes. The bands are written
+ * out in order as they complete, with a bounded number of them in flight, to limit the memory
+ * usage.
+ *
+ * <p>Only 8 bit per sample gray, RGB and palette images (including packed palette ones), with or
+ * without alpha, and the NONE and SUB filters, are supported, see {@link
+ * #isSupported(RenderedImage, FilterType)}.
+ */
+public class ParallelPNGEncoder {
+
+    static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+
+    /** Target amount of raw data in a band */
+    static final int BAND_BYTES = 256 * 1024;
+
+    static final int COLOR_GRAY = 0;
+
+    static final int COLOR_RGB = 2;
+
+    static final int COLOR_PALETTE = 3;
+
+    static final int COLOR_GRAY_ALPHA = 4;
+
+    static final int COLOR_RGBA = 6;
+
+    /**
+     * Deflaters are reused across bands, one per thread and level, as changing the level of a
+     * deflater that has been reset can leave the following input in its internal buffers
+     */
+    static final ThreadLocal<Deflater[]> DEFLATERS =
+            ThreadLocal.withInitial(() -> new Deflater[10]);
+
+    private static volatile ExecutorService POOL;
+
+    final ExecutorService executor;
+
+    final int threads;
+
+    int bandRows;
+
+    /** Encodes on the shared pool, sized on the number of processors */
+    public ParallelPNGEncoder() {
+        this(getPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executor the pool the bands are encoded into
+     * @param threads the number of threads of the pool, twice as many bands are kept in flight
+     */
+    public ParallelPNGEncoder(ExecutorService executor, int threads) {
+        this.executor = executor;
+        this.threads = threads;
+    }
+
+    static ExecutorService getPool() {
+        if (POOL == null) {
+            synchronized (ParallelPNGEncoder.class) {
+                if (POOL == null) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    AtomicInteger count = new AtomicInteger();
+                    ThreadPoolExecutor pool =
+                            new ThreadPoolExecutor(
+                                    threads,
+                                    threads,
+                                    60L,
+                                    TimeUnit.SECONDS,
+                                    new LinkedBlockingQueue<>(),
+                                    r -> {
+                                        Thread t =
+                                                new Thread(
+                                                        r, "PNGEncoder-" + count.incrementAndGet());
+                                        t.setDaemon(true);
+                                        return t;
+                                    });
+                    pool.allowCoreThreadTimeOut(true);
+                    POOL = pool;
+                }
+            }
+        }
+        return POOL;
+    }
+
+    /** Forces the number of rows in each band, for testing purposes */
+    void setBandRows(int bandRows) {
+        this.bandRows = bandRows;
+    }
+
+    /** Returns true if the image and filter can be handled by this encoder */
+    public static boolean isSupported(RenderedImage image, FilterType filterType) {
+        if (filterType != FilterType.FILTER_NONE && filterType != FilterType.FILTER_SUB) {
+            return false;
+        }
+        ColorModel cm = image.getColorModel();
+        SampleModel sm = image.getSampleModel();
+        if (cm instanceof IndexColorModel) {
+            return sm.getNumBands() == 1 && sm.getSampleSize(0) <= 8;
+        }
+        if (!(cm instanceof ComponentColorModel || cm instanceof DirectColorModel)
+                || cm.isAlphaPremultiplied()
+                || cm.getNumComponents() != sm.getNumBands()) {
+            return false;
+        }
+        for (int size : cm.getComponentSize()) {
+            if (size != 8) {
+                return false;
+            }
+        }
+        ColorSpace cs = cm.getColorSpace();
+        return cs.isCS_sRGB() || cs.getType() == ColorSpace.TYPE_GRAY;
+    }
+
+    /**
+     * Encodes the image as a PNG
+     *
+     * @param image the image, must be {@link #isSupported(RenderedImage, FilterType) supported}
+     * @param out the destination
+     * @param level the deflate compression level
+     * @param filterType the scanline filter, NONE or SUB
+     */
+    public void encode(RenderedImage image, OutputStream out, int level, FilterType filterType)
+            throws IOException {
+        if (!isSupported(image, filterType)) {
+            throw new IllegalArgumentException("Unsupported image or filter: " + image);
+        }
+        Layout layout = new Layout(image, filterType == FilterType.FILTER_SUB);
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+        writeHeaderChunks(data, layout);
+
+        int height = image.getHeight();
+        int rows = bandRows > 0 ? bandRows : Math.max(1, BAND_BYTES / (layout.rowBytes + 1));
+        int bands = (height + rows - 1) / rows;
+        int window = Math.max(2, threads * 2);
+        ArrayDeque<Future<Band>> pending = new ArrayDeque<>();
+        long adler = 1;
+        int next = 0;
+        try {
+            // zlib header, the level hint does not affect decoding
+            writeChunk(data, "IDAT", zlibHeader(level), 2);
+            while (next < bands || !pending.isEmpty()) {
+                while (next < bands && pending.size() < window) {
+                    int minY = image.getMinY() + next * rows;
+                    int bandHeight = Math.min(rows, image.getMinY() + height - minY);
+                    boolean last = next == bands - 1;
+                    pending.add(
+                            executor.submit(
+                                    () ->
+                                            encodeBand(
+                                                    image, layout, minY, bandHeight, level, last)));
+                    next++;
+                }
+                Band band = pending.poll().get();
+                adler = combineAdler32(adler, band.adler, band.rawLength);
+                writeChunk(data, "IDAT", band.compressed, band.compressed.length);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding the PNG");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Failed to encode the PNG", cause);
+        } finally {
+            for (Future<Band> future : pending) {
+                future.cancel(true);
+            }
+        }
+        byte[] trailer = new byte[4];
+        writeInt(trailer, 0, (int) adler);
+        writeChunk(data, "IDAT", trailer, 4);
+        writeChunk(data, "IEND", new byte[0], 0);
+        data.flush();
+    }
+
+    private static byte[] zlibHeader(int level) {
+        // deflate with a 32k window, followed by the level hint with the check bits
+        int flg;
+        if (level >= 0 && level < 2) flg = 0x01;
+        else if (level >= 2 && level < 6) flg = 0x5E;
+        else if (level == 6 || level < 0) flg = 0x9C;
+        else flg = 0xDA;
+        return new byte[] {0x78, (byte) flg};
+    }
+
+    private void writeHeaderChunks(DataOutputStream data, Layout layout) throws IOException {
+        byte[] ihdr = new byte[13];
+        writeInt(ihdr, 0, layout.width);
+        writeInt(ihdr, 4, layout.height);
+        ihdr[8] = (byte) layout.bitDepth;
+        ihdr[9] = (byte) layout.colorType;
+        // compression, filter and interlace methods all 0
+        writeChunk(data, "IHDR", ihdr, ihdr.length);
+
+        if (layout.colorType == COLOR_PALETTE) {
+            IndexColorModel icm = layout.palette;
+            int size = Math.min(icm.getMapSize(), 1 << layout.bitDepth);
+            byte[] plte = new byte[size * 3];
+            byte[] trns = new byte[size];
+            int lastTranslucent = -1;
+            for (int i = 0; i < size; i++) {
+                plte[i * 3] = (byte) icm.getRed(i);
+                plte[i * 3 + 1] = (byte) icm.getGreen(i);
+                plte[i * 3 + 2] = (byte) icm.getBlue(i);
+                trns[i] = (byte) icm.getAlpha(i);
+                if (icm.getAlpha(i) != 255) {
+                    lastTranslucent = i;
+                }
+            }
+            writeChunk(data, "PLTE", plte, plte.length);
+            if (lastTranslucent >= 0) {
+                writeChunk(data, "tRNS", trns, lastTranslucent + 1);
+            }
+        }
+    }
+
+    Band encodeBand(
+            RenderedImage image, Layout layout, int minY, int height, int level, boolean last) {
+        Raster raster = image.getData(new Rectangle(image.getMinX(), minY, layout.width, height));
+        int stride = layout.rowBytes + 1;
+        byte[] raw = new byte[stride * height];
+        int[] samples = new int[layout.width * layout.samplesPerPixel];
+        byte[] row = new byte[layout.rowBytes];
+        for (int y = 0; y < height; y++) {
+            if (layout.colorType == COLOR_PALETTE) {
+                raster.getSamples(image.getMinX(), minY + y, layout.width, 1, 0, samples);
+                packSamples(samples, row, layout.bitDepth, layout.width);
+            } else {
+                raster.getPixels(image.getMinX(), minY + y, layout.width, 1, samples);
+                for (int i = 0; i < samples.length; i++) {
+                    row[i] = (byte) samples[i];
+                }
+            }
+            int offset = y * stride;
+            if (layout.sub) {
+                raw[offset] = 1;
+                int bpp = layout.bytesPerPixel;
+                System.arraycopy(row, 0, raw, offset + 1, Math.min(bpp, row.length));
+                for (int i = bpp; i < row.length; i++) {
+                    raw[offset + 1 + i] = (byte) (row[i] - row[i - bpp]);
+                }
+            } else {
+                raw[offset] = 0;
+                System.arraycopy(row, 0, raw, offset + 1, row.length);
+            }
+        }
+
+        Adler32 adler = new Adler32();
+        adler.update(raw, 0, raw.length);
+
+        Deflater deflater = getDeflater(level);
+        deflater.setInput(raw);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] buffer = new byte[64 * 1024];
+        if (last) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                compressed.write(buffer, 0, n);
+            }
+        } else {
+            // flush to a byte boundary without marking the final block
+            int n;
+            do {
+                n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                compressed.write(buffer, 0, n);
+            } while (n == buffer.length);
+        }
+        return new Band(compressed.toByteArray(), adler.getValue(), raw.length);
+    }
+
+    private static Deflater getDeflater(int level) {
+        int index = level < 0 || level > 9 ? 6 : level;
+        Deflater[] deflaters = DEFLATERS.get();
+        Deflater deflater = deflaters[index];
+        if (deflater == null) {
+            deflater = new Deflater(index, true);
+            deflaters[index] = deflater;
+        } else {
+            deflater.reset();
+        }
+        return deflater;
+    }
+
+    private static void packSamples(int[] samples, byte[] row, int bitDepth, int width) {
+        if (bitDepth == 8) {
+            for (int i = 0; i < width; i++) {
+                row[i] = (byte) samples[i];
+            }
+            return;
+        }
+        Arrays.fill(row, (byte) 0);
+        int perByte = 8 / bitDepth;
+        for (int i = 0; i < width; i++) {
+            int shift = 8 - bitDepth * (i % perByte + 1);
+            row[i / perByte] |= (byte) (samples[i] << shift);
+        }
+    }
+
+    /** Combines the Adler-32 checksums of two consecutive blocks, as zlib adler32_combine */
+    static long combineAdler32(long adler1, long adler2, long length2) {
+        final long base = 65521;
+        long rem = length2 % base;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % base;
+        sum1 += (adler2 & 0xffff) + base - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + base - rem;
+        if (sum1 >= base) sum1 -= base;
+        if (sum1 >= base) sum1 -= base;
+        if (sum2 >= (base << 1)) sum2 -= (base << 1);
+        if (sum2 >= base) sum2 -= base;
+        return (sum2 << 16) | sum1;
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data, int length)
+            throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    /** The PNG layout of the image rows */
+    static final class Layout {
+
+        final int width;
+
+        final int height;
+
+        final int colorType;
+
+        final int bitDepth;
+
+        final int samplesPerPixel;
+
+        /** Bytes per complete pixel, rounded up to one, used by the SUB filter */
+        final int bytesPerPixel;
+
+        final int rowBytes;
+
+        final boolean sub;
+
+        final IndexColorModel palette;
+
+        Layout(RenderedImage image, boolean sub) {
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            this.sub = sub;
+            ColorModel cm = image.getColorModel();
+            if (cm instanceof IndexColorModel) {
+                palette = (IndexColorModel) cm;
+                colorType = COLOR_PALETTE;
+                int bits = image.getSampleModel().getSampleSize(0);
+                bitDepth = bits <= 1 ? 1 : bits <= 2 ? 2 : bits <= 4 ? 4 : 8;
+                samplesPerPixel = 1;
+                bytesPerPixel = 1;
+                rowBytes = (width * bitDepth + 7) / 8;
+            } else {
+                palette = null;
+                boolean gray = cm.getColorSpace().getType() == ColorSpace.TYPE_GRAY;
+                boolean alpha = cm.hasAlpha();
+                if (gray) colorType = alpha ? COLOR_GRAY_ALPHA : COLOR_GRAY;
+                else colorType = alpha ? COLOR_RGBA : COLOR_RGB;
+                bitDepth = 8;
+                samplesPerPixel = cm.getNumComponents();
+                bytesPerPixel = samplesPerPixel;
+                rowBytes = width * samplesPerPixel;
+            }
+        }
+    }
+
+    /** A compressed band */
+    static final class Band {
+
+        final byte[] compressed;
+
+        final long adler;
+
+        final long rawLength;
+
+        Band(byte[] compressed, long adler, long rawLength) {
+            this.compressed = compressed;
+            this.adler = adler;
+            this.rawLength = rawLength;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FairRenderingExecutorTest {
+
+    FairRenderingExecutor executor;
+
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        Dispatcher.REQUEST.remove();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Dispatcher.REQUEST.remove();
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private Future<?> submit(Request request, String name, boolean block) {
+        Dispatcher.REQUEST.set(request);
+        try {
+            return executor.submit(
+                    () -> {
+                        executed.add(name);
+                        if (block) {
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    });
+        } finally {
+            Dispatcher.REQUEST.remove();
+        }
+    }
+
+    private void waitForRunning(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && executor.getRunningTasks() != expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, executor.getRunningTasks());
+    }
+
+    @Test
+    public void testGlobalLimit() throws Exception {
+        executor = new FairRenderingExecutor(2, 2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(submit(new Request(), "t" + i, true));
+        }
+        waitForRunning(2);
+        assertEquals(4, executor.getQueueDepth());
+        assertEquals(6, executor.getActiveRequests());
+
+        release.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(6, executed.size());
+        assertEquals(0, executor.getQueueDepth());
+        assertEquals(4, executor.getPeakQueueDepth());
+    }
+
+    @Test
+    public void testRequestLimit() throws Exception {
+        executor = new FairRenderingExecutor(4, 2);
+        Request request = new Request();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(submit(request, "t" + i, true));
+        }
+        waitForRunning(2);
+        assertEquals(2, executor.getQueueDepth());
+        assertEquals(1, executor.getActiveRequests());
+
+        // another request still gets a thread right away
+        Future<?> other = submit(new Request(), "other", false);
+        other.get(10, TimeUnit.SECONDS);
+
+        release.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        // futures are done right before the bookkeeping
+        waitForRunning(0);
+        assertEquals(0, executor.getActiveRequests());
+        assertEquals(5, executor.getCompletedTasks());
+        long[] parallelism = executor.getRequestParallelism();
+        assertEquals(2, parallelism.length);
+        assertEquals(5, parallelism[0] + parallelism[1]);
+        assertTrue(parallelism[1] >= 1);
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        executor = new FairRenderingExecutor(1, 1);
+        Request big = new Request();
+        Request small = new Request();
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(submit(big, "big0", true));
+        waitForRunning(1);
+        futures.add(submit(big, "big1", false));
+        futures.add(submit(big, "big2", false));
+        futures.add(submit(big, "big3", false));
+        futures.add(submit(small, "small0", false));
+
+        release.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        // the small request does not wait for the whole big one
+        assertEquals(Arrays.asList("big0", "small0", "big1", "big2", "big3"), executed);
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        executor = new FairRenderingExecutor(1, 1);
+        submit(new Request(), "t0", true);
+        waitForRunning(1);
+        submit(new Request(), "t1", false);
+        assertEquals(1, executor.shutdownNow().size());
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+        assertEquals(Arrays.asList("t0"), executed);
+    }
+}
@@ -5,7 +5,14 @@
 package org.geoserver.wms.map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -19,13 +26,22 @@
 import java.awt.image.RenderedImage;
 import java.awt.image.SampleModel;
 import java.awt.image.renderable.ParameterBlock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.imageio.ImageReader;
 import javax.media.jai.Interpolation;
 import javax.media.jai.PlanarImage;
 import javax.media.jai.RenderedImageAdapter;
 import javax.media.jai.RenderedOp;
 import javax.media.jai.TiledImage;
+import org.geoserver.wms.GetMapRequest;
 import org.geoserver.wms.RasterCleaner;
+import org.geoserver.wms.WMSMapContent;
+import org.geoserver.wms.WebMap;
 import org.geoserver.wms.map.QuickTileCache.MapKey;
 import org.geoserver.wms.map.QuickTileCache.MetaTileKey;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -33,6 +49,8 @@
 import org.geotools.referencing.crs.DefaultEngineeringCRS;
 import org.junit.After;
 import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.mockito.invocation.InvocationOnMock;
 
 public class MetaTileOutputFormatTest {
 
@@ -44,9 +62,12 @@ public class MetaTileOutputFormatTest {
                     new ReferencedEnvelope(0, 10, 0, 10, DefaultEngineeringCRS.GENERIC_2D));
     RasterCleaner cleaner = new RasterCleaner();
 
+    ExecutorService executor = Executors.newCachedThreadPool();
+
     @After
     public void cleanup() {
         cleaner.finished(null);
+        executor.shutdownNow();
     }
 
     @Test
@@ -103,4 +124,114 @@ public void testReaderDisposeIsCalledForRenderedImageAdapter() {
 
         verify((ImageReader) reader, times(1)).dispose();
     }
+
+    @Test
+    public void testSingleFlightWaiter() throws Exception {
+        QuickTileCache tileCache = new QuickTileCache();
+        RenderedImageMapOutputFormat delegate = mock(RenderedImageMapOutputFormat.class);
+        MetatileMapOutputFormat format =
+                new MetatileMapOutputFormat(buildTileRequest(), delegate, tileCache);
+
+        // another request is rendering the meta-tile
+        CompletableFuture<RenderedImage[]> flight = new CompletableFuture<>();
+        assertNull(tileCache.startFlight(key, flight));
+        Future<WebMap> waiter =
+                executor.submit(() -> format.produceMapSingleFlight(key, new WMSMapContent()));
+        RenderedImage[] tiles = buildTiles();
+        flight.complete(tiles);
+
+        RenderedImageMap map = (RenderedImageMap) waiter.get(10, TimeUnit.SECONDS);
+        assertSame(tiles[0], map.getImage());
+        verify(delegate, never()).produceMap(any(WMSMapContent.class));
+    }
+
+    @Test
+    public void testSingleFlightLeaderFailure() throws Exception {
+        QuickTileCache tileCache = new QuickTileCache();
+        RenderedImageMapOutputFormat delegate = mock(RenderedImageMapOutputFormat.class);
+        when(delegate.produceMap(any(WMSMapContent.class))).thenAnswer(i -> renderMetaTile(i));
+        MetatileMapOutputFormat format =
+                new MetatileMapOutputFormat(buildTileRequest(), delegate, tileCache);
+
+        // the waiter renders on its own when the leader fails
+        CompletableFuture<RenderedImage[]> flight = new CompletableFuture<>();
+        assertNull(tileCache.startFlight(key, flight));
+        Future<WebMap> waiter =
+                executor.submit(() -> format.produceMapSingleFlight(key, new WMSMapContent()));
+        flight.completeExceptionally(new RuntimeException("Leader failed"));
+
+        assertNotNull(waiter.get(10, TimeUnit.SECONDS));
+        verify(delegate, times(1)).produceMap(any(WMSMapContent.class));
+    }
+
+    @Test
+    public void testSingleFlightTimeout() throws Exception {
+        long timeout = MetatileMapOutputFormat.SINGLE_FLIGHT_TIMEOUT;
+        MetatileMapOutputFormat.SINGLE_FLIGHT_TIMEOUT = 50;
+        try {
+            QuickTileCache tileCache = new QuickTileCache();
+            RenderedImageMapOutputFormat delegate = mock(RenderedImageMapOutputFormat.class);
+            when(delegate.produceMap(any(WMSMapContent.class)))
+                    .thenAnswer(i -> renderMetaTile(i));
+            MetatileMapOutputFormat format =
+                    new MetatileMapOutputFormat(buildTileRequest(), delegate, tileCache);
+
+            // the leader never completes, the waiter gives up and renders on its own
+            CompletableFuture<RenderedImage[]> flight = new CompletableFuture<>();
+            assertNull(tileCache.startFlight(key, flight));
+            assertNotNull(format.produceMapSingleFlight(key, new WMSMapContent()));
+            verify(delegate, times(1)).produceMap(any(WMSMapContent.class));
+            assertSame(flight, tileCache.startFlight(key, new CompletableFuture<>()));
+        } finally {
+            MetatileMapOutputFormat.SINGLE_FLIGHT_TIMEOUT = timeout;
+        }
+    }
+
+    @Test
+    public void testSingleFlightLeaderError() throws Exception {
+        QuickTileCache tileCache = new QuickTileCache();
+        RenderedImageMapOutputFormat delegate = mock(RenderedImageMapOutputFormat.class);
+        AtomicReference<CompletableFuture<RenderedImage[]>> leaderFlight = new AtomicReference<>();
+        when(delegate.produceMap(any(WMSMapContent.class)))
+                .thenAnswer(
+                        i -> {
+                            leaderFlight.set(
+                                    tileCache.startFlight(key, new CompletableFuture<>()));
+                            throw new Error("Rendering blew up");
+                        });
+        MetatileMapOutputFormat format =
+                new MetatileMapOutputFormat(buildTileRequest(), delegate, tileCache);
+
+        try {
+            format.produceMapSingleFlight(key, new WMSMapContent());
+            fail("The error should have been propagated");
+        } catch (Error e) {
+            assertEquals("Rendering blew up", e.getMessage());
+        }
+        // waiters have been released and the flight unregistered
+        assertTrue(leaderFlight.get().isCompletedExceptionally());
+        assertNull(tileCache.startFlight(key, new CompletableFuture<>()));
+    }
+
+    private GetMapRequest buildTileRequest() {
+        // lower left tile of the meta-tile
+        GetMapRequest request = new GetMapRequest();
+        request.setBbox(new Envelope(0, 10d / 3, 0, 10d / 3));
+        request.setCrs(DefaultEngineeringCRS.GENERIC_2D);
+        return request;
+    }
+
+    private RenderedImage[] buildTiles() {
+        RenderedImage[] tiles = new RenderedImage[9];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new BufferedImage(256, 256, BufferedImage.TYPE_4BYTE_ABGR);
+        }
+        return tiles;
+    }
+
+    private RenderedImageMap renderMetaTile(InvocationOnMock invocation) {
+        WMSMapContent content = invocation.getArgument(0);
+        BufferedImage metaTile = new BufferedImage(768, 768, BufferedImage.TYPE_4BYTE_ABGR);
+        return new RenderedImageMap(content, metaTile, "image/png");
+    }
 }
@@ -6,11 +6,32 @@
 package org.geoserver.wms.map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.awt.Point;
 import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import javax.xml.namespace.QName;
+import org.geoserver.wfs.TransactionEvent;
+import org.geoserver.wfs.TransactionEventType;
+import org.geoserver.wms.map.QuickTileCache.MapKey;
+import org.geoserver.wms.map.QuickTileCache.MetaTileKey;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
 import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
 
 public class QuickTileCacheTest {
     QuickTileCache cache = new QuickTileCache();
@@ -68,4 +89,109 @@ public void testInnerTileOffsets() {
         assertEquals(new Point(0, 2), cache.getTileOffsetsInMeta(box1, meta));
         assertEquals(new Point(1, 2), cache.getTileOffsetsInMeta(box2, meta));
     }
+
+    @Test
+    public void testMemoryBudget() {
+        // budget allows for two meta-tiles of 9 256x256 4 bytes pixels
+        QuickTileCache small = new QuickTileCache(2 * 9 * 256 * 256 * 4);
+        MetaTileKey k1 = buildKey(0, null);
+        MetaTileKey k2 = buildKey(3, null);
+        MetaTileKey k3 = buildKey(6, null);
+        small.storeTiles(k1, buildTiles());
+        small.storeTiles(k2, buildTiles());
+        assertEquals(2, small.size());
+        small.storeTiles(k3, buildTiles());
+        assertEquals(2, small.size());
+        assertEquals(1, small.getStatistics().evictionCount());
+    }
+
+    @Test
+    public void testLayerInvalidation() throws Exception {
+        QName roads = new QName("http://www.geoserver.org/test", "roads");
+        QName lakes = new QName("http://www.geoserver.org/test", "lakes");
+        MetaTileKey roadsKey = buildKey(0, roads);
+        MetaTileKey farRoadsKey = buildKey(30, roads);
+        MetaTileKey lakesKey = buildKey(0, lakes);
+        cache.storeTiles(roadsKey, buildTiles());
+        cache.storeTiles(farRoadsKey, buildTiles());
+        cache.storeTiles(lakesKey, buildTiles());
+
+        // modify a road inside the first meta-tile
+        SimpleFeatureType type =
+                DataUtilities.createType("roads", "geom:Point:srid=4326,name:String");
+        GeometryFactory gf = new GeometryFactory();
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        fb.add(gf.createPoint(new Coordinate(1, 1)));
+        fb.add("main street");
+        ListFeatureCollection fc =
+                new ListFeatureCollection(type, Collections.singletonList(fb.buildFeature("r.1")));
+        cache.dataStoreChange(
+                new TransactionEvent(TransactionEventType.PRE_UPDATE, null, roads, fc));
+
+        assertFalse(cache.contains(roadsKey));
+        assertTrue(cache.contains(farRoadsKey));
+        assertTrue(cache.contains(lakesKey));
+    }
+
+    @Test
+    public void testNeighbourInvalidation() throws Exception {
+        QName roads = new QName("http://www.geoserver.org/test", "roads");
+        MetaTileKey roadsKey = buildKey(0, roads);
+        MetaTileKey nextRoadsKey = buildKey(3, roads);
+        MetaTileKey farRoadsKey = buildKey(30, roads);
+        cache.storeTiles(roadsKey, buildTiles());
+        cache.storeTiles(nextRoadsKey, buildTiles());
+        cache.storeTiles(farRoadsKey, buildTiles());
+
+        // modify a road in the first meta-tile, 50 pixels away from the next one
+        SimpleFeatureType type =
+                DataUtilities.createType("roads", "geom:Point:srid=4326,name:String");
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        fb.add(new GeometryFactory().createPoint(new Coordinate(2.5, 1)));
+        fb.add("main street");
+        ListFeatureCollection fc =
+                new ListFeatureCollection(type, Collections.singletonList(fb.buildFeature("r.1")));
+        cache.dataStoreChange(
+                new TransactionEvent(TransactionEventType.PRE_UPDATE, null, roads, fc));
+
+        // its symbols and labels might be painted in the next meta-tile too
+        assertFalse(cache.contains(roadsKey));
+        assertFalse(cache.contains(nextRoadsKey));
+        assertTrue(cache.contains(farRoadsKey));
+    }
+
+    @Test
+    public void testFlights() {
+        MetaTileKey key = buildKey(0, null);
+        CompletableFuture<RenderedImage[]> first = new CompletableFuture<>();
+        CompletableFuture<RenderedImage[]> second = new CompletableFuture<>();
+        assertNull(cache.startFlight(key, first));
+        assertSame(first, cache.startFlight(key, second));
+
+        // ending a flight that was not registered does not remove the registered one
+        cache.endFlight(key, second);
+        assertSame(first, cache.startFlight(key, second));
+
+        cache.endFlight(key, first);
+        assertNull(cache.startFlight(key, second));
+    }
+
+    private MetaTileKey buildKey(int x, QName layer) {
+        MapKey mapKey = new MapKey("abcd", 0.01, new Point2D.Double(0, 0));
+        ReferencedEnvelope envelope =
+                new ReferencedEnvelope(x, x + 3, 0, 3, DefaultGeographicCRS.WGS84);
+        return new MetaTileKey(
+                mapKey,
+                new Point(x, 0),
+                envelope,
+                layer == null ? null : Collections.singleton(layer));
+    }
+
+    private RenderedImage[] buildTiles() {
+        RenderedImage[] tiles = new RenderedImage[9];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+        }
+        return tiles;
+    }
 }
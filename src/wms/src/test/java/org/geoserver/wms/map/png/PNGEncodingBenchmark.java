@@ -0,0 +1,133 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import ar.com.hjg.pngj.FilterType;
+import it.geosolutions.imageio.plugins.png.PNGWriter;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the PNGJ based {@link PNGWriter} with the {@link ParallelPNGEncoder}, on map like images
+ * of different sizes and color models. Not part of the test suite, run it from the IDE or with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=org.geoserver.wms.map.png.PNGEncodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PNGEncodingBenchmark {
+
+    /** Quality matching the default 25% PNG compression */
+    static final float QUALITY = 0.75f;
+
+    @Param({"512", "2048", "4096"})
+    int size;
+
+    @Param({"rgba", "rgb", "palette"})
+    String type;
+
+    @Param({"FILTER_NONE", "FILTER_SUB"})
+    FilterType filter;
+
+    BufferedImage image;
+
+    OutputStream output = NullOutputStream.INSTANCE;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("palette".equals(type)) {
+            byte[] r = new byte[256];
+            byte[] g = new byte[256];
+            byte[] b = new byte[256];
+            for (int i = 0; i < 256; i++) {
+                r[i] = (byte) i;
+                g[i] = (byte) ((i * 3) % 256);
+                b[i] = (byte) (255 - i);
+            }
+            image =
+                    new BufferedImage(
+                            size,
+                            size,
+                            BufferedImage.TYPE_BYTE_INDEXED,
+                            new IndexColorModel(8, 256, r, g, b));
+        } else if ("rgb".equals(type)) {
+            image = new BufferedImage(size, size, BufferedImage.TYPE_3BYTE_BGR);
+        } else {
+            image = new BufferedImage(size, size, BufferedImage.TYPE_4BYTE_ABGR);
+        }
+
+        // something resembling a map, polygons fills and strokes over a gradient
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setPaint(
+                new GradientPaint(0, 0, new Color(200, 230, 255, 64), size, size, Color.WHITE));
+        graphics.fillRect(0, 0, size, size / 2);
+        Random random = new Random(0);
+        graphics.setStroke(new BasicStroke(2));
+        for (int i = 0; i < size / 4; i++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            int w = 10 + random.nextInt(size / 8);
+            int h = 10 + random.nextInt(size / 8);
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillOval(x, y, w, h);
+            graphics.setColor(Color.BLACK);
+            graphics.drawOval(x, y, w, h);
+        }
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public Object pngj() throws Exception {
+        return new PNGWriter().writePNG(image, output, QUALITY, filter);
+    }
+
+    @Benchmark
+    public Object parallel() throws Exception {
+        new ParallelPNGEncoder()
+                .encode(image, output, PNGJWriter.getCompressionLevel(QUALITY), filter);
+        return image;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                        new OptionsBuilder()
+                                .include(PNGEncodingBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -0,0 +1,188 @@
+/* (c) 2026 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import ar.com.hjg.pngj.FilterType;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Adler32;
+import java.util.zip.Inflater;
+import javax.imageio.ImageIO;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelPNGEncoderTest {
+
+    static ExecutorService executor;
+
+    @BeforeClass
+    public static void setupExecutor() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterClass
+    public static void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRGBA() throws Exception {
+        assertRoundTrip(paint(new BufferedImage(301, 97, BufferedImage.TYPE_4BYTE_ABGR)));
+    }
+
+    @Test
+    public void testRGB() throws Exception {
+        assertRoundTrip(paint(new BufferedImage(301, 97, BufferedImage.TYPE_3BYTE_BGR)));
+    }
+
+    @Test
+    public void testPackedRGB() throws Exception {
+        assertRoundTrip(paint(new BufferedImage(301, 97, BufferedImage.TYPE_INT_ARGB)));
+    }
+
+    @Test
+    public void testGray() throws Exception {
+        assertRoundTrip(paint(new BufferedImage(301, 97, BufferedImage.TYPE_BYTE_GRAY)));
+    }
+
+    @Test
+    public void testPalette() throws Exception {
+        byte[] r = new byte[256];
+        byte[] g = new byte[256];
+        byte[] b = new byte[256];
+        byte[] a = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            r[i] = (byte) i;
+            g[i] = (byte) (255 - i);
+            b[i] = (byte) (i * 7);
+            a[i] = (byte) (i < 10 ? i * 20 : 255);
+        }
+        IndexColorModel icm = new IndexColorModel(8, 256, r, g, b, a);
+        assertRoundTrip(paint(new BufferedImage(301, 97, BufferedImage.TYPE_BYTE_INDEXED, icm)));
+    }
+
+    @Test
+    public void testPackedPalette() throws Exception {
+        for (int bits : new int[] {1, 2, 4}) {
+            int size = 1 << bits;
+            byte[] r = new byte[size];
+            byte[] g = new byte[size];
+            byte[] b = new byte[size];
+            for (int i = 0; i < size; i++) {
+                r[i] = (byte) (i * 255 / (size - 1));
+                g[i] = (byte) (i * 40);
+                b[i] = (byte) (255 - i * 255 / (size - 1));
+            }
+            IndexColorModel icm = new IndexColorModel(bits, size, r, g, b);
+            assertRoundTrip(
+                    paint(new BufferedImage(301, 97, BufferedImage.TYPE_BYTE_BINARY, icm)));
+        }
+    }
+
+    @Test
+    public void testUnsupported() {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB_PRE);
+        assertFalse(ParallelPNGEncoder.isSupported(image, FilterType.FILTER_NONE));
+        image = new BufferedImage(10, 10, BufferedImage.TYPE_USHORT_GRAY);
+        assertFalse(ParallelPNGEncoder.isSupported(image, FilterType.FILTER_NONE));
+        image = new BufferedImage(10, 10, BufferedImage.TYPE_4BYTE_ABGR);
+        assertFalse(ParallelPNGEncoder.isSupported(image, FilterType.FILTER_PAETH));
+    }
+
+    @Test
+    public void testCombineAdler32() {
+        byte[] data =
+                "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+        Adler32 all = new Adler32();
+        all.update(data);
+        for (int split = 0; split <= data.length; split += 7) {
+            Adler32 first = new Adler32();
+            first.update(data, 0, split);
+            Adler32 second = new Adler32();
+            second.update(data, split, data.length - split);
+            long combined =
+                    ParallelPNGEncoder.combineAdler32(
+                            first.getValue(), second.getValue(), data.length - split);
+            assertEquals(all.getValue(), combined);
+        }
+    }
+
+    private BufferedImage paint(BufferedImage image) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.RED, 300, 100, new Color(0, 0, 255, 128)));
+        graphics.fillRect(0, 0, 200, 97);
+        graphics.setColor(Color.GREEN);
+        graphics.fillOval(150, 10, 140, 80);
+        graphics.dispose();
+        return image;
+    }
+
+    private void assertRoundTrip(BufferedImage image) throws Exception {
+        for (FilterType filter : new FilterType[] {FilterType.FILTER_NONE, FilterType.FILTER_SUB}) {
+            assertTrue(ParallelPNGEncoder.isSupported(image, filter));
+            // odd band size, so that the last band is shorter
+            ParallelPNGEncoder encoder = new ParallelPNGEncoder(executor, 3);
+            encoder.setBandRows(7);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            encoder.encode(image, bos, 4, filter);
+            byte[] png = bos.toByteArray();
+
+            assertValidZlibStream(png);
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+            assertEquals(image.getWidth(), decoded.getWidth());
+            assertEquals(image.getHeight(), decoded.getHeight());
+            assertEquals(image.getColorModel().hasAlpha(), decoded.getColorModel().hasAlpha());
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    assertEquals(
+                            "Pixel " + x + "," + y, image.getRGB(x, y), decoded.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    /** Inflates the IDAT chunks, the inflater checks the combined checksum */
+    private void assertValidZlibStream(byte[] png) throws Exception {
+        DataInputStream is = new DataInputStream(new ByteArrayInputStream(png));
+        is.skipBytes(ParallelPNGEncoder.SIGNATURE.length);
+        ByteArrayOutputStream idat = new ByteArrayOutputStream();
+        while (true) {
+            int length = is.readInt();
+            byte[] type = new byte[4];
+            is.readFully(type);
+            byte[] data = new byte[length];
+            is.readFully(data);
+            is.readInt();
+            String name = new String(type, StandardCharsets.US_ASCII);
+            if ("IDAT".equals(name)) {
+                idat.write(data);
+            } else if ("IEND".equals(name)) {
+                break;
+            }
+        }
+        Inflater inflater = new Inflater();
+        inflater.setInput(idat.toByteArray());
+        byte[] buffer = new byte[64 * 1024];
+        while (!inflater.finished()) {
+            assertTrue(inflater.inflate(buffer) > 0 || inflater.finished());
+        }
+        assertEquals(0, inflater.getRemaining());
+        inflater.end();
+    }
+}